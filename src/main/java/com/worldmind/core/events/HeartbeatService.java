@@ -0,0 +1,232 @@
+package com.worldmind.core.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * JVM-wide heartbeat for in-flight tasks. Publishes one {@code tasks.progress} event per
+ * mission per period, listing every registered task of the mission, from a single ticker
+ * thread.
+ *
+ * <p>Tasks sit in a hashed timing wheel of one-second slots. Each tick visits one slot,
+ * publishes progress for the tasks due in it, and re-files them one period later, so the
+ * cost of a tick depends only on the tasks due, not on how many are in flight. Heartbeats
+ * fall on period boundaries, so tasks registered within one period share their events.
+ * Registration and cancellation are lock-free; the ticker applies them on its next tick.
+ *
+ * <p>A registration may supply live stats for its task, such as sandbox resource usage,
+ * which are merged into its entry. Events are built and published off the ticker thread,
+ * since collecting stats may block.
+ */
+@Service
+public class HeartbeatService {
+
+    private static final Logger log = LoggerFactory.getLogger(HeartbeatService.class);
+
+    static final int DEFAULT_PERIOD_SECONDS = 30;
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    private final EventBus eventBus;
+    private final int periodTicks;
+    private final Executor publisher;
+    private ScheduledExecutorService ticker;
+
+    private final List<Set<Entry>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger active = new AtomicInteger();
+    /** Only touched by the ticker thread. */
+    private long currentTick;
+
+    @Autowired
+    public HeartbeatService(EventBus eventBus) {
+        this(eventBus, DEFAULT_PERIOD_SECONDS, task -> Thread.ofVirtual().name("task-heartbeat-publish").start(task));
+    }
+
+    /**
+     * The wheel only advances once {@link #start()} runs or {@link #tick()} is called.
+     *
+     * @param publisher runs the publication of each mission's progress event
+     */
+    HeartbeatService(EventBus eventBus, int periodSeconds, Executor publisher) {
+        this.eventBus = eventBus;
+        this.periodTicks = Math.max(1, (int) (periodSeconds * 1000L / TICK_MS));
+        this.publisher = publisher;
+        for (int i = 0; i < WHEEL_SIZE; i++) wheel.add(new LinkedHashSet<>());
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (ticker != null) return;
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "task-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::safeTick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+    /**
+     * Starts heartbeats for a task. The first one is published on the period boundary
+     * at least one period from now. Close the returned registration when the task finishes.
+     */
+    public Registration register(String missionId, String taskId, String agent) {
+        return register(missionId, taskId, agent, null);
+    }
+
+    /**
+     * Like {@link #register(String, String, String)}, with live stats for the task that
+     * are collected for each heartbeat and merged into its entry.
+     *
+     * @param stats supplies the stats, or null for none; failures are logged and skipped
+     */
+    public Registration register(String missionId, String taskId, String agent,
+                                 Supplier<Map<String, Object>> stats) {
+        var entry = new Entry(missionId, taskId, agent, System.currentTimeMillis(), stats);
+        pending.add(entry);
+        active.incrementAndGet();
+        return new Registration(entry);
+    }
+
+    /** Number of tasks currently receiving heartbeats. */
+    public int activeCount() {
+        return active.get();
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.warn("Heartbeat tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Advances the wheel by one slot and publishes progress for the tasks that are due.
+     */
+    void tick() {
+        Entry added;
+        while ((added = pending.poll()) != null) {
+            if (!added.cancelled.get()) file(added, nextBoundary(currentTick + periodTicks));
+        }
+
+        currentTick++;
+        var slot = wheel.get((int) (currentTick % WHEEL_SIZE));
+        var due = new ArrayList<Entry>();
+        var it = slot.iterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            if (entry.cancelled.get()) {
+                it.remove();
+            } else if (entry.dueTick <= currentTick) {
+                it.remove();
+                due.add(entry);
+            }
+        }
+        if (due.isEmpty()) return;
+
+        var byMission = new LinkedHashMap<String, List<Entry>>();
+        for (var entry : due) {
+            byMission.computeIfAbsent(entry.missionId, id -> new ArrayList<>()).add(entry);
+            file(entry, currentTick + periodTicks);
+        }
+        long now = System.currentTimeMillis();
+        byMission.forEach((missionId, entries) -> publisher.execute(() -> publishProgress(missionId, entries, now)));
+    }
+
+    /** The first period boundary at or after the tick. */
+    private long nextBoundary(long tick) {
+        return (tick + periodTicks - 1) / periodTicks * periodTicks;
+    }
+
+    private void file(Entry entry, long dueTick) {
+        entry.dueTick = dueTick;
+        wheel.get((int) (dueTick % WHEEL_SIZE)).add(entry);
+    }
+
+    private void publishProgress(String missionId, List<Entry> entries, long nowMs) {
+        var tasks = new ArrayList<Map<String, Object>>(entries.size());
+        for (var entry : entries) {
+            if (entry.cancelled.get()) continue;
+            var data = new HashMap<String, Object>();
+            if (entry.stats != null) {
+                try {
+                    var stats = entry.stats.get();
+                    if (stats != null) data.putAll(stats);
+                } catch (RuntimeException e) {
+                    log.debug("Could not collect stats for task {}: {}", entry.taskId, e.getMessage());
+                }
+            }
+            data.put("taskId", entry.taskId);
+            data.put("agent", entry.agent);
+            data.put("elapsedSeconds", (nowMs - entry.startMs) / 1000);
+            data.put("status", "RUNNING");
+            tasks.add(data);
+        }
+        if (tasks.isEmpty()) return;
+        eventBus.publish(new WorldmindEvent("tasks.progress",
+                missionId, null, Map.of("tasks", tasks), Instant.now()));
+    }
+
+    private static final class Entry {
+        final String missionId;
+        final String taskId;
+        final String agent;
+        final long startMs;
+        final Supplier<Map<String, Object>> stats;
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        long dueTick;
+
+        Entry(String missionId, String taskId, String agent, long startMs, Supplier<Map<String, Object>> stats) {
+            this.missionId = missionId;
+            this.taskId = taskId;
+            this.agent = agent;
+            this.startMs = startMs;
+            this.stats = stats;
+        }
+    }
+
+    /**
+     * Handle for a task's heartbeats. Closing it stops them; closing twice is harmless.
+     */
+    public final class Registration implements AutoCloseable {
+        private final Entry entry;
+
+        private Registration(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void close() {
+            if (entry.cancelled.compareAndSet(false, true)) {
+                active.decrementAndGet();
+            }
+        }
+    }
+}
@@ -37,6 +37,8 @@ import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
  *                     -> converge_results -> END
  *                  -> converge_results -> END  (empty wave = all done)
  * </pre>
+ * When {@code worldmind.sandbox.scheduler-mode=dag}, the wave loop is replaced by a single
+ * {@code dag_execute -> converge_results} step that dispatches tasks continuously.
  */
 @Component
 public class WorldmindGraph {
@@ -44,6 +46,7 @@ public class WorldmindGraph {
     private static final Logger log = LoggerFactory.getLogger(WorldmindGraph.class);
 
     private final CompiledGraph<WorldmindState> compiledGraph;
+    private final String executionEntry;
 
     public WorldmindGraph(
             ClassifyRequestNode classifyNode,
@@ -55,8 +58,28 @@ public class WorldmindGraph {
             ParallelDispatchNode parallelDispatchNode,
             EvaluateWaveNode evaluateWaveNode,
             ConvergeResultsNode convergeNode,
+            BaseCheckpointSaver checkpointSaver) throws Exception {
+        this(classifyNode, uploadNode, clarifyNode, generateSpecNode, planNode, scheduleWaveNode,
+                parallelDispatchNode, evaluateWaveNode, convergeNode, null, checkpointSaver);
+    }
+
+    @Autowired
+    public WorldmindGraph(
+            ClassifyRequestNode classifyNode,
+            UploadContextNode uploadNode,
+            GenerateClarifyingQuestionsNode clarifyNode,
+            GenerateSpecNode generateSpecNode,
+            PlanMissionNode planNode,
+            ScheduleWaveNode scheduleWaveNode,
+            ParallelDispatchNode parallelDispatchNode,
+            EvaluateWaveNode evaluateWaveNode,
+            ConvergeResultsNode convergeNode,
+            @Autowired(required = false) DagExecutionNode dagExecutionNode,
             @Autowired(required = false) BaseCheckpointSaver checkpointSaver) throws Exception {
 
+        boolean dagMode = dagExecutionNode != null && dagExecutionNode.isEnabled();
+        this.executionEntry = dagMode ? "dag_execute" : "schedule_wave";
+
         var graph = new StateGraph<>(WorldmindState.SCHEMA, WorldmindState::new)
                 .addNode("classify_request", node_async(classifyNode::apply))
                 .addNode("upload_context", node_async(uploadNode::apply))
@@ -77,7 +100,7 @@ public class WorldmindGraph {
                         Map.of("classify_request", "classify_request",
                                 "plan_mission", "plan_mission",
                                 "generate_spec", "generate_spec",
-                                "schedule_wave", "schedule_wave"))
+                                executionEntry, executionEntry))
                 .addEdge("classify_request", "upload_context")
                 .addEdge("upload_context", "clarify_requirements")
                 .addConditionalEdges("clarify_requirements",
@@ -89,7 +112,7 @@ public class WorldmindGraph {
                 .addConditionalEdges("plan_mission",
                         edge_async(this::routeAfterPlan),
                         Map.of("await_approval", "await_approval",
-                                "schedule_wave", "schedule_wave"))
+                                executionEntry, executionEntry))
                 .addEdge("await_approval", END)
                 .addConditionalEdges("schedule_wave",
                         edge_async(this::routeAfterSchedule),
@@ -102,6 +125,12 @@ public class WorldmindGraph {
                                 "converge_results", "converge_results"))
                 .addEdge("converge_results", END);
 
+        if (dagMode) {
+            graph.addNode("dag_execute", node_async(dagExecutionNode::apply))
+                    .addEdge("dag_execute", "converge_results");
+            log.info("Graph using DAG scheduler (continuous critical-path dispatch)");
+        }
+
         var configBuilder = CompileConfig.builder()
                 .recursionLimit(100);
         if (checkpointSaver != null) {
@@ -130,8 +159,8 @@ public class WorldmindGraph {
             return "generate_spec";
         }
         if (status == MissionStatus.EXECUTING) {
-            log.info("Resuming from EXECUTING status — skipping to schedule_wave");
-            return "schedule_wave";
+            log.info("Resuming from EXECUTING status — skipping to {}", executionEntry);
+            return executionEntry;
         }
         // Default: start from the beginning
         return "classify_request";
@@ -154,7 +183,7 @@ public class WorldmindGraph {
      */
     String routeAfterPlan(WorldmindState state) {
         if (state.interactionMode() == InteractionMode.FULL_AUTO) {
-            return "schedule_wave";
+            return executionEntry;
         }
         return "await_approval";
     }
@@ -0,0 +1,67 @@
+package com.worldmind.core.llm;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Size-bounded, TTL-limited in-memory {@link LlmResponseCache}. Evicts the least
+ * recently used entry once {@code maxEntries} is reached.
+ */
+public class InMemoryLlmResponseCache implements LlmResponseCache {
+
+    private record Entry(String response, Instant expiresAt) {}
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    /** Access-ordered, so iteration starts at the least recently used entry. Guarded by itself. */
+    private final LinkedHashMap<String, Entry> entries;
+
+    public InMemoryLlmResponseCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    InMemoryLlmResponseCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > InMemoryLlmResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (!clock.instant().isBefore(entry.expiresAt())) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry.response());
+        }
+    }
+
+    @Override
+    public void put(String key, String response) {
+        synchronized (entries) {
+            entries.put(key, new Entry(response, clock.instant().plus(ttl)));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.llm.ModelRouter.Tier;
+
+/**
+ * The graph nodes that make structured LLM calls, with the model tier each one needs.
+ * <p>
+ * {@code defaultTier} is used at medium reasoning; {@code minimumTier} is as low as a
+ * "low" reasoning mission may take the node.
+ */
+public enum LlmNode {
+
+    CLASSIFY(Tier.FAST, Tier.FAST),
+    CLARIFY(Tier.FLAGSHIP, Tier.FAST),
+    SPEC(Tier.FLAGSHIP, Tier.FLAGSHIP),
+    PLAN(Tier.FLAGSHIP, Tier.FLAGSHIP),
+    REVIEW_PARSE(Tier.FAST, Tier.FAST);
+
+    private final Tier defaultTier;
+    private final Tier minimumTier;
+
+    LlmNode(Tier defaultTier, Tier minimumTier) {
+        this.defaultTier = defaultTier;
+        this.minimumTier = minimumTier;
+    }
+
+    public Tier defaultTier() {
+        return defaultTier;
+    }
+
+    public Tier minimumTier() {
+        return minimumTier;
+    }
+}
@@ -13,6 +13,25 @@ public class LlmProperties {
     private String openaiApiKey = "";
     private String googleApiKey = "";
 
+    /** Cache structured-call responses (in memory, plus Postgres when a DataSource is configured). */
+    private boolean cacheEnabled = true;
+    private int cacheMaxEntries = 500;
+    private long cacheTtlMinutes = 1440;
+    private boolean cachePersistent = true;
+
+    /** Stream responses for calls that report partial results, instead of waiting for the full text. */
+    private boolean streaming = true;
+
+    /** Mark the static system prompt for provider prompt caching (Anthropic cache_control). */
+    private boolean promptCaching = true;
+
+    /** Route cheap nodes to a fast model of the same provider, see {@link ModelRouter}. */
+    private boolean routingEnabled = true;
+    /** Overrides the catalog's fast model for routing. */
+    private String fastModel = "";
+    /** Overrides the catalog's premium model for routing. */
+    private String premiumModel = "";
+
     public String getProvider() {
         return provider;
     }
@@ -53,6 +72,78 @@ public class LlmProperties {
         this.googleApiKey = googleApiKey;
     }
 
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    public long getCacheTtlMinutes() {
+        return cacheTtlMinutes;
+    }
+
+    public void setCacheTtlMinutes(long cacheTtlMinutes) {
+        this.cacheTtlMinutes = cacheTtlMinutes;
+    }
+
+    public boolean isCachePersistent() {
+        return cachePersistent;
+    }
+
+    public void setCachePersistent(boolean cachePersistent) {
+        this.cachePersistent = cachePersistent;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public boolean isPromptCaching() {
+        return promptCaching;
+    }
+
+    public void setPromptCaching(boolean promptCaching) {
+        this.promptCaching = promptCaching;
+    }
+
+    public boolean isRoutingEnabled() {
+        return routingEnabled;
+    }
+
+    public void setRoutingEnabled(boolean routingEnabled) {
+        this.routingEnabled = routingEnabled;
+    }
+
+    public String getFastModel() {
+        return fastModel;
+    }
+
+    public void setFastModel(String fastModel) {
+        this.fastModel = fastModel;
+    }
+
+    public String getPremiumModel() {
+        return premiumModel;
+    }
+
+    public void setPremiumModel(String premiumModel) {
+        this.premiumModel = premiumModel;
+    }
+
     public boolean hasAnthropicKey() {
         return anthropicApiKey != null && !anthropicApiKey.isBlank();
     }
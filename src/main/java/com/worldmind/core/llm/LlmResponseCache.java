@@ -0,0 +1,39 @@
+package com.worldmind.core.llm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Cache of raw LLM responses for {@link LlmService#structuredCall}, keyed by a hash of
+ * everything that determines the response: provider, model, system prompt, user prompt
+ * and output schema.
+ *
+ * <p>Responses are stored as text and converted on every hit, so a cache entry never
+ * outlives a change to the target type's schema (which changes the key).
+ */
+public interface LlmResponseCache {
+
+    Optional<String> get(String key);
+
+    void put(String key, String response);
+
+    /**
+     * Returns the SHA-256 hex digest of the parts, separated so that moving text between
+     * adjacent parts changes the key.
+     */
+    static String key(String... parts) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update((part != null ? part : "").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
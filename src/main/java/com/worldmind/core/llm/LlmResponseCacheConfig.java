@@ -0,0 +1,52 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import com.worldmind.core.persistence.JdbcLlmResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Spring {@link Configuration} that provides the {@link LlmResponseCache} used by
+ * {@link LlmService}.
+ * <p>
+ * Responses are always cached in memory. When a {@link DataSource} is available,
+ * a {@link JdbcLlmResponseCache} is added as a persistent second tier; if it cannot
+ * be set up, the cache stays memory-only. Disabled with
+ * {@code worldmind.llm.cache-enabled=false}.
+ */
+@Configuration
+public class LlmResponseCacheConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmResponseCacheConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "worldmind.llm.cache-enabled", havingValue = "true", matchIfMissing = true)
+    public LlmResponseCache llmResponseCache(LlmProperties llmProperties,
+                                             Optional<DataSource> dataSource,
+                                             @Autowired(required = false) WorldmindMetrics metrics) {
+        var ttl = Duration.ofMinutes(llmProperties.getCacheTtlMinutes());
+        var memory = new InMemoryLlmResponseCache(llmProperties.getCacheMaxEntries(), ttl);
+
+        LlmResponseCache persistent = null;
+        if (llmProperties.isCachePersistent() && dataSource.isPresent()) {
+            try {
+                var jdbc = new JdbcLlmResponseCache(dataSource.get(), ttl);
+                jdbc.createTables();
+                persistent = jdbc;
+            } catch (Exception e) {
+                log.warn("JDBC LLM response cache failed, using in-memory only: {}", e.getMessage());
+            }
+        }
+        log.info("LLM response cache enabled ({} entries in memory, TTL {}m, persistent: {})",
+                llmProperties.getCacheMaxEntries(), ttl.toMinutes(), persistent != null);
+        return new TieredLlmResponseCache(memory, persistent, metrics);
+    }
+}
@@ -1,12 +1,29 @@
 package com.worldmind.core.llm;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.worldmind.core.llm.StreamingJsonParser.JsonFragment;
+import com.worldmind.core.metrics.WorldmindMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.anthropic.AnthropicChatOptions;
+import org.springframework.ai.anthropic.api.AnthropicCacheOptions;
+import org.springframework.ai.anthropic.api.AnthropicCacheStrategy;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.retry.NonTransientAiException;
 import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.lang.reflect.RecordComponent;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
 /**
  * Reusable service that wraps Spring AI's {@link ChatClient} to produce
  * structured (typed) output from LLM calls.
@@ -14,18 +31,98 @@ import org.springframework.stereotype.Service;
  * Uses {@link BeanOutputConverter} to generate a JSON schema from the target
  * Java class, append format instructions to the user prompt, and deserialize
  * the LLM's JSON response into the requested type.
+ * <p>
+ * When an {@link LlmResponseCache} is configured, tool-less structured calls are
+ * answered from it if the same model has already been asked the same prompts for the
+ * same output schema. Callers that need a fresh answer pass {@code useCache=false}.
+ * <p>
+ * {@link #streamingStructuredCall} reports each part of the response object to the
+ * caller as soon as the model has generated it, so large plans and specs can be shown
+ * while the rest is still being written.
+ * <p>
+ * Calls that name the {@link LlmNode} making them are routed by {@link ModelRouter}:
+ * cheap nodes go to the provider's fast model, and a response that cannot be parsed is
+ * retried once on the next stronger model. A routed model the provider rejects falls back
+ * to the configured model. A {@link ChatClient} is kept per routed model.
+ * <p>
+ * Requests are laid out for provider prompt caching: the static system prompt and the
+ * output format instructions form the system message, ahead of the per-call user prompt.
+ * OpenAI and Gemini cache such prefixes automatically; Anthropic requests mark the system
+ * message with {@code cache_control}.
  */
 @Service
 public class LlmService {
 
     private static final Logger log = LoggerFactory.getLogger(LlmService.class);
+    /** Output converters and their format instructions, per output type. */
+    private static final ConcurrentHashMap<Class<?>, OutputFormat<?>> OUTPUT_FORMATS = new ConcurrentHashMap<>();
+    private static final ObjectMapper FRAGMENT_MAPPER = new ObjectMapper()
+            .configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(com.fasterxml.jackson.databind.DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true)
+            .registerModule(new com.fasterxml.jackson.module.paramnames.ParameterNamesModule());
+
+    private record OutputFormat<T>(BeanOutputConverter<T> converter, String instructions) {}
 
+    private final ChatClient.Builder builder;
     private final ChatClient chatClient;
+    private final ChatModel chatModel;
+    private final boolean promptCaching;
+    private final ModelRouter router;
+    private final ConcurrentHashMap<String, ChatClient> routedClients = new ConcurrentHashMap<>();
+    private final LlmResponseCache responseCache;
+    /** Provider, model and endpoint the responses come from; part of every cache key. */
+    private final String modelIdentity;
+    private final boolean streaming;
+
+    public LlmService(ChatClient.Builder builder, String baseUrl) {
+        this(builder, baseUrl, null);
+    }
 
+    public LlmService(ChatClient.Builder builder, String baseUrl, TokenBudgetGovernor tokenBudget) {
+        this(builder, baseUrl, tokenBudget, null, null, null);
+    }
+
+    public LlmService(ChatClient.Builder builder, String baseUrl, TokenBudgetGovernor tokenBudget,
+                      LlmResponseCache responseCache, ChatModel chatModel, LlmProperties llmProperties) {
+        this(builder, baseUrl, tokenBudget, responseCache, chatModel, llmProperties, null);
+    }
+
+    @Autowired
     public LlmService(ChatClient.Builder builder,
-                      @org.springframework.beans.factory.annotation.Value("${spring.ai.openai.base-url:NOT_SET}") String baseUrl) {
+                      @org.springframework.beans.factory.annotation.Value("${spring.ai.openai.base-url:NOT_SET}") String baseUrl,
+                      @Autowired(required = false) TokenBudgetGovernor tokenBudget,
+                      @Autowired(required = false) LlmResponseCache responseCache,
+                      @Autowired(required = false) ChatModel chatModel,
+                      @Autowired(required = false) LlmProperties llmProperties,
+                      @Autowired(required = false) WorldmindMetrics metrics) {
+        if (tokenBudget != null && tokenBudget.isEnabled()) {
+            builder.defaultAdvisors(new TokenUsageAdvisor(tokenBudget));
+        }
+        if (metrics != null) {
+            builder.defaultAdvisors(new PromptCacheUsageAdvisor(metrics));
+        }
+        this.chatModel = chatModel;
+        this.promptCaching = llmProperties == null || llmProperties.isPromptCaching();
+        var defaultOptions = clientOptions(null);
+        if (defaultOptions != null) {
+            builder.defaultOptions(defaultOptions);
+        }
+        this.builder = builder;
         this.chatClient = builder.build();
-        log.info("LlmService initialized — OpenAI base-url: {}", baseUrl);
+        this.router = ModelRouter.create(chatModel, baseUrl, llmProperties);
+        this.responseCache = responseCache;
+        this.modelIdentity = modelIdentity(chatModel, baseUrl);
+        this.streaming = llmProperties == null || llmProperties.isStreaming();
+        log.info("LlmService initialized — OpenAI base-url: {}, model routing: {}",
+                baseUrl, router != null ? "enabled" : "disabled");
+    }
+
+    private static String modelIdentity(ChatModel chatModel, String baseUrl) {
+        if (chatModel == null) {
+            return baseUrl;
+        }
+        var options = chatModel.getDefaultOptions();
+        return chatModel.getClass().getName() + "|" + (options != null ? options.getModel() : null) + "|" + baseUrl;
     }
 
     /**
@@ -39,22 +136,310 @@ public class LlmService {
      * @return an instance of {@code T} populated from the LLM's JSON response
      */
     public <T> T structuredCall(String systemPrompt, String userPrompt, Class<T> outputType) {
+        return structuredCall(systemPrompt, userPrompt, outputType, true);
+    }
+
+    /**
+     * Like {@link #structuredCall(String, String, Class)}, but lets the caller bypass the
+     * response cache. A bypassed call still refreshes the cached entry.
+     *
+     * @param useCache false to always ask the model
+     */
+    public <T> T structuredCall(String systemPrompt, String userPrompt, Class<T> outputType, boolean useCache) {
+        return execute(null, systemPrompt, userPrompt, outputType, useCache, null);
+    }
+
+    /**
+     * Like {@link #structuredCall(String, String, Class)}, but on the model
+     * {@link ModelRouter} picks for the node.
+     *
+     * @param node           the node making the call
+     * @param reasoningLevel the mission's reasoning level, or null for medium
+     */
+    public <T> T structuredCall(LlmNode node, String reasoningLevel,
+                                String systemPrompt, String userPrompt, Class<T> outputType) {
+        return structuredCall(node, reasoningLevel, systemPrompt, userPrompt, outputType, true);
+    }
+
+    /**
+     * Like {@link #structuredCall(LlmNode, String, String, String, Class)}, but lets the
+     * caller bypass the response cache on every model the call is routed to.
+     *
+     * @param useCache false to always ask the model
+     */
+    public <T> T structuredCall(LlmNode node, String reasoningLevel, String systemPrompt,
+                                String userPrompt, Class<T> outputType, boolean useCache) {
+        return routed(node, reasoningLevel, systemPrompt, userPrompt,
+                model -> execute(model, systemPrompt, userPrompt, outputType, useCache, null));
+    }
+
+    /**
+     * Like {@link #structuredCall(String, String, Class)}, but streams the response and
+     * hands each completed top-level field, and each completed element of a top-level
+     * array field, to {@code onFragment} while the model is still generating. Fragments
+     * that do not match the output type's schema are dropped. The full response is
+     * converted exactly as {@link #structuredCall} would.
+     *
+     * <p>When streaming is disabled, or the response comes from the cache, the fragments
+     * are reported after the full response has arrived. A stream that fails is retried
+     * as a blocking call, whose fragments are reported unless they were already streamed.
+     */
+    public <T> T streamingStructuredCall(String systemPrompt, String userPrompt, Class<T> outputType,
+                                         Consumer<JsonFragment> onFragment) {
+        return execute(null, systemPrompt, userPrompt, outputType, true,
+                deduplicated(validated(outputType, onFragment)));
+    }
+
+    /**
+     * Like {@link #streamingStructuredCall(String, String, Class, Consumer)}, but on the
+     * model {@link ModelRouter} picks for the node. If the call is escalated to a stronger
+     * model, fragments of the new response are reported unless they repeat one already
+     * reported for the same field and index.
+     */
+    public <T> T streamingStructuredCall(LlmNode node, String reasoningLevel, String systemPrompt,
+                                         String userPrompt, Class<T> outputType,
+                                         Consumer<JsonFragment> onFragment) {
+        return streamingStructuredCall(node, reasoningLevel, systemPrompt, userPrompt, outputType,
+                onFragment, true);
+    }
+
+    /**
+     * Like {@link #streamingStructuredCall(LlmNode, String, String, String, Class, Consumer)},
+     * but lets the caller bypass the response cache.
+     *
+     * @param useCache false to always ask the model
+     */
+    public <T> T streamingStructuredCall(LlmNode node, String reasoningLevel, String systemPrompt,
+                                         String userPrompt, Class<T> outputType,
+                                         Consumer<JsonFragment> onFragment, boolean useCache) {
+        var listener = deduplicated(validated(outputType, onFragment));
+        return routed(node, reasoningLevel, systemPrompt, userPrompt,
+                model -> execute(model, systemPrompt, userPrompt, outputType, useCache, listener));
+    }
+
+    /**
+     * Runs a call on the node's routed model, retrying once on the next stronger model if
+     * the response cannot be parsed. A routed model the provider rejects with a
+     * non-transient error (an unknown model id, say) is replaced by the configured model.
+     * Without a router the configured model is used.
+     *
+     * @param call performs the call on the given model (null for the configured model)
+     */
+    private <T> T routed(LlmNode node, String reasoningLevel, String systemPrompt, String userPrompt,
+                         Function<String, T> call) {
+        if (router == null) {
+            return call.apply(null);
+        }
+        var tier = router.tierFor(node, systemPrompt.length() + userPrompt.length(), reasoningLevel);
+        String model = router.modelFor(tier);
+        log.info("Routing {} call to {} model {}", node, tier, model != null ? model : "(configured)");
+        try {
+            return orConfiguredModel(node, model, call);
+        } catch (LlmParseException e) {
+            var stronger = router.escalate(tier);
+            if (stronger == null) {
+                throw e;
+            }
+            String strongerModel = router.modelFor(stronger);
+            log.warn("{} response from {} model did not parse, retrying on {} model {}", node, tier, stronger,
+                    strongerModel != null ? strongerModel : "(configured)");
+            return orConfiguredModel(node, strongerModel, call);
+        }
+    }
+
+    /** Runs a call on a routed model, falling back to the configured model on a non-transient error. */
+    private <T> T orConfiguredModel(LlmNode node, String model, Function<String, T> call) {
+        try {
+            return call.apply(model);
+        } catch (NonTransientAiException e) {
+            if (model == null) {
+                throw e;
+            }
+            log.warn("{} call on model {} failed ({}), retrying on the configured model", node, model, e.getMessage());
+            return call.apply(null);
+        }
+    }
+
+    /** Returns the client for a routed model, or the default client for null. */
+    private ChatClient clientFor(String model) {
+        if (model == null) {
+            return chatClient;
+        }
+        return routedClients.computeIfAbsent(model, m -> builder.clone()
+                .defaultOptions(clientOptions(m))
+                .build());
+    }
+
+    /**
+     * Returns the default options for a client on the given model (null for the configured
+     * model), or null if the model's own defaults apply unchanged.
+     * <p>
+     * Anthropic options are copied from the chat model's defaults, since the generic
+     * {@link ChatOptions} would drop Anthropic-only settings such as the prompt cache.
+     */
+    private ChatOptions clientOptions(String model) {
+        if (chatModel != null && chatModel.getDefaultOptions() instanceof AnthropicChatOptions defaults) {
+            AnthropicChatOptions options = defaults.copy();
+            if (model != null) {
+                options.setModel(model);
+            }
+            var cache = options.getCacheOptions();
+            if (promptCaching && (cache == null || cache.getStrategy() == AnthropicCacheStrategy.NONE)) {
+                options.setCacheOptions(AnthropicCacheOptions.builder()
+                        .strategy(AnthropicCacheStrategy.SYSTEM_ONLY)
+                        .build());
+            }
+            return options;
+        }
+        return model != null ? ChatOptions.builder().model(model).build() : null;
+    }
+
+    /** Returns the cached converter and format instructions for an output type. */
+    @SuppressWarnings("unchecked")
+    private static <T> OutputFormat<T> outputFormat(Class<T> outputType) {
+        return (OutputFormat<T>) OUTPUT_FORMATS.computeIfAbsent(outputType, type -> {
+            var converter = new BeanOutputConverter<>(outputType);
+            return new OutputFormat<>(converter, converter.getFormat());
+        });
+    }
+
+    /** The static part of a request: the node's system prompt followed by the output format. */
+    private static String systemMessage(String systemPrompt, String format) {
+        return systemPrompt + "\n\n" + format;
+    }
+
+    private <T> T execute(String model, String systemPrompt, String userPrompt, Class<T> outputType,
+                          boolean useCache, Consumer<JsonFragment> onFragment) {
+        var outputFormat = outputFormat(outputType);
+        var converter = outputFormat.converter();
+        String format = outputFormat.instructions();
+        String cacheKey = responseCache != null
+                ? LlmResponseCache.key(model != null ? modelIdentity + "|" + model : modelIdentity,
+                        systemPrompt, userPrompt, format)
+                : null;
+        if (useCache && cacheKey != null) {
+            var cached = responseCache.get(cacheKey);
+            if (cached.isPresent()) {
+                try {
+                    T result = convert(converter, cached.get(), outputType);
+                    log.info("LLM cache hit → {}", outputType.getSimpleName());
+                    replay(cached.get(), onFragment);
+                    return result;
+                } catch (LlmParseException e) {
+                    log.warn("Ignoring unparseable cached response for {}: {}", outputType.getSimpleName(), e.getMessage());
+                }
+            }
+        }
+
         log.info("LLM call started → {}", outputType.getSimpleName());
         long start = System.currentTimeMillis();
-        var converter = new BeanOutputConverter<>(outputType);
         log.info("Sending prompt to model...");
-        var callResponse = chatClient.prompt()
-                .system(systemPrompt)
-                .user(userPrompt + "\n\n" + converter.getFormat())
-                .call();
-        log.info("Model responded, extracting content...");
-        String response = callResponse.content();
+        var prompt = clientFor(model).prompt()
+                .system(systemMessage(systemPrompt, format))
+                .user(userPrompt);
+        String response = null;
+        boolean streamed = false;
+        if (onFragment != null && streaming) {
+            var parser = new StreamingJsonParser(onFragment);
+            var text = new StringBuilder();
+            try {
+                prompt.stream().content()
+                        .doOnNext(chunk -> {
+                            text.append(chunk);
+                            parser.feed(chunk);
+                        })
+                        .blockLast();
+                log.info("Model finished streaming, extracting content...");
+                response = text.toString();
+                streamed = true;
+            } catch (RuntimeException e) {
+                // Streams bypass the retry template; fall back to a retried call
+                log.warn("Streaming {} failed after {} chars, retrying as a blocking call: {}",
+                        outputType.getSimpleName(), text.length(), e.getMessage());
+            }
+        }
+        if (!streamed) {
+            var callResponse = prompt.call();
+            log.info("Model responded, extracting content...");
+            response = callResponse.content();
+            replay(response, onFragment);
+        }
         long elapsed = System.currentTimeMillis() - start;
         log.info("LLM call complete → {} ({}s)", outputType.getSimpleName(), String.format("%.1f", elapsed / 1000.0));
         if (response == null || response.isBlank()) {
             throw new LlmEmptyResponseException("LLM returned empty content for " + outputType.getSimpleName()
                     + ". Check that the model is running and supports structured JSON output.");
         }
+        T result = convert(converter, response, outputType);
+        // Only responses that parsed are cached; a failed parse has already thrown
+        if (cacheKey != null) {
+            responseCache.put(cacheKey, response);
+        }
+        return result;
+    }
+
+    private static void replay(String response, Consumer<JsonFragment> onFragment) {
+        if (onFragment != null && response != null) {
+            new StreamingJsonParser(onFragment).feed(response);
+        }
+    }
+
+    /**
+     * Wraps a fragment listener so a fragment identical to one already reported for the
+     * same field and index is not reported again, as happens when a call is retried.
+     */
+    private static Consumer<JsonFragment> deduplicated(Consumer<JsonFragment> onFragment) {
+        if (onFragment == null) {
+            return null;
+        }
+        var reported = new ConcurrentHashMap<String, JsonNode>();
+        return fragment -> {
+            var previous = reported.put(fragment.field() + "[" + fragment.index() + "]", fragment.value());
+            if (!fragment.value().equals(previous)) {
+                onFragment.accept(fragment);
+            }
+        };
+    }
+
+    /**
+     * Wraps a fragment listener so it only sees fragments that convert to the declared
+     * type of their field (or its element type) on a record output type.
+     */
+    private static Consumer<JsonFragment> validated(Class<?> outputType, Consumer<JsonFragment> onFragment) {
+        if (onFragment == null || !outputType.isRecord()) {
+            return onFragment;
+        }
+        var types = FRAGMENT_MAPPER.getTypeFactory();
+        return fragment -> {
+            RecordComponent component = null;
+            for (RecordComponent candidate : outputType.getRecordComponents()) {
+                if (candidate.getName().equals(fragment.field())) {
+                    component = candidate;
+                }
+            }
+            if (component == null) {
+                log.debug("Dropping streamed field '{}' not in {}", fragment.field(), outputType.getSimpleName());
+                return;
+            }
+            JavaType type = types.constructType(component.getGenericType());
+            if (fragment.index() >= 0) {
+                if (type.getContentType() == null) {
+                    return;
+                }
+                type = type.getContentType();
+            }
+            try {
+                FRAGMENT_MAPPER.convertValue(fragment.value(), type);
+            } catch (IllegalArgumentException e) {
+                log.debug("Dropping streamed {}[{}] that does not match {}: {}",
+                        fragment.field(), fragment.index(), type, e.getMessage());
+                return;
+            }
+            onFragment.accept(fragment);
+        };
+    }
+
+    private <T> T convert(BeanOutputConverter<T> converter, String response, Class<T> outputType) {
         try {
             return converter.convert(response);
         } catch (Exception e) {
@@ -103,19 +488,39 @@ public class LlmService {
 
     /**
      * Like {@link #structuredCall}, but also provides MCP tools to the LLM.
-     * Falls back to the tool-less path when no tools are supplied.
+     * Falls back to the tool-less path when no tools are supplied. Calls with tools
+     * are never cached, since tool results can change between calls.
      */
     public <T> T structuredCallWithTools(String systemPrompt, String userPrompt,
                                           Class<T> outputType, ToolCallback... tools) {
         if (tools == null || tools.length == 0) {
             return structuredCall(systemPrompt, userPrompt, outputType);
         }
+        return callWithTools(null, systemPrompt, userPrompt, outputType, tools);
+    }
+
+    /**
+     * Like {@link #structuredCallWithTools(String, String, Class, ToolCallback...)}, but on
+     * the model {@link ModelRouter} picks for the node.
+     */
+    public <T> T structuredCallWithTools(LlmNode node, String reasoningLevel, String systemPrompt,
+                                          String userPrompt, Class<T> outputType, ToolCallback... tools) {
+        if (tools == null || tools.length == 0) {
+            return structuredCall(node, reasoningLevel, systemPrompt, userPrompt, outputType);
+        }
+        return routed(node, reasoningLevel, systemPrompt, userPrompt,
+                model -> callWithTools(model, systemPrompt, userPrompt, outputType, tools));
+    }
+
+    private <T> T callWithTools(String model, String systemPrompt, String userPrompt,
+                                Class<T> outputType, ToolCallback... tools) {
         log.info("LLM call with {} tool(s) started → {}", tools.length, outputType.getSimpleName());
         long start = System.currentTimeMillis();
-        var converter = new BeanOutputConverter<>(outputType);
-        var callResponse = chatClient.prompt()
-                .system(systemPrompt)
-                .user(userPrompt + "\n\n" + converter.getFormat())
+        var outputFormat = outputFormat(outputType);
+        var converter = outputFormat.converter();
+        var callResponse = clientFor(model).prompt()
+                .system(systemMessage(systemPrompt, outputFormat.instructions()))
+                .user(userPrompt)
                 .toolCallbacks(tools)
                 .call();
         String response = callResponse.content();
@@ -126,12 +531,6 @@ public class LlmService {
             throw new LlmEmptyResponseException("LLM returned empty content for " + outputType.getSimpleName()
                     + ". Check that the model is running and supports structured JSON output.");
         }
-        try {
-            return converter.convert(response);
-        } catch (Exception e) {
-            log.error("Failed to parse LLM response to {}: {}", outputType.getSimpleName(), e.getMessage());
-            log.debug("Raw LLM response: {}", response);
-            return parseWithJackson(response, outputType);
-        }
+        return convert(converter, response, outputType);
     }
 }
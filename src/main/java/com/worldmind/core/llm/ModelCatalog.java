@@ -40,7 +40,7 @@ public class ModelCatalog {
                     "Most capable, best for complex reasoning"
             ),
             new ModelInfo(
-                    "claude-haiku-3-5-20241022",
+                    "claude-3-5-haiku-20241022",
                     "Claude 3.5 Haiku",
                     "anthropic",
                     "fast",
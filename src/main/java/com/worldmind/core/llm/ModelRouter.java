@@ -0,0 +1,146 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.llm.ModelCatalog.ModelInfo;
+import org.springframework.ai.chat.model.ChatModel;
+
+import java.util.Objects;
+
+/**
+ * Chooses the model for a structured LLM call from the node making it, the prompt size
+ * and the mission's reasoning level.
+ * <p>
+ * The configured chat model is the {@link Tier#FLAGSHIP} model. {@link Tier#FAST} and
+ * {@link Tier#PREMIUM} models come from {@link ModelCatalog} for the same provider, or
+ * from {@code worldmind.llm.fast-model} / {@code premium-model}. A tier without a model
+ * uses the flagship model.
+ * <p>
+ * Routing is only possible when the provider is known and serves every catalog model;
+ * OpenAI-compatible endpoints other than api.openai.com (such as a bound GenAI service)
+ * always use the configured model.
+ */
+public class ModelRouter {
+
+    public enum Tier { FAST, FLAGSHIP, PREMIUM }
+
+    /** Prompts above this size (about 12k tokens) are too long to trust to a fast model. */
+    static final int FAST_PROMPT_CHAR_LIMIT = 48_000;
+
+    private final String fastModel;
+    private final String premiumModel;
+
+    /**
+     * @param flagshipModel the configured model, or null if unknown
+     * @param fastModel     model for {@link Tier#FAST}, or null for the flagship model
+     * @param premiumModel  model for {@link Tier#PREMIUM}, or null for the flagship model
+     */
+    ModelRouter(String flagshipModel, String fastModel, String premiumModel) {
+        this.fastModel = distinct(fastModel, flagshipModel);
+        this.premiumModel = distinct(premiumModel, flagshipModel);
+    }
+
+    /**
+     * Creates the router for the configured chat model, or returns null if routing is
+     * disabled or the provider cannot be routed.
+     */
+    static ModelRouter create(ChatModel chatModel, String baseUrl, LlmProperties properties) {
+        if (chatModel == null || properties == null || !properties.isRoutingEnabled()) {
+            return null;
+        }
+        String provider = providerOf(chatModel, properties);
+        if (provider == null || !ModelCatalog.ALL_MODELS.containsKey(provider)) {
+            return null;
+        }
+        if ("openai".equals(provider) && baseUrl != null && !"NOT_SET".equals(baseUrl)
+                && !baseUrl.contains("api.openai.com")) {
+            return null;
+        }
+        String fast = blankToNull(properties.getFastModel());
+        String premium = blankToNull(properties.getPremiumModel());
+        var options = chatModel.getDefaultOptions();
+        return new ModelRouter(options != null ? options.getModel() : null,
+                fast != null ? fast : catalogModel(provider, "fast"),
+                premium != null ? premium : catalogModel(provider, "premium"));
+    }
+
+    private static String providerOf(ChatModel chatModel, LlmProperties properties) {
+        String name = chatModel.getClass().getSimpleName();
+        if (name.startsWith("Anthropic")) return "anthropic";
+        if (name.startsWith("OpenAi")) return "openai";
+        if (name.startsWith("GoogleGenAi")) return "google";
+        return blankToNull(properties.getProvider());
+    }
+
+    /** The first catalog model of the tier, since catalogs list the preferred model first. */
+    private static String catalogModel(String provider, String tier) {
+        return ModelCatalog.ALL_MODELS.get(provider).stream()
+                .filter(m -> tier.equals(m.tier()))
+                .map(ModelInfo::id)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Returns the tier a call should start on.
+     *
+     * @param reasoningLevel the mission's reasoning level ("low", "medium", "high", "max"),
+     *                       or null for medium
+     */
+    public Tier tierFor(LlmNode node, int promptChars, String reasoningLevel) {
+        Tier tier = node.defaultTier();
+        if ("low".equalsIgnoreCase(reasoningLevel)) {
+            tier = max(lower(tier), node.minimumTier());
+        } else if ("high".equalsIgnoreCase(reasoningLevel)) {
+            tier = max(tier, Tier.FLAGSHIP);
+        } else if ("max".equalsIgnoreCase(reasoningLevel)) {
+            tier = tier == Tier.FAST ? Tier.FLAGSHIP : Tier.PREMIUM;
+        }
+        if (tier == Tier.FAST && promptChars > FAST_PROMPT_CHAR_LIMIT) {
+            tier = Tier.FLAGSHIP;
+        }
+        return tier;
+    }
+
+    /**
+     * Returns the next stronger tier that is served by a different model, or null if
+     * there is none.
+     */
+    public Tier escalate(Tier tier) {
+        String current = modelFor(tier);
+        for (Tier next = higher(tier); next != null; next = higher(next)) {
+            if (!Objects.equals(modelFor(next), current)) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    /** Returns the model id for a tier, or null for the configured (flagship) model. */
+    public String modelFor(Tier tier) {
+        return switch (tier) {
+            case FAST -> fastModel;
+            case FLAGSHIP -> null;
+            case PREMIUM -> premiumModel;
+        };
+    }
+
+    private static Tier lower(Tier tier) {
+        return tier.ordinal() == 0 ? tier : Tier.values()[tier.ordinal() - 1];
+    }
+
+    private static Tier higher(Tier tier) {
+        return tier.ordinal() == Tier.values().length - 1 ? null : Tier.values()[tier.ordinal() + 1];
+    }
+
+    private static Tier max(Tier a, Tier b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static String distinct(String model, String flagshipModel) {
+        model = blankToNull(model);
+        return model != null && model.equals(flagshipModel) ? null : model;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,109 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import org.springframework.ai.anthropic.api.AnthropicApi;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.google.genai.metadata.GoogleGenAiUsage;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Chat client advisor that reports how many prompt tokens of each LLM response were
+ * served from the provider's prompt cache, read from the provider's native usage.
+ * <p>
+ * Streamed responses are reported once, from the last chunk that carries usage.
+ */
+class PromptCacheUsageAdvisor implements CallAdvisor, StreamAdvisor {
+
+    /** Prompt tokens of one response by cache outcome. */
+    record PromptTokens(long cached, long written, long uncached) {}
+
+    private final WorldmindMetrics metrics;
+
+    PromptCacheUsageAdvisor(WorldmindMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        var response = chain.nextCall(request);
+        record(response.chatResponse());
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        var last = new AtomicReference<ChatResponse>();
+        return chain.nextStream(request)
+                .doOnNext(response -> {
+                    if (usageOf(response.chatResponse()) != null) {
+                        last.set(response.chatResponse());
+                    }
+                })
+                .doOnComplete(() -> record(last.get()));
+    }
+
+    private void record(ChatResponse chatResponse) {
+        var usage = usageOf(chatResponse);
+        if (usage == null) {
+            return;
+        }
+        var tokens = promptTokens(usage);
+        metrics.recordPromptTokens(chatResponse.getMetadata().getModel(),
+                tokens.cached(), tokens.written(), tokens.uncached());
+    }
+
+    private static Usage usageOf(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return null;
+        }
+        var usage = chatResponse.getMetadata().getUsage();
+        boolean reported = usage != null
+                && (usage.getNativeUsage() != null || (usage.getPromptTokens() != null && usage.getPromptTokens() > 0));
+        return reported ? usage : null;
+    }
+
+    /**
+     * Splits a response's prompt tokens by cache outcome. Anthropic reports cache reads
+     * and writes separately from the other input tokens; OpenAI and Gemini report cache
+     * reads as part of the prompt tokens.
+     */
+    static PromptTokens promptTokens(Usage usage) {
+        if (usage.getNativeUsage() instanceof AnthropicApi.Usage anthropic) {
+            return new PromptTokens(orZero(anthropic.cacheReadInputTokens()),
+                    orZero(anthropic.cacheCreationInputTokens()), orZero(anthropic.inputTokens()));
+        }
+        long prompt = orZero(usage.getPromptTokens());
+        long cached = 0;
+        if (usage.getNativeUsage() instanceof OpenAiApi.Usage openAi && openAi.promptTokensDetails() != null) {
+            cached = orZero(openAi.promptTokensDetails().cachedTokens());
+        } else if (usage instanceof GoogleGenAiUsage gemini) {
+            cached = orZero(gemini.getCachedContentTokenCount());
+        }
+        return new PromptTokens(cached, 0, Math.max(0, prompt - cached));
+    }
+
+    private static long orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    @Override
+    public String getName() {
+        return "PromptCacheUsageAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
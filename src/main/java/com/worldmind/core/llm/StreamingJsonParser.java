@@ -0,0 +1,164 @@
+package com.worldmind.core.llm;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for a JSON object arriving in chunks, such as a streamed LLM
+ * response. Reports each part of the object as soon as it is complete: every top-level
+ * field, and every element of a top-level array field.
+ *
+ * <p>Text before the opening brace (e.g. a markdown fence) and after the closing brace
+ * is ignored. Malformed JSON stops the parser quietly; the caller still has the full
+ * text to parse (and report on) once the stream ends.
+ */
+public class StreamingJsonParser {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingJsonParser.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * A completed part of the object.
+     *
+     * @param field top-level field name
+     * @param index element index within the field's array, or -1 for the whole field value
+     * @param value the parsed value
+     */
+    public record JsonFragment(String field, int index, JsonNode value) {}
+
+    private final Consumer<JsonFragment> listener;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    /** Open containers, innermost first; the root object is last. */
+    private final Deque<JsonNode> open = new ArrayDeque<>();
+
+    private boolean started;
+    private boolean finished;
+    private String fieldName;
+    private String topField;
+    private int topIndex;
+
+    public StreamingJsonParser(Consumer<JsonFragment> listener) {
+        this.listener = listener;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create non-blocking JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /** Parses the next chunk of text, reporting any parts it completes. */
+    public void feed(String chunk) {
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        if (!started) {
+            int brace = chunk.indexOf('{');
+            if (brace < 0) {
+                return;
+            }
+            started = true;
+            chunk = chunk.substring(brace);
+        }
+        try {
+            byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+                accept(token);
+            }
+        } catch (IOException e) {
+            log.debug("Streaming JSON parse stopped: {}", e.getMessage());
+            finished = true;
+        }
+    }
+
+    /** True once the root object has closed (or the input proved malformed). */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void accept(JsonToken token) throws IOException {
+        switch (token) {
+            case FIELD_NAME -> fieldName = parser.currentName();
+            case START_OBJECT -> {
+                var node = JsonNodeFactory.instance.objectNode();
+                attach(node);
+                open.push(node);
+            }
+            case START_ARRAY -> {
+                var node = JsonNodeFactory.instance.arrayNode();
+                attach(node);
+                open.push(node);
+            }
+            case END_OBJECT, END_ARRAY -> {
+                JsonNode node = open.pop();
+                if (open.isEmpty()) {
+                    finished = true;
+                } else {
+                    completed(node);
+                }
+            }
+            default -> {
+                JsonNode node = scalar(token);
+                attach(node);
+                completed(node);
+            }
+        }
+    }
+
+    private void attach(JsonNode node) {
+        if (open.isEmpty()) {
+            return;
+        }
+        JsonNode parent = open.peek();
+        if (parent instanceof ObjectNode object) {
+            object.set(fieldName, node);
+            if (open.size() == 1) {
+                topField = fieldName;
+                topIndex = -1;
+            }
+        } else if (parent instanceof ArrayNode array) {
+            array.add(node);
+            if (open.size() == 2) {
+                topIndex = array.size() - 1;
+            }
+        }
+    }
+
+    /** Reports a value that just completed, if it sits at a reported level. */
+    private void completed(JsonNode node) {
+        if (open.size() == 1) {
+            listener.accept(new JsonFragment(topField, -1, node));
+        } else if (open.size() == 2 && open.peek() instanceof ArrayNode) {
+            listener.accept(new JsonFragment(topField, topIndex, node));
+        }
+    }
+
+    private JsonNode scalar(JsonToken token) throws IOException {
+        var nodes = JsonNodeFactory.instance;
+        return switch (token) {
+            case VALUE_STRING -> nodes.textNode(parser.getText());
+            case VALUE_NUMBER_INT -> nodes.numberNode(parser.getBigIntegerValue());
+            case VALUE_NUMBER_FLOAT -> nodes.numberNode(parser.getDecimalValue());
+            case VALUE_TRUE -> nodes.booleanNode(true);
+            case VALUE_FALSE -> nodes.booleanNode(false);
+            default -> nodes.nullNode();
+        };
+    }
+}
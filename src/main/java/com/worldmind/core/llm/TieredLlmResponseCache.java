@@ -0,0 +1,70 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * {@link LlmResponseCache} that checks a fast in-memory tier before an optional
+ * persistent tier, promoting persistent hits into memory. Writes go to both tiers.
+ *
+ * <p>The persistent tier is best-effort: its failures are logged and treated as misses,
+ * never surfaced to the LLM call.
+ */
+public class TieredLlmResponseCache implements LlmResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredLlmResponseCache.class);
+
+    private final LlmResponseCache memory;
+    private final LlmResponseCache persistent;
+    private final WorldmindMetrics metrics;
+
+    public TieredLlmResponseCache(LlmResponseCache memory, LlmResponseCache persistent, WorldmindMetrics metrics) {
+        this.memory = memory;
+        this.persistent = persistent;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        Optional<String> hit = memory.get(key);
+        if (hit.isPresent()) {
+            record("memory");
+            return hit;
+        }
+        if (persistent != null) {
+            try {
+                hit = persistent.get(key);
+            } catch (Exception e) {
+                log.warn("Persistent LLM cache lookup failed: {}", e.getMessage());
+            }
+            if (hit.isPresent()) {
+                memory.put(key, hit.get());
+                record("persistent");
+                return hit;
+            }
+        }
+        record(null);
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(String key, String response) {
+        memory.put(key, response);
+        if (persistent != null) {
+            try {
+                persistent.put(key, response);
+            } catch (Exception e) {
+                log.warn("Persistent LLM cache write failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void record(String tier) {
+        if (metrics != null) {
+            metrics.recordLlmCacheLookup(tier);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import com.worldmind.sandbox.SandboxProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Token-bucket rate governor for LLM provider token budgets.
+ *
+ * <p>Keeps one bucket per model key (e.g. {@code claude-sonnet-4}). Keys are normalized
+ * with {@link #modelKey(String)}, so the configured agent model and the versioned id a
+ * provider reports for a direct LLM call draw on the same bucket. Each bucket
+ * holds up to {@code worldmind.sandbox.tokens-per-minute} tokens and refills continuously
+ * at that rate. Recorded usage drains the bucket, possibly below zero. Before a wave, the
+ * scheduler asks how long to wait so the bucket can cover the wave's expected usage, and
+ * waits only that long rather than a fixed cooldown.
+ *
+ * <p>Disabled when the budget is 0; callers then keep the fixed wave cooldown.
+ */
+@Service
+public class TokenBudgetGovernor {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenBudgetGovernor.class);
+
+    /** Assumed agent usage per task until real usage has been observed. */
+    static final long DEFAULT_TOKENS_PER_TASK = 20_000;
+
+    /** Weight of the newest observation in the per-task usage average. */
+    private static final double EWMA_ALPHA = 0.3;
+
+    /** Snapshot date suffix, e.g. {@code -20250514} or {@code -2024-08-06}. */
+    private static final Pattern VERSION_SUFFIX = Pattern.compile("-(\\d{8}|\\d{4}-\\d{2}-\\d{2}|latest)$");
+
+    private final long tokensPerMinute;
+    private final WorldmindMetrics metrics;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenBudgetGovernor(SandboxProperties properties,
+                               @Autowired(required = false) WorldmindMetrics metrics) {
+        this(properties.getTokensPerMinute(), metrics, System::nanoTime);
+    }
+
+    TokenBudgetGovernor(long tokensPerMinute, WorldmindMetrics metrics, LongSupplier nanoClock) {
+        this.tokensPerMinute = Math.max(0, tokensPerMinute);
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean isEnabled() {
+        return tokensPerMinute > 0;
+    }
+
+    /**
+     * Records tokens consumed against a model's budget.
+     *
+     * @param modelKey provider model identifier
+     * @param tokens   tokens consumed (prompt + completion)
+     * @param perTask  true when the usage belongs to one agent task, so it also feeds
+     *                 the per-task usage estimate
+     */
+    public void recordUsage(String modelKey, long tokens, boolean perTask) {
+        if (!isEnabled() || tokens <= 0) return;
+        var bucket = bucket(modelKey);
+        synchronized (bucket) {
+            bucket.refill(nanoClock.getAsLong());
+            bucket.available -= tokens;
+            if (perTask) {
+                bucket.avgTaskTokens = bucket.avgTaskTokens == 0
+                        ? tokens
+                        : EWMA_ALPHA * tokens + (1 - EWMA_ALPHA) * bucket.avgTaskTokens;
+            }
+        }
+        log.debug("Token budget [{}]: -{} tokens, {} remaining", modelKey, tokens, remaining(modelKey));
+    }
+
+    /**
+     * Returns how long to wait before starting work expected to consume {@code taskCount}
+     * agent tasks' worth of tokens. Zero when the bucket already covers it. Never longer
+     * than one budget window, after which the bucket is full again.
+     */
+    public long requiredDelayMs(String modelKey, int taskCount) {
+        if (!isEnabled() || taskCount <= 0) return 0;
+        var bucket = bucket(modelKey);
+        synchronized (bucket) {
+            bucket.refill(nanoClock.getAsLong());
+            double perTask = bucket.avgTaskTokens > 0 ? bucket.avgTaskTokens : DEFAULT_TOKENS_PER_TASK;
+            double needed = Math.min(tokensPerMinute, perTask * taskCount);
+            double deficit = needed - bucket.available;
+            if (deficit <= 0) return 0;
+            double tokensPerMs = tokensPerMinute / 60_000.0;
+            return Math.min(60_000L, (long) Math.ceil(deficit / tokensPerMs));
+        }
+    }
+
+    /**
+     * Tokens currently available for a model, after refill.
+     */
+    public long remaining(String modelKey) {
+        var bucket = bucket(modelKey);
+        synchronized (bucket) {
+            bucket.refill(nanoClock.getAsLong());
+            return (long) bucket.available;
+        }
+    }
+
+    /**
+     * Budget key for a model name: lower-cased, without a provider or {@code models/} prefix
+     * and without a snapshot date or {@code -latest} suffix. {@code anthropic/claude-sonnet-4-20250514}
+     * and {@code claude-sonnet-4} share a key.
+     */
+    static String modelKey(String model) {
+        if (model == null || model.isBlank()) return "default";
+        String key = model.trim().toLowerCase(Locale.ROOT);
+        key = key.substring(key.lastIndexOf('/') + 1);
+        key = VERSION_SUFFIX.matcher(key).replaceFirst("");
+        return key.isEmpty() ? "default" : key;
+    }
+
+    private Bucket bucket(String modelKey) {
+        String key = modelKey(modelKey);
+        return buckets.computeIfAbsent(key, k -> {
+            var b = new Bucket(tokensPerMinute, nanoClock.getAsLong());
+            if (metrics != null) {
+                metrics.registerTokenBudgetGauge(k, () -> remaining(k));
+            }
+            return b;
+        });
+    }
+
+    private static final class Bucket {
+        final long capacity;
+        double available;
+        long lastRefillNanos;
+        double avgTaskTokens;
+
+        Bucket(long capacity, long now) {
+            this.capacity = capacity;
+            this.available = capacity;
+            this.lastRefillNanos = now;
+        }
+
+        void refill(long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed <= 0) return;
+            available = Math.min(capacity, available + capacity * (elapsed / 60_000_000_000.0));
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.worldmind.core.llm;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Chat client advisor that charges the token usage reported by each LLM response
+ * against the {@link TokenBudgetGovernor}, keyed by the model that served it.
+ * Streamed responses are charged once, from the last chunk that carries usage.
+ */
+class TokenUsageAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final TokenBudgetGovernor governor;
+
+    TokenUsageAdvisor(TokenBudgetGovernor governor) {
+        this.governor = governor;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        var response = chain.nextCall(request);
+        charge(response.chatResponse());
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        var last = new AtomicReference<ChatResponse>();
+        return chain.nextStream(request)
+                .doOnNext(response -> {
+                    if (totalTokens(response.chatResponse()) != null) {
+                        last.set(response.chatResponse());
+                    }
+                })
+                .doOnComplete(() -> charge(last.get()));
+    }
+
+    private void charge(ChatResponse chatResponse) {
+        Integer tokens = totalTokens(chatResponse);
+        if (tokens != null) {
+            governor.recordUsage(chatResponse.getMetadata().getModel(), tokens, false);
+        }
+    }
+
+    private static Integer totalTokens(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return null;
+        }
+        var usage = chatResponse.getMetadata().getUsage();
+        return usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0
+                ? usage.getTotalTokens() : null;
+    }
+
+    @Override
+    public String getName() {
+        return "TokenUsageAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -24,6 +24,11 @@ public final class MdcContext {
         MDC.put("waveNumber", String.valueOf(waveNumber));
     }
 
+    /** The mission ID bound to the current thread, or null if none. */
+    public static String missionId() {
+        return MDC.get("missionId");
+    }
+
     public static void clear() {
         MDC.remove("missionId");
         MDC.remove("taskId");
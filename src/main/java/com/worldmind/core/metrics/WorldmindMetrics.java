@@ -2,11 +2,14 @@ package com.worldmind.core.metrics;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Centralised Micrometer metrics for Worldmind mission execution.
@@ -33,6 +36,20 @@ public class WorldmindMetrics {
                 .record(Duration.ofMillis(ms));
     }
 
+    /**
+     * Returns the historical mean of {@code worldmind.task.duration} for an agent type,
+     * or 0 when no executions have been recorded yet.
+     */
+    public double averageTaskDurationMs(String agentType) {
+        Timer timer = registry.find("worldmind.task.duration")
+                .tag("agent", agentType)
+                .timer();
+        if (timer == null || timer.count() == 0) {
+            return 0;
+        }
+        return timer.mean(TimeUnit.MILLISECONDS);
+    }
+
     public void recordQualityGateResult(boolean granted) {
         Counter.builder("worldmind.quality_gate.evaluations")
                 .tag("result", granted ? "granted" : "denied")
@@ -40,6 +57,22 @@ public class WorldmindMetrics {
                 .increment();
     }
 
+    /**
+     * Records how agent output was parsed by the quality gate.
+     *
+     * @param output "test" or "review"
+     * @param tier   "rules" when a known format was recognised, "llm" for LLM parsing,
+     *               "keywords" or "default" when test output had no recognisable summary
+     */
+    public void recordOutputParse(String output, String tier) {
+        Counter.builder("worldmind.quality_gate.output_parse")
+                .description("Tester and reviewer outputs parsed, by parsing tier")
+                .tag("output", output)
+                .tag("tier", tier)
+                .register(registry)
+                .increment();
+    }
+
     public void recordIterationDepth(int depth) {
         DistributionSummary.builder("worldmind.iteration.depth")
                 .register(registry)
@@ -89,6 +122,20 @@ public class WorldmindMetrics {
                 .increment();
     }
 
+    /**
+     * Records the forecast merge outcome of one file changed by a task branch. Per-file
+     * conflict rates are kept by the caller, not as tags, to bound the series count.
+     *
+     * @param conflict true if the simulated merge conflicted on the file
+     */
+    public void recordMergeForecast(boolean conflict) {
+        Counter.builder("worldmind.parallel.merge_forecast.files")
+                .description("Files of task branches checked by the merge simulator")
+                .tag("result", conflict ? "conflict" : "clean")
+                .register(registry)
+                .increment();
+    }
+
     /**
      * Records a successful merge retry.
      * Incremented when a merge initially fails but succeeds on retry.
@@ -115,6 +162,19 @@ public class WorldmindMetrics {
                 .increment();
     }
 
+    /**
+     * Records whether a task worktree was handed out from the mission's worktree pool.
+     *
+     * @param hit true if a pooled worktree was available
+     */
+    public void recordWorktreePoolClaim(boolean hit) {
+        Counter.builder("worldmind.parallel.worktree_pool.claims")
+                .description("Task worktrees served from the pre-created worktree pool")
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
     /**
      * Records the number of active worktrees for a mission.
      * Useful for tracking resource usage during parallel execution.
@@ -147,4 +207,151 @@ public class WorldmindMetrics {
                 .register(registry)
                 .record(taskCount);
     }
+
+    /**
+     * Records the outcome of a speculatively dispatched task.
+     *
+     * @param outcome "kept" when its base task passed the quality gate, "discarded" otherwise
+     */
+    public void recordSpeculativeDispatch(String outcome) {
+        Counter.builder("worldmind.dispatch.speculative")
+                .description("Tasks dispatched on an unmerged dependency branch, by outcome")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    // --- Rate Limiting ---
+
+    /**
+     * Registers a gauge reporting the tokens left in a model's rate-limit budget.
+     *
+     * @param modelKey  provider model identifier the budget applies to
+     * @param remaining supplier of the current remaining token count
+     */
+    public void registerTokenBudgetGauge(String modelKey, Supplier<Number> remaining) {
+        Gauge.builder("worldmind.llm.token_budget.remaining", remaining)
+                .description("Tokens remaining in the per-minute provider budget")
+                .tag("model", modelKey)
+                .register(registry);
+    }
+
+    /**
+     * Records time spent waiting for token budget before a wave.
+     *
+     * @param ms wait time in milliseconds (0 when no wait was needed)
+     */
+    public void recordTokenBudgetWait(long ms) {
+        Timer.builder("worldmind.llm.token_budget.wait")
+                .description("Delay before a wave waiting for provider token budget")
+                .register(registry)
+                .record(Duration.ofMillis(ms));
+    }
+
+    // --- Sandbox Admission ---
+
+    /**
+     * Registers gauges for the JVM-wide sandbox admission queue.
+     *
+     * @param queueDepth supplier of the number of requests waiting for a slot
+     * @param inUse      supplier of the number of admitted sandboxes
+     */
+    public void registerAdmissionGauges(Supplier<Number> queueDepth, Supplier<Number> inUse) {
+        Gauge.builder("worldmind.sandbox.admission.queue_depth", queueDepth)
+                .description("Sandbox requests waiting for admission")
+                .register(registry);
+        Gauge.builder("worldmind.sandbox.admission.in_use", inUse)
+                .description("Sandboxes currently admitted across all missions")
+                .register(registry);
+    }
+
+    /**
+     * Records how long a sandbox request waited for admission.
+     *
+     * @param agentType the agent type of the request
+     * @param ms        wait time in milliseconds
+     */
+    public void recordAdmissionWait(String agentType, long ms) {
+        Timer.builder("worldmind.sandbox.admission.wait")
+                .description("Time sandbox requests spent queued for admission")
+                .tag("agent", agentType)
+                .register(registry)
+                .record(Duration.ofMillis(ms));
+    }
+
+    /**
+     * Records whether a Docker sandbox was started in a warm pooled container.
+     *
+     * @param runtimeTag the sandbox runtime tag (base, java, python, node)
+     * @param hit        true if a warm container was available
+     */
+    public void recordWarmPoolClaim(String runtimeTag, boolean hit) {
+        Counter.builder("worldmind.sandbox.warm_pool.claims")
+                .description("Sandbox starts served from the warm container pool")
+                .tag("runtime", runtimeTag)
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    // --- LLM Response Cache ---
+
+    /**
+     * Records a structured-call response cache lookup.
+     *
+     * @param tier the tier that served the hit ("memory" or "persistent"), or null on a miss
+     */
+    public void recordLlmCacheLookup(String tier) {
+        Counter.builder("worldmind.llm.cache.lookups")
+                .description("LLM response cache lookups by result and serving tier")
+                .tag("result", tier != null ? "hit" : "miss")
+                .tag("tier", tier != null ? tier : "none")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records the prompt tokens of an LLM response by provider prompt-cache outcome. The
+     * cache hit rate of a model is its {@code read} count over its total.
+     *
+     * @param model    the model that served the response
+     * @param cached   tokens read from the prompt cache
+     * @param written  tokens written to the prompt cache (providers with explicit caching)
+     * @param uncached the remaining prompt tokens
+     */
+    public void recordPromptTokens(String model, long cached, long written, long uncached) {
+        String modelTag = model != null ? model : "unknown";
+        promptTokenCounter(modelTag, "read").increment(cached);
+        promptTokenCounter(modelTag, "write").increment(written);
+        promptTokenCounter(modelTag, "none").increment(uncached);
+    }
+
+    private Counter promptTokenCounter(String model, String cache) {
+        return Counter.builder("worldmind.llm.prompt_tokens")
+                .description("LLM prompt tokens by provider prompt-cache outcome")
+                .tag("model", model)
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+    // --- Cloud Foundry API ---
+
+    /**
+     * Records the latency of a Cloud Controller or UAA request.
+     *
+     * @param method   HTTP method
+     * @param endpoint path template with GUIDs and query removed, e.g. {@code /v3/tasks/{guid}}
+     * @param status   HTTP status, or -1 if no response was received
+     * @param nanos    request duration in nanoseconds
+     */
+    public void recordCfApiRequest(String method, String endpoint, int status, long nanos) {
+        Timer.builder("worldmind.cf.api.requests")
+                .description("Cloud Foundry API request latency by endpoint")
+                .tag("method", method)
+                .tag("endpoint", endpoint)
+                .tag("status", status < 0 ? "error" : String.valueOf(status))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
 }
@@ -1,16 +1,37 @@
 package com.worldmind.core.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * Tracks a single file change made by a task execution.
  *
- * @param path         relative path within the project
- * @param action       one of "created", "modified", "deleted"
- * @param linesChanged number of lines added, changed, or removed
+ * @param path         relative path within the project (the new path for renames)
+ * @param action       one of "created", "modified", "deleted", "renamed"
+ * @param linesChanged number of lines added plus lines removed
+ * @param previousPath the old path for "renamed", otherwise null
  */
 public record FileRecord(
     String path,
     String action,
-    int linesChanged
-) implements Serializable {}
+    int linesChanged,
+    String previousPath
+) implements Serializable {
+
+    public FileRecord(String path, String action, int linesChanged) {
+        this(path, action, linesChanged, null);
+    }
+
+    /** True for a rename that left the content untouched. */
+    @JsonIgnore
+    public boolean isPureRename() {
+        return "renamed".equals(action) && linesChanged == 0;
+    }
+
+    /** True if there is at least one change and every change is a pure rename. */
+    public static boolean renamesOnly(List<FileRecord> changes) {
+        return changes != null && !changes.isEmpty() && changes.stream().allMatch(FileRecord::isPureRename);
+    }
+}
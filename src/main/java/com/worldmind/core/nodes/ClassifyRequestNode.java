@@ -1,5 +1,6 @@
 package com.worldmind.core.nodes;
 
+import com.worldmind.core.llm.LlmNode;
 import com.worldmind.core.llm.LlmService;
 import com.worldmind.core.model.Classification;
 import com.worldmind.core.model.MissionStatus;
@@ -52,8 +53,8 @@ public class ClassifyRequestNode {
 
         String request = state.request();
         Classification classification = (mcpToolProvider != null && mcpToolProvider.hasTools())
-                ? llmService.structuredCallWithTools(SYSTEM_PROMPT, request, Classification.class, mcpToolProvider.getToolsFor("classify"))
-                : llmService.structuredCall(SYSTEM_PROMPT, request, Classification.class);
+                ? llmService.structuredCallWithTools(LlmNode.CLASSIFY, state.reasoningLevel(), SYSTEM_PROMPT, request, Classification.class, mcpToolProvider.getToolsFor("classify"))
+                : llmService.structuredCall(LlmNode.CLASSIFY, state.reasoningLevel(), SYSTEM_PROMPT, request, Classification.class);
         return Map.of(
                 "classification", classification,
                 "status", MissionStatus.UPLOADING.name()
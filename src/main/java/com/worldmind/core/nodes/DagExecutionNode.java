@@ -0,0 +1,450 @@
+package com.worldmind.core.nodes;
+
+import com.worldmind.core.events.EventBus;
+import com.worldmind.core.events.WorldmindEvent;
+import com.worldmind.core.llm.TokenBudgetGovernor;
+import com.worldmind.core.metrics.WorldmindMetrics;
+import com.worldmind.core.model.*;
+import com.worldmind.core.scheduler.CriticalPathAnalyzer;
+import com.worldmind.core.scheduler.TaskScheduler;
+import com.worldmind.core.state.WorldmindState;
+import com.worldmind.sandbox.SandboxProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Continuous, event-driven alternative to the {@code schedule_wave -> parallel_dispatch
+ * -> evaluate_wave} loop. Enabled with {@code worldmind.sandbox.scheduler-mode=dag}.
+ *
+ * <p>Each task runs through dispatch and evaluation on its own virtual thread. The moment
+ * a task completes, newly-unblocked tasks are started without waiting for the rest of
+ * the wave. When more tasks are ready than there are free slots, tasks with the longest
+ * remaining critical path (see {@link CriticalPathAnalyzer}) go first.
+ *
+ * <p>Dispatch and quality-gate logic are reused from {@link ParallelDispatchNode} and
+ * {@link EvaluateWaveNode} by running them against single-task waves.
+ *
+ * <p>With {@code worldmind.sandbox.speculative-dispatch=true} on Cloud Foundry, a CODER or
+ * REFACTORER task whose only outstanding dependency is a task still in its quality gate is
+ * started on that task's unmerged branch as soon as the dependency's sandbox exits. The
+ * speculative task's own quality gate waits for the dependency's verdict; if the dependency
+ * is denied, the speculative sandbox is cancelled and the task is rescheduled normally.
+ *
+ * <p>Every dispatch round after the first waits on the same rate-limit cooldown as the wave
+ * loop (see {@link DispatchCooldown}).
+ */
+@Component
+public class DagExecutionNode {
+
+    private static final Logger log = LoggerFactory.getLogger(DagExecutionNode.class);
+
+    static final String MODE_DAG = "dag";
+
+    private final TaskScheduler scheduler;
+    private final CriticalPathAnalyzer criticalPath;
+    private final ParallelDispatchNode dispatchNode;
+    private final EvaluateWaveNode evaluateNode;
+    private final EventBus eventBus;
+    private final WorldmindMetrics metrics;
+    private final int maxParallel;
+    private final boolean enabled;
+    private final boolean speculative;
+    private final DispatchCooldown cooldown;
+
+    @Autowired
+    public DagExecutionNode(TaskScheduler scheduler, CriticalPathAnalyzer criticalPath,
+                            ParallelDispatchNode dispatchNode, EvaluateWaveNode evaluateNode,
+                            EventBus eventBus, WorldmindMetrics metrics, SandboxProperties properties,
+                            @Autowired(required = false) TokenBudgetGovernor tokenBudget) {
+        this(scheduler, criticalPath, dispatchNode, evaluateNode, eventBus, metrics,
+                properties.getMaxParallel(), MODE_DAG.equalsIgnoreCase(properties.getSchedulerMode()),
+                // Only CF agents clone per task and can start from an arbitrary branch
+                properties.isSpeculativeDispatch() && "cloudfoundry".equalsIgnoreCase(properties.getProvider()),
+                new DispatchCooldown(tokenBudget, properties.getGooseModel(),
+                        properties.getWaveCooldownSeconds(), metrics));
+    }
+
+    DagExecutionNode(TaskScheduler scheduler, CriticalPathAnalyzer criticalPath,
+                     ParallelDispatchNode dispatchNode, EvaluateWaveNode evaluateNode,
+                     EventBus eventBus, WorldmindMetrics metrics, int maxParallel, boolean enabled) {
+        this(scheduler, criticalPath, dispatchNode, evaluateNode, eventBus, metrics, maxParallel, enabled, false);
+    }
+
+    DagExecutionNode(TaskScheduler scheduler, CriticalPathAnalyzer criticalPath,
+                     ParallelDispatchNode dispatchNode, EvaluateWaveNode evaluateNode,
+                     EventBus eventBus, WorldmindMetrics metrics, int maxParallel, boolean enabled,
+                     boolean speculative) {
+        this(scheduler, criticalPath, dispatchNode, evaluateNode, eventBus, metrics, maxParallel, enabled,
+                speculative, new DispatchCooldown(null, null, 0, metrics));
+    }
+
+    DagExecutionNode(TaskScheduler scheduler, CriticalPathAnalyzer criticalPath,
+                     ParallelDispatchNode dispatchNode, EvaluateWaveNode evaluateNode,
+                     EventBus eventBus, WorldmindMetrics metrics, int maxParallel, boolean enabled,
+                     boolean speculative, DispatchCooldown cooldown) {
+        this.scheduler = scheduler;
+        this.criticalPath = criticalPath;
+        this.dispatchNode = dispatchNode;
+        this.evaluateNode = evaluateNode;
+        this.eventBus = eventBus;
+        this.metrics = metrics;
+        this.maxParallel = maxParallel;
+        this.enabled = enabled;
+        this.speculative = speculative;
+        this.cooldown = cooldown;
+    }
+
+    /**
+     * True when the graph should route execution through this node instead of the wave loop.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<String, Object> apply(WorldmindState state) {
+        String missionId = state.missionId();
+        int limit = state.executionStrategy() == ExecutionStrategy.SEQUENTIAL ? 1 : maxParallel;
+
+        var tasks = new LinkedHashMap<String, Task>();
+        for (var t : state.tasks()) tasks.put(t.id(), t);
+        var completedIds = new LinkedHashSet<>(state.completedTaskIds());
+        var inFlight = new HashSet<String>();
+
+        // Speculation bookkeeping: dispatched tasks awaiting their gate, the gate verdict
+        // each speculative task waits on, and speculative task → the task it builds on
+        var gatePending = new LinkedHashMap<String, CompletableFuture<Boolean>>();
+        var speculativeBase = new HashMap<String, String>();
+
+        var acc = new Accumulator();
+        String retryContext = state.retryContext();
+        boolean missionFailed = false;
+        int dispatchRounds = state.waveCount();
+
+        log.info("DAG execution for mission {}: {} tasks, {} already completed, maxParallel={}, speculative={}",
+                missionId, tasks.size(), completedIds.size(), limit, speculative);
+
+        dispatchNode.prepareMissionWorkspace(state);
+
+        var events = new LinkedBlockingQueue<RunEvent>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                while (true) {
+                    if (!missionFailed) {
+                        var taskList = List.copyOf(tasks.values());
+                        var priorities = criticalPath.remainingPathWeights(taskList, completedIds);
+                        var ready = scheduler.computeReadyTasks(taskList, completedIds, inFlight,
+                                limit - inFlight.size(), priorities);
+                        var spec = speculative
+                                ? speculativeTasks(taskList, completedIds, inFlight, gatePending.keySet(),
+                                        ready, limit - inFlight.size() - ready.size(), priorities)
+                                : Map.<String, String>of();
+
+                        if (!ready.isEmpty() || !spec.isEmpty()) {
+                            var started = new ArrayList<>(ready);
+                            started.addAll(spec.keySet());
+                            // Same rate-limit protection as the wave loop: the first round
+                            // starts immediately, later ones wait for the token budget
+                            if (dispatchRounds > 0) {
+                                cooldown.await(started.size(), dispatchRounds + 1);
+                            }
+                            dispatchRounds++;
+                            log.info("DAG round {} — starting {} (critical path ms: {}){}", dispatchRounds, started,
+                                    started.stream().map(id -> priorities.getOrDefault(id, 0L)).toList(),
+                                    spec.isEmpty() ? "" : ", speculative on " + spec);
+                            eventBus.publish(new WorldmindEvent("wave.scheduled",
+                                    missionId, null,
+                                    Map.of("waveNumber", dispatchRounds,
+                                           "taskCount", started.size(),
+                                           "taskIds", List.copyOf(started)),
+                                    Instant.now()));
+                            if (metrics != null) {
+                                metrics.recordWaveExecution(started.size(), MODE_DAG);
+                            }
+
+                            for (var id : ready) {
+                                var subState = singleTaskState(state, id, taskList, completedIds,
+                                        retryContext, dispatchRounds, null);
+                                inFlight.add(id);
+                                executor.submit(() -> runTask(id, subState, null, events));
+                            }
+                            for (var e : spec.entrySet()) {
+                                String id = e.getKey();
+                                var gate = gatePending.get(e.getValue());
+                                var subState = singleTaskState(state, id, taskList, completedIds,
+                                        retryContext, dispatchRounds, e.getValue());
+                                inFlight.add(id);
+                                speculativeBase.put(id, e.getValue());
+                                eventBus.publish(new WorldmindEvent("task.speculative",
+                                        missionId, id, Map.of("baseTaskId", e.getValue()), Instant.now()));
+                                executor.submit(() -> runTask(id, subState, gate, events));
+                            }
+                            // Retry context applies to the next dispatch only, as in wave mode
+                            retryContext = "";
+                        }
+                    }
+
+                    if (inFlight.isEmpty()) break;
+
+                    RunEvent event;
+                    try {
+                        event = events.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        acc.errors.add("DAG execution interrupted");
+                        missionFailed = true;
+                        break;
+                    }
+
+                    if (event instanceof Dispatched d) {
+                        // Sandbox exited; the task is now in its quality gate and may be built on
+                        if (speculative && d.succeeded() && isImplementation(tasks.get(d.taskId()))) {
+                            gatePending.put(d.taskId(), new CompletableFuture<>());
+                        }
+                        continue;
+                    }
+
+                    var run = (TaskRun) event;
+                    inFlight.remove(run.taskId());
+                    String base = speculativeBase.remove(run.taskId());
+
+                    if (run.discarded()) {
+                        log.info("Speculative task {} discarded — base task {} did not pass; rescheduling",
+                                run.taskId(), base);
+                        if (metrics != null) metrics.recordSpeculativeDispatch("discarded");
+                        continue;
+                    }
+                    if (base != null && metrics != null) metrics.recordSpeculativeDispatch("kept");
+
+                    String nextRetryContext = acc.merge(run.updates(), tasks, completedIds);
+                    if (nextRetryContext != null && !nextRetryContext.isEmpty()) retryContext = nextRetryContext;
+
+                    var gate = gatePending.remove(run.taskId());
+                    if (gate != null) {
+                        boolean passed = completedIds.contains(run.taskId());
+                        gate.complete(passed);
+                        if (!passed) cancelSpeculativeOn(run.taskId(), speculativeBase);
+                    }
+                    if (!missionFailed && MissionStatus.FAILED.name().equals(run.updates().get("status"))) {
+                        log.warn("Task {} failed the mission — draining {} in-flight task(s)", run.taskId(), inFlight.size());
+                        missionFailed = true;
+                        abandonSpeculation(gatePending, speculativeBase);
+                    }
+                }
+            } finally {
+                // Never leave a speculative task waiting on a verdict that will not come
+                if (!gatePending.isEmpty() || !speculativeBase.isEmpty()) {
+                    abandonSpeculation(gatePending, speculativeBase);
+                }
+            }
+        }
+
+        var updates = acc.toUpdates();
+        updates.put("waveTaskIds", List.of());
+        updates.put("waveCount", dispatchRounds);
+        updates.put("retryContext", retryContext != null ? retryContext : "");
+        updates.put("status", missionFailed ? MissionStatus.FAILED.name() : MissionStatus.EXECUTING.name());
+        return updates;
+    }
+
+    /**
+     * Picks implementation tasks that can start on the branch of a task still in its
+     * quality gate: the gated task must be their only unmet dependency.
+     *
+     * @return speculative task ID → base task ID, at most {@code freeSlots} entries
+     */
+    private Map<String, String> speculativeTasks(List<Task> tasks, Set<String> completedIds, Set<String> inFlight,
+                                                 Set<String> gated, List<String> ready, int freeSlots,
+                                                 Map<String, Long> priorities) {
+        if (gated.isEmpty() || freeSlots <= 0) return Map.of();
+
+        var assumedDone = new HashSet<>(completedIds);
+        assumedDone.addAll(gated);
+        // A task building on a gated branch does not conflict with it
+        var claimed = new HashSet<>(inFlight);
+        claimed.removeAll(gated);
+        claimed.addAll(ready);
+
+        var byId = new HashMap<String, Task>();
+        for (var t : tasks) byId.put(t.id(), t);
+
+        var picked = new LinkedHashMap<String, String>();
+        for (var id : scheduler.computeReadyTasks(tasks, assumedDone, claimed, freeSlots, priorities)) {
+            var task = byId.get(id);
+            if (!isImplementation(task) || task.dependencies() == null) continue;
+            var unmet = task.dependencies().stream()
+                    .filter(dep -> !completedIds.contains(dep))
+                    .toList();
+            if (unmet.size() == 1 && gated.contains(unmet.getFirst())) {
+                picked.put(id, unmet.getFirst());
+            }
+        }
+        return picked;
+    }
+
+    private void cancelSpeculativeOn(String baseTaskId, Map<String, String> speculativeBase) {
+        for (var e : speculativeBase.entrySet()) {
+            if (e.getValue().equals(baseTaskId)) {
+                log.info("Base task {} denied — cancelling speculative task {}", baseTaskId, e.getKey());
+                dispatchNode.cancelTask(e.getKey());
+            }
+        }
+    }
+
+    private void abandonSpeculation(Map<String, CompletableFuture<Boolean>> gatePending,
+                                    Map<String, String> speculativeBase) {
+        for (var gate : gatePending.values()) gate.complete(false);
+        gatePending.clear();
+        for (var id : speculativeBase.keySet()) dispatchNode.cancelTask(id);
+    }
+
+    private static boolean isImplementation(Task task) {
+        return task != null && ("CODER".equalsIgnoreCase(task.agent()) || "REFACTORER".equalsIgnoreCase(task.agent()));
+    }
+
+    /**
+     * Dispatches and evaluates a single task. Never throws: infrastructure failures are
+     * reported as a FAILED dispatch result so the quality gate applies the failure strategy.
+     *
+     * @param baseGate for a speculative task, the verdict on the task it builds on; its own
+     *                 quality gate runs only if that verdict is a pass
+     */
+    private void runTask(String taskId, WorldmindState subState, CompletableFuture<Boolean> baseGate,
+                         BlockingQueue<RunEvent> events) {
+        var combined = new HashMap<String, Object>();
+        boolean discarded = false;
+        try {
+            var dispatchUpdates = dispatchNode.dispatch(subState);
+            mergeInto(combined, dispatchUpdates);
+
+            if (baseGate == null) {
+                events.add(new Dispatched(taskId, dispatchSucceeded(dispatchUpdates)));
+            } else if (!baseGate.get()) {
+                discarded = true;
+            }
+
+            if (!discarded) {
+                var evalData = new HashMap<>(subState.data());
+                evalData.put("waveDispatchResults", dispatchUpdates.getOrDefault("waveDispatchResults", List.of()));
+                var evalUpdates = evaluateNode.apply(new WorldmindState(evalData));
+                mergeInto(combined, evalUpdates);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discarded = baseGate != null;
+            mergeInto(combined, Map.of("errors", List.of("Task " + taskId + " interrupted")));
+        } catch (Exception e) {
+            log.error("DAG execution of task {} failed: {}", taskId, e.getMessage(), e);
+            mergeInto(combined, Map.of("errors", List.of("Task " + taskId + " infrastructure error: " + e.getMessage())));
+        } finally {
+            events.add(new TaskRun(taskId, combined, discarded));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean dispatchSucceeded(Map<String, Object> dispatchUpdates) {
+        var results = (List<WaveDispatchResult>) dispatchUpdates.getOrDefault("waveDispatchResults", List.of());
+        return !results.isEmpty() && results.stream().allMatch(r -> r.status() != TaskStatus.FAILED);
+    }
+
+    private WorldmindState singleTaskState(WorldmindState state, String taskId, List<Task> tasks,
+                                           Set<String> completedIds, String retryContext, int round,
+                                           String baseTaskId) {
+        var data = new HashMap<>(state.data());
+        data.put("tasks", tasks);
+        data.put("completedTaskIds", List.copyOf(completedIds));
+        data.put("retryingTaskIds", List.of());
+        data.put("waveTaskIds", List.of(taskId));
+        data.put("waveDispatchResults", List.of());
+        data.put("waveCount", round);
+        data.put("retryContext", retryContext != null ? retryContext : "");
+        data.put("speculativeBaseTaskId", baseTaskId != null ? baseTaskId : "");
+        return new WorldmindState(data);
+    }
+
+    /**
+     * Merges node updates, concatenating list values (appender channel semantics)
+     * and letting later scalar values win.
+     */
+    @SuppressWarnings("unchecked")
+    private static void mergeInto(Map<String, Object> target, Map<String, Object> updates) {
+        for (var e : updates.entrySet()) {
+            if (e.getValue() instanceof List<?> list && target.get(e.getKey()) instanceof List<?> existing) {
+                var joined = new ArrayList<Object>(existing);
+                joined.addAll(list);
+                target.put(e.getKey(), joined);
+            } else {
+                target.put(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    private sealed interface RunEvent permits Dispatched, TaskRun {}
+
+    /** A task's sandbox has exited; its quality gate is about to run. */
+    private record Dispatched(String taskId, boolean succeeded) implements RunEvent {}
+
+    /** A task has been dispatched and evaluated, or discarded after failed speculation. */
+    private record TaskRun(String taskId, Map<String, Object> updates, boolean discarded) implements RunEvent {}
+
+    /**
+     * Collects per-task updates into the final graph state update.
+     */
+    private static class Accumulator {
+        final List<Task> tasks = new ArrayList<>();
+        final List<String> completedIds = new ArrayList<>();
+        final List<String> retryingIds = new ArrayList<>();
+        final List<Object> sandboxes = new ArrayList<>();
+        final List<Object> testResults = new ArrayList<>();
+        final List<Object> reviewFeedback = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        String deploymentUrl;
+
+        /**
+         * Applies a task's updates to the live view and records them for the final update.
+         *
+         * @return the retry context produced by the evaluation, if any
+         */
+        @SuppressWarnings("unchecked")
+        String merge(Map<String, Object> updates, Map<String, Task> liveTasks, Set<String> liveCompleted) {
+            for (var t : (List<Task>) updates.getOrDefault("tasks", List.of())) {
+                liveTasks.put(t.id(), t);
+                tasks.add(t);
+            }
+            for (var id : (List<String>) updates.getOrDefault("completedTaskIds", List.of())) {
+                liveCompleted.add(id);
+                completedIds.add(id);
+            }
+            for (var id : (List<String>) updates.getOrDefault("retryingTaskIds", List.of())) {
+                liveCompleted.remove(id);
+                retryingIds.add(id);
+            }
+            sandboxes.addAll((List<Object>) updates.getOrDefault("sandboxes", List.of()));
+            testResults.addAll((List<Object>) updates.getOrDefault("testResults", List.of()));
+            reviewFeedback.addAll((List<Object>) updates.getOrDefault("reviewFeedback", List.of()));
+            errors.addAll((List<String>) updates.getOrDefault("errors", List.of()));
+            if (updates.get("deploymentUrl") instanceof String url && !url.isBlank()) {
+                deploymentUrl = url;
+            }
+            return updates.get("retryContext") instanceof String ctx ? ctx : null;
+        }
+
+        Map<String, Object> toUpdates() {
+            var updates = new HashMap<String, Object>();
+            if (!tasks.isEmpty()) updates.put("tasks", tasks);
+            if (!completedIds.isEmpty()) updates.put("completedTaskIds", completedIds);
+            if (!retryingIds.isEmpty()) updates.put("retryingTaskIds", retryingIds);
+            if (!sandboxes.isEmpty()) updates.put("sandboxes", sandboxes);
+            if (!testResults.isEmpty()) updates.put("testResults", testResults);
+            if (!reviewFeedback.isEmpty()) updates.put("reviewFeedback", reviewFeedback);
+            if (!errors.isEmpty()) updates.put("errors", errors);
+            if (deploymentUrl != null) updates.put("deploymentUrl", deploymentUrl);
+            return updates;
+        }
+    }
+}
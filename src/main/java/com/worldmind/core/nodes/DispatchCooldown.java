@@ -0,0 +1,68 @@
+package com.worldmind.core.nodes;
+
+import com.worldmind.core.llm.TokenBudgetGovernor;
+import com.worldmind.core.metrics.WorldmindMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rate-limit pause before a dispatch round, shared by the wave loop ({@link ScheduleWaveNode})
+ * and DAG mode ({@link DagExecutionNode}).
+ *
+ * <p>Waits until the provider token budget can cover the round, or a fixed cooldown when no
+ * budget is configured.
+ */
+final class DispatchCooldown {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchCooldown.class);
+
+    private final TokenBudgetGovernor tokenBudget;
+    private final String agentModelKey;
+    private final int cooldownSeconds;
+    private final WorldmindMetrics metrics;
+
+    /**
+     * @param tokenBudget     when enabled, replaces the fixed cooldown with a wait sized to
+     *                        the remaining provider token budget
+     * @param agentModelKey   model the agents run against, used as the budget key
+     * @param cooldownSeconds fixed cooldown used when no token budget is configured
+     */
+    DispatchCooldown(TokenBudgetGovernor tokenBudget, String agentModelKey, int cooldownSeconds,
+                     WorldmindMetrics metrics) {
+        this.tokenBudget = tokenBudget;
+        this.agentModelKey = agentModelKey;
+        this.cooldownSeconds = cooldownSeconds;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Blocks until a round of {@code taskCount} agent tasks may start.
+     *
+     * @param round round number, for logging
+     */
+    void await(int taskCount, int round) {
+        long delayMs;
+        if (tokenBudget != null && tokenBudget.isEnabled()) {
+            delayMs = tokenBudget.requiredDelayMs(agentModelKey, taskCount);
+            if (metrics != null) {
+                metrics.recordTokenBudgetWait(delayMs);
+            }
+            if (delayMs <= 0) {
+                log.info("Token budget covers round {} ({} remaining) — no cooldown",
+                        round, tokenBudget.remaining(agentModelKey));
+                return;
+            }
+            log.info("Token budget cooldown: waiting {}ms before round {}", delayMs, round);
+        } else if (cooldownSeconds > 0) {
+            delayMs = cooldownSeconds * 1000L;
+            log.info("Rate-limit cooldown: waiting {}s before round {}", cooldownSeconds, round);
+        } else {
+            return;
+        }
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -97,19 +97,26 @@ public class EvaluateQualityGateNode {
 
         // ── Step 2: Dispatch REVIEWER (code reviewer) ─────────────────
         ReviewFeedback reviewFeedback;
-        try {
-            var reviewerTask = createReviewerTask(task);
-            log.info("Dispatching REVIEWER for task {}", task.id());
-            var reviewerResult = bridge.executeTask(
-                    reviewerTask, projectContext, Path.of(projectPath), state.gitRemoteUrl(), state.runtimeTag(), state.reasoningLevel());
-            sandboxInfos.add(reviewerResult.sandboxInfo());
-            reviewFeedback = quality_gateService.parseReviewOutput(
-                    task.id(), reviewerResult.output());
-        } catch (Exception e) {
-            log.error("REVIEWER dispatch failed for {}: {}", task.id(), e.getMessage());
-            reviewFeedback = new ReviewFeedback(task.id(), false,
-                    "REVIEWER infrastructure error: " + e.getMessage(),
-                    List.of(e.getMessage()), List.of(), 0);
+        if (FileRecord.renamesOnly(fileChanges)) {
+            // Moving files without touching their content leaves nothing to review
+            log.info("Skipping REVIEWER for task {} (renames only)", task.id());
+            reviewFeedback = new ReviewFeedback(task.id(), true,
+                    "Review skipped: renames only, no content changes", List.of(), List.of(), 10);
+        } else {
+            try {
+                var reviewerTask = createReviewerTask(task);
+                log.info("Dispatching REVIEWER for task {}", task.id());
+                var reviewerResult = bridge.executeTask(
+                        reviewerTask, projectContext, Path.of(projectPath), state.gitRemoteUrl(), state.runtimeTag(), state.reasoningLevel());
+                sandboxInfos.add(reviewerResult.sandboxInfo());
+                reviewFeedback = quality_gateService.parseReviewOutput(
+                        task.id(), reviewerResult.output());
+            } catch (Exception e) {
+                log.error("REVIEWER dispatch failed for {}: {}", task.id(), e.getMessage());
+                reviewFeedback = new ReviewFeedback(task.id(), false,
+                        "REVIEWER infrastructure error: " + e.getMessage(),
+                        List.of(e.getMessage()), List.of(), 0);
+            }
         }
 
         // ── Step 3: Evaluate quality_gate ──────────────────────────────────
@@ -10,6 +10,7 @@ import com.worldmind.core.quality_gate.QualityGateEvaluationService;
 import com.worldmind.core.state.WorldmindState;
 import com.worldmind.sandbox.InstructionBuilder;
 import com.worldmind.sandbox.AgentDispatcher;
+import com.worldmind.sandbox.SandboxProperties;
 import com.worldmind.sandbox.cf.CloudFoundryProperties;
 import com.worldmind.sandbox.cf.GitWorkspaceManager;
 import org.slf4j.Logger;
@@ -20,6 +21,11 @@ import org.springframework.stereotype.Component;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 /**
@@ -35,6 +41,7 @@ import java.util.regex.Pattern;
 public class EvaluateWaveNode {
 
     private static final Logger log = LoggerFactory.getLogger(EvaluateWaveNode.class);
+    private static final int MAX_FORECAST_HISTORY_FILES = 4096;
 
     // Pre-compiled patterns for extractServiceName (avoid recompiling on every call)
     private static final Pattern SERVICE_NOT_FOUND_PATTERN =
@@ -42,6 +49,8 @@ public class EvaluateWaveNode {
     private static final Pattern SERVICE_INSTANCE_NOT_FOUND_PATTERN =
             Pattern.compile("(?i)service instance\\s+'?(\\S+?)'?\\s+not found");
 
+    static final int DEFAULT_GATE_PARALLELISM = 4;
+
     private final AgentDispatcher bridge;
     private final QualityGateEvaluationService quality_gateService;
     private final EventBus eventBus;
@@ -52,12 +61,46 @@ public class EvaluateWaveNode {
     private final GitWorkspaceManager gitWorkspaceManager;
     private final CloudFoundryProperties cfProperties;
 
+    /** Max TESTER/REVIEWER sandboxes running at once across a wave. */
+    private final int gateParallelism;
+    /**
+     * Merge forecast outcomes per file path (checked, conflicted), least recently used
+     * evicted first. Guarded by its own monitor.
+     */
+    private final Map<String, int[]> forecastHistory = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+            return size() > MAX_FORECAST_HISTORY_FILES;
+        }
+    };
+
     @Autowired
     public EvaluateWaveNode(AgentDispatcher bridge, QualityGateEvaluationService quality_gateService,
                             EventBus eventBus, WorldmindMetrics metrics,
                             OscillationDetector oscillationDetector,
                             @Autowired(required = false) GitWorkspaceManager gitWorkspaceManager,
-                            @Autowired(required = false) CloudFoundryProperties cfProperties) {
+                            @Autowired(required = false) CloudFoundryProperties cfProperties,
+                            SandboxProperties sandboxProperties) {
+        // Two gate agents per task, so allow twice the dispatch concurrency
+        this(bridge, quality_gateService, eventBus, metrics, oscillationDetector,
+                gitWorkspaceManager, cfProperties, Math.max(1, 2 * sandboxProperties.getMaxParallel()));
+    }
+
+    public EvaluateWaveNode(AgentDispatcher bridge, QualityGateEvaluationService quality_gateService,
+                            EventBus eventBus, WorldmindMetrics metrics,
+                            OscillationDetector oscillationDetector,
+                            GitWorkspaceManager gitWorkspaceManager,
+                            CloudFoundryProperties cfProperties) {
+        this(bridge, quality_gateService, eventBus, metrics, oscillationDetector,
+                gitWorkspaceManager, cfProperties, DEFAULT_GATE_PARALLELISM);
+    }
+
+    EvaluateWaveNode(AgentDispatcher bridge, QualityGateEvaluationService quality_gateService,
+                     EventBus eventBus, WorldmindMetrics metrics,
+                     OscillationDetector oscillationDetector,
+                     GitWorkspaceManager gitWorkspaceManager,
+                     CloudFoundryProperties cfProperties, int gateParallelism) {
+        this.gateParallelism = Math.max(1, gateParallelism);
         this.bridge = bridge;
         this.quality_gateService = quality_gateService;
         this.eventBus = eventBus;
@@ -97,6 +140,7 @@ public class EvaluateWaveNode {
             String retryContext = null;
             MissionStatus missionStatus = null;
             String deploymentUrl = null;
+            var gateJobs = new ArrayList<GateJob>();
 
             for (var id : waveIds) {
                 var task = taskMap.get(id);
@@ -183,92 +227,17 @@ public class EvaluateWaveNode {
                     continue;
                 }
 
-                // Step 1: TESTER (skipped when skipPerTaskTests is enabled)
-                TestResult testResult;
-                if (state.skipPerTaskTests()) {
-                    log.info("Skipping per-task TESTER for {} (skipPerTaskTests=true)", id);
-                    testResult = new TestResult(id, true, 0, 0, "Per-task tests skipped by mission config", 0L);
-                } else {
-                    eventBus.publish(new WorldmindEvent("task.phase",
-                            state.missionId(), id,
-                            Map.of("phase", "TESTER"), Instant.now()));
-                    try {
-                        var testerTask = createTesterTask(task, fileChanges);
-                        log.info("Dispatching TESTER for task {} ({} file changes)", id, fileChanges.size());
-                        var testerResult = bridge.executeTask(testerTask, projectContext, Path.of(projectPath), state.gitRemoteUrl(), state.runtimeTag(), state.reasoningLevel());
-                        sandboxInfos.add(testerResult.sandboxInfo());
-                        if (testerResult.task().status() == TaskStatus.FAILED) {
-                            log.warn("TESTER for {} failed ({}ms): {}", id,
-                                    testerResult.task().elapsedMs(), testerResult.output());
-                        }
-                        testResult = quality_gateService.parseTestOutput(id, testerResult.output(),
-                                testerResult.task().elapsedMs() != null ? testerResult.task().elapsedMs() : 0L);
-                    } catch (Exception e) {
-                        log.error("TESTER dispatch failed for {}: {}", id, e.getMessage());
-                        testResult = new TestResult(id, false, 0, 0,
-                                "TESTER infrastructure error: " + e.getMessage(), 0L);
-                    }
-                }
-
-                // Step 2: REVIEWER
-                eventBus.publish(new WorldmindEvent("task.phase",
-                        state.missionId(), id,
-                        Map.of("phase", "REVIEWER"), Instant.now()));
-                ReviewFeedback reviewFeedback;
-                try {
-                    var reviewerTask = createReviewerTask(task, fileChanges);
-                    log.info("Dispatching REVIEWER for task {} ({} file changes)", id, fileChanges.size());
-                    var reviewerResult = bridge.executeTask(reviewerTask, projectContext, Path.of(projectPath), state.gitRemoteUrl(), state.runtimeTag(), state.reasoningLevel());
-                    sandboxInfos.add(reviewerResult.sandboxInfo());
-                    if (reviewerResult.task().status() == TaskStatus.FAILED) {
-                        log.warn("REVIEWER for {} failed ({}ms): {}", id,
-                                reviewerResult.task().elapsedMs(), reviewerResult.output());
-                    }
-                    reviewFeedback = quality_gateService.parseReviewOutput(id, reviewerResult.output());
-                } catch (Exception e) {
-                    log.error("REVIEWER dispatch failed for {}: {}", id, e.getMessage());
-                    reviewFeedback = new ReviewFeedback(id, false,
-                            "REVIEWER infrastructure error: " + e.getMessage(),
-                            List.of(e.getMessage()), List.of(), 0);
-                }
-
-                testResultsList.add(testResult);
-                reviewFeedbackList.add(reviewFeedback);
+                gateJobs.add(new GateJob(id, task, dispatchResult, fileChanges));
+            }
 
-                // Step 3: Evaluate quality_gate
-                eventBus.publish(new WorldmindEvent("task.phase",
-                        state.missionId(), id,
-                        Map.of("phase", "QUALITY_GATE"), Instant.now()));
-                var quality_gateDecision = quality_gateService.evaluateQualityGate(testResult, reviewFeedback, task);
-                log.info("QualityGate evaluation for {}: {} — {}", id,
-                        quality_gateDecision.quality_gateGranted() ? "GRANTED" : "DENIED", quality_gateDecision.reason());
-                metrics.recordQualityGateResult(quality_gateDecision.quality_gateGranted());
+            // Branches predicted to conflict on merge wait for the rest of the wave to land
+            // before their quality gates run
+            var deferredJobs = deferPredictedConflicts(state, gateJobs);
 
-                if (quality_gateDecision.quality_gateGranted()) {
-                    completedIds.add(id);
-                    updatedTasks.add(withResult(task, dispatchResult, TaskStatus.PASSED));
-                    eventBus.publish(new WorldmindEvent("quality_gate.granted",
-                            state.missionId(), id,
-                            Map.of("reason", quality_gateDecision.reason(),
-                                   "score", reviewFeedback.score(),
-                                   "summary", reviewFeedback.summary() != null ? reviewFeedback.summary() : ""),
-                            Instant.now()));
-                } else {
-                    eventBus.publish(new WorldmindEvent("quality_gate.denied",
-                            state.missionId(), id,
-                            Map.of("reason", quality_gateDecision.reason(),
-                                   "action", quality_gateDecision.action() != null ? quality_gateDecision.action().name() : "UNKNOWN",
-                                   "score", reviewFeedback.score(),
-                                   "summary", reviewFeedback.summary() != null ? reviewFeedback.summary() : ""),
-                            Instant.now()));
-                    var result = handleFailure(id, task, dispatchResult,
-                            quality_gateDecision.action(), quality_gateDecision.reason(),
-                            enrichRetryContext(task.inputContext(), reviewFeedback),
-                            completedIds, updatedTasks, errors);
-                    if (result.retryContext != null) retryContext = result.retryContext;
-                    if (result.missionFailed) missionStatus = MissionStatus.FAILED;
-                }
-            }
+            var gateOutcome = evaluateGates(state, gateJobs, projectContext, projectPath, completedIds,
+                    updatedTasks, testResultsList, reviewFeedbackList, sandboxInfos, errors);
+            if (gateOutcome.retryContext != null) retryContext = gateOutcome.retryContext;
+            if (gateOutcome.missionFailed) missionStatus = MissionStatus.FAILED;
 
             // Per-wave merge: merge passed CODER/REFACTORER branches into main
             List<String> passedCoderIds = updatedTasks.stream()
@@ -284,6 +253,14 @@ public class EvaluateWaveNode {
                 if (mergeOutcome.missionFailed) missionStatus = MissionStatus.FAILED;
             }
 
+            if (!deferredJobs.isEmpty()) {
+                var deferredOutcome = landDeferredJobs(state, deferredJobs, passedCoderIds, taskMap,
+                        projectContext, projectPath, completedIds, retryingIds, updatedTasks,
+                        testResultsList, reviewFeedbackList, sandboxInfos, errors);
+                if (deferredOutcome.retryContext != null) retryContext = deferredOutcome.retryContext;
+                if (deferredOutcome.missionFailed) missionStatus = MissionStatus.FAILED;
+            }
+
             // Build state updates
             var updates = new HashMap<String, Object>();
             if (!completedIds.isEmpty()) updates.put("completedTaskIds", completedIds);
@@ -311,6 +288,306 @@ public class EvaluateWaveNode {
         }
     }
 
+    /**
+     * Runs TESTER + REVIEWER for the given CODER tasks concurrently, then evaluates each
+     * quality gate in order.
+     */
+    private FailureOutcome evaluateGates(WorldmindState state, List<GateJob> jobs,
+                                         ProjectContext projectContext, String projectPath,
+                                         List<String> completedIds, List<Task> updatedTasks,
+                                         List<TestResult> testResultsList, List<ReviewFeedback> reviewFeedbackList,
+                                         List<SandboxInfo> sandboxInfos, List<String> errors) {
+        var outcome = new FailureOutcome();
+        var gateRuns = runQualityGateAgents(state, jobs, projectContext, projectPath);
+        for (int i = 0; i < jobs.size(); i++) {
+            var job = jobs.get(i);
+            var run = gateRuns.get(i);
+            String id = job.id();
+            var task = job.task();
+            var dispatchResult = job.dispatchResult();
+            var testResult = run.testResult();
+            var reviewFeedback = run.reviewFeedback();
+            sandboxInfos.addAll(run.sandboxes());
+
+            testResultsList.add(testResult);
+            reviewFeedbackList.add(reviewFeedback);
+
+            // Evaluate quality_gate
+            eventBus.publish(new WorldmindEvent("task.phase",
+                    state.missionId(), id,
+                    Map.of("phase", "QUALITY_GATE"), Instant.now()));
+            var quality_gateDecision = quality_gateService.evaluateQualityGate(testResult, reviewFeedback, task);
+            log.info("QualityGate evaluation for {}: {} — {}", id,
+                    quality_gateDecision.quality_gateGranted() ? "GRANTED" : "DENIED", quality_gateDecision.reason());
+            metrics.recordQualityGateResult(quality_gateDecision.quality_gateGranted());
+
+            if (quality_gateDecision.quality_gateGranted()) {
+                completedIds.add(id);
+                updatedTasks.add(withResult(task, dispatchResult, TaskStatus.PASSED));
+                eventBus.publish(new WorldmindEvent("quality_gate.granted",
+                        state.missionId(), id,
+                        Map.of("reason", quality_gateDecision.reason(),
+                               "score", reviewFeedback.score(),
+                               "summary", reviewFeedback.summary() != null ? reviewFeedback.summary() : ""),
+                        Instant.now()));
+            } else {
+                eventBus.publish(new WorldmindEvent("quality_gate.denied",
+                        state.missionId(), id,
+                        Map.of("reason", quality_gateDecision.reason(),
+                               "action", quality_gateDecision.action() != null ? quality_gateDecision.action().name() : "UNKNOWN",
+                               "score", reviewFeedback.score(),
+                               "summary", reviewFeedback.summary() != null ? reviewFeedback.summary() : ""),
+                        Instant.now()));
+                var result = handleFailure(id, task, dispatchResult,
+                        quality_gateDecision.action(), quality_gateDecision.reason(),
+                        enrichRetryContext(task.inputContext(), reviewFeedback),
+                        completedIds, updatedTasks, errors);
+                if (result.retryContext != null) outcome.retryContext = result.retryContext;
+                if (result.missionFailed) outcome.missionFailed = true;
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Forecasts the wave merge (see {@link GitWorkspaceManager#forecastWaveMerge}), records
+     * the per-file outcome, and moves the jobs whose branch is expected to conflict out of
+     * {@code gateJobs}. Their gates would otherwise run for a branch the merge then
+     * rejects, followed by a full re-run of the task.
+     *
+     * @return the deferred jobs, empty when forecasting is off or nothing conflicts
+     */
+    private List<GateJob> deferPredictedConflicts(WorldmindState state, List<GateJob> gateJobs) {
+        if (gateJobs.isEmpty() || gitWorkspaceManager == null || cfProperties == null
+                || !cfProperties.isMergeForecast()) {
+            return List.of();
+        }
+        var forecast = gitWorkspaceManager.forecastWaveMerge(
+                gateJobs.stream().map(GateJob::id).toList(), cfProperties.getGitToken(), state.gitRemoteUrl());
+
+        var deferred = new ArrayList<GateJob>();
+        for (var job : gateJobs) {
+            var conflicted = forecast.conflictedFiles(job.id());
+            var conflictRates = new LinkedHashMap<String, Double>();
+            for (var file : job.fileChanges()) {
+                boolean conflict = conflicted.contains(file.path());
+                metrics.recordMergeForecast(conflict);
+                double rate = recordForecastOutcome(file.path(), conflict);
+                if (conflict) conflictRates.put(file.path(), rate);
+            }
+            if (forecast.conflicts(job.id())) {
+                log.info("Task {} is expected to conflict on merge ({}) — gating it after the rest of the wave lands",
+                        job.id(), conflicted);
+                eventBus.publish(new WorldmindEvent("merge.conflict_predicted",
+                        state.missionId(), job.id(),
+                        Map.of("files", conflicted, "conflictRates", conflictRates), Instant.now()));
+                deferred.add(job);
+            }
+        }
+        gateJobs.removeAll(deferred);
+        return deferred;
+    }
+
+    /**
+     * Adds a forecast outcome to the file's history.
+     *
+     * @return the fraction of the file's forecasts that predicted a conflict
+     */
+    private double recordForecastOutcome(String file, boolean conflict) {
+        synchronized (forecastHistory) {
+            var counts = forecastHistory.computeIfAbsent(file, f -> new int[2]);
+            counts[0]++;
+            if (conflict) counts[1]++;
+            return (double) counts[1] / counts[0];
+        }
+    }
+
+    /**
+     * Second pass for jobs deferred by {@link #deferPredictedConflicts}, after the rest of
+     * the wave has merged. Re-forecasts them against the updated main: branches that
+     * still conflict are reset for a retry on the new main without running their gates;
+     * the others are gated and merged as usual.
+     */
+    private FailureOutcome landDeferredJobs(WorldmindState state, List<GateJob> deferredJobs,
+                                            List<String> mergedIds, Map<String, Task> taskMap,
+                                            ProjectContext projectContext, String projectPath,
+                                            List<String> completedIds, List<String> retryingIds,
+                                            List<Task> updatedTasks, List<TestResult> testResultsList,
+                                            List<ReviewFeedback> reviewFeedbackList,
+                                            List<SandboxInfo> sandboxInfos, List<String> errors) {
+        var outcome = new FailureOutcome();
+        var forecast = gitWorkspaceManager.forecastWaveMerge(
+                deferredJobs.stream().map(GateJob::id).toList(), cfProperties.getGitToken(), state.gitRemoteUrl());
+
+        var conflictedIds = new ArrayList<String>();
+        var cleanJobs = new ArrayList<GateJob>();
+        for (var job : deferredJobs) {
+            if (forecast.conflicts(job.id())) {
+                conflictedIds.add(job.id());
+                completedIds.add(job.id());
+                updatedTasks.add(withResult(job.task(), job.dispatchResult(), TaskStatus.PASSED));
+            } else {
+                cleanJobs.add(job);
+            }
+        }
+        if (!conflictedIds.isEmpty()) {
+            log.warn("Tasks {} still conflict with the updated main — retrying them without quality gates",
+                    conflictedIds);
+            outcome.missionFailed = resetConflictedTasks(conflictedIds, buildMergedFilesContext(mergedIds, taskMap),
+                    updatedTasks, completedIds, retryingIds, errors);
+            errors.add("Predicted merge conflicts on " + conflictedIds + " — retrying on updated main in next wave");
+        }
+
+        if (!cleanJobs.isEmpty()) {
+            var gateOutcome = evaluateGates(state, cleanJobs, projectContext, projectPath, completedIds,
+                    updatedTasks, testResultsList, reviewFeedbackList, sandboxInfos, errors);
+            outcome.retryContext = gateOutcome.retryContext;
+            outcome.missionFailed |= gateOutcome.missionFailed;
+
+            var cleanIds = cleanJobs.stream().map(GateJob::id).toList();
+            List<String> passedIds = updatedTasks.stream()
+                    .filter(d -> d.status() == TaskStatus.PASSED && cleanIds.contains(d.id()))
+                    .map(Task::id)
+                    .sorted()
+                    .toList();
+            if (!passedIds.isEmpty()) {
+                var mergeOutcome = mergeWaveAndHandleConflicts(
+                        state, passedIds, taskMap, updatedTasks, completedIds, retryingIds, errors);
+                outcome.missionFailed |= mergeOutcome.missionFailed;
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Fans out the TESTER and REVIEWER sandboxes for every gated task on virtual threads,
+     * at most {@code gateParallelism} at a time, and waits for all of them. Both agents
+     * only read the CODER branch, so they need no ordering.
+     *
+     * @return one result per job, in job order
+     */
+    private List<GateRun> runQualityGateAgents(WorldmindState state, List<GateJob> jobs,
+                                               ProjectContext projectContext, String projectPath) {
+        if (jobs.isEmpty()) return List.of();
+        log.info("Running quality gate agents for {} task(s), up to {} sandboxes at once",
+                jobs.size(), gateParallelism);
+
+        var permits = new Semaphore(gateParallelism);
+        var testers = new ArrayList<CompletableFuture<GateAgentResult<TestResult>>>();
+        var reviewers = new ArrayList<CompletableFuture<GateAgentResult<ReviewFeedback>>>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var job : jobs) {
+                if (state.skipPerTaskTests()) {
+                    log.info("Skipping per-task TESTER for {} (skipPerTaskTests=true)", job.id());
+                    testers.add(CompletableFuture.completedFuture(new GateAgentResult<>(
+                            new TestResult(job.id(), true, 0, 0, "Per-task tests skipped by mission config", 0L), null)));
+                } else {
+                    testers.add(CompletableFuture.supplyAsync(
+                            () -> withPermit(permits, () -> runTester(state, job, projectContext, projectPath)), executor));
+                }
+                if (FileRecord.renamesOnly(job.fileChanges())) {
+                    // Moving files without touching their content leaves nothing to review
+                    log.info("Skipping REVIEWER for {} (renames only)", job.id());
+                    reviewers.add(CompletableFuture.completedFuture(new GateAgentResult<>(
+                            new ReviewFeedback(job.id(), true, "Review skipped: renames only, no content changes",
+                                    List.of(), List.of(), 10), null)));
+                } else {
+                    reviewers.add(CompletableFuture.supplyAsync(
+                            () -> withPermit(permits, () -> runReviewer(state, job, projectContext, projectPath)), executor));
+                }
+            }
+
+            var runs = new ArrayList<GateRun>();
+            for (int i = 0; i < jobs.size(); i++) {
+                var tester = testers.get(i).join();
+                var reviewer = reviewers.get(i).join();
+                var sandboxes = new ArrayList<SandboxInfo>();
+                if (tester.sandboxInfo() != null) sandboxes.add(tester.sandboxInfo());
+                if (reviewer.sandboxInfo() != null) sandboxes.add(reviewer.sandboxInfo());
+                runs.add(new GateRun(tester.value(), reviewer.value(), sandboxes));
+            }
+            return runs;
+        }
+    }
+
+    private GateAgentResult<TestResult> runTester(WorldmindState state, GateJob job,
+                                                  ProjectContext projectContext, String projectPath) {
+        String id = job.id();
+        MdcContext.setTask(state.missionId(), id, "TESTER");
+        eventBus.publish(new WorldmindEvent("task.phase",
+                state.missionId(), id,
+                Map.of("phase", "TESTER"), Instant.now()));
+        try {
+            var testerTask = createTesterTask(job.task(), job.fileChanges());
+            log.info("Dispatching TESTER for task {} ({} file changes)", id, job.fileChanges().size());
+            var testerResult = bridge.executeTask(testerTask, projectContext, Path.of(projectPath), state.gitRemoteUrl(), state.runtimeTag(), state.reasoningLevel());
+            if (testerResult.task().status() == TaskStatus.FAILED) {
+                log.warn("TESTER for {} failed ({}ms): {}", id,
+                        testerResult.task().elapsedMs(), testerResult.output());
+            }
+            var testResult = quality_gateService.parseTestOutput(id, testerResult.output(),
+                    testerResult.task().elapsedMs() != null ? testerResult.task().elapsedMs() : 0L);
+            return new GateAgentResult<>(testResult, testerResult.sandboxInfo());
+        } catch (Exception e) {
+            log.error("TESTER dispatch failed for {}: {}", id, e.getMessage());
+            return new GateAgentResult<>(new TestResult(id, false, 0, 0,
+                    "TESTER infrastructure error: " + e.getMessage(), 0L), null);
+        } finally {
+            MdcContext.clear();
+        }
+    }
+
+    private GateAgentResult<ReviewFeedback> runReviewer(WorldmindState state, GateJob job,
+                                                        ProjectContext projectContext, String projectPath) {
+        String id = job.id();
+        MdcContext.setTask(state.missionId(), id, "REVIEWER");
+        eventBus.publish(new WorldmindEvent("task.phase",
+                state.missionId(), id,
+                Map.of("phase", "REVIEWER"), Instant.now()));
+        try {
+            var reviewerTask = createReviewerTask(job.task(), job.fileChanges());
+            log.info("Dispatching REVIEWER for task {} ({} file changes)", id, job.fileChanges().size());
+            var reviewerResult = bridge.executeTask(reviewerTask, projectContext, Path.of(projectPath), state.gitRemoteUrl(), state.runtimeTag(), state.reasoningLevel());
+            if (reviewerResult.task().status() == TaskStatus.FAILED) {
+                log.warn("REVIEWER for {} failed ({}ms): {}", id,
+                        reviewerResult.task().elapsedMs(), reviewerResult.output());
+            }
+            var feedback = quality_gateService.parseReviewOutput(id, reviewerResult.output());
+            return new GateAgentResult<>(feedback, reviewerResult.sandboxInfo());
+        } catch (Exception e) {
+            log.error("REVIEWER dispatch failed for {}: {}", id, e.getMessage());
+            return new GateAgentResult<>(new ReviewFeedback(id, false,
+                    "REVIEWER infrastructure error: " + e.getMessage(),
+                    List.of(e.getMessage()), List.of(), 0), null);
+        } finally {
+            MdcContext.clear();
+        }
+    }
+
+    private static <T> T withPermit(Semaphore permits, Supplier<T> body) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            return body.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** A CODER task that passed dispatch and needs its quality gate. */
+    private record GateJob(String id, Task task, WaveDispatchResult dispatchResult, List<FileRecord> fileChanges) {}
+
+    /** Output of one gate agent plus the sandbox it ran in (null on infrastructure error). */
+    private record GateAgentResult<T>(T value, SandboxInfo sandboxInfo) {}
+
+    /** TESTER and REVIEWER results for one {@link GateJob}. */
+    private record GateRun(TestResult testResult, ReviewFeedback reviewFeedback, List<SandboxInfo> sandboxes) {}
+
     private Task withResult(Task d, WaveDispatchResult result, TaskStatus status) {
         // Increment iteration count since this task was executed
         int newIteration = d.iteration() + 1;
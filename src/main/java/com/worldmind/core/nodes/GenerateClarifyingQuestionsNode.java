@@ -1,5 +1,6 @@
 package com.worldmind.core.nodes;
 
+import com.worldmind.core.llm.LlmNode;
 import com.worldmind.core.llm.LlmService;
 import com.worldmind.core.model.ClarifyingQuestions;
 import com.worldmind.core.model.Classification;
@@ -111,7 +112,8 @@ public class GenerateClarifyingQuestionsNode {
         ProjectContext projectContext = state.projectContext().orElse(null);
 
         String userPrompt = buildUserPrompt(request, classification, projectContext);
-        ClarifyingQuestions questions = llmService.structuredCall(SYSTEM_PROMPT, userPrompt, ClarifyingQuestions.class);
+        ClarifyingQuestions questions = llmService.structuredCall(LlmNode.CLARIFY, state.reasoningLevel(),
+                SYSTEM_PROMPT, userPrompt, ClarifyingQuestions.class);
         
         // If CF deployment is requested, inject service binding question with auto-detection
         if (state.createCfDeployment()) {
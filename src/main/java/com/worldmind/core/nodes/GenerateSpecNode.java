@@ -1,6 +1,11 @@
 package com.worldmind.core.nodes;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.worldmind.core.events.EventBus;
+import com.worldmind.core.events.WorldmindEvent;
+import com.worldmind.core.llm.LlmNode;
 import com.worldmind.core.llm.LlmService;
+import com.worldmind.core.llm.StreamingJsonParser;
 import com.worldmind.core.model.Classification;
 import com.worldmind.core.model.MissionStatus;
 import com.worldmind.core.model.ProductSpec;
@@ -8,6 +13,7 @@ import com.worldmind.core.model.ProjectContext;
 import com.worldmind.core.state.WorldmindState;
 import com.worldmind.mcp.McpToolProvider;
 import com.worldmind.sandbox.cf.CloudFoundryProperties;
+import com.worldmind.sandbox.cf.GitWorkspaceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,17 +21,22 @@ import org.springframework.stereotype.Component;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Generates a {@link ProductSpec} from the classified request and project context,
  * writes it as SPEC.md to the project directory, and optionally commits it to git.
+ * <p>
+ * With an {@link EventBus} (and no MCP tools), the spec is streamed and each section is
+ * published as a {@code spec.section_drafted} event as soon as the model has written it.
  */
 @Component
 public class GenerateSpecNode {
 
     private static final Logger log = LoggerFactory.getLogger(GenerateSpecNode.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     private static final String SYSTEM_PROMPT = """
             You are a senior product manager writing a detailed PRD (Product Requirements Document)
@@ -93,13 +104,33 @@ public class GenerateSpecNode {
     private final LlmService llmService;
     private final CloudFoundryProperties cfProperties;
     private final McpToolProvider mcpToolProvider;
+    private final GitWorkspaceManager gitWorkspaceManager;
+    private final EventBus eventBus;
 
+    public GenerateSpecNode(LlmService llmService,
+                            CloudFoundryProperties cfProperties,
+                            McpToolProvider mcpToolProvider) {
+        this(llmService, cfProperties, mcpToolProvider, null);
+    }
+
+    public GenerateSpecNode(LlmService llmService,
+                            CloudFoundryProperties cfProperties,
+                            McpToolProvider mcpToolProvider,
+                            GitWorkspaceManager gitWorkspaceManager) {
+        this(llmService, cfProperties, mcpToolProvider, gitWorkspaceManager, null);
+    }
+
+    @Autowired
     public GenerateSpecNode(LlmService llmService,
                             @Autowired(required = false) CloudFoundryProperties cfProperties,
-                            @Autowired(required = false) McpToolProvider mcpToolProvider) {
+                            @Autowired(required = false) McpToolProvider mcpToolProvider,
+                            @Autowired(required = false) GitWorkspaceManager gitWorkspaceManager,
+                            @Autowired(required = false) EventBus eventBus) {
         this.llmService = llmService;
         this.cfProperties = cfProperties;
         this.mcpToolProvider = mcpToolProvider;
+        this.gitWorkspaceManager = gitWorkspaceManager;
+        this.eventBus = eventBus;
     }
 
     public Map<String, Object> apply(WorldmindState state) {
@@ -118,9 +149,16 @@ public class GenerateSpecNode {
         );
 
         String userPrompt = buildUserPrompt(request, classification, projectContext, state);
-        ProductSpec spec = (mcpToolProvider != null && mcpToolProvider.hasTools())
-                ? llmService.structuredCallWithTools(SYSTEM_PROMPT, userPrompt, ProductSpec.class, mcpToolProvider.getToolsFor("plan"))
-                : llmService.structuredCall(SYSTEM_PROMPT, userPrompt, ProductSpec.class);
+        ProductSpec spec;
+        if (mcpToolProvider != null && mcpToolProvider.hasTools()) {
+            spec = llmService.structuredCallWithTools(LlmNode.SPEC, state.reasoningLevel(),
+                    SYSTEM_PROMPT, userPrompt, ProductSpec.class, mcpToolProvider.getToolsFor("plan"));
+        } else if (eventBus != null) {
+            spec = llmService.streamingStructuredCall(LlmNode.SPEC, state.reasoningLevel(), SYSTEM_PROMPT, userPrompt, ProductSpec.class,
+                    fragment -> publishDraftedSection(state.missionId(), fragment));
+        } else {
+            spec = llmService.structuredCall(LlmNode.SPEC, state.reasoningLevel(), SYSTEM_PROMPT, userPrompt, ProductSpec.class);
+        }
         log.info("Generated product spec: {}", spec.title());
 
         writeSpecFile(state, spec);
@@ -131,6 +169,16 @@ public class GenerateSpecNode {
         );
     }
 
+    /** Publishes a spec section (a whole top-level field) as soon as the model has finished it. */
+    private void publishDraftedSection(String missionId, StreamingJsonParser.JsonFragment fragment) {
+        if (fragment.index() >= 0) {
+            return;
+        }
+        Object content = OBJECT_MAPPER.convertValue(fragment.value(), Object.class);
+        eventBus.publish(new WorldmindEvent("spec.section_drafted", missionId, null,
+                Map.of("section", fragment.field(), "content", content != null ? content : ""), Instant.now()));
+    }
+
     private String buildUserPrompt(String request, Classification classification, 
                                    ProjectContext projectContext, WorldmindState state) {
         List<String> fileTreeExcerpt = projectContext.fileTree().stream()
@@ -236,10 +284,18 @@ public class GenerateSpecNode {
     }
 
     private void writeSpecViaGit(String gitRemoteUrl, String markdown) {
+        String authUrl = authenticateGitUrl(gitRemoteUrl);
+        if (gitWorkspaceManager != null) {
+            // Commits through the cached mirror of the remote when one is configured
+            if (gitWorkspaceManager.commitFile(authUrl, "SPEC.md", markdown, "Add product specification")) {
+                log.info("Pushed SPEC.md to remote repo");
+            }
+            return;
+        }
+
         Path tempDir = null;
         try {
             tempDir = Files.createTempDirectory("worldmind-spec-");
-            String authUrl = authenticateGitUrl(gitRemoteUrl);
 
             log.info("Cloning repo to write SPEC.md...");
             int cloneExit = runGit(tempDir, "clone", "--depth", "1", authUrl, ".");
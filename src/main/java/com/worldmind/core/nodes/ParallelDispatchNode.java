@@ -1,8 +1,10 @@
 package com.worldmind.core.nodes;
 
 import com.worldmind.core.events.EventBus;
+import com.worldmind.core.events.HeartbeatService;
 import com.worldmind.core.events.WorldmindEvent;
 import com.worldmind.core.logging.MdcContext;
+import com.worldmind.core.llm.TokenBudgetGovernor;
 import com.worldmind.core.metrics.WorldmindMetrics;
 import com.worldmind.core.model.*;
 import com.worldmind.core.state.WorldmindState;
@@ -38,12 +40,18 @@ public class ParallelDispatchNode {
     private final WorldmindMetrics metrics;
     private final WorktreeExecutionContext worktreeContext;
     private final boolean worktreesEnabled;
+    private final TokenBudgetGovernor tokenBudget;
+    private final String agentModelKey;
+    private final HeartbeatService heartbeats;
 
     @Autowired
     public ParallelDispatchNode(AgentDispatcher bridge, SandboxProperties properties,
                                 EventBus eventBus, WorldmindMetrics metrics,
-                                @Autowired(required = false) WorktreeExecutionContext worktreeContext) {
-        this(bridge, properties.getMaxParallel(), eventBus, metrics, worktreeContext, properties.isWorktreesEnabled());
+                                @Autowired(required = false) WorktreeExecutionContext worktreeContext,
+                                @Autowired(required = false) TokenBudgetGovernor tokenBudget,
+                                HeartbeatService heartbeats) {
+        this(bridge, properties.getMaxParallel(), eventBus, metrics, worktreeContext, properties.isWorktreesEnabled(),
+                tokenBudget, properties.getGooseModel(), heartbeats);
     }
 
     ParallelDispatchNode(AgentDispatcher bridge, int maxParallel) {
@@ -52,15 +60,53 @@ public class ParallelDispatchNode {
 
     ParallelDispatchNode(AgentDispatcher bridge, int maxParallel, EventBus eventBus, WorldmindMetrics metrics,
                         WorktreeExecutionContext worktreeContext, boolean worktreesEnabled) {
+        this(bridge, maxParallel, eventBus, metrics, worktreeContext, worktreesEnabled, null, null, null);
+    }
+
+    ParallelDispatchNode(AgentDispatcher bridge, int maxParallel, EventBus eventBus, WorldmindMetrics metrics,
+                        WorktreeExecutionContext worktreeContext, boolean worktreesEnabled,
+                        TokenBudgetGovernor tokenBudget, String agentModelKey, HeartbeatService heartbeats) {
         this.bridge = bridge;
         this.maxParallel = maxParallel;
         this.eventBus = eventBus;
         this.metrics = metrics;
         this.worktreeContext = worktreeContext;
         this.worktreesEnabled = worktreesEnabled && worktreeContext != null;
+        this.tokenBudget = tokenBudget;
+        this.agentModelKey = agentModelKey;
+        this.heartbeats = heartbeats;
     }
 
     public Map<String, Object> apply(WorldmindState state) {
+        // Initialize mission workspace if worktrees are enabled and this is the first wave
+        if (!state.waveTaskIds().isEmpty() && state.waveCount() == 1) {
+            prepareMissionWorkspace(state);
+        }
+        return dispatch(state);
+    }
+
+    /**
+     * Creates the shared mission workspace used for worktree-based execution.
+     * No-op when worktrees are disabled or the mission has no git remote.
+     */
+    public void prepareMissionWorkspace(WorldmindState state) {
+        if (!worktreesEnabled) return;
+        String gitUrl = state.gitRemoteUrl();
+        if (gitUrl == null || gitUrl.isBlank()) return;
+
+        Path workspace = worktreeContext.createMissionWorkspace(state.missionId(), gitUrl);
+        if (workspace != null) {
+            log.info("Created mission workspace for {} at {}", state.missionId(), workspace);
+        } else {
+            log.warn("Failed to create mission workspace — falling back to standard execution");
+        }
+    }
+
+    /**
+     * Dispatches every task in {@code waveTaskIds} concurrently and collects the results,
+     * without touching the mission workspace.
+     */
+    public Map<String, Object> dispatch(WorldmindState state) {
         var waveIds = state.waveTaskIds();
         var tasks = state.tasks();
         String retryContext = state.retryContext();
@@ -72,6 +118,7 @@ public class ParallelDispatchNode {
                 ? userPath
                 : (projectContext != null ? projectContext.rootPath() : ".");
         String missionId = state.missionId();
+        String baseTaskId = state.speculativeBaseTaskId();
 
         if (waveIds.isEmpty()) {
             return Map.of(
@@ -81,19 +128,6 @@ public class ParallelDispatchNode {
             );
         }
 
-        // Initialize mission workspace if worktrees are enabled and this is the first wave
-        if (worktreesEnabled && state.waveCount() == 1) {
-            String gitUrl = state.gitRemoteUrl();
-            if (gitUrl != null && !gitUrl.isBlank()) {
-                Path workspace = worktreeContext.createMissionWorkspace(missionId, gitUrl);
-                if (workspace != null) {
-                    log.info("Created mission workspace for {} at {}", missionId, workspace);
-                } else {
-                    log.warn("Failed to create mission workspace — falling back to standard execution");
-                }
-            }
-        }
-
         // Build a lookup map for task IDs
         var taskMap = new HashMap<String, Task>();
         for (var d : tasks) {
@@ -148,28 +182,20 @@ public class ParallelDispatchNode {
 
                             long startMs = System.currentTimeMillis();
 
-                            // Heartbeat: publish task.progress every 30s while the agent runs
-                            var heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
-                                Thread t = new Thread(r, "heartbeat-" + finalTaskToDispatch.id());
-                                t.setDaemon(true);
-                                return t;
-                            });
-                            heartbeat.scheduleAtFixedRate(() -> {
-                                long elapsed = (System.currentTimeMillis() - startMs) / 1000;
-                                eventBus.publish(new WorldmindEvent("task.progress",
-                                        missionId, finalTaskToDispatch.id(),
-                                        Map.of("agent", finalTaskToDispatch.agent(),
-                                               "elapsedSeconds", elapsed,
-                                               "status", "RUNNING"),
-                                        Instant.now()));
-                            }, 30, 30, TimeUnit.SECONDS);
-
+                            // Heartbeat: tasks.progress with sandbox stats every 30s while the agent runs
                             AgentDispatcher.BridgeResult result;
+                            var heartbeat = heartbeats != null
+                                    ? heartbeats.register(missionId, finalTaskToDispatch.id(), finalTaskToDispatch.agent(),
+                                            () -> bridge.resourceStats(finalTaskToDispatch.id()))
+                                    : null;
                             try {
-                                result = bridge.executeTask(
-                                        finalTaskToDispatch, projectContext, finalProjectPath, state.gitRemoteUrl(), state.runtimeTag(), state.reasoningLevel());
+                                result = baseTaskId.isBlank()
+                                        ? bridge.executeTask(finalTaskToDispatch, projectContext, finalProjectPath,
+                                                state.gitRemoteUrl(), state.runtimeTag(), state.reasoningLevel())
+                                        : bridge.executeTask(finalTaskToDispatch, projectContext, finalProjectPath,
+                                                state.gitRemoteUrl(), state.runtimeTag(), state.reasoningLevel(), baseTaskId);
                             } finally {
-                                heartbeat.shutdownNow();
+                                if (heartbeat != null) heartbeat.close();
                             }
                             long elapsedMs = System.currentTimeMillis() - startMs;
                             
@@ -183,6 +209,10 @@ public class ParallelDispatchNode {
                             if (metrics != null) {
                                 metrics.recordTaskExecution(finalTaskToDispatch.agent(), elapsedMs);
                             }
+                            if (tokenBudget != null) {
+                                tokenBudget.recordUsage(agentModelKey,
+                                        estimateAgentTokens(finalTaskToDispatch, projectContext, result.output()), true);
+                            }
 
                             eventBus.publish(new WorldmindEvent(
                                     result.task().status() == TaskStatus.FAILED
@@ -310,6 +340,29 @@ public class ParallelDispatchNode {
         );
     }
 
+    /**
+     * Cancels a task that is currently being dispatched.
+     */
+    public boolean cancelTask(String taskId) {
+        return bridge.cancelTask(taskId);
+    }
+
+    /**
+     * Lower-bound estimate of a task's agent token usage. Sandboxed agents do not report
+     * usage, so this counts ~4 characters per token over the instructions sent and the
+     * output returned. Goose's tool calls and the context it resends on every turn are not
+     * visible here, so real usage is higher; the token budget therefore errs towards
+     * shorter cooldowns.
+     */
+    private static long estimateAgentTokens(Task task, ProjectContext context, String output) {
+        long chars = 0;
+        if (task.description() != null) chars += task.description().length();
+        if (task.inputContext() != null) chars += task.inputContext().length();
+        if (context != null && context.summary() != null) chars += context.summary().length();
+        if (output != null) chars += output.length();
+        return chars / 4;
+    }
+
     private DispatchOutcome errorOutcome(String taskId, String errorMsg) {
         return new DispatchOutcome(
                 new WaveDispatchResult(taskId, TaskStatus.FAILED, List.of(), errorMsg, 0L),
@@ -1,6 +1,10 @@
 package com.worldmind.core.nodes;
 
+import com.worldmind.core.events.EventBus;
+import com.worldmind.core.events.WorldmindEvent;
+import com.worldmind.core.llm.LlmNode;
 import com.worldmind.core.llm.LlmService;
+import com.worldmind.core.llm.StreamingJsonParser;
 import com.worldmind.core.model.Classification;
 import com.worldmind.core.model.Task;
 import com.worldmind.core.model.TaskStatus;
@@ -9,14 +13,17 @@ import com.worldmind.core.model.MissionPlan;
 import com.worldmind.core.model.MissionStatus;
 import com.worldmind.core.model.ProductSpec;
 import com.worldmind.core.model.ProjectContext;
+import com.worldmind.core.scheduler.FileConflictIndex;
 import com.worldmind.core.state.WorldmindState;
 import com.worldmind.sandbox.DeployerProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +36,9 @@ import java.util.Optional;
  * Uses {@link LlmService#structuredCall} to obtain a {@link MissionPlan}
  * (structured output) and converts the plan's {@link MissionPlan.TaskPlan}
  * entries into concrete {@link Task} records with sequential IDs.
+ * <p>
+ * With an {@link EventBus}, the plan is streamed and each task is published as a
+ * {@code plan.task_drafted} event as soon as the model has written it.
  */
 @Component
 public class PlanMissionNode {
@@ -143,10 +153,18 @@ public class PlanMissionNode {
 
     private final LlmService llmService;
     private final DeployerProperties deployerProperties;
+    private final EventBus eventBus;
 
     public PlanMissionNode(LlmService llmService, DeployerProperties deployerProperties) {
+        this(llmService, deployerProperties, null);
+    }
+
+    @Autowired
+    public PlanMissionNode(LlmService llmService, DeployerProperties deployerProperties,
+                           @Autowired(required = false) EventBus eventBus) {
         this.llmService = llmService;
         this.deployerProperties = deployerProperties;
+        this.eventBus = eventBus;
     }
 
     public Map<String, Object> apply(WorldmindState state) {
@@ -185,7 +203,10 @@ public class PlanMissionNode {
         String userPrompt = buildUserPrompt(request, classification, projectContext, productSpec, prdDocument);
         // Plan generation uses structuredCall without MCP tools — the planner only
         // needs to structure tasks from the spec, not call external tools.
-        MissionPlan plan = llmService.structuredCall(SYSTEM_PROMPT, userPrompt, MissionPlan.class);
+        MissionPlan plan = eventBus != null
+                ? llmService.streamingStructuredCall(LlmNode.PLAN, state.reasoningLevel(), SYSTEM_PROMPT, userPrompt, MissionPlan.class,
+                        fragment -> publishDraftedTask(state.missionId(), fragment))
+                : llmService.structuredCall(LlmNode.PLAN, state.reasoningLevel(), SYSTEM_PROMPT, userPrompt, MissionPlan.class);
         if (plan == null) {
             throw new IllegalStateException("LLM returned null plan for mission " + state.missionId());
         }
@@ -209,6 +230,13 @@ public class PlanMissionNode {
                 tasks.stream().map(d -> d.id() + "[" + d.agent() + "](deps:" + d.dependencies() + ")").toList());
         log.info("Manifest created by task: {}", manifestTaskExists);
 
+        // Report file conflict clusters up front: tasks in a cluster will be serialized
+        var conflictClusters = FileConflictIndex.build(tasks).conflictClusters();
+        if (!conflictClusters.isEmpty()) {
+            log.info("File conflict clusters ({} tasks will not share a wave): {}",
+                    conflictClusters.stream().mapToInt(List::size).sum(), conflictClusters);
+        }
+
         // Use user's execution strategy override if specified, otherwise use planner's suggestion
         String userStrategy = state.<String>value("userExecutionStrategy").orElse(null);
         log.info("Planning strategy: userExecutionStrategy='{}', LLM suggested='{}'",
@@ -230,6 +258,21 @@ public class PlanMissionNode {
         );
     }
 
+    /**
+     * Publishes a planned task as soon as the model has finished writing it. The task ID
+     * is the one {@link #convertToTasks} will assign; guardrails may still add tasks.
+     */
+    private void publishDraftedTask(String missionId, StreamingJsonParser.JsonFragment fragment) {
+        if (!"tasks".equals(fragment.field()) || fragment.index() < 0) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> task = OBJECT_MAPPER.convertValue(fragment.value(), Map.class);
+        eventBus.publish(new WorldmindEvent("plan.task_drafted", missionId,
+                String.format("TASK-%03d", fragment.index() + 1),
+                Map.of("index", fragment.index(), "task", task), Instant.now()));
+    }
+
     /**
      * Guardrail: if the LLM generated a plan with no CODER or REFACTORER tasks,
      * inject a default CODER task. This prevents missions that produce no code.
@@ -2,9 +2,11 @@ package com.worldmind.core.nodes;
 
 import com.worldmind.core.events.EventBus;
 import com.worldmind.core.events.WorldmindEvent;
+import com.worldmind.core.llm.TokenBudgetGovernor;
 import com.worldmind.core.metrics.WorldmindMetrics;
 import com.worldmind.core.model.ExecutionStrategy;
 import com.worldmind.core.model.MissionStatus;
+import com.worldmind.core.scheduler.CriticalPathAnalyzer;
 import com.worldmind.core.scheduler.TaskScheduler;
 import com.worldmind.core.state.WorldmindState;
 import com.worldmind.sandbox.SandboxProperties;
@@ -29,27 +31,48 @@ public class ScheduleWaveNode {
 
     private final TaskScheduler scheduler;
     private final int maxParallel;
-    private final int waveCooldownSeconds;
     private final WorldmindMetrics metrics;
     private final EventBus eventBus;
+    private final CriticalPathAnalyzer criticalPath;
+    private final DispatchCooldown cooldown;
 
     @Autowired
     public ScheduleWaveNode(TaskScheduler scheduler, SandboxProperties properties, 
-                           WorldmindMetrics metrics, EventBus eventBus) {
-        this(scheduler, properties.getMaxParallel(), properties.getWaveCooldownSeconds(), metrics, eventBus);
+                           WorldmindMetrics metrics, EventBus eventBus,
+                           CriticalPathAnalyzer criticalPath,
+                           @Autowired(required = false) TokenBudgetGovernor tokenBudget) {
+        this(scheduler, properties.getMaxParallel(), properties.getWaveCooldownSeconds(), metrics, eventBus,
+                "optimal".equalsIgnoreCase(properties.getWavePacking()) ? criticalPath : null,
+                tokenBudget, properties.getGooseModel());
     }
 
     ScheduleWaveNode(TaskScheduler scheduler, int maxParallel) {
-        this(scheduler, maxParallel, 0, null, new EventBus());
+        this(scheduler, maxParallel, 0, null, new EventBus(), null);
     }
 
+    /**
+     * @param criticalPath when non-null, waves are packed optimally by critical-path weight
+     *                     instead of greedily in plan order
+     */
     ScheduleWaveNode(TaskScheduler scheduler, int maxParallel, int waveCooldownSeconds, 
-                    WorldmindMetrics metrics, EventBus eventBus) {
+                    WorldmindMetrics metrics, EventBus eventBus, CriticalPathAnalyzer criticalPath) {
+        this(scheduler, maxParallel, waveCooldownSeconds, metrics, eventBus, criticalPath, null, null);
+    }
+
+    /**
+     * @param tokenBudget   when enabled, replaces the fixed cooldown with a wait sized to
+     *                      the remaining provider token budget
+     * @param agentModelKey model the agents run against, used as the budget key
+     */
+    ScheduleWaveNode(TaskScheduler scheduler, int maxParallel, int waveCooldownSeconds,
+                    WorldmindMetrics metrics, EventBus eventBus, CriticalPathAnalyzer criticalPath,
+                    TokenBudgetGovernor tokenBudget, String agentModelKey) {
         this.scheduler = scheduler;
         this.maxParallel = maxParallel;
-        this.waveCooldownSeconds = waveCooldownSeconds;
         this.metrics = metrics;
         this.eventBus = eventBus;
+        this.criticalPath = criticalPath;
+        this.cooldown = new DispatchCooldown(tokenBudget, agentModelKey, waveCooldownSeconds, metrics);
     }
 
     public Map<String, Object> apply(WorldmindState state) {
@@ -63,18 +86,17 @@ public class ScheduleWaveNode {
                 state.<String>value("executionStrategy").orElse("(none)"),
                 state.<String>value("userExecutionStrategy").orElse("(none)"));
 
-        // Rate-limit cooldown: wait between waves to avoid API token budget exhaustion.
-        // The first wave starts immediately; subsequent waves wait to let the token window reset.
-        if (currentWaveCount > 0 && waveCooldownSeconds > 0) {
-            log.info("Rate-limit cooldown: waiting {}s before wave {}", waveCooldownSeconds, currentWaveCount + 1);
-            try {
-                Thread.sleep(waveCooldownSeconds * 1000L);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        var waveIds = criticalPath != null
+                ? scheduler.computePackedWave(tasks, completedIds, strategy, maxParallel,
+                        criticalPath.remainingPathWeights(tasks, completedIds))
+                : scheduler.computeNextWave(tasks, completedIds, strategy, maxParallel);
+
+        // Rate-limit cooldown: the first wave starts immediately; later waves wait until the
+        // provider token budget can cover them, or a fixed cooldown when no budget is configured.
+        if (currentWaveCount > 0 && !waveIds.isEmpty()) {
+            cooldown.await(waveIds.size(), currentWaveCount + 1);
         }
 
-        var waveIds = scheduler.computeNextWave(tasks, completedIds, strategy, maxParallel);
         int nextWaveCount = currentWaveCount + 1;
 
         if (waveIds.isEmpty()) {
@@ -0,0 +1,106 @@
+package com.worldmind.core.persistence;
+
+import com.worldmind.core.llm.LlmResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * JDBC-based {@link LlmResponseCache} that persists LLM responses to a
+ * PostgreSQL table, so they survive restarts and are shared between
+ * orchestrator instances.
+ * <p>
+ * Entries older than the TTL (measured on the database clock) are ignored
+ * on read and purged by {@link #createTables()} at startup.
+ */
+public class JdbcLlmResponseCache implements LlmResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcLlmResponseCache.class);
+
+    private static final String TABLE_NAME = "llm_response_cache";
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS %s (
+                cache_key  VARCHAR(64) NOT NULL PRIMARY KEY,
+                response   TEXT NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """.formatted(TABLE_NAME);
+
+    private static final String PURGE_SQL = """
+            DELETE FROM %s WHERE created_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 second'
+            """.formatted(TABLE_NAME);
+
+    private static final String SELECT_SQL = """
+            SELECT response FROM %s WHERE cache_key = ?
+              AND created_at >= CURRENT_TIMESTAMP - ? * INTERVAL '1 second'
+            """.formatted(TABLE_NAME);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO %s (cache_key, response)
+            VALUES (?, ?)
+            ON CONFLICT (cache_key)
+            DO UPDATE SET response = EXCLUDED.response,
+                          created_at = CURRENT_TIMESTAMP
+            """.formatted(TABLE_NAME);
+
+    private final DataSource dataSource;
+    private final Duration ttl;
+
+    public JdbcLlmResponseCache(DataSource dataSource, Duration ttl) {
+        this.dataSource = Objects.requireNonNull(dataSource, "DataSource must not be null");
+        this.ttl = ttl;
+    }
+
+    /**
+     * Creates the cache table if it does not already exist and drops expired entries.
+     * Should be called once during application startup.
+     */
+    public void createTables() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(CREATE_TABLE_SQL)) {
+                stmt.execute();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(PURGE_SQL)) {
+                stmt.setLong(1, ttl.toSeconds());
+                int purged = stmt.executeUpdate();
+                log.info("LLM response cache table '{}' ensured ({} expired entries purged)", TABLE_NAME, purged);
+            }
+        }
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_SQL)) {
+            stmt.setString(1, key);
+            stmt.setLong(2, ttl.toSeconds());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getString("response")) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            log.error("Failed to read LLM response cache entry '{}'", key, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, String response) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+            stmt.setString(1, key);
+            stmt.setString(2, response);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error("Failed to write LLM response cache entry '{}'", key, e);
+        }
+    }
+}
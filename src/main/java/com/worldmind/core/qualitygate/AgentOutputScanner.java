@@ -0,0 +1,396 @@
+package com.worldmind.core.quality_gate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rule-based extraction of structured results from well-formed agent output, used by
+ * {@link QualityGateEvaluationService} before it falls back to an LLM.
+ * <p>
+ * Works on index arithmetic over the raw output rather than regexes over the whole log:
+ * Goose session logs run to hundreds of kilobytes, and only the lines that carry a result
+ * are copied out.
+ */
+final class AgentOutputScanner {
+
+    /** Test counts found in test runner output. */
+    record TestCounts(String framework, int total, int failed) {}
+
+    /**
+     * Review fields found in reviewer output.
+     *
+     * @param confident true if every field of the requested output format was present,
+     *                  so the result can be used without LLM parsing
+     */
+    record ReviewScan(int score, String summary, List<String> issues, List<String> suggestions,
+                      boolean confident) {}
+
+    private static final String MAVEN_MARKER = "Tests run:";
+    private static final String GO_PASS_MARKER = "--- PASS:";
+    private static final String GO_FAIL_MARKER = "--- FAIL:";
+
+    private AgentOutputScanner() {}
+
+    // ── Test output ─────────────────────────────────────────────────────
+
+    /**
+     * Extracts test counts from Maven/JUnit, Jest, Go or pytest output, in that order.
+     *
+     * @return the counts, or null if no recognised test summary was found
+     */
+    static TestCounts scanTests(String output) {
+        TestCounts counts = scanMaven(output);
+        if (counts == null) counts = scanJest(output);
+        if (counts == null) counts = scanGo(output);
+        if (counts == null) counts = scanPytest(output);
+        return counts;
+    }
+
+    /**
+     * Maven prints "Tests run: N, Failures: F, Errors: E" once per test class (with
+     * "Time elapsed") and once per module summary (without). Module summaries are summed
+     * when present, otherwise the per-class lines are. Errors count as failures.
+     */
+    private static TestCounts scanMaven(String output) {
+        int[] summary = new int[2];
+        int[] perClass = new int[2];
+        boolean found = false;
+        boolean summaryFound = false;
+        int at = output.indexOf(MAVEN_MARKER);
+        while (at >= 0) {
+            int lineEnd = lineEnd(output, at);
+            int pos = skipSpaces(output, at + MAVEN_MARKER.length(), lineEnd);
+            int run = readInt(output, pos, lineEnd);
+            int failures = run >= 0 ? intAfter(output, "Failures:", pos, lineEnd) : -1;
+            if (failures >= 0) {
+                found = true;
+                int errors = Math.max(0, intAfter(output, "Errors:", pos, lineEnd));
+                boolean perClassLine = indexIn(output, "Time elapsed", pos, lineEnd) >= 0;
+                summaryFound |= !perClassLine;
+                int[] target = perClassLine ? perClass : summary;
+                target[0] += run;
+                target[1] += failures + errors;
+            }
+            at = output.indexOf(MAVEN_MARKER, lineEnd);
+        }
+        if (!found) {
+            return null;
+        }
+        int[] counts = summaryFound ? summary : perClass;
+        return new TestCounts("maven", counts[0], counts[1]);
+    }
+
+    /** Jest: "Tests:       1 failed, 4 passed, 5 total". */
+    private static TestCounts scanJest(String output) {
+        int at = output.lastIndexOf("Tests:");
+        while (at >= 0) {
+            int lineEnd = lineEnd(output, at);
+            int total = countBefore(output, "total", at, lineEnd);
+            if (total >= 0 && isLineStart(output, at)) {
+                int failed = Math.max(0, countBefore(output, "failed", at, lineEnd));
+                return new TestCounts("jest", total, failed);
+            }
+            at = at > 0 ? output.lastIndexOf("Tests:", at - 1) : -1;
+        }
+        return null;
+    }
+
+    /** Go verbose output: one "--- PASS:" or "--- FAIL:" line per test. */
+    private static TestCounts scanGo(String output) {
+        int passed = occurrences(output, GO_PASS_MARKER);
+        int failed = occurrences(output, GO_FAIL_MARKER);
+        return passed + failed > 0 ? new TestCounts("go", passed + failed, failed) : null;
+    }
+
+    /**
+     * pytest: "=== 3 failed, 5 passed, 1 error in 0.52s ===". Only the last line carrying a
+     * count is read, since that is the session summary. Errors count as failures.
+     */
+    private static TestCounts scanPytest(String output) {
+        int at = Math.max(output.lastIndexOf(" passed"), output.lastIndexOf(" failed"));
+        while (at >= 0) {
+            int start = output.lastIndexOf('\n', at) + 1;
+            int end = lineEnd(output, at);
+            int passed = countBefore(output, "passed", start, end);
+            int failed = countBefore(output, "failed", start, end);
+            int errors = Math.max(countBefore(output, "errors", start, end),
+                    countBefore(output, "error", start, end));
+            if (passed >= 0 || failed >= 0) {
+                int failedTotal = Math.max(0, failed) + Math.max(0, errors);
+                return new TestCounts("pytest", Math.max(0, passed) + failedTotal, failedTotal);
+            }
+            at = start < 2 ? -1 : Math.max(output.lastIndexOf(" passed", start - 2),
+                    output.lastIndexOf(" failed", start - 2));
+        }
+        return null;
+    }
+
+    // ── Review output ───────────────────────────────────────────────────
+
+    private enum Label { SCORE, APPROVED, SUMMARY, ISSUES, SUGGESTIONS }
+
+    /**
+     * Extracts the review requested by the reviewer instruction:
+     * <pre>
+     * Score: X/10
+     * Approved: yes/no
+     * Summary: ...
+     * Issues: {bullet list}
+     * Suggestions: {bullet list}
+     * </pre>
+     * Markdown decoration ({@code **Score:**}, {@code ### Issues}) is tolerated. Parsing
+     * starts at the last "Score:" line, since session logs can contain earlier drafts.
+     *
+     * @return the scan, or null if no "Score: N/10" line was found
+     */
+    static ReviewScan scanReview(String output) {
+        int scoreLine = -1;
+        int score = -1;
+        int end = output.length();
+        while (end > 0 && score < 0) {
+            int start = output.lastIndexOf('\n', end - 1) + 1;
+            int valueAt = labelValue(output, start, end, Label.SCORE);
+            if (valueAt >= 0) {
+                score = readScore(output, valueAt, end);
+                scoreLine = start;
+            }
+            end = start - 1;
+        }
+        if (score < 0) {
+            return null;
+        }
+
+        String summary = null;
+        List<String> issues = null;
+        List<String> suggestions = null;
+        List<String> list = null;
+        int start = lineEnd(output, scoreLine) + 1;
+        while (start < output.length()) {
+            int lineEnd = lineEnd(output, start);
+            Label label = labelOf(output, start, lineEnd);
+            if (label != null) {
+                int valueAt = labelValue(output, start, lineEnd, label);
+                String inline = trimmed(output, valueAt, lineEnd);
+                list = null;
+                switch (label) {
+                    case SUMMARY -> summary = inline;
+                    case ISSUES -> list = issues = new ArrayList<>();
+                    case SUGGESTIONS -> list = suggestions = new ArrayList<>();
+                    default -> { }
+                }
+                if (list != null && inline != null) {
+                    addItem(list, inline.startsWith("-") || inline.startsWith("*") ? bulletText(inline) : inline);
+                }
+            } else if (list != null) {
+                String bullet = bulletText(trimmed(output, start, lineEnd));
+                if (bullet != null) {
+                    addItem(list, bullet);
+                } else if (!isBlank(output, start, lineEnd)) {
+                    list = null;
+                }
+            } else if (summary != null && summary.isEmpty() && issues == null && !isBlank(output, start, lineEnd)) {
+                summary = trimmed(output, start, lineEnd);
+            }
+            start = lineEnd + 1;
+        }
+
+        boolean confident = score <= 10 && summary != null && !summary.isEmpty()
+                && issues != null && suggestions != null;
+        return new ReviewScan(score, summary,
+                issues != null ? List.copyOf(issues) : List.of(),
+                suggestions != null ? List.copyOf(suggestions) : List.of(),
+                confident);
+    }
+
+    private static Label labelOf(String s, int start, int end) {
+        for (Label label : Label.values()) {
+            if (labelValue(s, start, end, label) >= 0) {
+                return label;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * If the line is "label:" (optionally wrapped in markdown emphasis or a heading),
+     * returns the index where its value starts, otherwise -1.
+     */
+    private static int labelValue(String s, int start, int end, Label label) {
+        int pos = start;
+        while (pos < end && (s.charAt(pos) == '#' || s.charAt(pos) == '*' || s.charAt(pos) == '_'
+                || Character.isWhitespace(s.charAt(pos)))) {
+            pos++;
+        }
+        String name = label.name();
+        if (!s.regionMatches(true, pos, name, 0, name.length())) {
+            return -1;
+        }
+        pos += name.length();
+        while (pos < end && (s.charAt(pos) == '*' || s.charAt(pos) == '_')) {
+            pos++;
+        }
+        if (pos < end && s.charAt(pos) == ':') {
+            pos++;
+            while (pos < end && (s.charAt(pos) == '*' || s.charAt(pos) == '_')) {
+                pos++;
+            }
+            return pos;
+        }
+        // Heading without a colon, e.g. "### Issues"
+        return isBlank(s, pos, end) ? end : -1;
+    }
+
+    /** Reads "N/10" (N at most two digits), or returns -1. */
+    private static int readScore(String s, int pos, int end) {
+        pos = skipSpaces(s, pos, end);
+        int digitsEnd = pos;
+        while (digitsEnd < end && digitsEnd - pos < 3 && Character.isDigit(s.charAt(digitsEnd))) {
+            digitsEnd++;
+        }
+        if (digitsEnd == pos || digitsEnd - pos > 2) {
+            return -1;
+        }
+        int slash = skipSpaces(s, digitsEnd, end);
+        if (slash >= end || s.charAt(slash) != '/') {
+            return -1;
+        }
+        int ten = skipSpaces(s, slash + 1, end);
+        if (!s.startsWith("10", ten)) {
+            return -1;
+        }
+        return Integer.parseInt(s, pos, digitsEnd, 10);
+    }
+
+    /** Returns the text of a "- item", "* item", "• item" or "1. item" line, or null. */
+    private static String bulletText(String line) {
+        if (line == null || line.isEmpty()) {
+            return null;
+        }
+        int pos = 0;
+        char first = line.charAt(0);
+        if (first == '-' || first == '*' || first == '•') {
+            pos = 1;
+        } else {
+            while (pos < line.length() && Character.isDigit(line.charAt(pos))) {
+                pos++;
+            }
+            if (pos == 0 || pos >= line.length() || (line.charAt(pos) != '.' && line.charAt(pos) != ')')) {
+                return null;
+            }
+            pos++;
+        }
+        String text = line.substring(pos).strip();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static void addItem(List<String> list, String item) {
+        if (item == null) {
+            return;
+        }
+        String bare = item.replace("*", "").strip();
+        if (bare.isEmpty() || bare.equalsIgnoreCase("none") || bare.equalsIgnoreCase("none.")
+                || bare.equalsIgnoreCase("n/a") || bare.equalsIgnoreCase("none found")) {
+            return;
+        }
+        list.add(item);
+    }
+
+    // ── Index helpers ───────────────────────────────────────────────────
+
+    private static int lineEnd(String s, int from) {
+        int nl = s.indexOf('\n', from);
+        return nl < 0 ? s.length() : nl;
+    }
+
+    private static boolean isLineStart(String s, int at) {
+        for (int i = at - 1; i >= 0 && s.charAt(i) != '\n'; i--) {
+            if (!Character.isWhitespace(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipSpaces(String s, int pos, int end) {
+        while (pos < end && s.charAt(pos) == ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isBlank(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trimmed(String s, int start, int end) {
+        while (start < end && Character.isWhitespace(s.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(s.charAt(end - 1))) end--;
+        return s.substring(start, end);
+    }
+
+    /** Parses the unsigned integer at {@code pos}, or returns -1. */
+    private static int readInt(String s, int pos, int end) {
+        int digitsEnd = pos;
+        while (digitsEnd < end && digitsEnd - pos < 9 && Character.isDigit(s.charAt(digitsEnd))) {
+            digitsEnd++;
+        }
+        return digitsEnd == pos ? -1 : Integer.parseInt(s, pos, digitsEnd, 10);
+    }
+
+    /** Parses the integer following {@code key} within the line, or returns -1. */
+    private static int intAfter(String s, String key, int from, int end) {
+        int at = indexIn(s, key, from, end);
+        if (at < 0) {
+            return -1;
+        }
+        return readInt(s, skipSpaces(s, at + key.length(), end), end);
+    }
+
+    /**
+     * Parses the count preceding the whole word {@code word} within the line, e.g. the
+     * 5 of "5 passed", or returns -1.
+     */
+    private static int countBefore(String s, String word, int start, int end) {
+        int at = indexIn(s, word, start, end);
+        while (at >= 0) {
+            int after = at + word.length();
+            boolean wordEnds = after >= end || !Character.isLetter(s.charAt(after));
+            int digitsEnd = at;
+            while (digitsEnd > start && s.charAt(digitsEnd - 1) == ' ') {
+                digitsEnd--;
+            }
+            int digitsStart = digitsEnd;
+            while (digitsStart > start && digitsEnd - digitsStart < 9 && Character.isDigit(s.charAt(digitsStart - 1))) {
+                digitsStart--;
+            }
+            if (wordEnds && digitsStart < digitsEnd && digitsEnd < at) {
+                return Integer.parseInt(s, digitsStart, digitsEnd, 10);
+            }
+            at = indexIn(s, word, after, end);
+        }
+        return -1;
+    }
+
+    /** Like {@link String#indexOf(String, int)}, but only matches within {@code [from, end)}. */
+    private static int indexIn(String s, String key, int from, int end) {
+        for (int i = from; i <= end - key.length(); i++) {
+            if (s.startsWith(key, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int occurrences(String s, String marker) {
+        int count = 0;
+        for (int at = s.indexOf(marker); at >= 0; at = s.indexOf(marker, at + marker.length())) {
+            count++;
+        }
+        return count;
+    }
+}
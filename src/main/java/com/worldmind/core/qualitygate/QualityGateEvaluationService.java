@@ -1,6 +1,8 @@
 package com.worldmind.core.quality_gate;
 
+import com.worldmind.core.llm.LlmNode;
 import com.worldmind.core.llm.LlmService;
+import com.worldmind.core.metrics.WorldmindMetrics;
 import com.worldmind.core.model.Task;
 import com.worldmind.core.model.FailureStrategy;
 import com.worldmind.core.model.ReviewFeedback;
@@ -22,7 +24,8 @@ import java.util.regex.Pattern;
  * Responsibilities:
  * <ul>
  *   <li>Parse raw Tester (test runner) output into structured {@link TestResult}</li>
- *   <li>Parse raw Reviewer (code reviewer) output into structured {@link ReviewFeedback} via LLM</li>
+ *   <li>Parse raw Reviewer (code reviewer) output into structured {@link ReviewFeedback}, via LLM
+ *       only when the output does not follow the requested review format</li>
  *   <li>Evaluate whether a task earns the QualityGate of Approval based on test results and review feedback</li>
  * </ul>
  */
@@ -34,14 +37,6 @@ public class QualityGateEvaluationService {
     /** Minimum review score (inclusive) required for quality_gate approval. */
     private static final int REVIEW_SCORE_THRESHOLD = 6;
 
-    /** Maven/JUnit style: "Tests run: 10, Failures: 2" */
-    private static final Pattern MAVEN_PATTERN =
-            Pattern.compile("Tests run:\\s*(\\d+),\\s*Failures:\\s*(\\d+)");
-
-    /** pytest style: "8 passed, 2 failed" or "8 passed" */
-    private static final Pattern PYTEST_PASSED_PATTERN = Pattern.compile("(\\d+)\\s+passed");
-    private static final Pattern PYTEST_FAILED_PATTERN = Pattern.compile("(\\d+)\\s+failed");
-
     /** Specific test failure patterns. Requires anchoring context to avoid false-positives on
      *  Goose session noise (e.g. the word "test" appearing in agent commentary). */
     private static final Pattern BUILD_FAILURE_PATTERN =
@@ -64,19 +59,28 @@ public class QualityGateEvaluationService {
 
     private final LlmService llmService;
     private final McpToolProvider mcpToolProvider;
+    private final WorldmindMetrics metrics;
 
+    @Autowired
     public QualityGateEvaluationService(LlmService llmService,
-                                 @Autowired(required = false) McpToolProvider mcpToolProvider) {
+                                 @Autowired(required = false) McpToolProvider mcpToolProvider,
+                                 @Autowired(required = false) WorldmindMetrics metrics) {
         this.llmService = llmService;
         this.mcpToolProvider = mcpToolProvider;
+        this.metrics = metrics;
+    }
+
+    public QualityGateEvaluationService(LlmService llmService, McpToolProvider mcpToolProvider) {
+        this(llmService, mcpToolProvider, null);
     }
 
     /**
      * Parse raw Tester (test runner) output into a structured {@link TestResult}.
      * <p>
-     * Looks for patterns like "Tests run: X, Failures: Y" (Maven/JUnit) or
-     * "X passed, Y failed" (pytest). If no pattern is found, falls back to
-     * checking for error/failure keywords in the output.
+     * Looks for test summaries of Maven/JUnit ("Tests run: X, Failures: Y"), Jest
+     * ("Tests: Y failed, X passed, Z total"), Go ("--- PASS:" / "--- FAIL:" lines) or
+     * pytest ("X passed, Y failed"). If none is found, falls back to checking for
+     * build/test failure keywords in the output.
      *
      * @param taskId   the task that was tested
      * @param testerOutput raw output from the test runner
@@ -89,28 +93,13 @@ public class QualityGateEvaluationService {
             return new TestResult(taskId, false, 0, 0, testerOutput != null ? testerOutput : "", durationMs);
         }
 
-        // Try Maven/JUnit style: "Tests run: 10, Failures: 2"
-        Matcher mavenMatcher = MAVEN_PATTERN.matcher(testerOutput);
-        if (mavenMatcher.find()) {
-            int totalTests = Integer.parseInt(mavenMatcher.group(1));
-            int failedTests = Integer.parseInt(mavenMatcher.group(2));
-            boolean passed = failedTests == 0;
-            log.info("Parsed Maven-style output for {}: {}/{} tests passed", taskId, totalTests - failedTests, totalTests);
-            return new TestResult(taskId, passed, totalTests, failedTests, testerOutput, durationMs);
-        }
-
-        // Try pytest style: "8 passed, 2 failed"
-        Matcher passedMatcher = PYTEST_PASSED_PATTERN.matcher(testerOutput);
-        Matcher failedMatcher = PYTEST_FAILED_PATTERN.matcher(testerOutput);
-        boolean foundPassed = passedMatcher.find();
-        boolean foundFailed = failedMatcher.find();
-        if (foundPassed || foundFailed) {
-            int passedCount = foundPassed ? Integer.parseInt(passedMatcher.group(1)) : 0;
-            int failedCount = foundFailed ? Integer.parseInt(failedMatcher.group(1)) : 0;
-            int totalTests = passedCount + failedCount;
-            boolean passed = failedCount == 0;
-            log.info("Parsed pytest-style output for {}: {}/{} tests passed", taskId, passedCount, totalTests);
-            return new TestResult(taskId, passed, totalTests, failedCount, testerOutput, durationMs);
+        var counts = AgentOutputScanner.scanTests(testerOutput);
+        if (counts != null) {
+            log.info("Parsed {} output for {}: {}/{} tests passed",
+                    counts.framework(), taskId, counts.total() - counts.failed(), counts.total());
+            recordParseTier("test", "rules");
+            return new TestResult(taskId, counts.failed() == 0, counts.total(), counts.failed(),
+                    testerOutput, durationMs);
         }
 
         // Fallback: check for specific build/test failure patterns (not generic "Error"
@@ -118,18 +107,22 @@ public class QualityGateEvaluationService {
         boolean containsBuildFailure = BUILD_FAILURE_PATTERN.matcher(testerOutput).find();
         if (containsBuildFailure) {
             log.info("Fallback: build/test failure pattern found in output for {}", taskId);
+            recordParseTier("test", "keywords");
             return new TestResult(taskId, false, 0, 0, testerOutput, durationMs);
         }
 
         log.info("No test framework output found for {}, treating as passed", taskId);
+        recordParseTier("test", "default");
         return new TestResult(taskId, true, 0, 0, testerOutput, durationMs);
     }
 
     /**
      * Parse raw Reviewer (code reviewer) output into structured {@link ReviewFeedback}.
      * <p>
-     * Uses {@link LlmService#structuredCall} to extract structured review data from
-     * free-form review text. Returns a default failed feedback if the input is null or blank.
+     * Output that follows the requested format (score, summary, issues and suggestions) is
+     * parsed by rules. Anything else goes through {@link LlmService#structuredCall} to extract
+     * structured review data from free-form review text. Returns a default failed feedback
+     * if the input is null or blank.
      *
      * @param taskId the task that was reviewed
      * @param reviewerOutput raw output from the code reviewer
@@ -142,7 +135,16 @@ public class QualityGateEvaluationService {
                     List.of("No output from reviewer"), List.of(), 0);
         }
 
+        var scan = AgentOutputScanner.scanReview(reviewerOutput);
+        if (scan != null && scan.confident()) {
+            log.info("Parsed review output for task {} by rules: score {}/10", taskId, scan.score());
+            recordParseTier("review", "rules");
+            return new ReviewFeedback(taskId, scan.score() >= REVIEW_SCORE_THRESHOLD, scan.summary(),
+                    scan.issues(), scan.suggestions(), scan.score());
+        }
+
         log.info("Parsing review output for task {} via LLM ({} chars)", taskId, reviewerOutput.length());
+        recordParseTier("review", "llm");
 
         // Try regex extraction first — if Goose included "Score: X/10" in its output,
         // we can use it directly without relying on the LLM parser
@@ -154,8 +156,8 @@ public class QualityGateEvaluationService {
 
         String userPrompt = "Task: " + taskId + "\n\nReview Output:\n" + reviewerOutput;
         var parsed = (mcpToolProvider != null && mcpToolProvider.hasTools())
-                ? llmService.structuredCallWithTools(REVIEW_PARSE_SYSTEM_PROMPT, userPrompt, ReviewFeedback.class, mcpToolProvider.getToolsFor("quality_gate"))
-                : llmService.structuredCall(REVIEW_PARSE_SYSTEM_PROMPT, userPrompt, ReviewFeedback.class);
+                ? llmService.structuredCallWithTools(LlmNode.REVIEW_PARSE, null, REVIEW_PARSE_SYSTEM_PROMPT, userPrompt, ReviewFeedback.class, mcpToolProvider.getToolsFor("quality_gate"))
+                : llmService.structuredCall(LlmNode.REVIEW_PARSE, null, REVIEW_PARSE_SYSTEM_PROMPT, userPrompt, ReviewFeedback.class);
 
         // Use regex-extracted score if LLM returned 0 (likely parsing failure)
         int finalScore = parsed.score();
@@ -169,6 +171,12 @@ public class QualityGateEvaluationService {
                 parsed.issues(), parsed.suggestions(), finalScore);
     }
 
+    private void recordParseTier(String output, String tier) {
+        if (metrics != null) {
+            metrics.recordOutputParse(output, tier);
+        }
+    }
+
     /**
      * Evaluate the QualityGate of Approval based on test results and review feedback.
      * <p>
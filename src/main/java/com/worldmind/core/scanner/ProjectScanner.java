@@ -1,14 +1,18 @@
 package com.worldmind.core.scanner;
 
 import com.worldmind.core.model.ProjectContext;
+import com.worldmind.sandbox.MerkleFileIndex;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Walks a project directory and builds a {@link ProjectContext} snapshot
@@ -31,6 +35,9 @@ public class ProjectScanner {
             ".DS_Store", "Thumbs.db"
     );
 
+    private static final Set<String> IGNORED_NAMES = Stream.concat(IGNORE_DIRS.stream(), IGNORE_FILES.stream())
+            .collect(Collectors.toUnmodifiableSet());
+
     /**
      * Scans the given project root and returns a {@link ProjectContext} describing
      * the project's structure, language, framework, and dependencies.
@@ -45,15 +52,12 @@ public class ProjectScanner {
         String framework = "unknown";
         var dependencies = new HashMap<String, String>();
 
-        try (var stream = Files.walk(projectRoot)) {
-            stream.filter(p -> !shouldIgnore(projectRoot, p))
-                  .forEach(p -> {
-                      String relative = projectRoot.relativize(p).toString();
-                      if (!relative.isEmpty()) {
-                          fileTree.add(relative);
-                      }
-                  });
+        if (!Files.isDirectory(projectRoot)) {
+            throw new NoSuchFileException(projectRoot.toString());
         }
+        // Shares the Merkle index used for sandbox change detection, so a rescan only
+        // re-lists directories that changed since the last snapshot
+        fileTree.addAll(MerkleFileIndex.forRoot(projectRoot).refresh().paths(IGNORED_NAMES));
 
         // Detect language and framework from manifest files
         if (Files.exists(projectRoot.resolve("pom.xml"))) {
@@ -92,17 +96,4 @@ public class ProjectScanner {
         );
     }
 
-    /**
-     * Returns {@code true} if the given path should be excluded from the scan.
-     * A path is ignored when any of its components match an entry in
-     * {@link #IGNORE_DIRS} or {@link #IGNORE_FILES}.
-     */
-    private boolean shouldIgnore(Path root, Path path) {
-        for (Path component : root.relativize(path)) {
-            String name = component.toString();
-            if (IGNORE_DIRS.contains(name)) return true;
-            if (IGNORE_FILES.contains(name)) return true;
-        }
-        return false;
-    }
 }
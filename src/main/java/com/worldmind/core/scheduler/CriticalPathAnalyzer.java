@@ -0,0 +1,130 @@
+package com.worldmind.core.scheduler;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import com.worldmind.core.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the longest remaining path through the task dependency graph for
+ * each incomplete task, weighted by estimated duration per agent type.
+ *
+ * <p>Durations come from the historical {@code worldmind.task.duration} timer when
+ * available, falling back to static per-agent defaults. Tasks on the critical path
+ * get the highest priority so the DAG scheduler starts them first.
+ */
+@Service
+public class CriticalPathAnalyzer {
+
+    static final long DEFAULT_CODER_MS = 300_000;
+    static final long DEFAULT_DEPLOYER_MS = 240_000;
+    static final long DEFAULT_OTHER_MS = 120_000;
+
+    private final WorldmindMetrics metrics;
+
+    @Autowired
+    public CriticalPathAnalyzer(@Autowired(required = false) WorldmindMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    CriticalPathAnalyzer() {
+        this(null);
+    }
+
+    /**
+     * Returns, for every task not yet completed, the estimated duration of the longest
+     * chain of incomplete work starting at that task (inclusive).
+     *
+     * @param tasks        all tasks in the mission plan
+     * @param completedIds IDs of tasks already completed
+     * @return task ID → remaining critical-path weight in milliseconds
+     */
+    public Map<String, Long> remainingPathWeights(List<Task> tasks, Set<String> completedIds) {
+        var dependents = buildDependents(tasks, completedIds);
+        var taskMap = new HashMap<String, Task>();
+        for (var t : tasks) taskMap.put(t.id(), t);
+
+        var weights = new HashMap<String, Long>();
+        var visiting = new HashSet<String>();
+        for (var t : tasks) {
+            if (!completedIds.contains(t.id())) {
+                pathWeight(t.id(), taskMap, dependents, weights, visiting);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Estimated duration of a single task, from history or defaults.
+     */
+    public long estimateDurationMs(Task task) {
+        String agent = task.agent() != null ? task.agent().toUpperCase() : "";
+        if (metrics != null) {
+            double historical = metrics.averageTaskDurationMs(agent);
+            if (historical > 0) return (long) historical;
+        }
+        return switch (agent) {
+            case "CODER", "REFACTORER" -> DEFAULT_CODER_MS;
+            case "DEPLOYER" -> DEFAULT_DEPLOYER_MS;
+            default -> DEFAULT_OTHER_MS;
+        };
+    }
+
+    private long pathWeight(String id, Map<String, Task> taskMap, Map<String, List<String>> dependents,
+                            Map<String, Long> weights, Set<String> visiting) {
+        Long cached = weights.get(id);
+        if (cached != null) return cached;
+        // Dependency cycles are a planner bug; break them rather than recursing forever
+        if (!visiting.add(id)) return 0;
+
+        long longestDownstream = 0;
+        for (var next : dependents.getOrDefault(id, List.of())) {
+            longestDownstream = Math.max(longestDownstream,
+                    pathWeight(next, taskMap, dependents, weights, visiting));
+        }
+        visiting.remove(id);
+
+        long total = estimateDurationMs(taskMap.get(id)) + longestDownstream;
+        weights.put(id, total);
+        return total;
+    }
+
+    /**
+     * Inverts dependency edges between incomplete tasks. Dependencies expressed as
+     * agent type names (e.g. "RESEARCHER") link every task of that type.
+     */
+    private Map<String, List<String>> buildDependents(List<Task> tasks, Set<String> completedIds) {
+        var ids = new HashSet<String>();
+        var byAgent = new HashMap<String, List<String>>();
+        for (var t : tasks) {
+            if (completedIds.contains(t.id())) continue;
+            ids.add(t.id());
+            if (t.agent() != null) {
+                byAgent.computeIfAbsent(t.agent().toUpperCase(), k -> new ArrayList<>()).add(t.id());
+            }
+        }
+
+        var dependents = new HashMap<String, List<String>>();
+        for (var t : tasks) {
+            if (completedIds.contains(t.id()) || t.dependencies() == null) continue;
+            for (var dep : t.dependencies()) {
+                List<String> upstream = ids.contains(dep)
+                        ? List.of(dep)
+                        : byAgent.getOrDefault(dep.toUpperCase(), List.of());
+                for (var u : upstream) {
+                    if (!u.equals(t.id())) {
+                        dependents.computeIfAbsent(u, k -> new ArrayList<>()).add(t.id());
+                    }
+                }
+            }
+        }
+        return dependents;
+    }
+}
@@ -0,0 +1,150 @@
+package com.worldmind.core.scheduler;
+
+import com.worldmind.core.model.Task;
+
+import java.util.*;
+
+/**
+ * Suffix index over the {@link Task#targetFiles()} of a mission plan, plus the
+ * task conflict graph derived from it.
+ *
+ * <p>Paths are stored in a trie keyed by path segments in reverse order
+ * ({@code src/main/Foo.java} is stored as {@code Foo.java → main → src}). Two paths
+ * overlap when they are equal or one is a segment-aligned suffix of the other —
+ * the same rule the scheduler used for relative vs. absolute paths — so an overlap
+ * query is a single walk of the query path's segments.
+ *
+ * <p>Built once per plan; instances are immutable and safe to share across threads.
+ */
+public final class FileConflictIndex {
+
+    private static final FileConflictIndex EMPTY = new FileConflictIndex(List.of());
+
+    private final Node root = new Node();
+    private final Map<String, Set<String>> conflicts = new HashMap<>();
+    private final List<String> taskOrder = new ArrayList<>();
+
+    private FileConflictIndex(List<Task> tasks) {
+        for (var task : tasks) {
+            taskOrder.add(task.id());
+            if (task.targetFiles() == null) continue;
+            for (var file : task.targetFiles()) {
+                insert(segments(file), task.id());
+            }
+        }
+        for (var task : tasks) {
+            var others = new TreeSet<String>();
+            if (task.targetFiles() != null) {
+                for (var file : task.targetFiles()) {
+                    others.addAll(overlappingOwners(file));
+                }
+            }
+            others.remove(task.id());
+            conflicts.put(task.id(), Collections.unmodifiableSet(others));
+        }
+    }
+
+    /**
+     * Builds the index and conflict graph for a plan.
+     */
+    public static FileConflictIndex build(List<Task> tasks) {
+        return tasks == null || tasks.isEmpty() ? EMPTY : new FileConflictIndex(tasks);
+    }
+
+    /**
+     * Returns the IDs of tasks whose target files overlap the given path.
+     */
+    public Set<String> overlappingOwners(String path) {
+        var owners = new HashSet<String>();
+        var segs = segments(path);
+        if (segs.isEmpty()) return owners;
+
+        Node node = root;
+        for (int i = segs.size() - 1; i >= 0; i--) {
+            node = node.children.get(segs.get(i));
+            if (node == null) return owners;
+            // An indexed path that is a suffix of the query path
+            owners.addAll(node.owners);
+        }
+        // Query path is a suffix of (or equal to) every indexed path below this node
+        owners.addAll(node.subtreeOwners);
+        return owners;
+    }
+
+    /**
+     * Returns the IDs of tasks that share at least one target file with the given task.
+     */
+    public Set<String> conflictsOf(String taskId) {
+        return conflicts.getOrDefault(taskId, Set.of());
+    }
+
+    /**
+     * True if the task conflicts with any of the given task IDs.
+     */
+    public boolean conflictsWithAny(String taskId, Collection<String> others) {
+        var mine = conflictsOf(taskId);
+        if (mine.isEmpty() || others.isEmpty()) return false;
+        for (var other : others) {
+            if (mine.contains(other)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Groups tasks into connected components of the conflict graph, skipping tasks
+     * that conflict with nothing. Tasks in one cluster can never share a wave.
+     */
+    public List<List<String>> conflictClusters() {
+        var clusters = new ArrayList<List<String>>();
+        var seen = new HashSet<String>();
+        for (var start : taskOrder) {
+            if (seen.contains(start) || conflictsOf(start).isEmpty()) continue;
+            var cluster = new ArrayList<String>();
+            var queue = new ArrayDeque<String>();
+            queue.add(start);
+            seen.add(start);
+            while (!queue.isEmpty()) {
+                var id = queue.poll();
+                cluster.add(id);
+                for (var next : conflictsOf(id)) {
+                    if (seen.add(next)) queue.add(next);
+                }
+            }
+            cluster.sort(Comparator.naturalOrder());
+            clusters.add(cluster);
+        }
+        return clusters;
+    }
+
+    private void insert(List<String> segs, String taskId) {
+        if (segs.isEmpty()) return;
+        Node node = root;
+        for (int i = segs.size() - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(segs.get(i), k -> new Node());
+            node.subtreeOwners.add(taskId);
+        }
+        node.owners.add(taskId);
+    }
+
+    /**
+     * Splits a path into segments, ignoring a leading {@code ./} and empty segments
+     * so that {@code ./src/A.java}, {@code /src/A.java} and {@code src/A.java} agree.
+     */
+    static List<String> segments(String path) {
+        if (path == null) return List.of();
+        String p = path.startsWith("./") ? path.substring(2) : path;
+        var segs = new ArrayList<String>();
+        for (var s : p.split("/")) {
+            if (!s.isEmpty()) segs.add(s);
+        }
+        return segs;
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>(4);
+        /** Tasks with a target path ending exactly at this node. */
+        final Set<String> owners = new HashSet<>(2);
+        /** Tasks with a target path passing through or ending at this node. */
+        final Set<String> subtreeOwners = new HashSet<>(2);
+    }
+}
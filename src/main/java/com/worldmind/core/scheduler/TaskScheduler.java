@@ -7,8 +7,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -17,13 +21,25 @@ import java.util.Set;
  * 
  * <p>For parallel execution, also detects file overlap conflicts: if two tasks
  * both target the same file, they cannot run in the same wave (one would overwrite
- * the other's changes). Such conflicts are automatically serialized.
+ * the other's changes). Such conflicts are automatically serialized. Overlaps are
+ * answered from a {@link FileConflictIndex} built once per plan.
  */
 @Service
 public class TaskScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(TaskScheduler.class);
 
+    /** Conflict indexes keyed by plan target files; small because only live missions hit it. */
+    private static final int INDEX_CACHE_SIZE = 32;
+
+    private final Map<Map<String, List<String>>, FileConflictIndex> indexCache =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Map<String, List<String>>, FileConflictIndex> eldest) {
+                    return size() > INDEX_CACHE_SIZE;
+                }
+            };
+
     /**
      * Compute the next wave of task IDs eligible for dispatch.
      *
@@ -51,9 +67,7 @@ public class TaskScheduler {
         }
 
         var wave = new ArrayList<String>();
-        
-        // Track files claimed by tasks in this wave (for conflict detection)
-        var claimedFiles = new HashSet<String>();
+        var conflicts = strategy == ExecutionStrategy.PARALLEL ? conflictIndex(tasks) : null;
         
         for (var task : tasks) {
             if (wave.size() >= limit) break;
@@ -67,7 +81,7 @@ public class TaskScheduler {
             }
             
             // Check for file overlap with already-scheduled wave tasks
-            if (strategy == ExecutionStrategy.PARALLEL && hasFileOverlap(task, claimedFiles)) {
+            if (conflicts != null && conflicts.conflictsWithAny(task.id(), wave)) {
                 log.info("  {} [{}] — file overlap with wave, deferring to next wave (targets: {})", 
                         task.id(), task.agent(), task.targetFiles());
                 continue;
@@ -75,12 +89,6 @@ public class TaskScheduler {
             
             log.debug("  {} [{}] — eligible (deps: {})", task.id(), task.agent(), task.dependencies());
             wave.add(task.id());
-            
-            // Claim this task's target files
-            if (task.targetFiles() != null && !task.targetFiles().isEmpty()) {
-                claimedFiles.addAll(task.targetFiles());
-                log.debug("  {} claims files: {}", task.id(), task.targetFiles());
-            }
         }
 
         // Log summary of file overlap deferrals for parallel execution
@@ -100,6 +108,94 @@ public class TaskScheduler {
         return wave;
     }
 
+    /**
+     * Compute the next wave by packing eligible tasks optimally rather than greedily in
+     * plan order: picks the maximum-weight set of non-conflicting tasks (see {@link WavePacker}),
+     * so conflicting tasks no longer leave slots empty or serialize in a poor order.
+     *
+     * @param tasks        all tasks in the mission plan
+     * @param completedIds IDs of tasks already completed
+     * @param strategy     execution strategy (SEQUENTIAL falls back to {@link #computeNextWave})
+     * @param maxParallel  maximum concurrent tasks
+     * @param weights      task ID → packing weight, typically the remaining critical-path length
+     * @return list of task IDs to dispatch in plan order; empty if all done
+     */
+    public List<String> computePackedWave(List<Task> tasks, Set<String> completedIds,
+                                          ExecutionStrategy strategy, int maxParallel,
+                                          Map<String, Long> weights) {
+        if (strategy != ExecutionStrategy.PARALLEL) {
+            return computeNextWave(tasks, completedIds, strategy, maxParallel);
+        }
+
+        var completedTypes = new HashMap<String, String>();
+        for (var d : tasks) {
+            if (completedIds.contains(d.id()) && d.agent() != null) {
+                completedTypes.put(d.agent().toUpperCase(), d.id());
+            }
+        }
+        var eligible = new ArrayList<String>();
+        for (var task : tasks) {
+            if (!completedIds.contains(task.id()) && allDependenciesSatisfied(task, completedIds, completedTypes)) {
+                eligible.add(task.id());
+            }
+        }
+
+        var wave = WavePacker.pack(eligible, weights, conflictIndex(tasks), maxParallel);
+        log.info("computePackedWave: {} eligible, packed {} of max {}: {}",
+                eligible.size(), wave.size(), maxParallel, wave);
+        return wave;
+    }
+
+    /**
+     * Selects tasks to start right now in DAG scheduling mode, where tasks are dispatched
+     * as soon as their dependencies pass rather than in wave barriers.
+     *
+     * <p>Candidates are ordered by descending critical-path priority (ties keep plan order)
+     * and may not overlap the target files of tasks that are still in flight.
+     *
+     * @param tasks        all tasks in the mission plan
+     * @param completedIds IDs of tasks already completed
+     * @param inFlightIds  IDs of tasks currently dispatched or being evaluated
+     * @param freeSlots    number of tasks that may be started now
+     * @param priorities   task ID → remaining critical-path weight (higher runs first)
+     * @return task IDs to start, highest priority first
+     */
+    public List<String> computeReadyTasks(List<Task> tasks, Set<String> completedIds, Set<String> inFlightIds,
+                                          int freeSlots, Map<String, Long> priorities) {
+        if (freeSlots <= 0) return List.of();
+
+        var completedTypes = new HashMap<String, String>();
+        for (var d : tasks) {
+            if (completedIds.contains(d.id()) && d.agent() != null) {
+                completedTypes.put(d.agent().toUpperCase(), d.id());
+            }
+        }
+        var conflicts = conflictIndex(tasks);
+        var claimedIds = new HashSet<>(inFlightIds);
+
+        var candidates = new ArrayList<Task>();
+        for (var task : tasks) {
+            if (completedIds.contains(task.id()) || inFlightIds.contains(task.id())) continue;
+            if (allDependenciesSatisfied(task, completedIds, completedTypes)) {
+                candidates.add(task);
+            }
+        }
+        candidates.sort(Comparator.comparingLong((Task t) -> priorities.getOrDefault(t.id(), 0L)).reversed());
+
+        var ready = new ArrayList<String>();
+        for (var task : candidates) {
+            if (ready.size() >= freeSlots) break;
+            if (conflicts.conflictsWithAny(task.id(), claimedIds)) {
+                log.info("  {} [{}] — file overlap with in-flight tasks, holding back (targets: {})",
+                        task.id(), task.agent(), task.targetFiles());
+                continue;
+            }
+            ready.add(task.id());
+            claimedIds.add(task.id());
+        }
+        return ready;
+    }
+
     private boolean allDependenciesSatisfied(Task task, Set<String> completedIds,
                                               java.util.Map<String, String> completedTypes) {
         if (task.dependencies() == null || task.dependencies().isEmpty()) return true;
@@ -113,40 +209,22 @@ public class TaskScheduler {
     }
     
     /**
-     * Checks if a task's target files overlap with already-claimed files in the wave.
-     * Uses flexible matching: files match if they're equal OR if one is a suffix of the other
-     * (to handle relative vs. absolute paths).
+     * Returns the file conflict index for a plan, reusing the cached one when the
+     * tasks' target files have not changed since it was built.
      */
-    private boolean hasFileOverlap(Task task, Set<String> claimedFiles) {
-        List<String> targets = task.targetFiles();
-        if (targets == null || targets.isEmpty() || claimedFiles.isEmpty()) {
-            return false;
+    public FileConflictIndex conflictIndex(List<Task> tasks) {
+        var key = new HashMap<String, List<String>>();
+        for (var t : tasks) {
+            key.put(t.id(), t.targetFiles() != null ? new ArrayList<>(t.targetFiles()) : List.of());
         }
-        
-        for (String target : targets) {
-            for (String claimed : claimedFiles) {
-                if (filesMatch(target, claimed)) {
-                    log.debug("File overlap: {} conflicts with claimed {}", target, claimed);
-                    return true;
-                }
-            }
+        synchronized (indexCache) {
+            var cached = indexCache.get(key);
+            if (cached != null) return cached;
         }
-        return false;
-    }
-    
-    /**
-     * Checks if two file paths refer to the same file.
-     * Handles relative vs. absolute paths by checking if one is a suffix of the other.
-     */
-    private boolean filesMatch(String file1, String file2) {
-        String n1 = normalizePath(file1);
-        String n2 = normalizePath(file2);
-        
-        if (n1.equals(n2)) return true;
-        return n1.endsWith("/" + n2) || n2.endsWith("/" + n1);
-    }
-    
-    private String normalizePath(String path) {
-        return path.startsWith("./") ? path.substring(2) : path;
+        var index = FileConflictIndex.build(tasks);
+        synchronized (indexCache) {
+            indexCache.put(key, index);
+        }
+        return index;
     }
 }
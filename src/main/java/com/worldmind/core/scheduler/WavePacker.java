@@ -0,0 +1,111 @@
+package com.worldmind.core.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs a wave by choosing the maximum-weight set of mutually non-conflicting tasks,
+ * i.e. a maximum-weight independent set of the file conflict graph, capped at the
+ * wave size limit.
+ *
+ * <p>Uses depth-first branch and bound over candidates sorted by descending weight.
+ * The first branch explored takes every non-conflicting task in weight order, which is
+ * exactly the greedy solution, so if the search budget runs out the result is never
+ * worse than greedy. Ties are broken by the candidates' original (plan) order, making
+ * the result deterministic.
+ */
+final class WavePacker {
+
+    private static final Logger log = LoggerFactory.getLogger(WavePacker.class);
+
+    /** Upper bound on search nodes per wave; keeps worst-case packing well under a millisecond per task. */
+    static final int SEARCH_BUDGET = 100_000;
+
+    private WavePacker() {}
+
+    /**
+     * @param candidates eligible task IDs in plan order
+     * @param weights    task ID → weight (critical-path length); missing IDs weigh 0
+     * @param conflicts  conflict graph for the plan
+     * @param limit      maximum wave size
+     * @return chosen task IDs in plan order
+     */
+    static List<String> pack(List<String> candidates, Map<String, Long> weights,
+                             FileConflictIndex conflicts, int limit) {
+        if (candidates.isEmpty() || limit <= 0) return List.of();
+
+        var sorted = new ArrayList<>(candidates);
+        // List.sort is stable, so equal weights keep plan order
+        sorted.sort(Comparator.comparingLong((String id) -> weight(weights, id)).reversed());
+
+        int n = sorted.size();
+        long[] w = new long[n];
+        long[] prefix = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            w[i] = Math.max(1, weight(weights, sorted.get(i)));
+            prefix[i + 1] = prefix[i] + w[i];
+        }
+
+        var search = new Search(sorted, w, prefix, conflicts, limit);
+        search.run(0, 0);
+        if (search.steps >= SEARCH_BUDGET) {
+            log.info("Wave packing hit search budget with {} candidates — using best set found", n);
+        }
+
+        var chosen = new ArrayList<String>();
+        for (var id : candidates) {
+            if (search.best.contains(id)) chosen.add(id);
+        }
+        return chosen;
+    }
+
+    private static long weight(Map<String, Long> weights, String id) {
+        return weights.getOrDefault(id, 0L);
+    }
+
+    private static final class Search {
+        final List<String> ids;
+        final long[] w;
+        final long[] prefix;
+        final FileConflictIndex conflicts;
+        final int limit;
+
+        final List<String> current = new ArrayList<>();
+        List<String> best = List.of();
+        long bestWeight = -1;
+        int steps;
+
+        Search(List<String> ids, long[] w, long[] prefix, FileConflictIndex conflicts, int limit) {
+            this.ids = ids;
+            this.w = w;
+            this.prefix = prefix;
+            this.conflicts = conflicts;
+            this.limit = limit;
+        }
+
+        void run(int idx, long weight) {
+            if (weight > bestWeight) {
+                bestWeight = weight;
+                best = List.copyOf(current);
+            }
+            if (idx >= ids.size() || current.size() >= limit || ++steps >= SEARCH_BUDGET) return;
+
+            // Optimistic bound: the heaviest remaining tasks that still fit, ignoring conflicts
+            int end = Math.min(ids.size(), idx + (limit - current.size()));
+            if (weight + prefix[end] - prefix[idx] <= bestWeight) return;
+
+            String id = ids.get(idx);
+            if (!conflicts.conflictsWithAny(id, current)) {
+                current.add(id);
+                run(idx + 1, weight + w[idx]);
+                current.removeLast();
+            }
+            run(idx + 1, weight);
+        }
+    }
+}
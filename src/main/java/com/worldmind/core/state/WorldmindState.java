@@ -52,6 +52,7 @@ public class WorldmindState extends AgentState {
         Map.entry("waveTaskIds",      Channels.base((Supplier<List<String>>) List::of)),
         Map.entry("waveCount",             Channels.base(() -> 0)),
         Map.entry("waveDispatchResults",   Channels.base((Supplier<List<WaveDispatchResult>>) List::of)),
+        Map.entry("speculativeBaseTaskId", Channels.base(() -> "")),  // DAG mode: unmerged task branch to start from
 
         // ── Appender channels (list accumulation) ────────────────────
         Map.entry("tasks",            Channels.appender(ArrayList::new)),
@@ -205,6 +206,14 @@ public class WorldmindState extends AgentState {
         return this.<Boolean>value("manifestCreatedByTask").orElse(false);
     }
 
+    /**
+     * Task whose unmerged branch the dispatched task should start from (speculative
+     * dispatch in DAG mode), or empty to start from main.
+     */
+    public String speculativeBaseTaskId() {
+        return this.<String>value("speculativeBaseTaskId").orElse("");
+    }
+
     public String deploymentUrl() {
         return this.<String>value("deploymentUrl").orElse("");
     }
@@ -468,7 +477,8 @@ public class WorldmindState extends AgentState {
         return new FileRecord(
                 (String) m.get("path"),
                 (String) m.get("action"),
-                m.get("linesChanged") instanceof Number n ? n.intValue() : 0
+                m.get("linesChanged") instanceof Number n ? n.intValue() : 0,
+                (String) m.get("previousPath")
         );
     }
 
@@ -2,6 +2,7 @@ package com.worldmind.dispatch.api;
 
 import com.worldmind.sandbox.InstructionStore;
 import com.worldmind.sandbox.OutputStore;
+import com.worldmind.sandbox.TaskCompletionNotifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -15,7 +16,8 @@ import org.springframework.web.bind.annotation.*;
  * is stored on the orchestrator and fetched via HTTP by the agent tasks.
  *
  * <p>CF tasks also POST their Goose output back here, since the CF API v3
- * does not expose task stdout/stderr.
+ * does not expose task stdout/stderr. The PUT carries the task's exit code and attempt
+ * id, so it doubles as the completion signal the orchestrator waits on.
  */
 @RestController
 @RequestMapping("/api/internal")
@@ -25,10 +27,13 @@ public class InternalApiController {
 
     private final InstructionStore instructionStore;
     private final OutputStore outputStore;
+    private final TaskCompletionNotifier completionNotifier;
 
-    public InternalApiController(InstructionStore instructionStore, OutputStore outputStore) {
+    public InternalApiController(InstructionStore instructionStore, OutputStore outputStore,
+                                 TaskCompletionNotifier completionNotifier) {
         this.instructionStore = instructionStore;
         this.outputStore = outputStore;
+        this.completionNotifier = completionNotifier;
     }
 
     @GetMapping(value = "/instructions/{key}", produces = MediaType.TEXT_PLAIN_VALUE)
@@ -44,9 +49,15 @@ public class InternalApiController {
     }
 
     @PutMapping(value = "/output/{key}", consumes = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<Void> putOutput(@PathVariable String key, @RequestBody String output) {
+    public ResponseEntity<Void> putOutput(@PathVariable String key, @RequestBody String output,
+                                          @RequestParam(required = false) Integer exitCode,
+                                          @RequestParam(required = false) String attempt) {
         outputStore.put(key, output);
-        log.info("Received output for key: {} ({} chars)", key, output.length());
+        log.info("Received output for key: {} ({} chars, exit code {})", key, output.length(), exitCode);
+        // Output is stored first so captureOutput() finds it as soon as the waiter wakes
+        if (exitCode != null) {
+            completionNotifier.complete(attempt != null ? attempt : key, exitCode);
+        }
         return ResponseEntity.ok().build();
     }
 }
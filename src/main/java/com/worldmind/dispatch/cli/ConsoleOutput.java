@@ -46,7 +46,10 @@ public class ConsoleOutput {
     }
 
     public static void fileChange(String action, String path) {
-        String symbol = "created".equals(action) ? "+" : "~";
+        String symbol = "created".equals(action) ? "+"
+                : "deleted".equals(action) ? "-"
+                : "renamed".equals(action) ? ">"
+                : "~";
         System.out.println(CommandLine.Help.Ansi.AUTO.string(
                 "  @|fg(green) " + symbol + "|@ " + path));
     }
@@ -33,6 +33,12 @@ public class AgentDispatcher {
         this.manager = manager;
     }
 
+    /**
+     * Environment variable naming the task whose branch an implementation task should
+     * start from instead of main. Set for speculative dispatch of dependent tasks.
+     */
+    public static final String BASE_TASK_ENV = "WORLDMIND_BASE_TASK";
+
     /** Max output size kept in memory per task. Tail is preserved for error context. */
     private static final int MAX_OUTPUT_BYTES = 10_000;
 
@@ -70,6 +76,16 @@ public class AgentDispatcher {
     }
 
     public BridgeResult executeTask(Task task, ProjectContext context, Path projectPath, String gitRemoteUrl, String runtimeTag, String reasoningLevel) {
+        return executeTask(task, context, projectPath, gitRemoteUrl, runtimeTag, reasoningLevel, null);
+    }
+
+    /**
+     * Executes a task starting from another task's branch rather than main.
+     *
+     * @param baseTaskId task whose (not yet merged) branch to build on, or null for main
+     */
+    public BridgeResult executeTask(Task task, ProjectContext context, Path projectPath, String gitRemoteUrl,
+                                    String runtimeTag, String reasoningLevel, String baseTaskId) {
         log.info("Executing task {} [{}]: {} (reasoning={})",
                 task.id(), task.agent(), task.description(), reasoningLevel);
 
@@ -82,7 +98,7 @@ public class AgentDispatcher {
             task.id(),
             projectPath,
             instruction,
-            Map.of(),
+            baseTaskId != null ? Map.of(BASE_TASK_ENV, baseTaskId) : Map.of(),
             gitRemoteUrl,
             runtimeTag,
             task.iteration()
@@ -156,4 +172,20 @@ public class AgentDispatcher {
                 + "\n\n... [truncated " + (output.length() - MAX_OUTPUT_BYTES) + " chars] ...\n\n"
                 + output.substring(output.length() - tailSize);
     }
+
+    /**
+     * Cancels a task's running sandbox. Its {@code executeTask} call returns a FAILED result.
+     *
+     * @return true if a running sandbox was found
+     */
+    public boolean cancelTask(String taskId) {
+        return manager.cancelTask(taskId);
+    }
+
+    /**
+     * Live resource stats of a task's running sandbox, or an empty map if none is running.
+     */
+    public Map<String, Object> resourceStats(String taskId) {
+        return manager.resourceStats(taskId);
+    }
 }
@@ -0,0 +1,188 @@
+package com.worldmind.sandbox;
+
+import com.worldmind.core.model.FileRecord;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Collects the file changes of one task execution and turns them into
+ * {@link FileRecord}s. Every change detector reports through it: the local
+ * {@link MerkleFileIndex} diff, the Docker sidecar manifest diff and git-based
+ * detection on Cloud Foundry.
+ *
+ * <p>A deleted and a created file with the same non-empty content are reported as a
+ * single "renamed" record with no changed lines. Line counts are lines added plus
+ * lines removed, as in {@code git diff --numstat}; for modified files they come from
+ * {@link #lineDelta}, which diffs only the files that changed.
+ */
+public final class ChangeSet {
+
+    public static final String CREATED = "created";
+    public static final String MODIFIED = "modified";
+    public static final String DELETED = "deleted";
+    public static final String RENAMED = "renamed";
+
+    /** Content hash of an empty file, which never identifies a rename. */
+    static final long EMPTY_CONTENT_HASH = FileSnapshotEngine.fromHex("da39a3ee5e6b4b0d3255bfef95601890afd80709");
+
+    /** Edit distance beyond which two versions of a file are treated as rewritten. */
+    static final int MAX_EDIT_DISTANCE = 2048;
+
+    private static final Pattern NUMSTAT = Pattern.compile("^(\\d+|-)\\t(\\d+|-)\\t(.*)$", Pattern.DOTALL);
+
+    private record Side(long hash, int lines) {}
+
+    private final Map<String, Side> created = new LinkedHashMap<>();
+    private final Map<String, Side> deleted = new LinkedHashMap<>();
+    private final List<FileRecord> records = new ArrayList<>();
+
+    public void created(String path, long hash, int lines) {
+        created.put(path, new Side(hash, lines));
+    }
+
+    public void deleted(String path, long hash, int lines) {
+        deleted.put(path, new Side(hash, lines));
+    }
+
+    public void modified(String path, int linesChanged) {
+        records.add(new FileRecord(path, MODIFIED, linesChanged));
+    }
+
+    public void renamed(String previousPath, String path, int linesChanged) {
+        records.add(new FileRecord(path, RENAMED, linesChanged, previousPath));
+    }
+
+    /**
+     * The collected changes in path order, with exact-content renames paired up.
+     */
+    public List<FileRecord> toRecords() {
+        var result = new ArrayList<>(records);
+        var unmatched = new LinkedHashMap<>(created);
+        for (var d : deleted.entrySet()) {
+            String renamedTo = null;
+            long hash = d.getValue().hash();
+            if (hash != EMPTY_CONTENT_HASH) {
+                for (Iterator<Map.Entry<String, Side>> it = unmatched.entrySet().iterator(); it.hasNext(); ) {
+                    var c = it.next();
+                    if (c.getValue().hash() == hash) {
+                        renamedTo = c.getKey();
+                        it.remove();
+                        break;
+                    }
+                }
+            }
+            result.add(renamedTo != null
+                    ? new FileRecord(renamedTo, RENAMED, 0, d.getKey())
+                    : new FileRecord(d.getKey(), DELETED, d.getValue().lines()));
+        }
+        unmatched.forEach((path, side) -> result.add(new FileRecord(path, CREATED, side.lines())));
+        result.sort(Comparator.comparing(FileRecord::path));
+        return result;
+    }
+
+    /**
+     * Lines added plus lines removed between two versions of a file, given a hash per
+     * line. Uses Myers' algorithm after trimming the common prefix and suffix; pairs
+     * further apart than {@link #MAX_EDIT_DISTANCE} count as fully rewritten.
+     */
+    public static int lineDelta(int[] before, int[] after) {
+        int start = 0;
+        while (start < before.length && start < after.length && before[start] == after[start]) start++;
+        int endBefore = before.length;
+        int endAfter = after.length;
+        while (endBefore > start && endAfter > start && before[endBefore - 1] == after[endAfter - 1]) {
+            endBefore--;
+            endAfter--;
+        }
+        int n = endBefore - start;
+        int m = endAfter - start;
+        if (n == 0 || m == 0) return n + m;
+
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        for (int d = 0; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && before[start + x] == after[start + y]) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) return d;
+            }
+        }
+        return n + m;
+    }
+
+    /**
+     * Parses the output of {@code git diff --raw --numstat -z -M}: raw records give
+     * each file's status, numstat records its added and removed line counts. Binary
+     * files count as zero lines.
+     */
+    public static List<FileRecord> fromGitDiff(String output) {
+        if (output == null || output.isBlank()) {
+            return List.of();
+        }
+        var statuses = new LinkedHashMap<String, String>();
+        var previousPaths = new LinkedHashMap<String, String>();
+        var lines = new LinkedHashMap<String, Integer>();
+
+        String[] tokens = output.split("\0");
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i].stripLeading();
+            if (token.isEmpty()) continue;
+            if (token.startsWith(":")) {
+                // ":100644 100644 abc123 def456 M" then the path, or "R086" then old and new paths
+                String status = token.substring(token.lastIndexOf(' ') + 1);
+                char kind = status.charAt(0);
+                if ((kind == 'R' || kind == 'C') && i + 2 < tokens.length) {
+                    String from = tokens[++i];
+                    String to = tokens[++i];
+                    statuses.put(to, kind == 'R' ? RENAMED : CREATED);
+                    if (kind == 'R') previousPaths.put(to, from);
+                } else if (i + 1 < tokens.length) {
+                    statuses.put(tokens[++i], switch (kind) {
+                        case 'A' -> CREATED;
+                        case 'D' -> DELETED;
+                        default -> MODIFIED;
+                    });
+                }
+                continue;
+            }
+            var numstat = NUMSTAT.matcher(token);
+            if (!numstat.matches()) continue;
+            String path = numstat.group(3);
+            if (path.isEmpty() && i + 2 < tokens.length) {
+                i++;
+                path = tokens[++i];
+            }
+            lines.put(path, count(numstat.group(1)) + count(numstat.group(2)));
+        }
+
+        var changes = new ChangeSet();
+        statuses.forEach((path, status) -> {
+            int changed = lines.getOrDefault(path, 0);
+            switch (status) {
+                case RENAMED -> changes.renamed(previousPaths.get(path), path, changed);
+                case CREATED -> changes.records.add(new FileRecord(path, CREATED, changed));
+                case DELETED -> changes.records.add(new FileRecord(path, DELETED, changed));
+                default -> changes.modified(path, changed);
+            }
+        });
+        return changes.toRecords();
+    }
+
+    private static int count(String numstatField) {
+        return "-".equals(numstatField) ? 0 : Integer.parseInt(numstatField);
+    }
+}
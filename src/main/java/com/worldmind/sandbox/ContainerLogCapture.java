@@ -0,0 +1,278 @@
+package com.worldmind.sandbox;
+
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Frame;
+import com.worldmind.core.events.EventBus;
+import com.worldmind.core.events.WorldmindEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming capture of one sandbox's stdout/stderr, fed by a followed
+ * {@code docker logs} or {@code docker exec} stream while the agent runs.
+ *
+ * <p>Memory is bounded regardless of how chatty the agent is: the first
+ * {@link #HEAD_CHARS} characters and a ring of the last {@link #TAIL_CHARS} are kept,
+ * the same head and tail {@link AgentDispatcher#truncateOutput} keeps of the output. The
+ * full log is spilled to a gzip file when a spill directory is configured (see
+ * {@link #pruneSpillDir} for retention), and new output is published as {@code task.log}
+ * events in chunks of at most one per second. Output held back by that limit is sent by
+ * the next append or by {@link #flushIfDue}, which the provider calls on a timer so an
+ * agent that goes quiet does not leave its last lines unpublished.
+ *
+ * <p>Frames are decoded with one stateful UTF-8 decoder, so a multibyte character split
+ * across two frames is kept intact.
+ */
+class ContainerLogCapture extends ResultCallback.Adapter<Frame> {
+
+    private static final Logger log = LoggerFactory.getLogger(ContainerLogCapture.class);
+
+    static final int HEAD_CHARS = 5000;
+    static final int TAIL_CHARS = 5000;
+    static final long PUBLISH_INTERVAL_MS = 1000;
+    static final int PUBLISH_MAX_CHARS = 4096;
+
+    private final String missionId;
+    private final String taskId;
+    private final String agentType;
+    private final EventBus eventBus;
+    private final Path spillFile;
+    private final LongSupplier clock;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    /** Leading bytes of a character whose remaining bytes are in the next frame. */
+    private ByteBuffer carry = ByteBuffer.allocate(0);
+
+    private final StringBuilder head = new StringBuilder();
+    private final char[] tail = new char[TAIL_CHARS];
+    private int tailStart;
+    private int tailLength;
+    private long totalChars;
+
+    private final StringBuilder pending = new StringBuilder();
+    private long pendingOffset;
+    private long lastPublishMs;
+
+    private OutputStream spill;
+
+    ContainerLogCapture(String missionId, String taskId, String agentType,
+                        EventBus eventBus, Path spillFile, LongSupplier clock) {
+        this.missionId = missionId;
+        this.taskId = taskId;
+        this.agentType = agentType;
+        this.eventBus = eventBus;
+        this.clock = clock;
+        this.lastPublishMs = clock.getAsLong();
+        Path file = null;
+        if (spillFile != null) {
+            try {
+                Files.createDirectories(spillFile.getParent());
+                spill = new GZIPOutputStream(Files.newOutputStream(spillFile), 8192);
+                file = spillFile;
+            } catch (IOException e) {
+                log.warn("Could not open log spill file {}: {}", spillFile, e.getMessage());
+            }
+        }
+        this.spillFile = file;
+    }
+
+    @Override
+    public void onNext(Frame frame) {
+        append(frame.getPayload());
+    }
+
+    synchronized void append(byte[] bytes) {
+        if (spill != null) {
+            try {
+                spill.write(bytes);
+            } catch (IOException e) {
+                log.warn("Log spill for {} failed, continuing in memory: {}", taskId, e.getMessage());
+                closeSpill();
+            }
+        }
+
+        appendText(decode(bytes, false));
+    }
+
+    private void appendText(String text) {
+        int i = 0;
+        if (head.length() < HEAD_CHARS) {
+            i = Math.min(text.length(), HEAD_CHARS - head.length());
+            head.append(text, 0, i);
+        }
+        for (; i < text.length(); i++) {
+            tail[(tailStart + tailLength) % TAIL_CHARS] = text.charAt(i);
+            if (tailLength < TAIL_CHARS) {
+                tailLength++;
+            } else {
+                tailStart = (tailStart + 1) % TAIL_CHARS;
+            }
+        }
+
+        if (pending.isEmpty()) pendingOffset = totalChars;
+        totalChars += text.length();
+        if (eventBus != null) {
+            // Keep only the newest output if subscribers fall behind a flood
+            pending.append(text);
+            if (pending.length() > PUBLISH_MAX_CHARS) {
+                pendingOffset += pending.length() - PUBLISH_MAX_CHARS;
+                pending.delete(0, pending.length() - PUBLISH_MAX_CHARS);
+            }
+            if (clock.getAsLong() - lastPublishMs >= PUBLISH_INTERVAL_MS) {
+                publishPending();
+            }
+        }
+    }
+
+    /**
+     * The captured output: everything if it fit, otherwise head and tail around a
+     * truncation marker that points at the spill file.
+     */
+    synchronized String output() {
+        if (totalChars <= HEAD_CHARS + TAIL_CHARS) {
+            var all = new StringBuilder(head);
+            appendTail(all);
+            return all.toString();
+        }
+        var sb = new StringBuilder(HEAD_CHARS + TAIL_CHARS + 128).append(head);
+        sb.append("\n\n... [truncated ").append(totalChars - HEAD_CHARS - TAIL_CHARS).append(" chars");
+        if (spillFile != null) sb.append("; full log: ").append(spillFile);
+        sb.append("] ...\n\n");
+        appendTail(sb);
+        return sb.toString();
+    }
+
+    /** Publishes output held back by the rate limit once the publish interval has passed. */
+    synchronized void flushIfDue() {
+        if (!pending.isEmpty() && clock.getAsLong() - lastPublishMs >= PUBLISH_INTERVAL_MS) {
+            publishPending();
+        }
+    }
+
+    /** Total characters received so far. */
+    synchronized long totalChars() {
+        return totalChars;
+    }
+
+    /** The gzip file holding the full log, or null if spilling is off or failed. */
+    Path spillFile() {
+        return spillFile;
+    }
+
+    /** Publishes any unpublished output and closes the spill file. Idempotent. */
+    synchronized void finish() {
+        if (carry.hasRemaining()) {
+            // A truncated character at end of stream becomes a replacement character
+            appendText(decode(new byte[0], true));
+            decoder.reset();
+        }
+        publishPending();
+        closeSpill();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            finish();
+        }
+    }
+
+    private String decode(byte[] bytes, boolean endOfInput) {
+        ByteBuffer in;
+        if (carry.hasRemaining()) {
+            in = ByteBuffer.allocate(carry.remaining() + bytes.length).put(carry).put(bytes).flip();
+        } else {
+            in = ByteBuffer.wrap(bytes);
+        }
+        // UTF-8 never decodes to more chars than it has bytes
+        CharBuffer out = CharBuffer.allocate(in.remaining());
+        decoder.decode(in, out, endOfInput);
+        carry = ByteBuffer.allocate(in.remaining()).put(in).flip();
+        return out.flip().toString();
+    }
+
+    /**
+     * Deletes spilled logs under {@code dir} last modified more than {@code maxAge} ago,
+     * then any mission directories left empty. Best effort: files that cannot be deleted
+     * are skipped.
+     *
+     * @return the number of log files deleted
+     */
+    static int pruneSpillDir(Path dir, Duration maxAge) {
+        if (dir == null || !Files.isDirectory(dir)) return 0;
+        var cutoff = FileTime.from(Instant.now().minus(maxAge));
+        int deleted = 0;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            // Deepest first, so directories are visited after their files
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                try {
+                    if (Files.isDirectory(path)) {
+                        if (!path.equals(dir) && isEmptyDirectory(path)) Files.delete(path);
+                    } else if (path.getFileName().toString().endsWith(".log.gz")
+                            && Files.getLastModifiedTime(path).compareTo(cutoff) < 0) {
+                        Files.delete(path);
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.debug("Could not prune {}: {}", path, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not prune sandbox logs in {}: {}", dir, e.getMessage());
+        }
+        return deleted;
+    }
+
+    private static boolean isEmptyDirectory(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+
+    private void appendTail(StringBuilder sb) {
+        for (int i = 0; i < tailLength; i++) {
+            sb.append(tail[(tailStart + i) % TAIL_CHARS]);
+        }
+    }
+
+    private void publishPending() {
+        lastPublishMs = clock.getAsLong();
+        if (eventBus == null || pending.isEmpty()) return;
+        eventBus.publish(new WorldmindEvent("task.log", missionId, taskId,
+                Map.of("agent", agentType, "offset", pendingOffset, "text", pending.toString()),
+                Instant.now()));
+        pending.setLength(0);
+    }
+
+    private void closeSpill() {
+        if (spill == null) return;
+        try {
+            spill.close();
+        } catch (IOException e) {
+            log.debug("Could not close log spill for {}: {}", taskId, e.getMessage());
+        }
+        spill = null;
+    }
+}
@@ -1,17 +1,30 @@
 package com.worldmind.sandbox;
 
 import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.InspectImageResponse;
 import com.github.dockerjava.api.command.WaitContainerResultCallback;
 import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.*;
 import com.github.dockerjava.core.command.LogContainerResultCallback;
+import com.worldmind.core.events.EventBus;
+import com.worldmind.core.logging.MdcContext;
+import com.worldmind.core.metrics.WorldmindMetrics;
 import com.worldmind.core.model.FileRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Docker-based SandboxProvider for local development.
@@ -28,24 +41,90 @@ import java.util.concurrent.TimeUnit;
  *
  * <p>When the worldmind server itself runs inside Docker (WORKSPACE_VOLUME set),
  * it cannot directly see the host filesystem where agents write code.
- * In this mode, file change detection uses lightweight helper containers that
- * bind-mount the same host project path to capture before/after file listings.
+ * In this mode, file change detection compares content-hash snapshots taken through
+ * a long-lived sidecar container that bind-mounts the same host project path.
+ *
+ * <p>With a warm pool configured, tasks are started with {@code docker exec} in a
+ * pre-started paused container from {@link WarmContainerPool} when one matches, and
+ * fall back to a cold create/start otherwise.
+ *
+ * <p>Output is streamed while the agent runs into a {@link ContainerLogCapture}, which
+ * bounds memory, spills the full log to disk and publishes {@code task.log} events.
+ * A shared timer flushes output the captures have held back for rate limiting. Spilled logs older than the retention period are pruned at most once an hour.
  */
 public class DockerSandboxProvider implements SandboxProvider {
 
     private static final Logger log = LoggerFactory.getLogger(DockerSandboxProvider.class);
 
-    /** Alpine image used for lightweight file-listing helper containers. */
-    private static final String HELPER_IMAGE = "alpine:3.19";
+    /** Agent entrypoint used for warm-container execs when the image doesn't declare one. */
+    private static final String[] DEFAULT_ENTRYPOINT = {"entrypoint.sh"};
+
+    private static final long LOG_PRUNE_INTERVAL_MS = 3_600_000;
+    /** A stats sample waits for two CPU readings, about a second apart. */
+    private static final long STATS_TIMEOUT_SECONDS = 5;
 
     private final DockerClient dockerClient;
     private final String imageRegistry;
     private final String imagePrefix;
+    private final WarmContainerPool warmPool;
+
+    /** Resolved image and entrypoint per runtime tag, so warm claims skip the image inspect. */
+    private final Map<String, ResolvedImage> resolvedImages = new ConcurrentHashMap<>();
+    /** Exec IDs of agents started via {@code docker exec} in a warm container, by container ID. */
+    private final Map<String, String> execIds = new ConcurrentHashMap<>();
+    /** Live output captures, by container ID. */
+    private final Map<String, ContainerLogCapture> captures = new ConcurrentHashMap<>();
+
+    private final FileSnapshotEngine snapshots = new FileSnapshotEngine();
+    private final SnapshotSidecar sidecar;
+
+    private final boolean streamLogs;
+    private final EventBus eventBus;
+    private final Path logDir;
+    private final Duration logRetention;
+    private final AtomicLong lastLogPruneMs = new AtomicLong();
+    /** Flushes held-back {@code task.log} output; started with the first published capture. */
+    private ScheduledExecutorService logFlusher;
 
     public DockerSandboxProvider(DockerClient dockerClient, String imageRegistry, String imagePrefix) {
+        this(dockerClient, imageRegistry, imagePrefix, null, false, null, null, Duration.ZERO);
+    }
+
+    /**
+     * @param warmPoolMax maximum warm containers per runtime tag and project; 0 disables the pool
+     * @param eventBus    receives {@code task.log} events; may be null
+     * @param logDir      directory for compressed full logs; null keeps output in memory only
+     * @param logRetention age after which logs in {@code logDir} are deleted; zero keeps them
+     */
+    public DockerSandboxProvider(DockerClient dockerClient, String imageRegistry, String imagePrefix,
+                                 int warmPoolMax, WorldmindMetrics metrics, EventBus eventBus, Path logDir,
+                                 Duration logRetention) {
+        this(dockerClient, imageRegistry, imagePrefix,
+                warmPoolMax > 0 ? new WarmContainerPool(dockerClient, warmPoolMax, metrics) : null,
+                true, eventBus, logDir, logRetention);
+    }
+
+    DockerSandboxProvider(DockerClient dockerClient, String imageRegistry, String imagePrefix,
+                          WarmContainerPool warmPool, boolean streamLogs, EventBus eventBus, Path logDir,
+                          Duration logRetention) {
         this.dockerClient = dockerClient;
         this.imageRegistry = imageRegistry;
         this.imagePrefix = imagePrefix != null ? imagePrefix : "sandbox";
+        this.warmPool = warmPool;
+        this.streamLogs = streamLogs;
+        this.eventBus = eventBus;
+        this.logDir = logDir;
+        this.logRetention = logRetention != null ? logRetention : Duration.ZERO;
+        this.sidecar = new SnapshotSidecar(dockerClient);
+    }
+
+    /** Destroys idle warm containers and snapshot sidecars; called by Spring on context close. */
+    public void shutdown() {
+        if (warmPool != null) warmPool.shutdown();
+        sidecar.shutdown();
+        synchronized (this) {
+            if (logFlusher != null) logFlusher.shutdownNow();
+        }
     }
 
     @Override
@@ -53,14 +132,43 @@ public class DockerSandboxProvider implements SandboxProvider {
         String type = request.agentType().toLowerCase();
         String containerName = "sandbox-" + type + "-" + request.taskId();
         String runtimeTag = request.runtimeTag() != null ? request.runtimeTag() : "base";
-        String imageName = imageRegistry + "/" + imagePrefix + ":" + runtimeTag;
 
-        // Fallback: if the tagged image doesn't exist locally, use base
-        try {
-            dockerClient.inspectImageCmd(imageName).exec();
-        } catch (NotFoundException e) {
-            log.warn("Image {} not found locally, falling back to base", imageName);
-            imageName = imageRegistry + "/" + imagePrefix + ":base";
+        var envList = new ArrayList<String>();
+        request.envVars().forEach((k, v) -> envList.add(k + "=" + v));
+
+        String workspaceVolume = System.getenv("WORKSPACE_VOLUME");
+        String hostProjectPath = request.projectPath().toString();
+
+        // Instruction file path: in Docker → /instructions/tasks/<id>.md
+        //                         locally  → /workspace/.worldmind/tasks/<id>.md
+        String instructionPath = workspaceVolume != null
+                ? "/instructions/tasks/" + request.taskId() + ".md"
+                : "/workspace/.worldmind/tasks/" + request.taskId() + ".md";
+
+        // With a warm pool the image resolution is cached per runtime tag
+        ResolvedImage image = warmPool != null ? resolvedImages.get(runtimeTag) : null;
+        if (image == null) {
+            image = resolveImage(runtimeTag);
+        }
+        String imageName = image.name();
+
+        if (warmPool != null) {
+            var key = new WarmContainerPool.Key(runtimeTag, imageName, hostProjectPath,
+                    workspaceVolume, request.memoryLimitMb(), request.cpuCount());
+            String warmId = warmPool.claim(key);
+            if (warmId != null) {
+                try {
+                    startInWarmContainer(warmId, image, instructionPath, envList, newCapture(request));
+                    log.info("Sandbox for task {} started in warm container {}", request.taskId(), warmId);
+                    return warmId;
+                } catch (Exception e) {
+                    log.warn("Could not start task {} in warm container {}, starting cold: {}",
+                            request.taskId(), warmId, e.getMessage());
+                    execIds.remove(warmId);
+                    closeCapture(warmId);
+                    warmPool.release(warmId);
+                }
+            }
         }
 
         log.info("Opening Sandbox {} for task {} (image: {})",
@@ -74,52 +182,176 @@ public class DockerSandboxProvider implements SandboxProvider {
             // Container doesn't exist — normal case
         }
 
-        var envList = new ArrayList<String>();
-        request.envVars().forEach((k, v) -> envList.add(k + "=" + v));
+        var hostConfig = hostConfig(hostProjectPath, workspaceVolume,
+                request.memoryLimitMb(), request.cpuCount());
 
-        // When running inside Docker (WORKSPACE_VOLUME set):
-        //   - Bind-mount the HOST project path to /workspace (so files land on the host FS)
-        //   - Mount the shared Docker volume to /instructions (for instruction files
-        //     written by the server at <volume>/tasks/<id>.md)
-        // When running locally: just bind-mount the host project path (covers both)
-        String workspaceVolume = System.getenv("WORKSPACE_VOLUME");
-        String hostProjectPath = request.projectPath().toString();
+        var response = dockerClient.createContainerCmd(imageName)
+                .withName(containerName)
+                .withHostConfig(hostConfig)
+                .withEnv(envList)
+                .withCmd(instructionPath)
+                .withWorkingDir("/workspace")
+                .exec();
+
+        String containerId = response.getId();
+        dockerClient.startContainerCmd(containerId).exec();
+        if (streamLogs) {
+            followLogs(containerId, newCapture(request));
+        }
+        log.info("Sandbox {} started (container {})", containerName, containerId);
+        return containerId;
+    }
+
+    private ContainerLogCapture newCapture(AgentRequest request) {
+        Path spillFile = null;
+        String missionId = MdcContext.missionId();
+        if (streamLogs && logDir != null) {
+            pruneLogDir();
+            spillFile = logDir.resolve(missionId != null ? missionId : "default")
+                    .resolve(request.taskId() + "-" + System.currentTimeMillis() + ".log.gz");
+        }
+        if (streamLogs && eventBus != null) {
+            ensureLogFlusher();
+        }
+        return new ContainerLogCapture(missionId, request.taskId(), request.agentType(),
+                streamLogs ? eventBus : null, spillFile, System::currentTimeMillis);
+    }
+
+    private synchronized void ensureLogFlusher() {
+        if (logFlusher != null) return;
+        logFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sandbox-log-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        logFlusher.scheduleWithFixedDelay(this::flushLogs, ContainerLogCapture.PUBLISH_INTERVAL_MS,
+                ContainerLogCapture.PUBLISH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    void flushLogs() {
+        for (var capture : captures.values()) {
+            try {
+                capture.flushIfDue();
+            } catch (Exception e) {
+                log.debug("Could not flush task log: {}", e.getMessage());
+            }
+        }
+    }
+
+    /** Prunes expired spilled logs in the background, at most once per {@link #LOG_PRUNE_INTERVAL_MS}. */
+    private void pruneLogDir() {
+        if (logRetention.isZero() || logRetention.isNegative()) return;
+        long now = System.currentTimeMillis();
+        long last = lastLogPruneMs.get();
+        if (now - last < LOG_PRUNE_INTERVAL_MS || !lastLogPruneMs.compareAndSet(last, now)) return;
+        Thread.ofVirtual().name("sandbox-log-prune").start(() -> {
+            int deleted = ContainerLogCapture.pruneSpillDir(logDir, logRetention);
+            if (deleted > 0) log.info("Pruned {} sandbox log(s) older than {} from {}", deleted, logRetention, logDir);
+        });
+    }
 
+    /**
+     * Attaches to the container's log stream in follow mode. The stream ends when the
+     * container exits. On failure, output falls back to a post-hoc log read.
+     */
+    private void followLogs(String containerId, ContainerLogCapture capture) {
+        try {
+            dockerClient.logContainerCmd(containerId)
+                    .withStdOut(true)
+                    .withStdErr(true)
+                    .withFollowStream(true)
+                    .exec(capture);
+            captures.put(containerId, capture);
+        } catch (Exception e) {
+            log.warn("Could not follow logs for container {}, will read them after exit: {}",
+                    containerId, e.getMessage());
+            capture.finish();
+        }
+    }
+
+    private void closeCapture(String containerId) {
+        var capture = captures.remove(containerId);
+        if (capture == null) return;
+        try {
+            capture.close();
+        } catch (IOException e) {
+            log.debug("Could not close log stream for {}: {}", containerId, e.getMessage());
+        }
+    }
+
+    /**
+     * Host config shared by task containers and warm containers.
+     *
+     * <p>When running inside Docker (WORKSPACE_VOLUME set):
+     * <ul>
+     *   <li>Bind-mount the HOST project path to /workspace (so files land on the host FS)</li>
+     *   <li>Mount the shared Docker volume to /instructions (for instruction files
+     *       written by the server at &lt;volume&gt;/tasks/&lt;id&gt;.md)</li>
+     * </ul>
+     * When running locally: just bind-mount the host project path (covers both).
+     */
+    static HostConfig hostConfig(String hostProjectPath, String workspaceVolume, int memoryLimitMb, int cpuCount) {
         var binds = new ArrayList<Bind>();
         binds.add(new Bind(hostProjectPath, new Volume("/workspace"), AccessMode.rw));
         if (workspaceVolume != null) {
             binds.add(new Bind(workspaceVolume, new Volume("/instructions"), AccessMode.rw));
         }
 
-        var hostConfig = HostConfig.newHostConfig()
+        return HostConfig.newHostConfig()
                 .withBinds(binds.toArray(new Bind[0]))
-                .withMemory((long) request.memoryLimitMb() * 1024 * 1024)
-                .withCpuCount((long) request.cpuCount())
+                .withMemory((long) memoryLimitMb * 1024 * 1024)
+                .withCpuCount((long) cpuCount)
                 .withExtraHosts("host.docker.internal:host-gateway")
                 .withDns("8.8.8.8", "8.8.4.4");
+    }
 
-        // Instruction file path: in Docker → /instructions/tasks/<id>.md
-        //                         locally  → /workspace/.worldmind/tasks/<id>.md
-        String instructionPath = workspaceVolume != null
-                ? "/instructions/tasks/" + request.taskId() + ".md"
-                : "/workspace/.worldmind/tasks/" + request.taskId() + ".md";
+    /**
+     * Resolves the image for a runtime tag, falling back to base if the tagged image
+     * doesn't exist locally, and remembers its entrypoint for warm-container execs.
+     */
+    private ResolvedImage resolveImage(String runtimeTag) {
+        String imageName = imageRegistry + "/" + imagePrefix + ":" + runtimeTag;
+        InspectImageResponse inspected;
+        try {
+            inspected = dockerClient.inspectImageCmd(imageName).exec();
+        } catch (NotFoundException e) {
+            log.warn("Image {} not found locally, falling back to base", imageName);
+            imageName = imageRegistry + "/" + imagePrefix + ":base";
+            inspected = null;
+        }
+        List<String> entrypoint = inspected != null && inspected.getConfig() != null
+                && inspected.getConfig().getEntrypoint() != null
+                ? List.of(inspected.getConfig().getEntrypoint())
+                : List.of(DEFAULT_ENTRYPOINT);
+        var image = new ResolvedImage(imageName, entrypoint);
+        resolvedImages.put(runtimeTag, image);
+        return image;
+    }
 
-        var response = dockerClient.createContainerCmd(imageName)
-                .withName(containerName)
-                .withHostConfig(hostConfig)
+    private void startInWarmContainer(String containerId, ResolvedImage image,
+                                      String instructionPath, List<String> envList,
+                                      ContainerLogCapture capture) {
+        var command = new ArrayList<>(image.entrypoint());
+        command.add(instructionPath);
+        String execId = dockerClient.execCreateCmd(containerId)
+                .withCmd(command.toArray(new String[0]))
                 .withEnv(envList)
-                .withCmd(instructionPath)
                 .withWorkingDir("/workspace")
-                .exec();
-
-        String containerId = response.getId();
-        dockerClient.startContainerCmd(containerId).exec();
-        log.info("Sandbox {} started (container {})", containerName, containerId);
-        return containerId;
+                .withAttachStdout(true)
+                .withAttachStderr(true)
+                .exec()
+                .getId();
+        execIds.put(containerId, execId);
+        captures.put(containerId, capture);
+        dockerClient.execStartCmd(execId).exec(capture);
     }
 
     @Override
     public int waitForCompletion(String sandboxId, int timeoutSeconds) {
+        String execId = execIds.get(sandboxId);
+        if (execId != null) {
+            return waitForExec(sandboxId, execId, timeoutSeconds);
+        }
         try {
             var callback = dockerClient.waitContainerCmd(sandboxId)
                     .exec(new WaitContainerResultCallback());
@@ -131,8 +363,39 @@ public class DockerSandboxProvider implements SandboxProvider {
         }
     }
 
+    private int waitForExec(String sandboxId, String execId, int timeoutSeconds) {
+        try {
+            // The exec stream completes when the agent process exits
+            if (!captures.get(sandboxId).awaitCompletion(timeoutSeconds, TimeUnit.SECONDS)) {
+                log.error("Timeout waiting for sandbox {}", sandboxId);
+                return -1;
+            }
+            Long exitCode = dockerClient.inspectExecCmd(execId).exec().getExitCodeLong();
+            return exitCode != null ? exitCode.intValue() : -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            log.error("Error waiting for sandbox {}", sandboxId, e);
+            return -1;
+        }
+    }
+
     @Override
     public String captureOutput(String sandboxId) {
+        var capture = captures.get(sandboxId);
+        if (capture != null) {
+            try {
+                // Let the followed stream drain the last frames after exit
+                if (!capture.awaitCompletion(10, TimeUnit.SECONDS)) {
+                    log.debug("Log stream for sandbox {} still open, using output so far", sandboxId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            capture.finish();
+            return capture.output();
+        }
         var sb = new StringBuilder();
         try {
             dockerClient.logContainerCmd(sandboxId)
@@ -152,8 +415,66 @@ public class DockerSandboxProvider implements SandboxProvider {
         return sb.toString();
     }
 
+    /**
+     * Memory usage and CPU load of the sandbox container, from a one-shot
+     * {@code docker stats} sample.
+     */
+    @Override
+    public Map<String, Object> resourceStats(String sandboxId) {
+        var sample = new AtomicReference<Statistics>();
+        try (var callback = dockerClient.statsCmd(sandboxId).withNoStream(true)
+                .exec(new ResultCallback.Adapter<Statistics>() {
+                    @Override
+                    public void onNext(Statistics statistics) {
+                        sample.set(statistics);
+                    }
+                })) {
+            callback.awaitCompletion(STATS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of();
+        } catch (Exception e) {
+            log.debug("Could not read stats of sandbox {}: {}", sandboxId, e.getMessage());
+            return Map.of();
+        }
+        return statsOf(sample.get());
+    }
+
+    static Map<String, Object> statsOf(Statistics statistics) {
+        var stats = new LinkedHashMap<String, Object>();
+        if (statistics == null) {
+            return stats;
+        }
+        var memory = statistics.getMemoryStats();
+        if (memory != null && memory.getUsage() != null) {
+            stats.put("memoryBytes", memory.getUsage());
+            if (memory.getLimit() != null) stats.put("memoryLimitBytes", memory.getLimit());
+        }
+        var cpu = statistics.getCpuStats();
+        var previous = statistics.getPreCpuStats();
+        if (cpu != null && previous != null && cpu.getCpuUsage() != null && previous.getCpuUsage() != null
+                && cpu.getCpuUsage().getTotalUsage() != null && previous.getCpuUsage().getTotalUsage() != null
+                && cpu.getSystemCpuUsage() != null && previous.getSystemCpuUsage() != null) {
+            long cpuDelta = cpu.getCpuUsage().getTotalUsage() - previous.getCpuUsage().getTotalUsage();
+            long systemDelta = cpu.getSystemCpuUsage() - previous.getSystemCpuUsage();
+            long cpus = cpu.getOnlineCpus() != null ? cpu.getOnlineCpus() : 1;
+            if (systemDelta > 0 && cpuDelta >= 0) {
+                // Same formula as the docker CLI: 100% is one fully used core
+                stats.put("cpuPercent", Math.round(cpuDelta * cpus * 1000.0 / systemDelta) / 10.0);
+            }
+        }
+        return stats;
+    }
+
     @Override
     public void teardownSandbox(String sandboxId) {
+        closeCapture(sandboxId);
+        if (execIds.remove(sandboxId) != null) {
+            // Warm containers are single-use; removal also kills a still-running agent
+            warmPool.release(sandboxId);
+            log.info("Sandbox {} torn down", sandboxId);
+            return;
+        }
         try {
             dockerClient.stopContainerCmd(sandboxId).exec();
         } catch (Exception e) {
@@ -168,21 +489,26 @@ public class DockerSandboxProvider implements SandboxProvider {
     }
 
     /**
-     * When the worldmind server runs inside Docker, it cannot see the host filesystem.
-     * This method runs a lightweight helper container that bind-mounts the same host
-     * project path and captures a file listing with timestamps.
+     * When the worldmind server runs inside Docker, it usually cannot see the host
+     * project path. Snapshots are then taken through a long-lived {@link SnapshotSidecar}.
+     * If the path happens to be mounted at the same location, {@link SandboxManager}
+     * indexes it directly instead.
+     *
+     * @return content fingerprints by relative path (see {@link FileManifest#fingerprints()}),
+     *         or null to use the local index
      */
     @Override
     public Map<String, Long> snapshotProjectFiles(Path projectPath) {
-        if (System.getenv("WORKSPACE_VOLUME") == null) {
-            return null; // Not in Docker-in-Docker mode, use default local snapshot
+        if (System.getenv("WORKSPACE_VOLUME") == null || Files.isDirectory(projectPath)) {
+            return null; // Readable here, use the local Merkle index with line deltas
         }
-        return runFileListingHelper(projectPath, "snapshot-before");
+        var manifest = manifest(projectPath);
+        return manifest != null ? manifest.fingerprints() : null;
     }
 
     /**
      * Compares a before-snapshot against the current state of the host project
-     * directory using a helper container.
+     * directory by content hash.
      */
     @Override
     public List<FileRecord> detectChangesBySnapshot(Map<String, Long> beforeSnapshot, Path projectPath) {
@@ -190,104 +516,24 @@ public class DockerSandboxProvider implements SandboxProvider {
             return null; // Use default local detection
         }
 
-        Map<String, Long> afterSnapshot = runFileListingHelper(projectPath, "snapshot-after");
-        if (afterSnapshot == null) {
+        var after = manifest(projectPath);
+        if (after == null) {
             log.warn("Failed to capture after-snapshot, falling back to empty changes");
             return List.of();
         }
 
-        var changes = new ArrayList<FileRecord>();
-        for (var entry : afterSnapshot.entrySet()) {
-            String path = entry.getKey();
-            Long afterTime = entry.getValue();
-            Long beforeTime = beforeSnapshot.get(path);
-
-            if (beforeTime == null) {
-                changes.add(new FileRecord(path, "created", 0));
-            } else if (!afterTime.equals(beforeTime)) {
-                changes.add(new FileRecord(path, "modified", 0));
-            }
-        }
-
-        log.info("Docker helper detected {} file changes", changes.size());
+        var changes = FileSnapshotEngine.diff(beforeSnapshot, after.fingerprints());
+        log.info("Snapshot detected {} file changes", changes.size());
         return changes;
     }
 
-    /**
-     * Runs a lightweight Alpine container that bind-mounts the host project path
-     * and outputs a file listing with modification timestamps.
-     *
-     * <p>Output format: one line per file, "mtime_seconds path"
-     */
-    private Map<String, Long> runFileListingHelper(Path hostProjectPath, String suffix) {
-        String containerName = "wm-" + suffix + "-" + System.currentTimeMillis();
-        try {
-            var hostConfig = HostConfig.newHostConfig()
-                    .withBinds(new Bind(hostProjectPath.toString(), new Volume("/scan"), AccessMode.ro));
-
-            var response = dockerClient.createContainerCmd(HELPER_IMAGE)
-                    .withName(containerName)
-                    .withHostConfig(hostConfig)
-                    .withCmd("sh", "-c",
-                            "find /scan -type f " +
-                            "-not -path '*/.git/*' " +
-                            "-not -path '*/.worldmind/*' " +
-                            "-not -path '*/node_modules/*' " +
-                            "-exec stat -c '%Y %n' {} +")
-                    .exec();
-
-            String containerId = response.getId();
-            dockerClient.startContainerCmd(containerId).exec();
-
-            var callback = dockerClient.waitContainerCmd(containerId)
-                    .exec(new WaitContainerResultCallback());
-            callback.awaitStatusCode(30, TimeUnit.SECONDS);
-
-            var sb = new StringBuilder();
-            dockerClient.logContainerCmd(containerId)
-                    .withStdOut(true)
-                    .withFollowStream(false)
-                    .exec(new LogContainerResultCallback() {
-                        @Override
-                        public void onNext(Frame frame) {
-                            sb.append(new String(frame.getPayload()));
-                        }
-                    }).awaitCompletion(10, TimeUnit.SECONDS);
-
-            dockerClient.removeContainerCmd(containerId).withForce(true).exec();
-
-            return parseFileListing(sb.toString());
-        } catch (Exception e) {
-            log.warn("Helper container {} failed: {}", containerName, e.getMessage());
-            // Clean up on failure
-            try { dockerClient.removeContainerCmd(containerName).withForce(true).exec(); }
-            catch (Exception ignored) {}
-            return null;
-        }
+    private FileManifest manifest(Path projectPath) {
+        long listedAtMs = System.currentTimeMillis();
+        var stats = sidecar.list(projectPath);
+        if (stats == null) return null;
+        return snapshots.merge("sidecar:" + projectPath, listedAtMs, stats,
+                paths -> sidecar.hash(projectPath, paths));
     }
 
-    /**
-     * Parses "mtime_seconds path" output into a map of relative path -> mtime.
-     */
-    private static Map<String, Long> parseFileListing(String output) {
-        var result = new HashMap<String, Long>();
-        for (String line : output.split("\n")) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-            int spaceIdx = line.indexOf(' ');
-            if (spaceIdx <= 0) continue;
-            try {
-                long mtime = Long.parseLong(line.substring(0, spaceIdx));
-                String fullPath = line.substring(spaceIdx + 1);
-                // Strip "/scan/" prefix to get relative path
-                String relativePath = fullPath.startsWith("/scan/")
-                        ? fullPath.substring(6)
-                        : fullPath;
-                result.put(relativePath, mtime);
-            } catch (NumberFormatException e) {
-                // Skip malformed lines
-            }
-        }
-        return result;
-    }
+    private record ResolvedImage(String name, List<String> entrypoint) {}
 }
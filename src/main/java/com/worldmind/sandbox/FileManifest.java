@@ -0,0 +1,42 @@
+package com.worldmind.sandbox;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Snapshot of a project tree: size, modification time and a 64-bit content hash
+ * per file, keyed by path relative to the project root.
+ *
+ * @param entries files by relative path, in path order
+ */
+public record FileManifest(SortedMap<String, Entry> entries) {
+
+    /**
+     * @param size    file size in bytes
+     * @param mtimeMs last-modified time in epoch milliseconds
+     * @param hash    first 64 bits of the SHA-1 of the file content
+     */
+    public record Entry(long size, long mtimeMs, long hash) {}
+
+    public FileManifest {
+        entries = Collections.unmodifiableSortedMap(new TreeMap<>(entries));
+    }
+
+    public static FileManifest empty() {
+        return new FileManifest(new TreeMap<>());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Content hash per path, the form providers hand back to {@link SandboxManager}. */
+    public Map<String, Long> fingerprints() {
+        var result = new LinkedHashMap<String, Long>(entries.size() * 2);
+        entries.forEach((path, entry) -> result.put(path, entry.hash()));
+        return result;
+    }
+}
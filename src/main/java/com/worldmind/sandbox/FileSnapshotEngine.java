@@ -0,0 +1,210 @@
+package com.worldmind.sandbox;
+
+import com.worldmind.core.model.FileRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Builds {@link FileManifest}s of project trees without helper containers.
+ *
+ * <p>Content hashing is incremental: the last manifest of each root is kept, and a file
+ * is only re-read when its size or mtime changed since then. A before/after pair around
+ * a task therefore hashes just the files the agent touched. Listings may only carry
+ * whole-second mtimes (the sidecar's {@code stat %Y}), so a file whose mtime falls in
+ * the same second as the previous listing is re-hashed anyway: it could have been
+ * rewritten to the same size within that second after it was listed.
+ *
+ * <p>{@link #scan} walks a directory the JVM can read. {@link #merge} builds the same
+ * manifest from a stat listing produced elsewhere (e.g. a sidecar container), hashing
+ * only the changed paths through the supplied function.
+ */
+public class FileSnapshotEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSnapshotEngine.class);
+
+    /** Directory names never included in a snapshot. */
+    public static final Set<String> SKIPPED_DIRS = Set.of(".git", ".worldmind", "node_modules");
+
+    private static final int MAX_CACHED_ROOTS = 64;
+
+    /** Size and mtime of a file, as listed before hashing. */
+    public record Stat(long size, long mtimeMs) {}
+
+    private record Listing(FileManifest manifest, long listedAtMs) {}
+
+    private final Map<String, Listing> lastListings = new ConcurrentHashMap<>();
+
+    /**
+     * Snapshots a directory readable by this JVM.
+     */
+    public FileManifest scan(Path root) {
+        long listedAtMs = System.currentTimeMillis();
+        var stats = new HashMap<String, Stat>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(root) && SKIPPED_DIRS.contains(dir.getFileName().toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        stats.put(relativePath(root, file),
+                                new Stat(attrs.size(), attrs.lastModifiedTime().toMillis()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not scan {}: {}", root, e.getMessage());
+            return FileManifest.empty();
+        }
+        return merge(root.toString(), listedAtMs, stats, paths -> hashFiles(root, paths));
+    }
+
+    /**
+     * Builds a manifest from a stat listing, reusing hashes from the root's previous
+     * manifest where size and mtime are unchanged.
+     *
+     * @param rootKey    identifies the tree across calls
+     * @param listedAtMs wall-clock time just before the listing was taken
+     * @param stats       size and mtime by relative path
+     * @param hasher     content hashes for the given paths; missing paths fall back to a
+     *                   hash of size and mtime
+     */
+    public FileManifest merge(String rootKey, long listedAtMs, Map<String, Stat> stats,
+                              Function<Collection<String>, Map<String, Long>> hasher) {
+        var last = lastListings.get(rootKey);
+        var previous = last != null ? last.manifest() : null;
+        long cleanBeforeSecond = last != null ? Math.floorDiv(last.listedAtMs(), 1000) : 0;
+        var entries = new TreeMap<String, FileManifest.Entry>();
+        var toHash = new ArrayList<String>();
+
+        for (var e : stats.entrySet()) {
+            var stat = e.getValue();
+            var prev = previous != null ? previous.entries().get(e.getKey()) : null;
+            if (prev != null && prev.size() == stat.size() && prev.mtimeMs() == stat.mtimeMs()
+                    && Math.floorDiv(prev.mtimeMs(), 1000) < cleanBeforeSecond) {
+                entries.put(e.getKey(), prev);
+            } else {
+                toHash.add(e.getKey());
+            }
+        }
+
+        Map<String, Long> hashes = toHash.isEmpty() ? Map.of() : hasher.apply(toHash);
+        for (String path : toHash) {
+            var stat = stats.get(path);
+            Long hash = hashes.get(path);
+            entries.put(path, new FileManifest.Entry(stat.size(), stat.mtimeMs(),
+                    hash != null ? hash : 31 * stat.size() + stat.mtimeMs()));
+        }
+
+        var manifest = new FileManifest(entries);
+        if (lastListings.size() >= MAX_CACHED_ROOTS && !lastListings.containsKey(rootKey)) {
+            lastListings.clear();
+        }
+        lastListings.put(rootKey, new Listing(manifest, listedAtMs));
+        log.debug("Snapshot of {}: {} files, {} hashed", rootKey, entries.size(), toHash.size());
+        return manifest;
+    }
+
+    /**
+     * Files created, modified, deleted or renamed between two fingerprint maps (see
+     * {@link FileManifest#fingerprints()}). A file whose mtime changed but whose
+     * content did not is not reported. Fingerprints carry no line information, so
+     * line counts are zero.
+     */
+    public static List<FileRecord> diff(Map<String, Long> before, Map<String, Long> after) {
+        var changes = new ChangeSet();
+        for (var entry : after.entrySet()) {
+            Long beforeHash = before.get(entry.getKey());
+            if (beforeHash == null) {
+                changes.created(entry.getKey(), entry.getValue(), 0);
+            } else if (!beforeHash.equals(entry.getValue())) {
+                changes.modified(entry.getKey(), 0);
+            }
+        }
+        for (var entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) {
+                changes.deleted(entry.getKey(), entry.getValue(), 0);
+            }
+        }
+        return changes.toRecords();
+    }
+
+    /** First 64 bits of the SHA-1 of a stream's content. */
+    public static long hash(InputStream in) throws IOException {
+        var digest = sha1();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            digest.update(buffer, 0, n);
+        }
+        return toLong(digest.digest());
+    }
+
+    /** First 64 bits of a hex-encoded digest, as printed by {@code sha1sum}. */
+    public static long fromHex(String hex) {
+        return Long.parseUnsignedLong(hex.substring(0, 16), 16);
+    }
+
+    private static Map<String, Long> hashFiles(Path root, Collection<String> paths) {
+        var hashes = new HashMap<String, Long>();
+        for (String path : paths) {
+            try (var in = Files.newInputStream(root.resolve(path))) {
+                hashes.put(path, hash(in));
+            } catch (IOException e) {
+                log.debug("Could not hash {}: {}", path, e.getMessage());
+            }
+        }
+        return hashes;
+    }
+
+    private static String relativePath(Path root, Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    static long toLong(byte[] digest) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (digest[i] & 0xff);
+        }
+        return value;
+    }
+
+    static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+}
@@ -491,9 +491,23 @@ public final class InstructionBuilder {
             return "- No file changes recorded\n";
         }
         var sb = new StringBuilder();
+        int totalLines = 0;
         for (var fc : fileChanges) {
-            sb.append("- ").append(fc.action()).append(": ").append(fc.path())
-              .append(" (").append(fc.linesChanged()).append(" lines)\n");
+            totalLines += fc.linesChanged();
+            sb.append("- ").append(fc.action()).append(": ");
+            if (fc.previousPath() != null) {
+                sb.append(fc.previousPath()).append(" -> ");
+            }
+            sb.append(fc.path());
+            if (fc.isPureRename()) {
+                sb.append(" (content unchanged)\n");
+            } else {
+                sb.append(" (").append(fc.linesChanged()).append(" lines)\n");
+            }
+        }
+        if (fileChanges.size() > 1) {
+            sb.append("- Total: ").append(fileChanges.size()).append(" files, ")
+              .append(totalLines).append(" lines added or removed\n");
         }
         return sb.toString();
     }
@@ -0,0 +1,537 @@
+package com.worldmind.sandbox;
+
+import com.worldmind.core.model.FileRecord;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent Merkle-tree index of a project's files, stored in
+ * {@code .worldmind/file-index.bin} under the project root.
+ *
+ * <p>Each file node holds size, mtime, a 64-bit content hash and a line count; each
+ * directory node holds a hash over its children. {@link #refresh()} only re-lists
+ * directories whose mtime changed and only re-hashes files whose size or mtime changed;
+ * unchanged subtrees are shared between snapshots. {@link Snapshot#diff} skips subtrees
+ * with equal hashes, so comparing two snapshots costs in proportion to what changed.
+ *
+ * <p>Line deltas of modified files are computed on demand from per-line hashes of the
+ * current file and of its previous content. The previous content is read from the
+ * enclosing git repository's {@code HEAD} when its hash matches the earlier snapshot;
+ * otherwise the delta falls back to the difference in line counts.
+ *
+ * <p>One index is kept per project root for the JVM; refreshes are serialized per root
+ * and return immutable snapshots, so parallel tasks on one project can share it.
+ */
+public final class MerkleFileIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MerkleFileIndex.class);
+
+    static final String INDEX_FILE = ".worldmind/file-index.bin";
+    private static final int FORMAT_VERSION = 3;
+    /** Files larger than this get no line-level delta. */
+    static final long MAX_LINE_HASHED_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_INDEXES = 64;
+    /**
+     * Entries modified this recently when indexed may change again within the same
+     * filesystem clock tick; they are stored with {@link #RACY_MTIME} so the next refresh
+     * re-lists or re-hashes them instead of trusting an unchanged mtime.
+     */
+    private static final long RACY_WINDOW_MS = 2_000;
+    private static final long RACY_MTIME = -1;
+
+    private static final Map<Path, MerkleFileIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private Dir current;
+    private boolean loaded;
+
+    private MerkleFileIndex(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * The shared index for a project root.
+     */
+    public static MerkleFileIndex forRoot(Path root) {
+        Path key = root.toAbsolutePath().normalize();
+        if (INDEXES.size() >= MAX_INDEXES && !INDEXES.containsKey(key)) {
+            INDEXES.clear();
+        }
+        return INDEXES.computeIfAbsent(key, MerkleFileIndex::new);
+    }
+
+    /**
+     * Brings the index up to date with the filesystem, persists it if anything changed,
+     * and returns the current snapshot.
+     */
+    public synchronized Snapshot refresh() {
+        if (!Files.isDirectory(root)) {
+            return new Snapshot(root, Dir.EMPTY);
+        }
+        if (!loaded) {
+            current = load();
+            loaded = true;
+        }
+        Dir updated;
+        try {
+            updated = refreshDir(root, current, System.currentTimeMillis() - RACY_WINDOW_MS);
+        } catch (IOException e) {
+            log.warn("Could not index {}: {}", root, e.getMessage());
+            updated = Dir.EMPTY;
+        }
+        if (updated != current) {
+            current = updated;
+            persist();
+        }
+        return new Snapshot(root, current);
+    }
+
+    // ── Tree ─────────────────────────────────────────────────────────
+
+    /**
+     * @param hash  first 64 bits of the content's SHA-1
+     * @param lines number of lines in the file, 0 for binary files
+     */
+    record FileNode(long size, long mtimeMs, long hash, int lines) {}
+
+    record Dir(long mtimeMs, SortedMap<String, Dir> dirs, SortedMap<String, FileNode> files, long hash) {
+        static final Dir EMPTY = new Dir(0, Collections.emptySortedMap(), Collections.emptySortedMap(), 0);
+    }
+
+    /**
+     * Immutable view of the index at one point in time.
+     */
+    public static final class Snapshot {
+        private final Path base;
+        private final Dir root;
+
+        private Snapshot(Path base, Dir root) {
+            this.base = base;
+            this.root = root;
+        }
+
+        /** Number of indexed files. */
+        public int fileCount() {
+            return count(root);
+        }
+
+        /**
+         * Files created, modified, deleted or renamed since {@code before} (see
+         * {@link ChangeSet}).
+         */
+        public List<FileRecord> diff(Snapshot before) {
+            var changes = new ChangeSet();
+            try (var lines = new LineDeltas(base)) {
+                diffDir("", before.root, root, changes, lines);
+            }
+            return changes.toRecords();
+        }
+
+        /**
+         * Relative paths of all directories and files in depth-first order, skipping
+         * entries whose name is in {@code ignoredNames} along with their subtrees.
+         */
+        public List<String> paths(Set<String> ignoredNames) {
+            var result = new ArrayList<String>();
+            collectPaths("", root, ignoredNames, result);
+            return result;
+        }
+
+        private static int count(Dir dir) {
+            int n = dir.files().size();
+            for (Dir sub : dir.dirs().values()) n += count(sub);
+            return n;
+        }
+
+        private static void collectPaths(String prefix, Dir dir, Set<String> ignored, List<String> out) {
+            var names = new TreeSet<String>(dir.dirs().keySet());
+            names.addAll(dir.files().keySet());
+            for (String name : names) {
+                if (ignored.contains(name)) continue;
+                String path = prefix + name;
+                out.add(path);
+                Dir sub = dir.dirs().get(name);
+                if (sub != null) collectPaths(path + "/", sub, ignored, out);
+            }
+        }
+    }
+
+    private static void diffDir(String prefix, Dir before, Dir after, ChangeSet out, LineDeltas lines) {
+        if (before == after) return;
+        if (before != null && after != null && before.hash() == after.hash()) return;
+        var beforeFiles = before != null ? before.files() : Collections.<String, FileNode>emptySortedMap();
+        var afterFiles = after != null ? after.files() : Collections.<String, FileNode>emptySortedMap();
+
+        var names = new TreeSet<String>(beforeFiles.keySet());
+        names.addAll(afterFiles.keySet());
+        for (String name : names) {
+            FileNode b = beforeFiles.get(name);
+            FileNode a = afterFiles.get(name);
+            if (b == null) {
+                out.created(prefix + name, a.hash(), a.lines());
+            } else if (a == null) {
+                out.deleted(prefix + name, b.hash(), b.lines());
+            } else if (a.hash() != b.hash()) {
+                out.modified(prefix + name, lines.delta(prefix + name, b, a));
+            }
+        }
+
+        var beforeDirs = before != null ? before.dirs() : Collections.<String, Dir>emptySortedMap();
+        var afterDirs = after != null ? after.dirs() : Collections.<String, Dir>emptySortedMap();
+        var dirNames = new TreeSet<String>(beforeDirs.keySet());
+        dirNames.addAll(afterDirs.keySet());
+        for (String name : dirNames) {
+            diffDir(prefix + name + "/", beforeDirs.get(name), afterDirs.get(name), out, lines);
+        }
+    }
+
+    /**
+     * Line deltas of modified files for one diff. The git repository holding the
+     * previous versions is opened on the first modified file.
+     */
+    private static final class LineDeltas implements AutoCloseable {
+        private final Path base;
+        private Repository repository;
+        private RevTree head;
+        private boolean opened;
+
+        LineDeltas(Path base) {
+            this.base = base;
+        }
+
+        int delta(String path, FileNode before, FileNode after) {
+            int netDelta = Math.abs(after.lines() - before.lines());
+            if (before.lines() == 0 || after.lines() == 0
+                    || before.size() > MAX_LINE_HASHED_BYTES || after.size() > MAX_LINE_HASHED_BYTES) {
+                return netDelta;
+            }
+            try {
+                byte[] previous = previousContent(path, before.hash());
+                if (previous == null) {
+                    return netDelta;
+                }
+                int[] beforeLines = lineHashes(new ByteArrayInputStream(previous));
+                int[] afterLines;
+                try (var in = Files.newInputStream(base.resolve(path))) {
+                    afterLines = lineHashes(in);
+                }
+                if (beforeLines == null || afterLines == null) {
+                    return netDelta;
+                }
+                return ChangeSet.lineDelta(beforeLines, afterLines);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Could not compute line delta of {}: {}", path, e.getMessage());
+                return netDelta;
+            }
+        }
+
+        /** The file's content at git HEAD, if that is the content with the given hash. */
+        private byte[] previousContent(String path, long hash) throws IOException {
+            if (!opened) {
+                opened = true;
+                var builder = new FileRepositoryBuilder().findGitDir(base.toFile());
+                if (builder.getGitDir() != null) {
+                    repository = builder.build();
+                    var headId = repository.resolve("HEAD^{tree}");
+                    if (headId != null) {
+                        try (var walk = new RevWalk(repository)) {
+                            head = walk.parseTree(headId);
+                        }
+                    }
+                }
+            }
+            if (head == null || repository.isBare()) {
+                return null;
+            }
+            String repoPath = repository.getWorkTree().toPath().toAbsolutePath().normalize()
+                    .relativize(base.toAbsolutePath().normalize().resolve(path))
+                    .toString().replace('\\', '/');
+            try (var walk = TreeWalk.forPath(repository, repoPath, head)) {
+                if (walk == null) {
+                    return null;
+                }
+                var loader = repository.open(walk.getObjectId(0), Constants.OBJ_BLOB);
+                if (loader.getSize() > MAX_LINE_HASHED_BYTES) {
+                    return null;
+                }
+                byte[] content = loader.getBytes();
+                var digest = FileSnapshotEngine.sha1();
+                digest.update(content);
+                return FileSnapshotEngine.toLong(digest.digest()) == hash ? content : null;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (repository != null) {
+                repository.close();
+            }
+        }
+    }
+
+    /** FNV-1a hash of each line, or null for binary content. */
+    static int[] lineHashes(InputStream in) throws IOException {
+        var lineHashes = new IntList();
+        int lineHash = FNV_OFFSET;
+        boolean lineOpen = false;
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            for (int i = 0; i < n; i++) {
+                byte b = buffer[i];
+                if (b == 0) {
+                    return null;
+                }
+                if (b == '\n') {
+                    lineHashes.add(lineHash);
+                    lineHash = FNV_OFFSET;
+                    lineOpen = false;
+                } else {
+                    lineHash = (lineHash ^ (b & 0xff)) * FNV_PRIME;
+                    lineOpen = true;
+                }
+            }
+        }
+        if (lineOpen) lineHashes.add(lineHash);
+        return lineHashes.toArray();
+    }
+
+    // ── Refresh ──────────────────────────────────────────────────────
+
+    /**
+     * Returns {@code old} itself when nothing under the directory changed.
+     */
+    private Dir refreshDir(Path dir, Dir old, long racyAfterMs) throws IOException {
+        long mtime = Files.getLastModifiedTime(dir).toMillis();
+        var dirs = new TreeMap<String, Dir>();
+        var files = new TreeMap<String, FileNode>();
+        boolean listed = old == null || old.mtimeMs() != mtime;
+
+        if (!listed) {
+            // Same entries as last time; only their contents can have changed
+            try {
+                for (var e : old.files().entrySet()) {
+                    files.put(e.getKey(), refreshFile(dir.resolve(e.getKey()), e.getValue(), racyAfterMs));
+                }
+                for (var e : old.dirs().entrySet()) {
+                    dirs.put(e.getKey(), refreshDir(dir.resolve(e.getKey()), e.getValue(), racyAfterMs));
+                }
+            } catch (IOException e) {
+                // An entry vanished without the directory mtime moving (coarse clock); re-list
+                dirs.clear();
+                files.clear();
+                listed = true;
+            }
+        }
+
+        if (listed) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    var attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attrs.isDirectory()) {
+                        if (FileSnapshotEngine.SKIPPED_DIRS.contains(name)) continue;
+                        dirs.put(name, refreshDir(entry, old != null ? old.dirs().get(name) : null, racyAfterMs));
+                    } else if (Files.isRegularFile(entry)) {
+                        try {
+                            files.put(name, refreshFile(entry, old != null ? old.files().get(name) : null, racyAfterMs));
+                        } catch (IOException e) {
+                            log.debug("Could not index {}: {}", entry, e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+
+        if (old != null && old.mtimeMs() == mtime && sameChildren(old.dirs(), dirs) && sameChildren(old.files(), files)) {
+            return old;
+        }
+        return new Dir(mtime >= racyAfterMs ? RACY_MTIME : mtime, Collections.unmodifiableSortedMap(dirs),
+                Collections.unmodifiableSortedMap(files), hashDir(dirs, files));
+    }
+
+    private static FileNode refreshFile(Path file, FileNode old, long racyAfterMs) throws IOException {
+        var attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        long mtime = attrs.lastModifiedTime().toMillis();
+        if (old != null && old.size() == attrs.size() && old.mtimeMs() == mtime) {
+            return old;
+        }
+        if (mtime >= racyAfterMs) {
+            mtime = RACY_MTIME;
+        }
+        var digest = FileSnapshotEngine.sha1();
+        boolean binary = false;
+        int lines = 0;
+        boolean lineOpen = false;
+        byte[] buffer = new byte[8192];
+        try (var in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+                if (binary) continue;
+                for (int i = 0; i < n; i++) {
+                    byte b = buffer[i];
+                    if (b == 0) {
+                        binary = true;
+                        break;
+                    }
+                    if (b == '\n') {
+                        lines++;
+                        lineOpen = false;
+                    } else {
+                        lineOpen = true;
+                    }
+                }
+            }
+        }
+        if (lineOpen) lines++;
+        long hash = FileSnapshotEngine.toLong(digest.digest());
+        return new FileNode(attrs.size(), mtime, hash, binary ? 0 : lines);
+    }
+
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    /** Growable int array, to avoid boxing a hash per line. */
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static <T> boolean sameChildren(Map<String, T> old, Map<String, T> current) {
+        if (old.size() != current.size()) return false;
+        for (var e : current.entrySet()) {
+            if (old.get(e.getKey()) != e.getValue()) return false;
+        }
+        return true;
+    }
+
+    private static long hashDir(SortedMap<String, Dir> dirs, SortedMap<String, FileNode> files) {
+        var digest = FileSnapshotEngine.sha1();
+        for (var e : dirs.entrySet()) {
+            digest.update((byte) 'd');
+            digest.update(e.getKey().getBytes(StandardCharsets.UTF_8));
+            updateLong(digest, e.getValue().hash());
+        }
+        for (var e : files.entrySet()) {
+            digest.update((byte) 'f');
+            digest.update(e.getKey().getBytes(StandardCharsets.UTF_8));
+            updateLong(digest, e.getValue().hash());
+        }
+        return FileSnapshotEngine.toLong(digest.digest());
+    }
+
+    private static void updateLong(MessageDigest digest, long value) {
+        for (int i = 7; i >= 0; i--) digest.update((byte) (value >>> (i * 8)));
+    }
+
+    // ── Persistence ──────────────────────────────────────────────────
+
+    private Dir load() {
+        Path file = root.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(file)) return null;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) return null;
+            return readDir(in);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Ignoring unreadable file index {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void persist() {
+        Path file = root.resolve(INDEX_FILE);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "file-index", ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FORMAT_VERSION);
+                writeDir(out, current);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("Could not persist file index for {}: {}", root, e.getMessage());
+        }
+    }
+
+    private static void writeDir(DataOutputStream out, Dir dir) throws IOException {
+        out.writeLong(dir.mtimeMs());
+        out.writeLong(dir.hash());
+        out.writeInt(dir.files().size());
+        for (var e : dir.files().entrySet()) {
+            var f = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeLong(f.size());
+            out.writeLong(f.mtimeMs());
+            out.writeLong(f.hash());
+            out.writeInt(f.lines());
+        }
+        out.writeInt(dir.dirs().size());
+        for (var e : dir.dirs().entrySet()) {
+            out.writeUTF(e.getKey());
+            writeDir(out, e.getValue());
+        }
+    }
+
+    private static Dir readDir(DataInputStream in) throws IOException {
+        long mtime = in.readLong();
+        long hash = in.readLong();
+        var files = new TreeMap<String, FileNode>();
+        int fileCount = in.readInt();
+        for (int i = 0; i < fileCount; i++) {
+            String name = in.readUTF();
+            long size = in.readLong();
+            long mtimeMs = in.readLong();
+            long fileHash = in.readLong();
+            int lines = in.readInt();
+            files.put(name, new FileNode(size, mtimeMs, fileHash, lines));
+        }
+        var dirs = new TreeMap<String, Dir>();
+        int dirCount = in.readInt();
+        for (int i = 0; i < dirCount; i++) {
+            dirs.put(in.readUTF(), readDir(in));
+        }
+        return new Dir(mtime, Collections.unmodifiableSortedMap(dirs), Collections.unmodifiableSortedMap(files), hash);
+    }
+}
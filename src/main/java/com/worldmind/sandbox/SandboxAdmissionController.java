@@ -0,0 +1,258 @@
+package com.worldmind.sandbox;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JVM-wide admission control for sandbox launches.
+ *
+ * <p>Per-wave semaphores only bound a single mission. This controller caps the number of
+ * sandboxes running across all missions ({@code worldmind.sandbox.max-sandboxes}) and
+ * per agent type ({@code worldmind.sandbox.agent-quotas}, e.g. one DEPLOYER at a time).
+ *
+ * <p>When the cap is reached, requests queue and are admitted by:
+ * <ol>
+ *   <li>priority class — quality-gate and deploy agents finish work already in flight,
+ *       so they go ahead of new implementation work;</li>
+ *   <li>weighted fair queuing across missions — each request gets a virtual finish tag
+ *       of {@code max(virtualTime, mission's last tag) + 1/weight}, so a mission that
+ *       floods the queue cannot starve the others;</li>
+ *   <li>arrival order.</li>
+ * </ol>
+ * A request blocked only by its agent quota does not hold up requests behind it.
+ */
+@Service
+public final class SandboxAdmissionController {
+
+    private static final Logger log = LoggerFactory.getLogger(SandboxAdmissionController.class);
+
+    /** Priority classes, highest first. */
+    public enum Priority {
+        /** Agents that complete in-flight work: TESTER, REVIEWER, DEPLOYER. */
+        HIGH,
+        /** Agents that start new work. */
+        NORMAL;
+
+        public static Priority forAgent(String agentType) {
+            if (agentType == null) return NORMAL;
+            return switch (agentType.toUpperCase()) {
+                case "TESTER", "REVIEWER", "DEPLOYER" -> HIGH;
+                default -> NORMAL;
+            };
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Integer> agentQuotas;
+    private final WorldmindMetrics metrics;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Waiter> queue = new ArrayList<>();
+    private final Map<String, Integer> agentInUse = new HashMap<>();
+    private final Map<String, Integer> missionActive = new HashMap<>();
+    private final Map<String, Double> missionLastTag = new HashMap<>();
+    private final Map<String, Double> missionWeights = new HashMap<>();
+    private int inUse;
+    private double virtualTime;
+    private long sequence;
+
+    @Autowired
+    public SandboxAdmissionController(SandboxProperties properties,
+                                      @Autowired(required = false) WorldmindMetrics metrics) {
+        this(properties.getMaxSandboxes(), properties.getAgentQuotas(), metrics);
+    }
+
+    SandboxAdmissionController(int capacity, Map<String, Integer> agentQuotas, WorldmindMetrics metrics) {
+        this.capacity = Math.max(1, capacity);
+        this.agentQuotas = new HashMap<>();
+        if (agentQuotas != null) {
+            agentQuotas.forEach((agent, quota) -> this.agentQuotas.put(agent.toUpperCase(), quota));
+        }
+        this.metrics = metrics;
+        if (metrics != null) {
+            metrics.registerAdmissionGauges(this::queueDepth, this::inUse);
+        }
+    }
+
+    /**
+     * Sets a mission's share relative to other missions (default 1.0). A mission with
+     * weight 2 is admitted twice as often as a weight-1 mission while both are queued.
+     */
+    public void setMissionWeight(String missionId, double weight) {
+        lock.lock();
+        try {
+            missionWeights.put(key(missionId), Math.max(0.01, weight));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until a sandbox slot is available for the given mission and agent type.
+     * Close the returned permit when the sandbox has been torn down.
+     */
+    public Permit acquire(String missionId, String agentType) throws InterruptedException {
+        String mission = key(missionId);
+        String agent = agentType != null ? agentType.toUpperCase() : "UNKNOWN";
+        long enqueuedNanos = System.nanoTime();
+
+        lock.lock();
+        try {
+            double weight = missionWeights.getOrDefault(mission, 1.0);
+            double tag = Math.max(virtualTime, missionLastTag.getOrDefault(mission, 0.0)) + 1.0 / weight;
+            missionLastTag.put(mission, tag);
+            missionActive.merge(mission, 1, Integer::sum);
+
+            var waiter = new Waiter(mission, agent, Priority.forAgent(agent), tag, sequence++, lock.newCondition());
+            queue.add(waiter);
+            admitLocked();
+
+            try {
+                while (!waiter.admitted) {
+                    waiter.ready.await();
+                }
+            } catch (InterruptedException e) {
+                if (waiter.admitted) {
+                    releaseLocked(mission, agent);
+                } else {
+                    queue.remove(waiter);
+                    missionDoneLocked(mission);
+                    admitLocked();
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedNanos);
+        if (waitedMs > 1000) {
+            log.info("Sandbox for {} ({}) admitted after {}ms in queue", agent, mission, waitedMs);
+        }
+        if (metrics != null) {
+            metrics.recordAdmissionWait(agent, waitedMs);
+        }
+        return new Permit(mission, agent);
+    }
+
+    /** Requests waiting for a slot. */
+    public int queueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Sandboxes currently admitted. */
+    public int inUse() {
+        lock.lock();
+        try {
+            return inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void admitLocked() {
+        while (inUse < capacity) {
+            Waiter next = null;
+            for (var w : queue) {
+                int quota = agentQuotas.getOrDefault(w.agent, Integer.MAX_VALUE);
+                if (agentInUse.getOrDefault(w.agent, 0) >= quota) continue;
+                if (next == null || w.before(next)) next = w;
+            }
+            if (next == null) return;
+
+            queue.remove(next);
+            inUse++;
+            agentInUse.merge(next.agent, 1, Integer::sum);
+            virtualTime = Math.max(virtualTime, next.tag);
+            next.admitted = true;
+            next.ready.signal();
+        }
+    }
+
+    private void releaseLocked(String mission, String agent) {
+        inUse--;
+        agentInUse.merge(agent, -1, Integer::sum);
+        missionDoneLocked(mission);
+        admitLocked();
+    }
+
+    private void missionDoneLocked(String mission) {
+        if (missionActive.merge(mission, -1, Integer::sum) <= 0) {
+            // Idle missions re-enter at the current virtual time
+            missionActive.remove(mission);
+            missionLastTag.remove(mission);
+        }
+    }
+
+    private static String key(String missionId) {
+        return missionId != null && !missionId.isBlank() ? missionId : "default";
+    }
+
+    private static final class Waiter {
+        final String mission;
+        final String agent;
+        final Priority priority;
+        final double tag;
+        final long seq;
+        final Condition ready;
+        boolean admitted;
+
+        Waiter(String mission, String agent, Priority priority, double tag, long seq, Condition ready) {
+            this.mission = mission;
+            this.agent = agent;
+            this.priority = priority;
+            this.tag = tag;
+            this.seq = seq;
+            this.ready = ready;
+        }
+
+        boolean before(Waiter other) {
+            if (priority != other.priority) return priority.ordinal() < other.priority.ordinal();
+            if (tag != other.tag) return tag < other.tag;
+            return seq < other.seq;
+        }
+    }
+
+    /**
+     * An admitted sandbox slot. Closing it admits the next queued request; closing twice
+     * is harmless.
+     */
+    public final class Permit implements AutoCloseable {
+        private final String mission;
+        private final String agent;
+        private boolean released;
+
+        private Permit(String mission, String agent) {
+            this.mission = mission;
+            this.agent = agent;
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (released) return;
+                released = true;
+                releaseLocked(mission, agent);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientImpl;
 import com.github.dockerjava.zerodep.ZerodepDockerHttpClient;
+import com.worldmind.core.events.EventBus;
 import com.worldmind.core.metrics.WorldmindMetrics;
 import com.worldmind.sandbox.cf.GitWorkspaceManager;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,18 +35,24 @@ public class SandboxConfig {
     @Bean
     @ConditionalOnProperty(name = "worldmind.sandbox.provider", havingValue = "docker", matchIfMissing = true)
     public SandboxProvider dockerSandboxProvider(DockerClient dockerClient,
-                                                            SandboxProperties properties) {
-        return new DockerSandboxProvider(dockerClient, properties.getImageRegistry(), properties.getImagePrefix());
+                                                            SandboxProperties properties,
+                                                            @Autowired(required = false) WorldmindMetrics metrics,
+                                                            @Autowired(required = false) EventBus eventBus) {
+        return new DockerSandboxProvider(dockerClient, properties.getImageRegistry(), properties.getImagePrefix(),
+                properties.getWarmPoolMax(), metrics, eventBus, properties.getLogDir(),
+                properties.getLogRetention());
     }
 
     /**
      * Provides worktree-based execution contexts for isolated parallel task execution.
      * This bean manages git worktrees to give each task its own working directory,
-     * preventing file conflicts during parallel execution.
+     * preventing file conflicts during parallel execution. Each mission workspace keeps a
+     * pool of {@code max-parallel} worktrees that are reset and reused between tasks.
      */
     @Bean
     public WorktreeExecutionContext worktreeExecutionContext(GitWorkspaceManager gitWorkspaceManager,
+                                                              SandboxProperties properties,
                                                               @Autowired(required = false) WorldmindMetrics metrics) {
-        return new WorktreeExecutionContext(gitWorkspaceManager, metrics);
+        return new WorktreeExecutionContext(gitWorkspaceManager, metrics, properties.getMaxParallel());
     }
 }
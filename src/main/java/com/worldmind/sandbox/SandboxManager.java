@@ -1,5 +1,6 @@
 package com.worldmind.sandbox;
 
+import com.worldmind.core.logging.MdcContext;
 import com.worldmind.core.model.FileRecord;
 import com.worldmind.mcp.McpProperties;
 import org.slf4j.Logger;
@@ -11,8 +12,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Orchestrates Agent execution inside Sandbox containers.
@@ -40,12 +39,24 @@ public class SandboxManager {
     private final SandboxProvider provider;
     private final SandboxProperties properties;
     private final McpProperties mcpProperties;
+    private final SandboxAdmissionController admission;
 
+    /** Sandbox IDs of running tasks, so a task can be cancelled from another thread. */
+    private final Map<String, String> activeSandboxes = new java.util.concurrent.ConcurrentHashMap<>();
+
+    public SandboxManager(SandboxProvider provider, SandboxProperties properties,
+                              McpProperties mcpProperties) {
+        this(provider, properties, mcpProperties, null);
+    }
+
+    @Autowired
     public SandboxManager(SandboxProvider provider, SandboxProperties properties,
-                              @Autowired(required = false) McpProperties mcpProperties) {
+                              @Autowired(required = false) McpProperties mcpProperties,
+                              @Autowired(required = false) SandboxAdmissionController admission) {
         this.provider = provider;
         this.properties = properties;
         this.mcpProperties = mcpProperties;
+        this.admission = admission;
     }
 
     /**
@@ -54,7 +65,7 @@ public class SandboxManager {
      * @param exitCode    container exit code (0 = success)
      * @param output      captured stdout/stderr from the container
      * @param sandboxId  the container ID that ran this task
-     * @param fileChanges files created or modified during execution
+     * @param fileChanges files created, modified, deleted or renamed during execution
      * @param elapsedMs   wall-clock time in milliseconds
      */
     public record ExecutionResult(
@@ -202,16 +213,37 @@ public class SandboxManager {
         }
 
         // Snapshot project files before execution.
-        // Provider-based snapshot (Docker helper container) takes priority over local snapshot
+        // Provider-based snapshot (Docker sidecar) takes priority over local snapshot
         // because in Docker-in-Docker mode, the local filesystem is the instruction volume,
         // not the host project directory where agents write code.
+        // The local index is used whenever the project directory is readable here, which
+        // also covers Docker-in-Docker setups that mount it at the host path.
         Map<String, Long> providerSnapshot = provider.snapshotProjectFiles(projectPath);
-        Map<String, Long> beforeSnapshot = providerSnapshot != null
-                ? providerSnapshot
-                : snapshotFiles(effectivePath);
+        Path snapshotRoot = Files.isDirectory(projectPath) ? projectPath : effectivePath;
+        MerkleFileIndex.Snapshot localSnapshot = providerSnapshot == null
+                ? snapshotFiles(snapshotRoot)
+                : null;
+
+        // Wait for a JVM-wide sandbox slot; the per-wave limit only bounds this mission
+        SandboxAdmissionController.Permit permit = null;
+        if (admission != null) {
+            try {
+                permit = admission.acquire(MdcContext.missionId(), agentType);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted waiting for sandbox admission for " + taskId, e);
+            }
+        }
 
         long startMs = System.currentTimeMillis();
-        String sandboxId = provider.openSandbox(request);
+        String sandboxId;
+        try {
+            sandboxId = provider.openSandbox(request);
+        } catch (RuntimeException e) {
+            if (permit != null) permit.close();
+            throw e;
+        }
+        activeSandboxes.put(taskId, sandboxId);
 
         try {
             int exitCode = provider.waitForCompletion(sandboxId, properties.getTimeoutSeconds());
@@ -220,22 +252,27 @@ public class SandboxManager {
 
             // Detect file changes using the best available method:
             // 1. Provider-specific detection (CF git diff)
-            // 2. Provider-based snapshot comparison (Docker helper containers)
-            // 3. Local filesystem snapshot comparison (direct host access)
+            // 2. Provider-based snapshot comparison (Docker sidecar)
+            // 3. Local Merkle index comparison (direct host access)
             List<FileRecord> providerChanges = provider.detectChanges(request.taskId(), projectPath);
             if (providerChanges == null && providerSnapshot != null) {
-                providerChanges = provider.detectChangesBySnapshot(beforeSnapshot, projectPath);
+                providerChanges = provider.detectChangesBySnapshot(providerSnapshot, projectPath);
             }
             List<FileRecord> changes = providerChanges != null
                     ? providerChanges
-                    : detectChanges(beforeSnapshot, effectivePath);
+                    : localSnapshot != null ? detectChanges(localSnapshot, snapshotRoot) : List.of();
 
             log.info("Sandbox {} completed with exit code {} in {}ms — {} file changes",
                     sandboxId, exitCode, elapsedMs, changes.size());
 
             return new ExecutionResult(exitCode, output, sandboxId, changes, elapsedMs);
         } finally {
-            provider.teardownSandbox(sandboxId);
+            activeSandboxes.remove(taskId, sandboxId);
+            try {
+                provider.teardownSandbox(sandboxId);
+            } finally {
+                if (permit != null) permit.close();
+            }
             try {
                 Files.deleteIfExists(instructionFile);
             } catch (IOException e) {
@@ -245,54 +282,48 @@ public class SandboxManager {
     }
 
     /**
-     * Takes a snapshot of all regular files in a directory, mapping relative path
-     * to last-modified timestamp. Excludes .git directories.
+     * Stops the sandbox currently running a task, if any. The blocked
+     * {@link #executeTask} call then returns with a non-zero exit code.
+     *
+     * @return true if a running sandbox was found and torn down
+     */
+    public boolean cancelTask(String taskId) {
+        String sandboxId = activeSandboxes.get(taskId);
+        if (sandboxId == null) return false;
+        log.info("Cancelling sandbox {} for task {}", sandboxId, taskId);
+        provider.teardownSandbox(sandboxId);
+        return true;
+    }
+
+    /**
+     * Live resource stats of the sandbox currently running a task (see
+     * {@link SandboxProvider#resourceStats}), or an empty map if none is running.
+     */
+    public Map<String, Object> resourceStats(String taskId) {
+        String sandboxId = activeSandboxes.get(taskId);
+        return sandboxId != null ? provider.resourceStats(sandboxId) : Map.of();
+    }
+
+    /**
+     * Refreshes the directory's {@link MerkleFileIndex} and returns its snapshot.
+     * Excludes {@code .git}, {@code .worldmind} and {@code node_modules} directories.
      *
      * @param directory the directory to snapshot
-     * @return map of relative path -> last modified millis
+     * @return immutable snapshot of the directory's files
      */
-    static Map<String, Long> snapshotFiles(Path directory) {
-        try (Stream<Path> walk = Files.walk(directory)) {
-            return walk
-                .filter(Files::isRegularFile)
-                .filter(p -> !p.toString().contains(".git"))
-                .filter(p -> !p.toString().contains(".worldmind"))
-                .collect(Collectors.toMap(
-                    p -> directory.relativize(p).toString(),
-                    p -> {
-                        try { return Files.getLastModifiedTime(p).toMillis(); }
-                        catch (IOException e) { return 0L; }
-                    }
-                ));
-        } catch (IOException e) {
-            return Map.of();
-        }
+    static MerkleFileIndex.Snapshot snapshotFiles(Path directory) {
+        return MerkleFileIndex.forRoot(directory).refresh();
     }
 
     /**
      * Compares a before-snapshot with the current state of a directory
-     * to detect created and modified files.
+     * to detect created, modified, deleted and renamed files.
      *
      * @param before   snapshot taken before execution
      * @param directory the directory to compare against
-     * @return list of file changes (created or modified)
+     * @return list of file changes with line counts
      */
-    static List<FileRecord> detectChanges(Map<String, Long> before, Path directory) {
-        Map<String, Long> after = snapshotFiles(directory);
-        var changes = new ArrayList<FileRecord>();
-
-        for (var entry : after.entrySet()) {
-            String path = entry.getKey();
-            Long afterTime = entry.getValue();
-            Long beforeTime = before.get(path);
-
-            if (beforeTime == null) {
-                changes.add(new FileRecord(path, "created", 0));
-            } else if (!afterTime.equals(beforeTime)) {
-                changes.add(new FileRecord(path, "modified", 0));
-            }
-        }
-
-        return changes;
+    static List<FileRecord> detectChanges(MerkleFileIndex.Snapshot before, Path directory) {
+        return snapshotFiles(directory).diff(before);
     }
 }
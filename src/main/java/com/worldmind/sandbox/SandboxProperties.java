@@ -3,6 +3,11 @@ package com.worldmind.sandbox;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 @Component
 @ConfigurationProperties(prefix = "worldmind")
 public class SandboxProperties {
@@ -17,10 +22,23 @@ public class SandboxProperties {
     public int getCpuCount() { return sandbox.cpuCount; }
     public int getMaxParallel() { return sandbox.maxParallel; }
     public int getWaveCooldownSeconds() { return sandbox.waveCooldownSeconds; }
+    public long getTokensPerMinute() { return sandbox.tokensPerMinute; }
     public String getImage() { return sandbox.image; }
     public String getImageRegistry() { return sandbox.imageRegistry; }
     public String getImagePrefix() { return sandbox.imagePrefix; }
     public boolean isWorktreesEnabled() { return sandbox.worktreesEnabled; }
+    public String getSchedulerMode() { return sandbox.schedulerMode; }
+    public String getWavePacking() { return sandbox.wavePacking; }
+    public boolean isSpeculativeDispatch() { return sandbox.speculativeDispatch; }
+    public int getMaxSandboxes() { return sandbox.maxSandboxes; }
+    public Map<String, Integer> getAgentQuotas() { return sandbox.agentQuotas; }
+    public int getWarmPoolMax() { return sandbox.warmPoolMax; }
+    public Path getLogDir() {
+        return sandbox.logDir != null && !sandbox.logDir.isBlank()
+                ? Path.of(sandbox.logDir)
+                : Path.of(System.getProperty("java.io.tmpdir"), "worldmind", "sandbox-logs");
+    }
+    public Duration getLogRetention() { return Duration.ofHours(sandbox.logRetentionHours); }
 
     // -- Goose accessors (delegate to nested) --
 
@@ -59,12 +77,21 @@ public class SandboxProperties {
         private int maxParallel = 1;
         private int timeoutSeconds = 300;
         private int waveCooldownSeconds = 60;
+        private long tokensPerMinute = 0;
         private int memoryLimitMb = 4096;
         private int cpuCount = 2;
         private String imageRegistry = "ghcr.io/dbbaskette";
         private String imagePrefix = "sandbox";
         private String image = "ghcr.io/dbbaskette/agent-coder:latest";
         private boolean worktreesEnabled = false;
+        private String schedulerMode = "wave";
+        private String wavePacking = "greedy";
+        private boolean speculativeDispatch = false;
+        private int maxSandboxes = 8;
+        private Map<String, Integer> agentQuotas = new HashMap<>(Map.of("DEPLOYER", 1));
+        private int warmPoolMax = 0;
+        private String logDir = "";
+        private int logRetentionHours = 72;
 
         public String getProvider() { return provider; }
         public void setProvider(String provider) { this.provider = provider; }
@@ -74,6 +101,8 @@ public class SandboxProperties {
         public void setTimeoutSeconds(int timeoutSeconds) { this.timeoutSeconds = timeoutSeconds; }
         public int getWaveCooldownSeconds() { return waveCooldownSeconds; }
         public void setWaveCooldownSeconds(int waveCooldownSeconds) { this.waveCooldownSeconds = waveCooldownSeconds; }
+        public long getTokensPerMinute() { return tokensPerMinute; }
+        public void setTokensPerMinute(long tokensPerMinute) { this.tokensPerMinute = tokensPerMinute; }
         public int getMemoryLimitMb() { return memoryLimitMb; }
         public void setMemoryLimitMb(int memoryLimitMb) { this.memoryLimitMb = memoryLimitMb; }
         public int getCpuCount() { return cpuCount; }
@@ -86,6 +115,22 @@ public class SandboxProperties {
         public void setImage(String image) { this.image = image; }
         public boolean isWorktreesEnabled() { return worktreesEnabled; }
         public void setWorktreesEnabled(boolean worktreesEnabled) { this.worktreesEnabled = worktreesEnabled; }
+        public String getSchedulerMode() { return schedulerMode; }
+        public void setSchedulerMode(String schedulerMode) { this.schedulerMode = schedulerMode; }
+        public String getWavePacking() { return wavePacking; }
+        public void setWavePacking(String wavePacking) { this.wavePacking = wavePacking; }
+        public boolean isSpeculativeDispatch() { return speculativeDispatch; }
+        public void setSpeculativeDispatch(boolean speculativeDispatch) { this.speculativeDispatch = speculativeDispatch; }
+        public int getMaxSandboxes() { return maxSandboxes; }
+        public void setMaxSandboxes(int maxSandboxes) { this.maxSandboxes = maxSandboxes; }
+        public Map<String, Integer> getAgentQuotas() { return agentQuotas; }
+        public void setAgentQuotas(Map<String, Integer> agentQuotas) { this.agentQuotas = agentQuotas; }
+        public int getWarmPoolMax() { return warmPoolMax; }
+        public void setWarmPoolMax(int warmPoolMax) { this.warmPoolMax = warmPoolMax; }
+        public String getLogDir() { return logDir; }
+        public void setLogDir(String logDir) { this.logDir = logDir; }
+        public int getLogRetentionHours() { return logRetentionHours; }
+        public void setLogRetentionHours(int logRetentionHours) { this.logRetentionHours = logRetentionHours; }
     }
 
     public static class Goose {
@@ -77,4 +77,14 @@ public interface SandboxProvider {
     default List<FileRecord> detectChangesBySnapshot(Map<String, Long> beforeSnapshot, Path projectPath) {
         return null;
     }
+
+    /**
+     * Live resource stats of a running sandbox, published with the task's heartbeats.
+     * Keys are provider-specific; an empty map means none are available.
+     *
+     * @param sandboxId the sandbox returned by {@link #openSandbox}
+     */
+    default Map<String, Object> resourceStats(String sandboxId) {
+        return Map.of();
+    }
 }
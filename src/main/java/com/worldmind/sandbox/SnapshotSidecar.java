@@ -0,0 +1,231 @@
+package com.worldmind.sandbox;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.AccessMode;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.StreamType;
+import com.github.dockerjava.api.model.Volume;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived helper container per host project path, for snapshotting project trees
+ * the server cannot read directly (Docker-in-Docker mode).
+ *
+ * <p>The container mounts the project read-only at {@code /scan} and idles; listings
+ * and hashes are taken with {@code docker exec}, so a task's before/after snapshots cost
+ * two execs instead of two container lifecycles. Only files whose size or mtime changed
+ * are hashed (see {@link FileSnapshotEngine#merge}).
+ */
+class SnapshotSidecar {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotSidecar.class);
+
+    static final String IMAGE = "alpine:3.19";
+    static final String LABEL = "worldmind.snapshot-sidecar";
+    private static final String MOUNT = "/scan/";
+    private static final long EXEC_TIMEOUT_SECONDS = 60;
+    /** Keeps each sha1sum argument list well under the kernel's limit. */
+    private static final int MAX_ARG_CHARS = 64 * 1024;
+
+    private final DockerClient dockerClient;
+    private final Map<String, String> containers = new ConcurrentHashMap<>();
+
+    SnapshotSidecar(DockerClient dockerClient) {
+        this.dockerClient = dockerClient;
+    }
+
+    /**
+     * Lists regular files under the project with size and mtime. Busybox {@code stat}
+     * only prints whole-second mtimes; {@link FileSnapshotEngine#merge} re-hashes files
+     * whose mtime could hide a same-second rewrite.
+     *
+     * @return stats by relative path, or null if the sidecar could not be used
+     */
+    Map<String, FileSnapshotEngine.Stat> list(Path hostProjectPath) {
+        var prune = new ArrayList<String>(List.of("find", "/scan", "("));
+        for (String dir : FileSnapshotEngine.SKIPPED_DIRS) {
+            if (prune.size() > 3) prune.add("-o");
+            prune.add("-name");
+            prune.add(dir);
+        }
+        prune.addAll(List.of(")", "-prune", "-o", "-type", "f", "-exec", "stat", "-c", "%s %Y %n", "{}", "+"));
+
+        String output = execWithRetry(hostProjectPath, prune.toArray(new String[0]));
+        return output != null ? parseStatListing(output) : null;
+    }
+
+    /**
+     * Content hashes for the given relative paths. Paths that could not be hashed are
+     * left out.
+     */
+    Map<String, Long> hash(Path hostProjectPath, Collection<String> paths) {
+        var hashes = new HashMap<String, Long>();
+        var batch = new ArrayList<String>(List.of("sha1sum", "--"));
+        int chars = 0;
+        for (String path : paths) {
+            batch.add(MOUNT + path);
+            chars += path.length() + MOUNT.length() + 1;
+            if (chars >= MAX_ARG_CHARS) {
+                hashBatch(hostProjectPath, batch, hashes);
+                batch = new ArrayList<>(List.of("sha1sum", "--"));
+                chars = 0;
+            }
+        }
+        if (batch.size() > 2) {
+            hashBatch(hostProjectPath, batch, hashes);
+        }
+        return hashes;
+    }
+
+    /** Removes all sidecars started by this process. */
+    void shutdown() {
+        containers.values().forEach(this::remove);
+        containers.clear();
+    }
+
+    private void hashBatch(Path hostProjectPath, List<String> command, Map<String, Long> hashes) {
+        String output = execWithRetry(hostProjectPath, command.toArray(new String[0]));
+        if (output != null) {
+            hashes.putAll(parseHashListing(output));
+        }
+    }
+
+    private String execWithRetry(Path hostProjectPath, String[] command) {
+        String key = hostProjectPath.toString();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            String containerId = containers.computeIfAbsent(key, k -> start(hostProjectPath));
+            if (containerId == null) {
+                containers.remove(key);
+                return null;
+            }
+            try {
+                return exec(containerId, command);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                // The sidecar may have been removed externally; start a fresh one once
+                log.debug("Snapshot exec in {} failed: {}", containerId, e.getMessage());
+                containers.remove(key, containerId);
+                remove(containerId);
+            }
+        }
+        return null;
+    }
+
+    private String start(Path hostProjectPath) {
+        String name = "wm-snapshot-" + UUID.nameUUIDFromBytes(
+                hostProjectPath.toString().getBytes(StandardCharsets.UTF_8)).toString().substring(0, 8);
+        // A sidecar left by a previous server process has the same name
+        remove(name);
+        try {
+            String containerId = dockerClient.createContainerCmd(IMAGE)
+                    .withName(name)
+                    .withLabels(Map.of(LABEL, "true"))
+                    .withHostConfig(HostConfig.newHostConfig()
+                            .withBinds(new Bind(hostProjectPath.toString(), new Volume("/scan"), AccessMode.ro)))
+                    .withEntrypoint("sleep", "infinity")
+                    .exec()
+                    .getId();
+            dockerClient.startContainerCmd(containerId).exec();
+            log.info("Started snapshot sidecar {} for {}", name, hostProjectPath);
+            return containerId;
+        } catch (Exception e) {
+            log.warn("Could not start snapshot sidecar for {}: {}", hostProjectPath, e.getMessage());
+            remove(name);
+            return null;
+        }
+    }
+
+    private String exec(String containerId, String[] command) throws InterruptedException {
+        String execId = dockerClient.execCreateCmd(containerId)
+                .withCmd(command)
+                .withAttachStdout(true)
+                .withAttachStderr(true)
+                .exec()
+                .getId();
+        var stdout = new ByteArrayOutputStream();
+        var callback = dockerClient.execStartCmd(execId).exec(new ResultCallback.Adapter<Frame>() {
+            @Override
+            public void onNext(Frame frame) {
+                if (frame.getStreamType() != StreamType.STDERR) {
+                    synchronized (stdout) {
+                        stdout.writeBytes(frame.getPayload());
+                    }
+                }
+            }
+        });
+        if (!callback.awaitCompletion(EXEC_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("snapshot exec timed out");
+        }
+        synchronized (stdout) {
+            return stdout.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private void remove(String containerIdOrName) {
+        try {
+            dockerClient.removeContainerCmd(containerIdOrName).withForce(true).exec();
+        } catch (Exception ignored) {
+            // Not present
+        }
+    }
+
+    /**
+     * Parses "size mtime_seconds /scan/path" lines.
+     */
+    static Map<String, FileSnapshotEngine.Stat> parseStatListing(String output) {
+        var result = new HashMap<String, FileSnapshotEngine.Stat>();
+        for (String line : output.split("\n")) {
+            int first = line.indexOf(' ');
+            int second = first > 0 ? line.indexOf(' ', first + 1) : -1;
+            if (second <= 0) continue;
+            String fullPath = line.substring(second + 1);
+            if (!fullPath.startsWith(MOUNT)) continue;
+            try {
+                long size = Long.parseLong(line.substring(0, first));
+                long mtimeSeconds = Long.parseLong(line.substring(first + 1, second));
+                result.put(fullPath.substring(MOUNT.length()),
+                        new FileSnapshotEngine.Stat(size, mtimeSeconds * 1000));
+            } catch (NumberFormatException e) {
+                // Skip malformed lines
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses sha1sum output ("hex  /scan/path"). Escaped names (leading backslash)
+     * are skipped and fall back to a size/mtime fingerprint.
+     */
+    static Map<String, Long> parseHashListing(String output) {
+        var result = new HashMap<String, Long>();
+        for (String line : output.split("\n")) {
+            if (line.length() < 42 || line.startsWith("\\")) continue;
+            String fullPath = line.substring(42);
+            if (!fullPath.startsWith(MOUNT)) continue;
+            try {
+                result.put(fullPath.substring(MOUNT.length()), FileSnapshotEngine.fromHex(line.substring(0, 40)));
+            } catch (NumberFormatException e) {
+                // Skip malformed lines
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package com.worldmind.sandbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Completes a future per agent task attempt when the task finishes.
+ *
+ * <p>CF agent tasks report back to the orchestrator over HTTP once they are done,
+ * and providers may also learn of a finished task by polling their platform. Whichever
+ * signal arrives first completes the attempt's future with the task's exit code; later
+ * signals are ignored.
+ *
+ * <p>Entries are keyed by an attempt id rather than the sandbox name, which is reused by
+ * retries of a task. Providers register the attempt with {@link #await} before starting
+ * the task and drop it with {@link #forget} once done, so a signal for an attempt nobody
+ * is waiting on (a late callback after a timeout, say) is discarded.
+ */
+@Component
+public class TaskCompletionNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskCompletionNotifier.class);
+
+    private final ConcurrentHashMap<String, CompletableFuture<Integer>> completions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the future completed with the exit code of the attempt's task, registering
+     * the attempt if needed.
+     */
+    public CompletableFuture<Integer> await(String attemptId) {
+        return completions.computeIfAbsent(attemptId, id -> new CompletableFuture<>());
+    }
+
+    /**
+     * Records that the attempt's task finished with the given exit code.
+     *
+     * @return true if this was the first completion signal for a registered attempt
+     */
+    public boolean complete(String attemptId, int exitCode) {
+        var completion = completions.get(attemptId);
+        if (completion == null) {
+            log.debug("Dropping completion of {} (exit code {}): nobody is waiting on it", attemptId, exitCode);
+            return false;
+        }
+        boolean first = completion.complete(exitCode);
+        if (first) {
+            log.debug("Task attempt {} completed with exit code {}", attemptId, exitCode);
+        }
+        return first;
+    }
+
+    /** Drops the attempt's entry once its waiter is done with it. */
+    public void forget(String attemptId) {
+        completions.remove(attemptId);
+    }
+
+    public int size() {
+        return completions.size();
+    }
+}
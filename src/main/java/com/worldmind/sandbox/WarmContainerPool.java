@@ -0,0 +1,251 @@
+package com.worldmind.sandbox;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.model.HostConfig;
+import com.worldmind.core.metrics.WorldmindMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Pool of pre-started, paused sandbox containers for {@link DockerSandboxProvider}.
+ *
+ * <p>Docker fixes bind mounts and resource limits at create time, so containers are pooled
+ * per {@link Key} — runtime image, project path and limits. A warm container runs
+ * {@code sleep infinity} instead of the agent and is paused until claimed; the provider
+ * then unpauses it and starts the agent with {@code docker exec}, skipping image inspect,
+ * create and start on the task's critical path.
+ *
+ * <p>Containers are single-use: after a task they are destroyed, since the agent may leave
+ * processes or home-directory state behind. The pool for each key is refilled in the
+ * background up to the number of claims seen in the last {@link #DEMAND_WINDOW_MS}, capped
+ * at {@code maxPerKey}, and drains to zero once a key goes idle.
+ */
+class WarmContainerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmContainerPool.class);
+
+    static final String POOL_LABEL = "worldmind.warm-pool";
+    static final long DEMAND_WINDOW_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long MAINTAIN_INTERVAL_SECONDS = 30;
+
+    /**
+     * Identifies containers that are interchangeable for a task.
+     */
+    record Key(String runtimeTag, String image, String hostProjectPath, String workspaceVolume,
+               int memoryLimitMb, int cpuCount) {}
+
+    private final DockerClient dockerClient;
+    private final int maxPerKey;
+    private final WorldmindMetrics metrics;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService maintainer;
+
+    private final Map<Key, ConcurrentLinkedDeque<String>> idle = new ConcurrentHashMap<>();
+    private final Map<Key, AtomicInteger> warming = new ConcurrentHashMap<>();
+    private final Map<Key, Deque<Long>> claims = new ConcurrentHashMap<>();
+
+    WarmContainerPool(DockerClient dockerClient, int maxPerKey, WorldmindMetrics metrics) {
+        this(dockerClient, maxPerKey, metrics, System::currentTimeMillis, true);
+    }
+
+    WarmContainerPool(DockerClient dockerClient, int maxPerKey, WorldmindMetrics metrics,
+                      LongSupplier clock, boolean startMaintainer) {
+        this.dockerClient = dockerClient;
+        this.maxPerKey = Math.max(0, maxPerKey);
+        this.metrics = metrics;
+        this.clock = clock;
+        if (startMaintainer) {
+            maintainer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "warm-container-pool");
+                t.setDaemon(true);
+                return t;
+            });
+            maintainer.execute(this::removeOrphans);
+            maintainer.scheduleWithFixedDelay(this::safeMaintain,
+                    MAINTAIN_INTERVAL_SECONDS, MAINTAIN_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        } else {
+            maintainer = null;
+        }
+    }
+
+    /**
+     * Takes a warm container for the key, unpaused and ready for {@code docker exec}.
+     * Records the demand either way and schedules a refill.
+     *
+     * @return the container ID, or null if none was warm
+     */
+    String claim(Key key) {
+        recordClaim(key);
+        String containerId = null;
+        var containers = idle.get(key);
+        while (containers != null && (containerId = containers.poll()) != null) {
+            try {
+                dockerClient.unpauseContainerCmd(containerId).exec();
+                break;
+            } catch (Exception e) {
+                log.debug("Warm container {} unusable, discarding: {}", containerId, e.getMessage());
+                destroy(containerId);
+                containerId = null;
+            }
+        }
+        if (metrics != null) {
+            metrics.recordWarmPoolClaim(key.runtimeTag(), containerId != null);
+        }
+        if (maintainer != null) {
+            maintainer.execute(() -> safeRefill(key));
+        }
+        return containerId;
+    }
+
+    /** Destroys a container that was claimed from the pool. */
+    void release(String containerId) {
+        destroy(containerId);
+    }
+
+    /** Number of idle warm containers for the key. */
+    int idleCount(Key key) {
+        var containers = idle.get(key);
+        return containers != null ? containers.size() : 0;
+    }
+
+    /** Containers the key should hold: recent claims, capped at the per-key maximum. */
+    int targetSize(Key key) {
+        var times = claims.get(key);
+        if (times == null) return 0;
+        synchronized (times) {
+            long cutoff = clock.getAsLong() - DEMAND_WINDOW_MS;
+            while (!times.isEmpty() && times.peekFirst() < cutoff) times.pollFirst();
+            return Math.min(maxPerKey, times.size());
+        }
+    }
+
+    /** Refills or drains every key toward its target size. */
+    void maintain() {
+        for (Key key : List.copyOf(claims.keySet())) {
+            refill(key);
+            if (targetSize(key) == 0 && idleCount(key) == 0) {
+                claims.remove(key);
+            }
+        }
+    }
+
+    /** Brings one key's pool to its target size. */
+    void refill(Key key) {
+        int target = targetSize(key);
+        var containers = idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+        var inFlight = warming.computeIfAbsent(key, k -> new AtomicInteger());
+
+        while (containers.size() > target) {
+            String surplus = containers.pollLast();
+            if (surplus == null) break;
+            destroy(surplus);
+        }
+        while (containers.size() + inFlight.get() < target) {
+            inFlight.incrementAndGet();
+            try {
+                String containerId = warm(key);
+                if (containerId == null) return;
+                containers.add(containerId);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /** Destroys all idle containers and stops background maintenance. */
+    void shutdown() {
+        if (maintainer != null) maintainer.shutdownNow();
+        for (var containers : idle.values()) {
+            String containerId;
+            while ((containerId = containers.poll()) != null) {
+                destroy(containerId);
+            }
+        }
+    }
+
+    private void recordClaim(Key key) {
+        var times = claims.computeIfAbsent(key, k -> new ArrayDeque<>());
+        synchronized (times) {
+            times.addLast(clock.getAsLong());
+        }
+    }
+
+    private String warm(Key key) {
+        String containerName = "wm-warm-" + key.runtimeTag() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        try {
+            HostConfig hostConfig = DockerSandboxProvider.hostConfig(
+                    key.hostProjectPath(), key.workspaceVolume(), key.memoryLimitMb(), key.cpuCount());
+            String containerId = dockerClient.createContainerCmd(key.image())
+                    .withName(containerName)
+                    .withLabels(Map.of(POOL_LABEL, key.runtimeTag()))
+                    .withHostConfig(hostConfig)
+                    .withEntrypoint("sleep", "infinity")
+                    .withWorkingDir("/workspace")
+                    .exec()
+                    .getId();
+            dockerClient.startContainerCmd(containerId).exec();
+            dockerClient.pauseContainerCmd(containerId).exec();
+            log.debug("Warmed container {} for {}", containerName, key.runtimeTag());
+            return containerId;
+        } catch (Exception e) {
+            log.warn("Could not warm container for {}: {}", key.runtimeTag(), e.getMessage());
+            destroy(containerName);
+            return null;
+        }
+    }
+
+    private void destroy(String containerIdOrName) {
+        try {
+            dockerClient.removeContainerCmd(containerIdOrName).withForce(true).exec();
+        } catch (Exception e) {
+            log.debug("Could not remove warm container {}: {}", containerIdOrName, e.getMessage());
+        }
+    }
+
+    /** Removes warm containers left behind by a previous server process. */
+    private void removeOrphans() {
+        try {
+            var orphans = dockerClient.listContainersCmd()
+                    .withShowAll(true)
+                    .withLabelFilter(List.of(POOL_LABEL))
+                    .exec();
+            for (var container : orphans) {
+                destroy(container.getId());
+            }
+            if (!orphans.isEmpty()) {
+                log.info("Removed {} orphaned warm containers", orphans.size());
+            }
+        } catch (Exception e) {
+            log.debug("Could not list orphaned warm containers: {}", e.getMessage());
+        }
+    }
+
+    private void safeRefill(Key key) {
+        try {
+            refill(key);
+        } catch (Exception e) {
+            log.warn("Warm pool refill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void safeMaintain() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            log.warn("Warm pool maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+}
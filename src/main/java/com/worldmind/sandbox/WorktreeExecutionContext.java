@@ -6,7 +6,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
+import java.util.Deque;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 /**
  * Manages worktree-based execution contexts for parallel task execution.
@@ -23,6 +26,12 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li>Mission ends: {@link #cleanupMission} removes all worktrees and the workspace</li>
  * </ol>
  *
+ * <p>With a pool size above zero, the mission workspace is created with that many
+ * detached worktrees. Tasks check out their branch in an idle pooled worktree, and
+ * releasing it resets it to the latest main ({@code reset --hard}, {@code clean})
+ * instead of removing it, which saves a full checkout per task on large repositories.
+ * When every pooled worktree is in use, a dedicated worktree is created as before.
+ *
  * <p>This is used by local execution (Docker provider) and potentially CF execution
  * when operating in a persistent-volume mode.
  */
@@ -39,13 +48,33 @@ public class WorktreeExecutionContext {
     /** Maps taskId to its worktree path. */
     private final ConcurrentHashMap<String, Path> taskWorktrees = new ConcurrentHashMap<>();
 
+    /** Pre-created worktrees per mission. */
+    private final ConcurrentHashMap<String, WorktreePool> worktreePools = new ConcurrentHashMap<>();
+
+    /** Tasks whose worktree came from a pool. */
+    private final Set<String> pooledTasks = ConcurrentHashMap.newKeySet();
+
+    private final int poolSize;
+
+    /** Idle pooled worktrees of one mission workspace, all tracking {@code baseBranch}. */
+    private record WorktreePool(String baseBranch, Deque<Path> idle) {}
+
     public WorktreeExecutionContext(GitWorkspaceManager gitWorkspaceManager) {
         this(gitWorkspaceManager, null);
     }
 
     public WorktreeExecutionContext(GitWorkspaceManager gitWorkspaceManager, WorldmindMetrics metrics) {
+        this(gitWorkspaceManager, metrics, 0);
+    }
+
+    /**
+     * @param poolSize worktrees pre-created per mission workspace (typically the maximum
+     *                 number of parallel tasks); 0 creates one worktree per task
+     */
+    public WorktreeExecutionContext(GitWorkspaceManager gitWorkspaceManager, WorldmindMetrics metrics, int poolSize) {
         this.gitWorkspaceManager = gitWorkspaceManager;
         this.metrics = metrics;
+        this.poolSize = poolSize;
     }
 
     /**
@@ -58,10 +87,28 @@ public class WorktreeExecutionContext {
      * @return path to the mission workspace, or null if creation failed
      */
     public Path createMissionWorkspace(String missionId, String gitUrl) {
-        return missionWorkspaces.computeIfAbsent(missionId, id -> {
+        Path workspace = missionWorkspaces.computeIfAbsent(missionId, id -> {
             log.info("Creating mission workspace for {}", missionId);
             return gitWorkspaceManager.createMissionWorkspace(id, gitUrl);
         });
+        if (workspace != null && poolSize > 0) {
+            worktreePools.computeIfAbsent(missionId, id -> createPool(workspace, "main"));
+        }
+        return workspace;
+    }
+
+    private WorktreePool createPool(Path workspace, String baseBranch) {
+        var idle = new ConcurrentLinkedDeque<Path>();
+        for (int slot = 1; slot <= poolSize; slot++) {
+            var result = gitWorkspaceManager.addPooledWorktree(workspace, slot, baseBranch);
+            if (result.success()) {
+                idle.add(result.worktreePath());
+            } else {
+                log.warn("Could not pre-create pooled worktree {}: {}", slot, result.error());
+            }
+        }
+        log.info("Worktree pool for {} ready with {} worktrees", workspace, idle.size());
+        return new WorktreePool(baseBranch, idle);
     }
 
     /**
@@ -98,6 +145,16 @@ public class WorktreeExecutionContext {
             return existing;
         }
 
+        Path pooled = claimPooledWorktree(missionId, taskId, baseBranch);
+        if (pooled != null) {
+            taskWorktrees.put(taskId, pooled);
+            pooledTasks.add(taskId);
+            log.info("Acquired pooled worktree for {} at {}", taskId, pooled);
+            recordWorktreeMetric("acquire", true);
+            recordActiveWorktreesMetric();
+            return pooled;
+        }
+
         var result = gitWorkspaceManager.addWorktree(workspace, taskId, baseBranch);
         if (result.success()) {
             taskWorktrees.put(taskId, result.worktreePath());
@@ -155,7 +212,18 @@ public class WorktreeExecutionContext {
         }
 
         Path worktree = taskWorktrees.remove(taskId);
-        if (worktree != null) {
+        if (worktree != null && pooledTasks.remove(taskId)) {
+            WorktreePool pool = worktreePools.get(missionId);
+            boolean reset = pool != null && gitWorkspaceManager.resetWorktree(worktree, pool.baseBranch());
+            if (reset) {
+                pool.idle().add(worktree);
+                log.info("Returned pooled worktree for {} to the pool", taskId);
+            } else {
+                // Left for cleanupMission, which removes every worktree of the workspace
+                log.warn("Could not reset pooled worktree {}; taking it out of the pool", worktree);
+            }
+            recordWorktreeMetric("release", reset);
+        } else if (worktree != null) {
             boolean removed = gitWorkspaceManager.removeWorktree(workspace, taskId);
             recordWorktreeMetric("release", removed);
             log.info("Released worktree for {}", taskId);
@@ -170,6 +238,7 @@ public class WorktreeExecutionContext {
      */
     public void cleanupMission(String missionId) {
         Path workspace = missionWorkspaces.remove(missionId);
+        worktreePools.remove(missionId);
         if (workspace == null) {
             log.debug("No workspace to clean up for mission {}", missionId);
             return;
@@ -180,7 +249,9 @@ public class WorktreeExecutionContext {
         taskWorktrees.entrySet().removeIf(entry -> {
             Path worktreePath = entry.getValue();
             if (worktreePath.getParent().equals(workspace.getParent())) {
-                gitWorkspaceManager.removeWorktree(workspace, entry.getKey());
+                if (!pooledTasks.remove(entry.getKey())) {
+                    gitWorkspaceManager.removeWorktree(workspace, entry.getKey());
+                }
                 return true;
             }
             return false;
@@ -206,6 +277,31 @@ public class WorktreeExecutionContext {
         return missionWorkspaces.size();
     }
 
+    /**
+     * Takes an idle pooled worktree and checks out the task's branch in it.
+     *
+     * @return the worktree, or null on a pool miss (no pool, none idle, other base
+     *         branch, or the checkout failed)
+     */
+    private Path claimPooledWorktree(String missionId, String taskId, String baseBranch) {
+        WorktreePool pool = worktreePools.get(missionId);
+        if (pool == null) {
+            return null;
+        }
+        Path worktree = pool.baseBranch().equals(baseBranch) ? pool.idle().poll() : null;
+        if (worktree != null && !gitWorkspaceManager.checkoutTaskBranch(worktree, taskId)) {
+            log.warn("Could not check out branch for {} in pooled worktree {}", taskId, worktree);
+            if (gitWorkspaceManager.resetWorktree(worktree, pool.baseBranch())) {
+                pool.idle().add(worktree);
+            }
+            worktree = null;
+        }
+        if (metrics != null) {
+            metrics.recordWorktreePoolClaim(worktree != null);
+        }
+        return worktree;
+    }
+
     private void recordWorktreeMetric(String operation, boolean success) {
         if (metrics != null) {
             metrics.recordWorktreeOperation(operation, success);
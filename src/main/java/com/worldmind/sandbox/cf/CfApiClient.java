@@ -3,6 +3,7 @@ package com.worldmind.sandbox.cf;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.worldmind.core.metrics.WorldmindMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,7 +16,16 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 
 /**
  * HTTP client for the Cloud Foundry Cloud Controller API v3.
@@ -26,25 +36,52 @@ import java.util.concurrent.ConcurrentHashMap;
  *
  * <p>Authentication uses a UAA password grant with the credentials from
  * {@link CloudFoundryProperties#getCfUsername()} and
- * {@link CloudFoundryProperties#getCfPassword()}.
+ * {@link CloudFoundryProperties#getCfPassword()}. The token is refreshed ahead
+ * of its expiry by a single caller while everyone else keeps using the current one,
+ * so requests never queue behind a lock.
+ *
+ * <p>Identical GETs that are in flight at the same time share one HTTP request, which
+ * matters when many parallel tasks resolve the same app, space or task. Requests go
+ * over one shared HTTP/2 connection, and each is timed per endpoint when
+ * {@link WorldmindMetrics} is available.
  */
 public class CfApiClient {
 
     private static final Logger log = LoggerFactory.getLogger(CfApiClient.class);
 
+    /** Task GUIDs per list request, which keeps the query string well under URL limits. */
+    static final int TASK_GUIDS_PER_REQUEST = 100;
+
+    /** How long before expiry a token is replaced, at most half its lifetime. */
+    static final Duration TOKEN_REFRESH_AHEAD = Duration.ofMinutes(5);
+
+    private static final Pattern GUID_SEGMENT = Pattern.compile(
+            "/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    /** A UAA access token, used until {@code expiresAt} and replaced from {@code refreshAt}. */
+    private record AccessToken(String value, Instant refreshAt, Instant expiresAt) {}
+
     private final CloudFoundryProperties cfProperties;
+    private final WorldmindMetrics metrics;
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
 
-    private String accessToken;
-    private Instant tokenExpiry = Instant.MIN;
-    private String uaaUrl;
-    private String spaceGuid;
+    private final AtomicReference<AccessToken> token = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<AccessToken>> tokenRefresh = new AtomicReference<>();
+    private volatile String uaaUrl;
+    private volatile String spaceGuid;
     private final ConcurrentHashMap<String, String> appGuidCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<JsonNode>> inFlightGets = new ConcurrentHashMap<>();
 
     public CfApiClient(CloudFoundryProperties cfProperties) {
+        this(cfProperties, null);
+    }
+
+    public CfApiClient(CloudFoundryProperties cfProperties, WorldmindMetrics metrics) {
         this.cfProperties = cfProperties;
+        this.metrics = metrics;
         this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
                 .connectTimeout(Duration.ofSeconds(10))
                 .build();
         this.objectMapper = new ObjectMapper();
@@ -94,6 +131,31 @@ public class CfApiClient {
         return getTaskState(resolveTaskGuid(appName, taskName));
     }
 
+    /**
+     * Gets the current states of many tasks with one list request per
+     * {@value #TASK_GUIDS_PER_REQUEST} GUIDs.
+     *
+     * @param taskGuids the task GUIDs returned by {@link #createTask}
+     * @return task state by GUID; tasks CF no longer knows about are absent
+     */
+    public Map<String, String> getTaskStates(Collection<String> taskGuids) {
+        var states = new HashMap<String, String>();
+        List<String> guids = new ArrayList<>(taskGuids);
+        for (int from = 0; from < guids.size(); from += TASK_GUIDS_PER_REQUEST) {
+            var batch = guids.subList(from, Math.min(from + TASK_GUIDS_PER_REQUEST, guids.size()));
+            var response = cfGet("/v3/tasks?guids=" + encode(String.join(",", batch))
+                    + "&per_page=" + batch.size());
+            var resources = response.get("resources");
+            if (resources == null) {
+                continue;
+            }
+            for (JsonNode task : resources) {
+                states.put(task.get("guid").asText(), task.get("state").asText());
+            }
+        }
+        return states;
+    }
+
     /**
      * Gets the failure reason for a task by its GUID.
      *
@@ -163,7 +225,11 @@ public class CfApiClient {
         });
     }
 
-    private synchronized String resolveSpaceGuid() {
+    /**
+     * Resolves the configured space once. Callers racing on the first lookup share its
+     * requests through GET coalescing.
+     */
+    private String resolveSpaceGuid() {
         if (spaceGuid != null) return spaceGuid;
 
         var orgName = cfProperties.getOrg();
@@ -184,16 +250,52 @@ public class CfApiClient {
                     "CF space not found: %s in org %s".formatted(spaceName, orgName));
         }
 
-        spaceGuid = spaceResources.get(0).get("guid").asText();
-        log.info("Resolved CF space '{}/{}' to GUID {}", orgName, spaceName, spaceGuid);
-        return spaceGuid;
+        var guid = spaceResources.get(0).get("guid").asText();
+        if (spaceGuid == null) {
+            log.info("Resolved CF space '{}/{}' to GUID {}", orgName, spaceName, guid);
+        }
+        spaceGuid = guid;
+        return guid;
     }
 
-    private synchronized String getToken() {
-        if (accessToken != null && Instant.now().isBefore(tokenExpiry)) {
-            return accessToken;
+    /**
+     * Returns a valid access token without blocking while one is cached. Once the token
+     * is due for refresh, the first caller to claim the refresh fetches a new one and
+     * the rest keep using the current token; callers only wait when it has expired.
+     */
+    private String getToken() {
+        var current = token.get();
+        var now = Instant.now();
+        if (current != null && now.isBefore(current.refreshAt())) {
+            return current.value();
+        }
+
+        var refresh = new CompletableFuture<AccessToken>();
+        if (tokenRefresh.compareAndSet(null, refresh)) {
+            try {
+                var latest = token.get();
+                var fresh = latest != null && Instant.now().isBefore(latest.refreshAt())
+                        ? latest
+                        : requestToken();
+                token.set(fresh);
+                refresh.complete(fresh);
+                return fresh.value();
+            } catch (RuntimeException e) {
+                refresh.completeExceptionally(e);
+                throw e;
+            } finally {
+                tokenRefresh.set(null);
+            }
         }
 
+        if (current != null && now.isBefore(current.expiresAt())) {
+            return current.value();
+        }
+        var pending = tokenRefresh.get();
+        return pending != null ? join(pending).value() : getToken();
+    }
+
+    private AccessToken requestToken() {
         if (uaaUrl == null) {
             discoverUaaUrl();
         }
@@ -218,19 +320,23 @@ public class CfApiClient {
                     .POST(HttpRequest.BodyPublishers.ofString(body))
                     .build();
 
-            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            var response = exchange("POST", "/oauth/token", request);
             if (response.statusCode() != 200) {
                 throw new RuntimeException("UAA token request failed (HTTP %d): %s"
                         .formatted(response.statusCode(), response.body()));
             }
 
             var json = objectMapper.readTree(response.body());
-            accessToken = json.get("access_token").asText();
             int expiresIn = json.get("expires_in").asInt();
-            tokenExpiry = Instant.now().plusSeconds(Math.max(expiresIn - 60, 10));
+            var issued = Instant.now();
+            var lifetime = Duration.ofSeconds(Math.max(expiresIn - 60, 10));
+            var ahead = lifetime.dividedBy(2).compareTo(TOKEN_REFRESH_AHEAD) < 0
+                    ? lifetime.dividedBy(2)
+                    : TOKEN_REFRESH_AHEAD;
 
             log.info("Obtained CF UAA token (expires in {}s)", expiresIn);
-            return accessToken;
+            return new AccessToken(json.get("access_token").asText(),
+                    issued.plus(lifetime).minus(ahead), issued.plus(lifetime));
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException("Failed to obtain UAA token", e);
         }
@@ -245,7 +351,7 @@ public class CfApiClient {
                     .GET()
                     .build();
 
-            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            var response = exchange("GET", "/", request);
             var json = objectMapper.readTree(response.body());
 
             if (json.has("links") && json.get("links").has("uaa")) {
@@ -263,44 +369,87 @@ public class CfApiClient {
         }
     }
 
+    /**
+     * GETs a Cloud Controller path. Concurrent GETs of the same path share one request
+     * and its parsed response, which callers must treat as read-only.
+     */
     JsonNode cfGet(String path) {
+        var mine = new CompletableFuture<JsonNode>();
+        var inFlight = inFlightGets.putIfAbsent(path, mine);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
         try {
-            var request = HttpRequest.newBuilder()
+            var response = send("GET", path, HttpRequest.newBuilder().GET());
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightGets.remove(path, mine);
+        }
+    }
+
+    JsonNode cfPost(String path, String body) {
+        return send("POST", path, HttpRequest.newBuilder()
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private JsonNode send(String method, String path, HttpRequest.Builder builder) {
+        try {
+            var request = builder
                     .uri(URI.create(cfProperties.getApiUrl() + path))
                     .header("Authorization", "Bearer " + getToken())
                     .header("Accept", "application/json")
-                    .GET()
                     .build();
 
-            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            var response = exchange(method, endpointOf(path), request);
             if (response.statusCode() >= 400) {
-                throw new RuntimeException("CF API GET %s failed (HTTP %d): %s"
-                        .formatted(path, response.statusCode(), response.body()));
+                throw new RuntimeException("CF API %s %s failed (HTTP %d): %s"
+                        .formatted(method, path, response.statusCode(), response.body()));
             }
             return objectMapper.readTree(response.body());
         } catch (IOException | InterruptedException e) {
-            throw new RuntimeException("CF API request failed: GET " + path, e);
+            throw new RuntimeException("CF API request failed: " + method + " " + path, e);
         }
     }
 
-    JsonNode cfPost(String path, String body) {
+    /** Sends a request and records its latency under the endpoint template. */
+    private HttpResponse<String> exchange(String method, String endpoint, HttpRequest request)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        int status = -1;
         try {
-            var request = HttpRequest.newBuilder()
-                    .uri(URI.create(cfProperties.getApiUrl() + path))
-                    .header("Authorization", "Bearer " + getToken())
-                    .header("Content-Type", "application/json")
-                    .header("Accept", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(body))
-                    .build();
-
             var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() >= 400) {
-                throw new RuntimeException("CF API POST %s failed (HTTP %d): %s"
-                        .formatted(path, response.statusCode(), response.body()));
+            status = response.statusCode();
+            return response;
+        } finally {
+            if (metrics != null) {
+                metrics.recordCfApiRequest(method, endpoint, status, System.nanoTime() - start);
             }
-            return objectMapper.readTree(response.body());
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException("CF API request failed: POST " + path, e);
+        }
+    }
+
+    /**
+     * Reduces a request path to its endpoint template for metric tags, e.g.
+     * {@code /v3/tasks/<guid>?x=y} becomes {@code /v3/tasks/{guid}}.
+     */
+    static String endpointOf(String path) {
+        int query = path.indexOf('?');
+        var bare = query >= 0 ? path.substring(0, query) : path;
+        return GUID_SEGMENT.matcher(bare).replaceAll("/{guid}");
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
 
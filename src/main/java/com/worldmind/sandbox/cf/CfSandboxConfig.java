@@ -2,16 +2,21 @@ package com.worldmind.sandbox.cf;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.worldmind.core.metrics.WorldmindMetrics;
 import com.worldmind.sandbox.InstructionStore;
 import com.worldmind.sandbox.OutputStore;
 import com.worldmind.sandbox.SandboxProvider;
+import com.worldmind.sandbox.TaskCompletionNotifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+
 /**
  * Spring configuration for Cloud Foundry Sandbox provider.
  * Activates when {@code worldmind.sandbox.provider=cloudfoundry}.
@@ -25,12 +30,23 @@ public class CfSandboxConfig {
 
     @Bean
     public GitWorkspaceManager gitWorkspaceManager(CloudFoundryProperties cfProperties) {
-        return new GitWorkspaceManager(cfProperties.getGitRemoteUrl());
+        boolean inProcessGit = !"cli".equalsIgnoreCase(cfProperties.getGitBackend());
+        GitMirrorCache mirrorCache = null;
+        if (cfProperties.getGitMirrorMaxRepos() > 0) {
+            String dir = cfProperties.getGitMirrorDir();
+            Path mirrorDir = (dir != null && !dir.isBlank())
+                    ? Path.of(dir)
+                    : Path.of(System.getProperty("java.io.tmpdir"), "worldmind", "git-mirrors");
+            mirrorCache = new GitMirrorCache(mirrorDir, cfProperties.getGitMirrorMaxRepos(), inProcessGit);
+        }
+        return new GitWorkspaceManager(cfProperties.getGitRemoteUrl(), mirrorCache,
+                cfProperties.isBatchMerge(), inProcessGit);
     }
 
     @Bean
-    public CfApiClient cfApiClient(CloudFoundryProperties cfProperties) {
-        return new CfApiClient(cfProperties);
+    public CfApiClient cfApiClient(CloudFoundryProperties cfProperties,
+                                   @Autowired(required = false) WorldmindMetrics metrics) {
+        return new CfApiClient(cfProperties, metrics);
     }
 
     @Bean
@@ -38,10 +54,12 @@ public class CfSandboxConfig {
                                                          GitWorkspaceManager gitWorkspaceManager,
                                                          CfApiClient cfApiClient,
                                                          InstructionStore instructionStore,
-                                                         OutputStore outputStore) {
+                                                         OutputStore outputStore,
+                                                         TaskCompletionNotifier completionNotifier) {
         resolveOrchestratorUrl(cfProperties);
         log.info("CF Sandbox provider — orchestrator URL: {}", cfProperties.getOrchestratorUrl());
-        return new CloudFoundrySandboxProvider(cfProperties, gitWorkspaceManager, cfApiClient, instructionStore, outputStore);
+        return new CloudFoundrySandboxProvider(cfProperties, gitWorkspaceManager, cfApiClient, instructionStore, outputStore,
+                completionNotifier);
     }
 
     /**
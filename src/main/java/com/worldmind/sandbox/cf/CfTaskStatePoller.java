@@ -0,0 +1,104 @@
+package com.worldmind.sandbox.cf;
+
+import com.worldmind.sandbox.TaskCompletionNotifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backstop for the agent completion callback: one background thread polls the states of
+ * all in-flight CF tasks with a single batched {@code GET /v3/tasks?guids=...} and
+ * completes the {@link TaskCompletionNotifier} future of every task that has finished.
+ *
+ * <p>This catches tasks that die before they can call back (OOM, crashes, cancelled
+ * tasks). The Cloud Controller sees one request per interval however many tasks are
+ * running, instead of one per task.
+ */
+class CfTaskStatePoller {
+
+    private static final Logger log = LoggerFactory.getLogger(CfTaskStatePoller.class);
+
+    private record WatchedTask(String taskName, String appName, String taskGuid) {}
+
+    private final CfApiClient cfApiClient;
+    private final TaskCompletionNotifier completionNotifier;
+    private final long intervalMillis;
+    private final ConcurrentHashMap<String, WatchedTask> watched = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    CfTaskStatePoller(CfApiClient cfApiClient, TaskCompletionNotifier completionNotifier, long intervalMillis) {
+        this.cfApiClient = cfApiClient;
+        this.completionNotifier = completionNotifier;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Starts polling a task attempt. Tasks without a known GUID are looked up by name,
+     * one request each.
+     */
+    void watch(String attemptId, String taskName, String appName, String taskGuid) {
+        watched.put(attemptId, new WatchedTask(taskName, appName, taskGuid));
+        ensureStarted();
+    }
+
+    void unwatch(String attemptId) {
+        watched.remove(attemptId);
+    }
+
+    private synchronized void ensureStarted() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "cf-task-state-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void poll() {
+        if (watched.isEmpty()) {
+            return;
+        }
+        var byGuid = new HashMap<String, String>();
+        for (Map.Entry<String, WatchedTask> entry : Map.copyOf(watched).entrySet()) {
+            var task = entry.getValue();
+            if (task.taskGuid() != null) {
+                byGuid.put(task.taskGuid(), entry.getKey());
+                continue;
+            }
+            try {
+                settle(entry.getKey(), cfApiClient.getTaskState(task.appName(), task.taskName()));
+            } catch (Exception e) {
+                log.warn("Error polling task {} status: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (byGuid.isEmpty()) {
+            return;
+        }
+        try {
+            cfApiClient.getTaskStates(byGuid.keySet())
+                    .forEach((guid, state) -> settle(byGuid.get(guid), state));
+        } catch (Exception e) {
+            log.warn("Error polling status of {} tasks: {}", byGuid.size(), e.getMessage());
+        }
+    }
+
+    private void settle(String attemptId, String state) {
+        if ("SUCCEEDED".equals(state)) {
+            completionNotifier.complete(attemptId, 0);
+        } else if ("FAILED".equals(state)) {
+            completionNotifier.complete(attemptId, 1);
+        } else {
+            log.debug("Task {} state: {}", attemptId, state);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.worldmind.sandbox.cf;
+
+import com.worldmind.core.model.FileRecord;
+import com.worldmind.sandbox.ChangeSet;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link GitBackend} that forks the {@code git} CLI through a {@link Runner}, so callers
+ * keep their own process handling and logging.
+ */
+class CliGitBackend implements GitBackend {
+
+    /** Runs a git command in a directory. */
+    interface Runner {
+        /** @return the exit code */
+        int run(Path workDir, String... args);
+
+        /** @return stdout */
+        String output(Path workDir, String... args);
+    }
+
+    private final Runner runner;
+
+    CliGitBackend(Runner runner) {
+        this.runner = runner;
+    }
+
+    @Override
+    public List<FileRecord> diff(Path repo, String from, String to) {
+        return ChangeSet.fromGitDiff(runner.output(repo, "diff", "--raw", "--numstat", "-z", "-M", from + ".." + to));
+    }
+
+    @Override
+    public boolean fetch(Path repo, String remote, List<String> refspecs, boolean prune) {
+        var args = new ArrayList<String>();
+        args.add("fetch");
+        if (prune) args.add("--prune");
+        args.add(remote);
+        args.addAll(refspecs);
+        return runner.run(repo, args.toArray(new String[0])) == 0;
+    }
+
+    @Override
+    public boolean deleteBranch(Path repo, String branch) {
+        return runner.run(repo, "branch", "-D", branch) == 0;
+    }
+
+    @Override
+    public String mergeBase(Path repo, String a, String b) {
+        String base = runner.output(repo, "merge-base", a, b);
+        return base == null || base.isBlank() ? null : base.strip();
+    }
+}
@@ -68,6 +68,21 @@ public class CloudFoundryProperties {
     /** Orchestrator base URL, used by CF tasks to fetch instructions via HTTP */
     private String orchestratorUrl = "";
 
+    /** Directory for cached git mirrors (default: {@code <tmpdir>/worldmind/git-mirrors}) */
+    private String gitMirrorDir = "";
+
+    /** Number of git mirrors kept on disk before the least recently used is evicted (0 = clone per operation) */
+    private int gitMirrorMaxRepos = 8;
+
+    /** Merge a wave's branches with one fetch and one atomic push, falling back to per-branch merges on conflict */
+    private boolean batchMerge = true;
+
+    /** Git plumbing for diffs, fetches and branch deletions: "jgit" (in-process, CLI fallback) or "cli" */
+    private String gitBackend = "jgit";
+
+    /** Simulate each wave merge in memory first and gate branches expected to conflict after the rest have landed */
+    private boolean mergeForecast = true;
+
     // -- Getters and Setters --
 
     public String getApiUrl() {
@@ -173,4 +188,44 @@ public class CloudFoundryProperties {
     public void setOrchestratorUrl(String orchestratorUrl) {
         this.orchestratorUrl = orchestratorUrl;
     }
+
+    public String getGitMirrorDir() {
+        return gitMirrorDir;
+    }
+
+    public void setGitMirrorDir(String gitMirrorDir) {
+        this.gitMirrorDir = gitMirrorDir;
+    }
+
+    public int getGitMirrorMaxRepos() {
+        return gitMirrorMaxRepos;
+    }
+
+    public void setGitMirrorMaxRepos(int gitMirrorMaxRepos) {
+        this.gitMirrorMaxRepos = gitMirrorMaxRepos;
+    }
+
+    public boolean isBatchMerge() {
+        return batchMerge;
+    }
+
+    public void setBatchMerge(boolean batchMerge) {
+        this.batchMerge = batchMerge;
+    }
+
+    public String getGitBackend() {
+        return gitBackend;
+    }
+
+    public void setGitBackend(String gitBackend) {
+        this.gitBackend = gitBackend;
+    }
+
+    public boolean isMergeForecast() {
+        return mergeForecast;
+    }
+
+    public void setMergeForecast(boolean mergeForecast) {
+        this.mergeForecast = mergeForecast;
+    }
 }
@@ -4,16 +4,20 @@ import com.worldmind.core.model.FileRecord;
 import com.worldmind.sandbox.InstructionStore;
 import com.worldmind.sandbox.OutputStore;
 import com.worldmind.sandbox.SandboxProvider;
+import com.worldmind.sandbox.TaskCompletionNotifier;
+import com.worldmind.sandbox.AgentDispatcher;
 import com.worldmind.sandbox.AgentRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -34,6 +38,12 @@ import java.util.stream.Collectors;
  *
  * <p>Instruction text is stored in {@link InstructionStore} and fetched by
  * the CF task via HTTP, since CF task commands are limited to 4096 characters.
+ *
+ * <p>Completion is event-driven: the task PUTs its output and exit code back to the
+ * orchestrator as its last step, which completes the {@link TaskCompletionNotifier}
+ * future of that attempt. Each launch gets a fresh attempt id, so a late callback from
+ * an earlier run of the same task is ignored. A {@link CfTaskStatePoller} shared by all
+ * tasks catches those that die before calling back.
  */
 public class CloudFoundrySandboxProvider implements SandboxProvider {
 
@@ -61,6 +71,8 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
     private final CfApiClient cfApiClient;
     private final InstructionStore instructionStore;
     private final OutputStore outputStore;
+    private final TaskCompletionNotifier completionNotifier;
+    private final CfTaskStatePoller statePoller;
 
     /**
      * Tracks sandboxId to app name mapping so waitForCompletion/captureOutput/teardown
@@ -71,6 +83,15 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
     /** Tracks sandboxId to CF task GUID so we poll the exact task, not stale ones with the same name. */
     private final ConcurrentHashMap<String, String> sandboxTaskGuids = new ConcurrentHashMap<>();
 
+    /**
+     * Tracks sandboxId to the completion attempt id of its current CF task. The sandbox
+     * name is reused by retries, so completion signals are keyed by attempt instead.
+     */
+    private final ConcurrentHashMap<String, String> sandboxAttempts = new ConcurrentHashMap<>();
+
+    /** Tracks sandboxId to the memory and disk allocated to its CF task. */
+    private final ConcurrentHashMap<String, Map<String, Object>> sandboxLimits = new ConcurrentHashMap<>();
+
     /** Caches the effective git URL per task so detectChanges can reuse it. */
     private final ConcurrentHashMap<String, String> taskGitUrls = new ConcurrentHashMap<>();
 
@@ -79,11 +100,23 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
                                            CfApiClient cfApiClient,
                                            InstructionStore instructionStore,
                                            OutputStore outputStore) {
+        this(cfProperties, gitWorkspaceManager, cfApiClient, instructionStore, outputStore,
+                new TaskCompletionNotifier());
+    }
+
+    public CloudFoundrySandboxProvider(CloudFoundryProperties cfProperties,
+                                           GitWorkspaceManager gitWorkspaceManager,
+                                           CfApiClient cfApiClient,
+                                           InstructionStore instructionStore,
+                                           OutputStore outputStore,
+                                           TaskCompletionNotifier completionNotifier) {
         this.cfProperties = cfProperties;
         this.gitWorkspaceManager = gitWorkspaceManager;
         this.cfApiClient = cfApiClient;
         this.instructionStore = instructionStore;
         this.outputStore = outputStore;
+        this.completionNotifier = completionNotifier;
+        this.statePoller = new CfTaskStatePoller(cfApiClient, completionNotifier, POLL_INTERVAL_SECONDS * 1000L);
     }
 
     @Override
@@ -120,7 +153,8 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
 
         var orchestratorUrl = cfProperties.getOrchestratorUrl();
         var instructionUrl = orchestratorUrl + "/api/internal/instructions/" + instructionKey;
-        var outputUrl = orchestratorUrl + "/api/internal/output/" + taskName;
+        var attemptId = taskName + "-" + UUID.randomUUID().toString().substring(0, 8);
+        var outputUrl = orchestratorUrl + "/api/internal/output/" + taskName + "?attempt=" + attemptId;
 
         // Build the task command that runs inside the CF app container.
         // CF tasks bypass Docker ENTRYPOINT, so we source entrypoint.sh
@@ -199,9 +233,17 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
             
             // Delete any existing branch (remote and local) then create fresh from main.
             // The '|| true' ensures we continue even if branch doesn't exist.
+            // Speculative dispatch starts from the unmerged branch of the task this one depends on.
+            String baseTaskId = request.envVars() != null ? request.envVars().get(AgentDispatcher.BASE_TASK_ENV) : null;
+            String checkout = "git checkout -b " + branchName;
+            if (baseTaskId != null && !baseTaskId.isBlank()) {
+                String baseBranch = gitWorkspaceManager.getBranchName(baseTaskId);
+                log.info("Task {} starts speculatively from unmerged branch {}", taskId, baseBranch);
+                checkout = "git fetch origin " + baseBranch + " && git checkout -b " + branchName + " FETCH_HEAD";
+            }
             branchSetup = "git push origin --delete " + branchName + " 2>/dev/null || true; "
                     + "git branch -D " + branchName + " 2>/dev/null || true; "
-                    + "git checkout -b " + branchName;
+                    + checkout;
             
             // Use semicolons (not &&) so push always runs.
             // Each task has its own .worldmind-TASK-XXX/ directory so logs don't conflict.
@@ -254,20 +296,32 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
                         + " -i .worldmind-" + taskId + "/instruction.md > .worldmind-" + taskId + "/goose-output.log 2>&1"
                         + "; GOOSE_RC=$?; echo \"GOOSE_EXIT_CODE=$GOOSE_RC\" >> .worldmind-" + taskId + "/diagnostics.log"
                         + "; cp -r $HOME/.local/state/goose/logs/ .worldmind-" + taskId + "/goose-logs 2>/dev/null"
-                        // POST Goose output back to orchestrator (CF API doesn't expose task stdout)
-                        + "; curl -fk -X PUT -H 'Content-Type: text/plain' --data-binary @.worldmind-" + taskId + "/goose-output.log '%s' 2>/dev/null || true".formatted(outputUrl)
                         + postGooseGit
+                        // PUT Goose output back to orchestrator (CF API doesn't expose task stdout).
+                        // Sent after the push so the exit code also signals that the branch is ready.
+                        + "; curl -fk -X PUT -H 'Content-Type: text/plain' --data-binary @.worldmind-" + taskId + "/goose-output.log '%s&exitCode='$GOOSE_RC 2>/dev/null || true".formatted(outputUrl)
                         + "; exit $GOOSE_RC"
         );
 
         log.info("Opening Sandbox {} for task {} on app {}", taskName, taskId, appName);
         log.debug("Task command: {}", maskSensitiveData(taskCommand));
 
-        var taskGuid = cfApiClient.createTask(appName, taskCommand, taskName, memoryMb, diskMb);
+        // Register the attempt before the task starts so an early callback is not dropped
+        forgetAttempt(taskName);
+        sandboxAttempts.put(taskName, attemptId);
+        completionNotifier.await(attemptId);
+        String taskGuid;
+        try {
+            taskGuid = cfApiClient.createTask(appName, taskCommand, taskName, memoryMb, diskMb);
+        } catch (RuntimeException e) {
+            forgetAttempt(taskName);
+            throw e;
+        }
 
         log.info("CF task {} started on app {} (guid={})", taskName, appName, taskGuid);
         sandboxAppNames.put(taskName, appName);
         sandboxTaskGuids.put(taskName, taskGuid);
+        sandboxLimits.put(taskName, Map.of("memoryLimitMb", memoryMb, "diskLimitMb", diskMb));
 
         return taskName;
     }
@@ -279,35 +333,31 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
         log.info("Waiting for task {} (guid={}) on app {} (timeout: {}s)",
                 sandboxId, taskGuid, appName, timeoutSeconds);
 
-        long deadline = System.currentTimeMillis() + (timeoutSeconds * 1000L);
-
-        while (System.currentTimeMillis() < deadline) {
-            try {
-                var state = taskGuid != null
-                        ? cfApiClient.getTaskState(taskGuid)
-                        : cfApiClient.getTaskState(appName, sandboxId);
-
-                if ("SUCCEEDED".equals(state)) {
-                    log.info("Task {} completed successfully", sandboxId);
-                    return 0;
-                } else if ("FAILED".equals(state)) {
-                    log.warn("Task {} failed", sandboxId);
-                    return 1;
-                }
-
-                log.debug("Task {} state: {}, polling in {}s", sandboxId, state, POLL_INTERVAL_SECONDS);
-                Thread.sleep(POLL_INTERVAL_SECONDS * 1000L);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.warn("Interrupted while waiting for task {}", sandboxId);
-                return -1;
-            } catch (Exception e) {
-                log.warn("Error polling task {} status: {}", sandboxId, e.getMessage());
+        var attemptId = sandboxAttempts.getOrDefault(sandboxId, sandboxId);
+        var completion = completionNotifier.await(attemptId);
+        statePoller.watch(attemptId, sandboxId, appName, taskGuid);
+        try {
+            int exitCode = completion.get(timeoutSeconds, TimeUnit.SECONDS);
+            if (exitCode == 0) {
+                log.info("Task {} completed successfully", sandboxId);
+            } else {
+                log.warn("Task {} failed (exit code {})", sandboxId, exitCode);
             }
+            return exitCode;
+        } catch (TimeoutException e) {
+            log.warn("Task {} timed out after {}s", sandboxId, timeoutSeconds);
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for task {}", sandboxId);
+            return -1;
+        } catch (ExecutionException e) {
+            log.warn("Error waiting for task {}: {}", sandboxId, e.getMessage());
+            return -1;
+        } finally {
+            statePoller.unwatch(attemptId);
+            completionNotifier.forget(attemptId);
         }
-
-        log.warn("Task {} timed out after {}s", sandboxId, timeoutSeconds);
-        return -1;
     }
 
     /**
@@ -344,6 +394,15 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
         }
     }
 
+    /**
+     * The memory and disk allocated to the sandbox's task. The CF API v3 reports no
+     * usage for tasks, only for app processes.
+     */
+    @Override
+    public Map<String, Object> resourceStats(String sandboxId) {
+        return sandboxLimits.getOrDefault(sandboxId, Map.of());
+    }
+
     @Override
     public void teardownSandbox(String sandboxId) {
         try {
@@ -361,16 +420,28 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
         } finally {
             sandboxAppNames.remove(sandboxId);
             sandboxTaskGuids.remove(sandboxId);
+            sandboxLimits.remove(sandboxId);
             instructionStore.remove(sandboxId);
+            forgetAttempt(sandboxId);
+        }
+    }
+
+    /** Drops the sandbox's current completion attempt, so late signals for it are discarded. */
+    private void forgetAttempt(String sandboxId) {
+        var attemptId = sandboxAttempts.remove(sandboxId);
+        if (attemptId != null) {
+            statePoller.unwatch(attemptId);
+            completionNotifier.forget(attemptId);
         }
     }
 
     /**
-     * Detects file changes by cloning the task branch and diffing against main.
+     * Detects file changes by diffing the task branch against main.
      *
      * <p>CF agents push changes to {@code worldmind/{taskId}} branches.
-     * This method shallow-clones that branch into a temp directory and runs
-     * {@code git diff --stat origin/main..HEAD} to detect what files changed.
+     * The diff runs in the cached mirror of the remote, or a shallow clone of the
+     * branch without one (see {@link GitWorkspaceManager#detectBranchChanges}),
+     * and includes renames.
      */
     @Override
     public List<FileRecord> detectChanges(String taskId, Path projectPath) {
@@ -386,25 +457,14 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
         String branchName = gitWorkspaceManager.getBranchName(effectiveId);
         // Use cached URL from openSandbox() if available, fall back to config
         String gitUrl = taskGitUrls.getOrDefault(taskId, resolveAuthenticatedGitUrl());
-        Path tempDir = null;
         try {
-            tempDir = Files.createTempDirectory("worldmind-diff-");
-            gitWorkspaceManager.runGit(tempDir, "clone", "--depth", "1", "--branch", branchName, gitUrl, ".");
-            // Fetch main into an explicit ref — plain "fetch origin main" only updates
-            // FETCH_HEAD, not origin/main, when the clone is single-branch.
-            gitWorkspaceManager.runGit(tempDir, "fetch", "--depth", "1", "origin", "main:refs/remotes/origin/main");
-            String diffOutput = gitWorkspaceManager.runGitOutput(tempDir, "diff", "--stat", "origin/main..HEAD");
             // Filter out .worldmind internal files (diagnostics, logs) — only report project changes
-            return gitWorkspaceManager.parseDiffStat(diffOutput).stream()
+            return gitWorkspaceManager.detectBranchChanges(gitUrl, branchName).stream()
                     .filter(f -> !f.path().startsWith(".worldmind"))
                     .toList();
         } catch (Exception e) {
             log.warn("Git-based change detection failed for {} (branch {}): {}", taskId, branchName, e.getMessage());
             return List.of();
-        } finally {
-            if (tempDir != null) {
-                deleteDirectory(tempDir);
-            }
         }
     }
 
@@ -450,16 +510,6 @@ public class CloudFoundrySandboxProvider implements SandboxProvider {
                   .replaceFirst("/+$", "");
     }
 
-    private static void deleteDirectory(Path dir) {
-        try (var walk = Files.walk(dir)) {
-            walk.sorted(Comparator.reverseOrder())
-                    .forEach(p -> {
-                        try { Files.deleteIfExists(p); }
-                        catch (IOException ignored) {}
-                    });
-        } catch (IOException ignored) {}
-    }
-
     /**
      * Extracts the app name for a given sandboxId.
      *
@@ -0,0 +1,52 @@
+package com.worldmind.sandbox.cf;
+
+import com.worldmind.core.model.FileRecord;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Git plumbing used on hot paths: tree comparison with line counts, fetch, branch
+ * deletion and merge-base lookup.
+ *
+ * <p>{@link CliGitBackend} forks the {@code git} CLI; {@link JGitBackend} runs the same
+ * operations in-process and falls back to the CLI for anything it cannot handle (e.g.
+ * linked worktrees). Checkouts, rebases, merges and pushes always use the CLI.
+ */
+public interface GitBackend {
+
+    /**
+     * Files created, modified, deleted or renamed between two revisions, with lines added
+     * plus removed per file, as reported by {@code git diff --raw --numstat -M from..to}.
+     *
+     * @param repo working tree or bare repository
+     * @param from base revision
+     * @param to   target revision
+     */
+    List<FileRecord> diff(Path repo, String from, String to);
+
+    /**
+     * Fetches refspecs from a remote.
+     *
+     * @param remote   remote name or URL
+     * @param refspecs refspecs to fetch; empty for the remote's configured refspecs
+     * @param prune    remove remote-tracking refs that no longer exist on the remote
+     * @return true on success
+     */
+    boolean fetch(Path repo, String remote, List<String> refspecs, boolean prune);
+
+    /**
+     * Force-deletes a local branch.
+     *
+     * @return true if the branch was deleted
+     */
+    boolean deleteBranch(Path repo, String branch);
+
+    /**
+     * Best common ancestor of two revisions.
+     *
+     * @return the merge-base commit id, or null if there is none or it cannot be
+     *         determined (e.g. in a shallow clone)
+     */
+    String mergeBase(Path repo, String a, String b);
+}
@@ -0,0 +1,427 @@
+package com.worldmind.sandbox.cf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Local bare-repository cache, one mirror per git remote, so merges, diffs and spec
+ * writes do not clone the remote on every call.
+ *
+ * <p>A mirror is created once with {@code git init --bare} and fetched incrementally
+ * ({@code git fetch --prune origin}) each time it is opened. Remote branches land in
+ * {@code refs/remotes/origin/*}, exactly as in a regular clone, so callers can run the
+ * same commands in a temporary worktree (see {@link Lease#addWorktree}) that they would
+ * run in a fresh clone. Worktrees are removed when the lease is closed.
+ *
+ * <p>At most {@code maxMirrors} mirrors are kept; the least recently used mirror that
+ * is not leased is deleted when a new one is created. The mirror's lock is held from the
+ * idle check until its directory is gone, and an open that was waiting on it starts
+ * over with a fresh mirror. Mirrors left by a previous process are picked up again on
+ * startup.
+ *
+ * <p>The authenticated remote URL is written to the mirror's config while it is leased
+ * and replaced by the credential-free URL when the last lease closes.
+ */
+public class GitMirrorCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GitMirrorCache.class);
+
+    private static final Pattern URL_CREDENTIALS = Pattern.compile("(https?://)[^@/]+@");
+
+    private final Path cacheDir;
+    private final int maxMirrors;
+    private final GitBackend git;
+    private final Consumer<Path> mirrorDeleter;
+
+    /** Mirrors by remote key, least recently used first. Guarded by {@code this}. */
+    private final LinkedHashMap<String, Mirror> mirrors = new LinkedHashMap<>(16, 0.75f, true);
+    /** Mirrors still in {@link #mirrors} whose directories are being deleted. Guarded by {@code this}. */
+    private int evicting;
+
+    private static final class Mirror {
+        final Path path;
+        /** Serialises fetches and remote URL changes. */
+        final ReentrantLock lock = new ReentrantLock();
+        final ReentrantLock branchLock = new ReentrantLock();
+        /** Leases currently open. Guarded by the cache. */
+        int leases;
+        /** Set under {@link #lock} once the mirror is chosen for eviction. Guarded by the cache. */
+        boolean evicted;
+
+        Mirror(Path path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * @param cacheDir   directory holding one bare repository per remote
+     * @param maxMirrors number of mirrors kept before the least recently used is evicted
+     */
+    public GitMirrorCache(Path cacheDir, int maxMirrors) {
+        this(cacheDir, maxMirrors, false);
+    }
+
+    /**
+     * @param inProcessGit fetch with JGit instead of forking {@code git}
+     */
+    public GitMirrorCache(Path cacheDir, int maxMirrors, boolean inProcessGit) {
+        this(cacheDir, maxMirrors, inProcessGit, GitMirrorCache::deleteDirectory);
+    }
+
+    GitMirrorCache(Path cacheDir, int maxMirrors, boolean inProcessGit, Consumer<Path> mirrorDeleter) {
+        this.cacheDir = cacheDir;
+        this.mirrorDeleter = mirrorDeleter;
+        this.maxMirrors = Math.max(1, maxMirrors);
+        GitBackend cli = new CliGitBackend(new CliGitBackend.Runner() {
+            @Override
+            public int run(Path workDir, String... args) {
+                return runGit(workDir, args);
+            }
+
+            @Override
+            public String output(Path workDir, String... args) {
+                return runGitOutput(workDir, args);
+            }
+        });
+        this.git = inProcessGit ? new JGitBackend(cli) : cli;
+        loadExisting();
+    }
+
+    /**
+     * Opens the mirror of a remote, creating it on first use and fetching otherwise.
+     *
+     * @param gitUrl remote URL, optionally with embedded credentials
+     * @return an open lease, or null if the mirror could not be created or fetched
+     */
+    public Lease open(String gitUrl) {
+        if (gitUrl == null || gitUrl.isBlank()) {
+            return null;
+        }
+        String key = keyFor(gitUrl);
+        while (true) {
+            Mirror mirror;
+            synchronized (this) {
+                mirror = mirrors.computeIfAbsent(key, k -> new Mirror(cacheDir.resolve(directoryName(k))));
+                mirror.leases++;
+            }
+
+            mirror.lock.lock();
+            try {
+                synchronized (this) {
+                    if (mirror.evicted) {
+                        // Deleted while we waited; it is no longer in the map
+                        mirror.leases--;
+                        continue;
+                    }
+                }
+                if (!refresh(mirror.path, gitUrl)) {
+                    release(key, mirror);
+                    return null;
+                }
+            } finally {
+                mirror.lock.unlock();
+            }
+            evictIdle();
+            return new Lease(key, mirror);
+        }
+    }
+
+    /** Number of mirrors currently cached. */
+    public synchronized int size() {
+        return mirrors.size();
+    }
+
+    /**
+     * An open mirror. Closing the lease removes the worktrees added through it.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String key;
+        private final Mirror mirror;
+        private final List<Path> worktrees = new ArrayList<>();
+        private boolean closed;
+
+        private Lease(String key, Mirror mirror) {
+            this.key = key;
+            this.mirror = mirror;
+        }
+
+        /** The bare repository; read-only commands such as diff can run here directly. */
+        public Path path() {
+            return mirror.path;
+        }
+
+        /**
+         * Lock held by callers that move local branches of the mirror (e.g. {@code main}
+         * during a merge), so two missions on the same remote do not check out the same
+         * branch at once.
+         */
+        public ReentrantLock branchLock() {
+            return mirror.branchLock;
+        }
+
+        /**
+         * Adds a temporary worktree.
+         *
+         * @param prefix     temp directory name prefix
+         * @param startPoint commit-ish to check out, e.g. {@code origin/main}
+         * @param branch     local branch to reset to the start point and check out, or
+         *                   null for a detached HEAD
+         * @return the worktree path, or null if it could not be added
+         */
+        public Path addWorktree(String prefix, String startPoint, String branch) {
+            try {
+                Path dir = Files.createTempDirectory(prefix);
+                int exit = branch != null
+                        ? runGit(mirror.path, "worktree", "add", "-B", branch, dir.toString(), startPoint)
+                        : runGit(mirror.path, "worktree", "add", "--detach", dir.toString(), startPoint);
+                if (exit != 0) {
+                    log.warn("Could not add worktree of {} from mirror of {}", startPoint, key);
+                    deleteDirectory(dir);
+                    return null;
+                }
+                worktrees.add(dir);
+                return dir;
+            } catch (IOException e) {
+                log.warn("Could not create worktree directory: {}", e.getMessage());
+                return null;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            for (Path dir : worktrees) {
+                if (runGit(mirror.path, "worktree", "remove", "--force", dir.toString()) != 0) {
+                    deleteDirectory(dir);
+                }
+            }
+            if (!worktrees.isEmpty()) {
+                runGit(mirror.path, "worktree", "prune");
+            }
+            release(key, mirror);
+        }
+    }
+
+    /**
+     * Remote URL without credentials, so the same repository maps to one mirror
+     * regardless of the token used.
+     */
+    static String keyFor(String gitUrl) {
+        return URL_CREDENTIALS.matcher(gitUrl.strip()).replaceFirst("$1").replaceFirst("/+$", "");
+    }
+
+    static String directoryName(String key) {
+        return "mirror-" + UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean refresh(Path path, String gitUrl) {
+        try {
+            if (!Files.isDirectory(path.resolve("objects"))) {
+                Files.createDirectories(path);
+                if (runGit(path, "init", "--bare", "--quiet") != 0
+                        || runGit(path, "remote", "add", "origin", gitUrl) != 0
+                        || runGit(path, "config", "user.name", "Worldmind") != 0
+                        || runGit(path, "config", "user.email", "worldmind@worldmind.local") != 0) {
+                    log.warn("Could not initialise git mirror at {}", path);
+                    deleteDirectory(path);
+                    return false;
+                }
+                log.info("Created git mirror for {} at {}", keyFor(gitUrl), path);
+            } else {
+                runGit(path, "remote", "set-url", "origin", gitUrl);
+            }
+            if (!git.fetch(path, "origin", List.of(), true)) {
+                log.warn("Fetch into git mirror for {} failed", keyFor(gitUrl));
+                return false;
+            }
+            if (runGitOutput(path, "symbolic-ref", "--quiet", "refs/remotes/origin/HEAD").isEmpty()) {
+                runGit(path, "remote", "set-head", "origin", "--auto");
+            }
+            // Forget worktrees whose directories were removed by a previous process
+            runGit(path, "worktree", "prune");
+            touch(path);
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not create git mirror directory {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private void release(String key, Mirror mirror) {
+        synchronized (this) {
+            mirror.leases--;
+        }
+        if (mirror.lock.tryLock()) {
+            try {
+                boolean idle;
+                synchronized (this) {
+                    idle = mirror.leases == 0;
+                }
+                // Do not leave the token on disk while the mirror is idle
+                if (idle && Files.isDirectory(mirror.path)) {
+                    runGit(mirror.path, "remote", "set-url", "origin", key);
+                }
+            } finally {
+                mirror.lock.unlock();
+            }
+        }
+    }
+
+    private void evictIdle() {
+        List<Map.Entry<String, Mirror>> candidates = new ArrayList<>();
+        synchronized (this) {
+            int excess = mirrors.size() - evicting - maxMirrors;
+            for (var entry : mirrors.entrySet()) {
+                if (candidates.size() >= excess) break;
+                if (entry.getValue().leases == 0 && !entry.getValue().evicted) {
+                    candidates.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+        for (var candidate : candidates) {
+            evict(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * Deletes an idle mirror. The idle check, the deletion and the removal from the map
+     * all happen under the mirror's lock, so an open of the same remote either keeps it
+     * alive or waits until the directory is gone. A mirror being fetched is skipped.
+     */
+    private void evict(String key, Mirror mirror) {
+        if (!mirror.lock.tryLock()) {
+            return;
+        }
+        try {
+            synchronized (this) {
+                if (mirror.leases > 0 || mirror.evicted || mirrors.size() - evicting <= maxMirrors) {
+                    return;
+                }
+                mirror.evicted = true;
+                evicting++;
+            }
+            log.info("Evicting least recently used git mirror {}", mirror.path);
+            try {
+                mirrorDeleter.accept(mirror.path);
+            } finally {
+                synchronized (this) {
+                    mirrors.remove(key, mirror);
+                    evicting--;
+                }
+            }
+        } finally {
+            mirror.lock.unlock();
+        }
+    }
+
+    private void loadExisting() {
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+        try (var dirs = Files.list(cacheDir)) {
+            var existing = dirs
+                    .filter(d -> d.getFileName().toString().startsWith("mirror-"))
+                    .filter(d -> Files.isDirectory(d.resolve("objects")))
+                    .sorted(Comparator.comparingLong(GitMirrorCache::lastModified))
+                    .toList();
+            for (Path dir : existing) {
+                String url = runGitOutput(dir, "config", "--get", "remote.origin.url");
+                if (url.isBlank()) continue;
+                String key = keyFor(url);
+                if (dir.getFileName().toString().equals(directoryName(key))) {
+                    mirrors.put(key, new Mirror(dir));
+                }
+            }
+            if (!mirrors.isEmpty()) {
+                log.info("Reusing {} git mirrors from {}", mirrors.size(), cacheDir);
+            }
+        } catch (IOException e) {
+            log.warn("Could not list git mirror cache {}: {}", cacheDir, e.getMessage());
+        }
+        evictIdle();
+    }
+
+    private static long lastModified(Path dir) {
+        try {
+            return Files.getLastModifiedTime(dir).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void touch(Path dir) {
+        try {
+            Files.setLastModifiedTime(dir, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Only affects eviction order after a restart
+        }
+    }
+
+    int runGit(Path workDir, String... args) {
+        var command = new ArrayList<String>();
+        command.add("git");
+        command.addAll(List.of(args));
+        try {
+            var process = new ProcessBuilder(command)
+                    .directory(workDir.toFile())
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                log.debug("git {} exited {}: {}", args[0], exitCode,
+                        GitWorkspaceManager.maskSensitiveData(output.trim()));
+            }
+            return exitCode;
+        } catch (IOException e) {
+            log.warn("Git command failed: {}", e.getMessage());
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private String runGitOutput(Path workDir, String... args) {
+        var command = new ArrayList<String>();
+        command.add("git");
+        command.addAll(List.of(args));
+        try {
+            var process = new ProcessBuilder(command).directory(workDir.toFile()).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            return process.waitFor() == 0 ? output.strip() : "";
+        } catch (IOException e) {
+            return "";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+        }
+    }
+
+    private static void deleteDirectory(Path dir) {
+        try (var walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder())
+                    .forEach(p -> {
+                        try { Files.deleteIfExists(p); }
+                        catch (IOException ignored) {}
+                    });
+        } catch (IOException ignored) {}
+    }
+}
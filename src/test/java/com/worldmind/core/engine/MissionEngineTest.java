@@ -32,9 +32,9 @@ class MissionEngineTest {
     @BeforeEach
     void setUp() throws Exception {
         LlmService mockLlm = mock(LlmService.class);
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(Classification.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(Classification.class)))
                 .thenReturn(new Classification("feature", 3, List.of("api", "service"), "sequential", "java"));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                 .thenReturn(new MissionPlan(
                         "Implement the requested feature",
                         "sequential",
@@ -44,7 +44,7 @@ class MissionEngineTest {
                                 new MissionPlan.TaskPlan("REVIEWER", "Review code", "", "Code quality ok", List.of("TASK-002"), List.of())
                         )
                 ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ProductSpec.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ProductSpec.class)))
                 .thenReturn(new ProductSpec(
                         "Test Spec", "Overview", List.of("Goal 1"), List.of("Non-goal 1"),
                         List.of("Req 1"), List.of("Criterion 1"),
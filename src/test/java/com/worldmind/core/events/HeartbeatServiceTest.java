@@ -0,0 +1,129 @@
+package com.worldmind.core.events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HeartbeatService}, driving the wheel by hand.
+ */
+class HeartbeatServiceTest {
+
+    private EventBus eventBus;
+    private List<WorldmindEvent> events;
+    private HeartbeatService heartbeats;
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new EventBus();
+        events = new CopyOnWriteArrayList<>();
+        eventBus.subscribeAll(events::add);
+        heartbeats = new HeartbeatService(eventBus, 3, Runnable::run);
+    }
+
+    private void ticks(int n) {
+        for (int i = 0; i < n; i++) heartbeats.tick();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> tasks(WorldmindEvent event) {
+        return (List<Map<String, Object>>) event.payload().get("tasks");
+    }
+
+    @Test
+    @DisplayName("Publishes tasks.progress once per period")
+    void publishesOncePerPeriod() {
+        heartbeats.register("M1", "TASK-001", "CODER");
+
+        ticks(2);
+        assertTrue(events.isEmpty());
+
+        ticks(1);
+        assertEquals(1, events.size());
+        var event = events.getFirst();
+        assertEquals("tasks.progress", event.eventType());
+        assertEquals("M1", event.missionId());
+        var task = tasks(event).getFirst();
+        assertEquals("TASK-001", task.get("taskId"));
+        assertEquals("CODER", task.get("agent"));
+        assertEquals("RUNNING", task.get("status"));
+
+        ticks(3);
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    @DisplayName("Tasks of a mission registered within one period share one event")
+    void batchesTasksPerMission() {
+        heartbeats.register("M1", "TASK-001", "CODER");
+        ticks(1);
+        heartbeats.register("M1", "TASK-002", "TESTER");
+        heartbeats.register("M2", "TASK-003", "CODER");
+
+        ticks(2);
+        assertEquals(1, events.size(), "TASK-001 alone at tick 3");
+
+        ticks(3);
+        // Tick 6: one event per mission, with both M1 tasks
+        assertEquals(3, events.size());
+        var m1 = events.get(1);
+        assertEquals("M1", m1.missionId());
+        assertEquals(Set.of("TASK-001", "TASK-002"),
+                tasks(m1).stream().map(t -> t.get("taskId")).collect(Collectors.toSet()));
+        assertNull(m1.taskId());
+        assertEquals("M2", events.get(2).missionId());
+    }
+
+    @Test
+    @DisplayName("Live stats are merged into the task's entry; failing suppliers are skipped")
+    void mergesStats() {
+        heartbeats.register("M1", "TASK-001", "CODER", () -> Map.of("memoryBytes", 1024L));
+        heartbeats.register("M1", "TASK-002", "CODER", () -> {
+            throw new IllegalStateException("sandbox gone");
+        });
+
+        ticks(3);
+
+        var entries = tasks(events.getFirst()).stream()
+                .collect(Collectors.toMap(t -> (String) t.get("taskId"), t -> t));
+        assertEquals(1024L, entries.get("TASK-001").get("memoryBytes"));
+        assertFalse(entries.get("TASK-002").containsKey("memoryBytes"));
+    }
+
+    @Test
+    @DisplayName("Closing a registration stops its heartbeats")
+    void closeStopsHeartbeats() {
+        var registration = heartbeats.register("M1", "TASK-001", "CODER");
+        heartbeats.register("M2", "TASK-002", "TESTER");
+        assertEquals(2, heartbeats.activeCount());
+
+        registration.close();
+        registration.close();
+        ticks(6);
+
+        assertEquals(1, heartbeats.activeCount());
+        assertEquals(2, events.size());
+        assertTrue(events.stream().allMatch(e -> tasks(e).stream().allMatch(t -> t.get("taskId").equals("TASK-002"))));
+    }
+
+    @Test
+    @DisplayName("Periods longer than the wheel still fire on time")
+    void periodLongerThanWheel() {
+        var slow = new HeartbeatService(eventBus, 100, Runnable::run);
+        slow.register("M1", "TASK-001", "CODER");
+
+        for (int i = 0; i < 99; i++) slow.tick();
+        assertTrue(events.isEmpty());
+
+        slow.tick();
+        assertEquals(1, events.size());
+    }
+}
@@ -27,10 +27,10 @@ class GraphTest {
     @BeforeEach
     void setUp() throws Exception {
         LlmService mockLlm = mock(LlmService.class);
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(Classification.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(Classification.class)))
                 .thenReturn(new Classification("feature", 3, List.of("api"), "sequential", "java"));
 
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                 .thenReturn(new MissionPlan(
                         "Implement feature",
                         "sequential",
@@ -39,7 +39,7 @@ class GraphTest {
                                 new MissionPlan.TaskPlan("REVIEWER", "Review code", "", "Code quality ok", List.of("TASK-001"), List.of())
                         )
                 ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ProductSpec.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ProductSpec.class)))
                 .thenReturn(new ProductSpec(
                         "Test Spec", "Overview", List.of("Goal 1"), List.of("Non-goal 1"),
                         List.of("Req 1"), List.of("Criterion 1"),
@@ -0,0 +1,140 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InMemoryLlmResponseCache} and {@link TieredLlmResponseCache}.
+ */
+class LlmResponseCacheTest {
+
+    @Test
+    void keyDependsOnEveryPartAndItsBoundaries() {
+        String key = LlmResponseCache.key("model", "system", "user", "schema");
+
+        assertEquals(64, key.length());
+        assertEquals(key, LlmResponseCache.key("model", "system", "user", "schema"));
+        assertNotEquals(key, LlmResponseCache.key("other-model", "system", "user", "schema"));
+        assertNotEquals(key, LlmResponseCache.key("model", "systemuser", "", "schema"));
+    }
+
+    @Test
+    void inMemoryEvictsLeastRecentlyUsedEntry() {
+        var cache = new InMemoryLlmResponseCache(2, Duration.ofHours(1));
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertEquals(Optional.of("A"), cache.get("a"));
+        assertEquals(Optional.empty(), cache.get("b"));
+        assertEquals(Optional.of("C"), cache.get("c"));
+    }
+
+    @Test
+    void inMemoryExpiresEntriesAfterTtl() {
+        var clock = new MutableClock();
+        var cache = new InMemoryLlmResponseCache(10, Duration.ofMinutes(5), clock);
+        cache.put("a", "A");
+
+        clock.advance(Duration.ofMinutes(4));
+        assertEquals(Optional.of("A"), cache.get("a"));
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(Optional.empty(), cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void tieredPromotesPersistentHitsAndRecordsTiers() {
+        var registry = new SimpleMeterRegistry();
+        var memory = new InMemoryLlmResponseCache(10, Duration.ofHours(1));
+        var persistent = new MapCache();
+        persistent.entries.put("k", "stored");
+        var cache = new TieredLlmResponseCache(memory, persistent, new WorldmindMetrics(registry));
+
+        assertEquals(Optional.of("stored"), cache.get("k"));
+        assertEquals(Optional.of("stored"), memory.get("k"), "Persistent hit should be promoted to memory");
+        assertEquals(Optional.of("stored"), cache.get("k"));
+        assertEquals(Optional.empty(), cache.get("missing"));
+
+        assertEquals(1.0, count(registry, "persistent"));
+        assertEquals(1.0, count(registry, "memory"));
+        assertEquals(1.0, count(registry, "none"));
+    }
+
+    @Test
+    void tieredTreatsPersistentFailuresAsMisses() {
+        var memory = new InMemoryLlmResponseCache(10, Duration.ofHours(1));
+        var broken = new MapCache() {
+            @Override
+            public Optional<String> get(String key) {
+                throw new IllegalStateException("database down");
+            }
+
+            @Override
+            public void put(String key, String response) {
+                throw new IllegalStateException("database down");
+            }
+        };
+        var cache = new TieredLlmResponseCache(memory, broken, null);
+
+        assertEquals(Optional.empty(), cache.get("k"));
+        cache.put("k", "v");
+        assertEquals(Optional.of("v"), cache.get("k"));
+    }
+
+    // --- helpers ---
+
+    private static double count(SimpleMeterRegistry registry, String tier) {
+        var counter = registry.find("worldmind.llm.cache.lookups").tag("tier", tier).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static class MapCache implements LlmResponseCache {
+        final Map<String, String> entries = new HashMap<>();
+
+        @Override
+        public Optional<String> get(String key) {
+            return Optional.ofNullable(entries.get(key));
+        }
+
+        @Override
+        public void put(String key, String response) {
+            entries.put(key, response);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
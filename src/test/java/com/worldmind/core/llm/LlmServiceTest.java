@@ -7,9 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.ChatClient.CallResponseSpec;
 import org.springframework.ai.chat.client.ChatClient.ChatClientRequestSpec;
+import org.springframework.ai.chat.client.ChatClient.StreamResponseSpec;
+import reactor.core.publisher.Flux;
 
 import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -57,14 +60,14 @@ class LlmServiceTest {
 
         llmService.structuredCall("System prompt", "User prompt", Classification.class);
 
-        verify(mockRequestSpec).system("System prompt");
-        ArgumentCaptor<String> userCaptor = ArgumentCaptor.forClass(String.class);
-        verify(mockRequestSpec).user(userCaptor.capture());
-        assertTrue(userCaptor.getValue().startsWith("User prompt"));
+        ArgumentCaptor<String> systemCaptor = ArgumentCaptor.forClass(String.class);
+        verify(mockRequestSpec).system(systemCaptor.capture());
+        assertTrue(systemCaptor.getValue().startsWith("System prompt"));
+        verify(mockRequestSpec).user("User prompt");
     }
 
     @Test
-    @DisplayName("structuredCall appends BeanOutputConverter format instructions to user prompt")
+    @DisplayName("structuredCall appends BeanOutputConverter format instructions to the system prompt")
     void structuredCallAppendsFormatInstructions() {
         String jsonResponse = """
                 {"category":"feature","complexity":3,"affectedComponents":["api"],"planningStrategy":"sequential"}
@@ -73,12 +76,14 @@ class LlmServiceTest {
 
         llmService.structuredCall("System prompt", "User prompt", Classification.class);
 
-        // Verify the user prompt contains both the original text and format instructions
-        ArgumentCaptor<String> userCaptor = ArgumentCaptor.forClass(String.class);
-        verify(mockRequestSpec).user(userCaptor.capture());
-        String capturedUser = userCaptor.getValue();
-        assertTrue(capturedUser.startsWith("User prompt\n\n"), "Should start with user prompt followed by separator");
-        assertTrue(capturedUser.length() > "User prompt\n\n".length(), "Should contain format instructions after separator");
+        // The static system prompt and format instructions form a cacheable prefix
+        // ahead of the per-call user prompt
+        ArgumentCaptor<String> systemCaptor = ArgumentCaptor.forClass(String.class);
+        verify(mockRequestSpec).system(systemCaptor.capture());
+        String capturedSystem = systemCaptor.getValue();
+        assertTrue(capturedSystem.startsWith("System prompt\n\n"), "Should start with system prompt followed by separator");
+        assertTrue(capturedSystem.length() > "System prompt\n\n".length(), "Should contain format instructions after separator");
+        verify(mockRequestSpec).user("User prompt");
     }
 
     @Test
@@ -131,9 +136,246 @@ class LlmServiceTest {
 
         // Verify the full chain: prompt() -> system() -> user() -> call() -> content()
         verify(mockChatClient).prompt();
-        verify(mockRequestSpec).system("sys");
-        verify(mockRequestSpec).user(anyString());
+        verify(mockRequestSpec).system(startsWith("sys\n\n"));
+        verify(mockRequestSpec).user("usr");
         verify(mockRequestSpec).call();
         verify(mockCallResponse).content();
     }
+
+    @Test
+    @DisplayName("structuredCall answers repeated identical calls from the response cache")
+    void structuredCallUsesResponseCache() {
+        when(mockCallResponse.content()).thenReturn("""
+                {"category":"feature","complexity":3,"affectedComponents":["api"],"planningStrategy":"parallel"}
+                """);
+        var cachingService = cachingService();
+
+        Classification first = cachingService.structuredCall("sys", "usr", Classification.class);
+        Classification second = cachingService.structuredCall("sys", "usr", Classification.class);
+
+        assertEquals(first, second);
+        verify(mockRequestSpec, times(1)).call();
+
+        cachingService.structuredCall("sys", "different prompt", Classification.class);
+        verify(mockRequestSpec, times(2)).call();
+    }
+
+    @Test
+    @DisplayName("structuredCall with useCache=false always calls the model")
+    void structuredCallBypassesResponseCache() {
+        when(mockCallResponse.content()).thenReturn("""
+                {"category":"feature","complexity":3,"affectedComponents":["api"],"planningStrategy":"parallel"}
+                """);
+        var cachingService = cachingService();
+
+        cachingService.structuredCall("sys", "usr", Classification.class);
+        cachingService.structuredCall("sys", "usr", Classification.class, false);
+
+        verify(mockRequestSpec, times(2)).call();
+    }
+
+    @Test
+    @DisplayName("routed calls with useCache=false always call the model")
+    void routedCallsBypassResponseCache() {
+        when(mockCallResponse.content()).thenReturn("""
+                {"category":"feature","complexity":3,"affectedComponents":["api"],"planningStrategy":"parallel"}
+                """);
+        var cachingService = cachingService();
+
+        cachingService.structuredCall(LlmNode.CLASSIFY, null, "sys", "usr", Classification.class);
+        cachingService.structuredCall(LlmNode.CLASSIFY, null, "sys", "usr", Classification.class);
+        verify(mockRequestSpec, times(1)).call();
+
+        cachingService.structuredCall(LlmNode.CLASSIFY, null, "sys", "usr", Classification.class, false);
+        cachingService.streamingStructuredCall(LlmNode.CLASSIFY, null, "sys", "usr", Classification.class,
+                fragment -> {}, false);
+        verify(mockRequestSpec, times(3)).call();
+    }
+
+    @Test
+    @DisplayName("structuredCall does not cache responses that fail to parse")
+    void structuredCallDoesNotCacheUnparseableResponses() {
+        when(mockCallResponse.content()).thenReturn("not json at all");
+        var cache = new InMemoryLlmResponseCache(10, java.time.Duration.ofHours(1));
+        var cachingService = cachingService(cache);
+
+        assertThrows(LlmParseException.class,
+                () -> cachingService.structuredCall("sys", "usr", Classification.class));
+        assertEquals(0, cache.size());
+    }
+
+    private LlmService cachingService() {
+        return cachingService(new InMemoryLlmResponseCache(10, java.time.Duration.ofHours(1)));
+    }
+
+    private LlmService cachingService(LlmResponseCache cache) {
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        when(builder.build()).thenReturn(mockChatClient);
+        return new LlmService(builder, "http://test:1234", null, cache, null, null);
+    }
+
+    @Test
+    @DisplayName("streamingStructuredCall reports only schema-valid fragments while streaming")
+    void streamingStructuredCallReportsFragments() {
+        var streamSpec = mock(StreamResponseSpec.class);
+        when(mockRequestSpec.stream()).thenReturn(streamSpec);
+        when(streamSpec.content()).thenReturn(Flux.just(
+                "```json\n{\"category\":\"feature\",", "\"complexity\":\"not a number\",",
+                "\"affectedComponents\":[\"api\",\"ui\"],", "\"planningStrategy\":\"parallel\"}\n```"));
+        var fragments = new ArrayList<String>();
+
+        assertThrows(LlmParseException.class, () -> llmService.streamingStructuredCall("sys", "usr",
+                Classification.class, fragment -> fragments.add(fragment.field() + "[" + fragment.index() + "]")));
+
+        assertEquals(List.of("category[-1]", "affectedComponents[0]", "affectedComponents[1]",
+                "affectedComponents[-1]", "planningStrategy[-1]"), fragments,
+                "Fragments that do not match the schema should be dropped");
+        verify(mockRequestSpec, never()).call();
+    }
+
+    @Test
+    @DisplayName("streamingStructuredCall retries a failed stream as a call without repeating fragments")
+    void streamingStructuredCallFallsBackToCallOnStreamError() {
+        var streamSpec = mock(StreamResponseSpec.class);
+        when(mockRequestSpec.stream()).thenReturn(streamSpec);
+        when(streamSpec.content()).thenReturn(Flux.concat(
+                Flux.just("{\"category\":\"bugfix\",", "\"complexity\":2,"),
+                Flux.error(new IllegalStateException("connection reset"))));
+        when(mockCallResponse.content()).thenReturn("""
+                {"category":"bugfix","complexity":2,"affectedComponents":["api"],"planningStrategy":"sequential"}
+                """);
+        var fragments = new ArrayList<String>();
+
+        var result = llmService.streamingStructuredCall("sys", "usr", Classification.class,
+                fragment -> fragments.add(fragment.field()));
+
+        assertEquals("sequential", result.planningStrategy());
+        assertEquals(List.of("category", "complexity", "affectedComponents", "affectedComponents", "planningStrategy"),
+                fragments);
+        verify(mockRequestSpec).call();
+    }
+
+    @Test
+    @DisplayName("routed call runs on the fast model and escalates to the configured model on parse failure")
+    void routedCallEscalatesOnParseFailure() {
+        when(mockCallResponse.content()).thenReturn("""
+                {"category":"feature","complexity":3,"affectedComponents":["api"],"planningStrategy":"parallel"}
+                """);
+        var fastClient = mock(ChatClient.class);
+        var fastRequest = mock(ChatClientRequestSpec.class);
+        var fastResponse = mock(CallResponseSpec.class);
+        when(fastClient.prompt()).thenReturn(fastRequest);
+        when(fastRequest.system(anyString())).thenReturn(fastRequest);
+        when(fastRequest.user(anyString())).thenReturn(fastRequest);
+        when(fastRequest.call()).thenReturn(fastResponse);
+        when(fastResponse.content()).thenReturn("Sure! The category is feature.");
+
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        ChatClient.Builder fastBuilder = mock(ChatClient.Builder.class);
+        when(builder.build()).thenReturn(mockChatClient);
+        when(builder.clone()).thenReturn(fastBuilder);
+        when(fastBuilder.defaultOptions(any())).thenReturn(fastBuilder);
+        when(fastBuilder.build()).thenReturn(fastClient);
+        var properties = new LlmProperties();
+        properties.setProvider("anthropic");
+        var service = new LlmService(builder, "NOT_SET", null, null,
+                mock(org.springframework.ai.chat.model.ChatModel.class), properties);
+
+        var result = service.structuredCall(LlmNode.CLASSIFY, "medium", "sys", "usr", Classification.class);
+
+        assertEquals("feature", result.category());
+        var options = ArgumentCaptor.forClass(org.springframework.ai.chat.prompt.ChatOptions.class);
+        verify(fastBuilder).defaultOptions(options.capture());
+        assertEquals("claude-3-5-haiku-20241022", options.getValue().getModel());
+        verify(fastRequest).call();
+        verify(mockRequestSpec).call();
+    }
+
+    @Test
+    @DisplayName("routed call falls back to the configured model when the provider rejects the routed model")
+    void routedCallFallsBackOnNonTransientError() {
+        when(mockCallResponse.content()).thenReturn("""
+                {"category":"feature","complexity":3,"affectedComponents":["api"],"planningStrategy":"parallel"}
+                """);
+        var fastClient = mock(ChatClient.class);
+        var fastRequest = mock(ChatClientRequestSpec.class);
+        when(fastClient.prompt()).thenReturn(fastRequest);
+        when(fastRequest.system(anyString())).thenReturn(fastRequest);
+        when(fastRequest.user(anyString())).thenReturn(fastRequest);
+        when(fastRequest.call()).thenThrow(
+                new org.springframework.ai.retry.NonTransientAiException("404 - model not found"));
+
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        ChatClient.Builder fastBuilder = mock(ChatClient.Builder.class);
+        when(builder.build()).thenReturn(mockChatClient);
+        when(builder.clone()).thenReturn(fastBuilder);
+        when(fastBuilder.defaultOptions(any())).thenReturn(fastBuilder);
+        when(fastBuilder.build()).thenReturn(fastClient);
+        var properties = new LlmProperties();
+        properties.setProvider("anthropic");
+        var service = new LlmService(builder, "NOT_SET", null, null,
+                mock(org.springframework.ai.chat.model.ChatModel.class), properties);
+
+        var result = service.structuredCall(LlmNode.CLASSIFY, "medium", "sys", "usr", Classification.class);
+
+        assertEquals("feature", result.category());
+        verify(fastRequest).call();
+        verify(mockRequestSpec).call();
+    }
+
+    @Test
+    @DisplayName("Anthropic clients mark the system prompt for prompt caching and keep it when routed")
+    void anthropicClientsEnablePromptCaching() {
+        var chatModel = mock(org.springframework.ai.chat.model.ChatModel.class);
+        when(chatModel.getDefaultOptions()).thenReturn(org.springframework.ai.anthropic.AnthropicChatOptions.builder()
+                .model("claude-sonnet-4-5-20250929").maxTokens(8192).build());
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        ChatClient.Builder routedBuilder = mock(ChatClient.Builder.class);
+        when(builder.build()).thenReturn(mockChatClient);
+        when(builder.clone()).thenReturn(routedBuilder);
+        when(routedBuilder.defaultOptions(any())).thenReturn(routedBuilder);
+        when(routedBuilder.build()).thenReturn(mockChatClient);
+        when(mockCallResponse.content()).thenReturn("""
+                {"category":"feature","complexity":3,"affectedComponents":["api"],"planningStrategy":"parallel"}
+                """);
+        var properties = new LlmProperties();
+        properties.setProvider("anthropic");
+
+        var service = new LlmService(builder, "NOT_SET", null, null, chatModel, properties);
+        service.structuredCall(LlmNode.CLASSIFY, "medium", "sys", "usr", Classification.class);
+
+        var options = ArgumentCaptor.forClass(org.springframework.ai.chat.prompt.ChatOptions.class);
+        verify(builder).defaultOptions(options.capture());
+        var defaults = (org.springframework.ai.anthropic.AnthropicChatOptions) options.getValue();
+        assertEquals(org.springframework.ai.anthropic.api.AnthropicCacheStrategy.SYSTEM_ONLY,
+                defaults.getCacheOptions().getStrategy());
+        verify(routedBuilder).defaultOptions(options.capture());
+        var routed = (org.springframework.ai.anthropic.AnthropicChatOptions) options.getValue();
+        assertEquals("claude-3-5-haiku-20241022", routed.getModel());
+        assertEquals(8192, routed.getMaxTokens());
+        assertEquals(org.springframework.ai.anthropic.api.AnthropicCacheStrategy.SYSTEM_ONLY,
+                routed.getCacheOptions().getStrategy());
+    }
+
+    @Test
+    @DisplayName("streamingStructuredCall replays fragments when streaming is disabled")
+    void streamingStructuredCallWithoutStreamingReplaysFragments() {
+        when(mockCallResponse.content()).thenReturn("""
+                {"category":"bugfix","complexity":2,"affectedComponents":["api"],"planningStrategy":"sequential"}
+                """);
+        var properties = new LlmProperties();
+        properties.setStreaming(false);
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        when(builder.build()).thenReturn(mockChatClient);
+        var service = new LlmService(builder, "http://test:1234", null, null, null, properties);
+        var fragments = new ArrayList<String>();
+
+        var result = service.streamingStructuredCall("sys", "usr", Classification.class,
+                fragment -> fragments.add(fragment.field()));
+
+        assertEquals(2, result.complexity());
+        assertEquals(List.of("category", "complexity", "affectedComponents", "affectedComponents", "planningStrategy"),
+                fragments);
+        verify(mockRequestSpec, never()).stream();
+    }
 }
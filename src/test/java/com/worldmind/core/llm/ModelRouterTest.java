@@ -0,0 +1,64 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.llm.ModelRouter.Tier;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ModelRouterTest {
+
+    private final ModelRouter router = new ModelRouter("sonnet", "haiku", "opus");
+
+    @Test
+    void routesByNodeAndReasoningLevel() {
+        assertEquals(Tier.FAST, router.tierFor(LlmNode.CLASSIFY, 1_000, "medium"));
+        assertEquals(Tier.FAST, router.tierFor(LlmNode.REVIEW_PARSE, 1_000, null));
+        assertEquals(Tier.FLAGSHIP, router.tierFor(LlmNode.PLAN, 1_000, "medium"));
+
+        assertEquals(Tier.FAST, router.tierFor(LlmNode.CLARIFY, 1_000, "low"));
+        assertEquals(Tier.FLAGSHIP, router.tierFor(LlmNode.SPEC, 1_000, "low"), "Spec never drops below flagship");
+        assertEquals(Tier.FLAGSHIP, router.tierFor(LlmNode.CLASSIFY, 1_000, "high"));
+        assertEquals(Tier.FLAGSHIP, router.tierFor(LlmNode.PLAN, 1_000, "high"));
+        assertEquals(Tier.PREMIUM, router.tierFor(LlmNode.PLAN, 1_000, "max"));
+    }
+
+    @Test
+    void largePromptsSkipTheFastModel() {
+        assertEquals(Tier.FLAGSHIP,
+                router.tierFor(LlmNode.REVIEW_PARSE, ModelRouter.FAST_PROMPT_CHAR_LIMIT + 1, "medium"));
+    }
+
+    @Test
+    void escalatesToNextDistinctModel() {
+        assertEquals("haiku", router.modelFor(Tier.FAST));
+        assertNull(router.modelFor(Tier.FLAGSHIP));
+        assertEquals(Tier.FLAGSHIP, router.escalate(Tier.FAST));
+        assertEquals(Tier.PREMIUM, router.escalate(Tier.FLAGSHIP));
+        assertNull(router.escalate(Tier.PREMIUM));
+
+        var withoutPremium = new ModelRouter("gpt-4o", "gpt-4o-mini", null);
+        assertNull(withoutPremium.escalate(Tier.FLAGSHIP));
+        var fastIsConfigured = new ModelRouter("haiku", "haiku", null);
+        assertNull(fastIsConfigured.modelFor(Tier.FAST));
+        assertNull(fastIsConfigured.escalate(Tier.FAST));
+    }
+
+    @Test
+    void createUsesCatalogAndSkipsCustomEndpoints() {
+        var properties = new LlmProperties();
+        properties.setProvider("openai");
+        ChatModel chatModel = mock(ChatModel.class);
+
+        var openAi = ModelRouter.create(chatModel, "NOT_SET", properties);
+        assertEquals("gpt-4o-mini", openAi.modelFor(Tier.FAST));
+        assertNull(openAi.modelFor(Tier.PREMIUM));
+
+        assertNull(ModelRouter.create(chatModel, "https://genai.apps.example.com/openai", properties),
+                "Custom OpenAI-compatible endpoints may not serve catalog models");
+
+        properties.setRoutingEnabled(false);
+        assertNull(ModelRouter.create(chatModel, "NOT_SET", properties));
+    }
+}
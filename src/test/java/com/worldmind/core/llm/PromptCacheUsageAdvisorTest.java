@@ -0,0 +1,34 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.llm.PromptCacheUsageAdvisor.PromptTokens;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.anthropic.api.AnthropicApi;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.openai.api.OpenAiApi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptCacheUsageAdvisorTest {
+
+    @Test
+    void splitsAnthropicUsageIntoCacheReadsWritesAndInput() {
+        var usage = new DefaultUsage(120, 40, 160, new AnthropicApi.Usage(120, 40, 300, 5000));
+
+        assertEquals(new PromptTokens(5000, 300, 120), PromptCacheUsageAdvisor.promptTokens(usage));
+    }
+
+    @Test
+    void subtractsOpenAiCachedTokensFromPromptTokens() {
+        var details = new OpenAiApi.Usage.PromptTokensDetails(0, 1024);
+        var usage = new DefaultUsage(1500, 50, 1550,
+                new OpenAiApi.Usage(50, 1500, 1550, details, null));
+
+        assertEquals(new PromptTokens(1024, 0, 476), PromptCacheUsageAdvisor.promptTokens(usage));
+    }
+
+    @Test
+    void treatsUnknownUsageAsUncached() {
+        assertEquals(new PromptTokens(0, 0, 800),
+                PromptCacheUsageAdvisor.promptTokens(new DefaultUsage(800, 20)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.llm.StreamingJsonParser.JsonFragment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StreamingJsonParser}.
+ */
+class StreamingJsonParserTest {
+
+    private static final String PLAN = """
+            ```json
+            {"objective":"Add login","executionStrategy":"parallel","tasks":[
+              {"agent":"CODER","description":"Create form","dependencies":[]},
+              {"agent":"CODER","description":"Wire \\"auth\\" ✓","dependencies":["TASK-001"]}
+            ]}
+            ```
+            """;
+
+    @Test
+    @DisplayName("reports each field and array element as soon as it completes")
+    void reportsFragmentsAsTheyComplete() {
+        var fragments = new ArrayList<JsonFragment>();
+        var parser = new StreamingJsonParser(fragments::add);
+
+        var seenAfterFirstTask = -1;
+        int firstTaskEnd = PLAN.indexOf("]},") + 2;
+        for (int i = 0; i < PLAN.length(); i += 3) {
+            parser.feed(PLAN.substring(i, Math.min(i + 3, PLAN.length())));
+            if (seenAfterFirstTask < 0 && i + 3 >= firstTaskEnd) {
+                seenAfterFirstTask = fragments.size();
+            }
+        }
+
+        assertEquals(List.of("objective", "executionStrategy", "tasks", "tasks", "tasks"),
+                fragments.stream().map(JsonFragment::field).toList());
+        assertEquals(List.of(-1, -1, 0, 1, -1), fragments.stream().map(JsonFragment::index).toList());
+        assertEquals(3, seenAfterFirstTask, "First task should be reported before the second is streamed");
+        assertEquals("Add login", fragments.get(0).value().asText());
+        assertEquals("Wire \"auth\" ✓", fragments.get(3).value().get("description").asText());
+        assertEquals(2, fragments.get(4).value().size());
+        assertTrue(parser.isFinished());
+    }
+
+    @Test
+    @DisplayName("stops quietly on malformed input")
+    void stopsOnMalformedInput() {
+        var fragments = new ArrayList<JsonFragment>();
+        var parser = new StreamingJsonParser(fragments::add);
+
+        parser.feed("{\"title\":\"Spec\",\"goals\":[\"a\",}");
+        parser.feed(",\"overview\":\"never reported\"}");
+
+        assertEquals(List.of("title", "goals"), fragments.stream().map(JsonFragment::field).toList());
+        assertEquals(List.of(-1, 0), fragments.stream().map(JsonFragment::index).toList());
+        assertTrue(parser.isFinished());
+    }
+}
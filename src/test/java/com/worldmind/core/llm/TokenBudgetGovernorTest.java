@@ -0,0 +1,100 @@
+package com.worldmind.core.llm;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBudgetGovernorTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    private TokenBudgetGovernor governor(long tokensPerMinute) {
+        return new TokenBudgetGovernor(tokensPerMinute, null, clock::get);
+    }
+
+    @Test
+    @DisplayName("Disabled governor never asks for a delay")
+    void disabledReturnsZero() {
+        var g = governor(0);
+        g.recordUsage("m", 1_000_000, true);
+
+        assertFalse(g.isEnabled());
+        assertEquals(0, g.requiredDelayMs("m", 10));
+    }
+
+    @Test
+    @DisplayName("No delay while the bucket covers the wave")
+    void noDelayWhenBudgetCovers() {
+        var g = governor(100_000);
+        g.recordUsage("m", 10_000, true);
+
+        // 90k available, 2 tasks at ~10k each
+        assertEquals(0, g.requiredDelayMs("m", 2));
+    }
+
+    @Test
+    @DisplayName("Depleted bucket requires a delay proportional to the deficit")
+    void delayWhenDepleted() {
+        var g = governor(60_000); // 1 token per ms
+        g.recordUsage("m", 60_000, true);
+
+        // Empty bucket, one task estimated at 60k but capped at one window
+        assertEquals(60_000, g.requiredDelayMs("m", 1));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertEquals(30_000, g.remaining("m"));
+        assertEquals(30_000, g.requiredDelayMs("m", 1));
+    }
+
+    @Test
+    @DisplayName("Bucket refills to capacity and no further")
+    void refillCapsAtCapacity() {
+        var g = governor(60_000);
+        g.recordUsage("m", 20_000, false);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+
+        assertEquals(60_000, g.remaining("m"));
+    }
+
+    @Test
+    @DisplayName("Buckets are tracked per model")
+    void bucketsArePerModel() {
+        var g = governor(60_000);
+        g.recordUsage("a", 60_000, true);
+
+        assertEquals(0, g.remaining("a"));
+        assertEquals(60_000, g.remaining("b"));
+    }
+
+    @Test
+    @DisplayName("Agent model names and provider-reported model ids share a bucket")
+    void modelKeysAreNormalized() {
+        var g = governor(60_000);
+        g.recordUsage("anthropic/claude-sonnet-4", 20_000, true);
+        g.recordUsage("claude-sonnet-4-20250514", 10_000, false);
+
+        assertEquals(30_000, g.remaining("Claude-Sonnet-4"));
+        assertEquals("gpt-4o", TokenBudgetGovernor.modelKey("gpt-4o-2024-08-06"));
+        assertEquals("gemini-2.5-pro", TokenBudgetGovernor.modelKey("models/gemini-2.5-pro"));
+        assertEquals("default", TokenBudgetGovernor.modelKey(null));
+    }
+
+    @Test
+    @DisplayName("Remaining budget is exported as a gauge")
+    void registersGauge() {
+        var registry = new SimpleMeterRegistry();
+        var g = new TokenBudgetGovernor(60_000, new WorldmindMetrics(registry), clock::get);
+        g.recordUsage("m", 15_000, false);
+
+        var gauge = registry.find("worldmind.llm.token_budget.remaining").tag("model", "m").gauge();
+        assertNotNull(gauge);
+        assertEquals(45_000, gauge.value());
+    }
+}
@@ -274,7 +274,8 @@ class ModelTest {
                 "completedTaskIds", "waveTaskIds", "waveCount", "waveDispatchResults",
                 "reasoningLevel", "userExecutionStrategy", "createCfDeployment",
                 "clarifyingQuestions", "clarifyingAnswers", "prdDocument",
-                "retryingTaskIds", "manifestCreatedByTask"
+                "retryingTaskIds", "manifestCreatedByTask", "skipPerTaskTests",
+                "deploymentUrl", "speculativeBaseTaskId"
             );
             for (String key : expected) {
                 assertTrue(keys.contains(key), "SCHEMA missing key: " + key);
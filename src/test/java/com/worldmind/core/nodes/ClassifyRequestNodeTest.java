@@ -29,7 +29,7 @@ class ClassifyRequestNodeTest {
         );
 
         LlmService mockLlm = mock(LlmService.class);
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(Classification.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(Classification.class)))
                 .thenReturn(expectedClassification);
 
         var node = new ClassifyRequestNode(mockLlm, null);
@@ -49,7 +49,7 @@ class ClassifyRequestNodeTest {
         );
 
         LlmService mockLlm = mock(LlmService.class);
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(Classification.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(Classification.class)))
                 .thenReturn(classification);
 
         var node = new ClassifyRequestNode(mockLlm, null);
@@ -58,7 +58,7 @@ class ClassifyRequestNodeTest {
 
         node.apply(state);
 
-        verify(mockLlm).structuredCall(anyString(), eq(requestText), eq(Classification.class));
+        verify(mockLlm).structuredCall(any(), any(), anyString(), eq(requestText), eq(Classification.class));
     }
 
     @Test
@@ -70,14 +70,14 @@ class ClassifyRequestNodeTest {
         var docsClassification = new Classification(
                 "docs", 1, List.of("docs"), "sequential", "base"
         );
-        when(mockLlm.structuredCall(anyString(), eq("Update the README"), eq(Classification.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), eq("Update the README"), eq(Classification.class)))
                 .thenReturn(docsClassification);
 
         // Simulate a refactor classification
         var refactorClassification = new Classification(
                 "refactor", 4, List.of("service", "model", "api"), "parallel", "base"
         );
-        when(mockLlm.structuredCall(anyString(), eq("Refactor the entire persistence layer"), eq(Classification.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), eq("Refactor the entire persistence layer"), eq(Classification.class)))
                 .thenReturn(refactorClassification);
 
         var node = new ClassifyRequestNode(mockLlm, null);
@@ -104,7 +104,7 @@ class ClassifyRequestNodeTest {
         );
 
         LlmService mockLlm = mock(LlmService.class);
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(Classification.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(Classification.class)))
                 .thenReturn(classification);
 
         var node = new ClassifyRequestNode(mockLlm, null);
@@ -0,0 +1,202 @@
+package com.worldmind.core.nodes;
+
+import com.worldmind.core.events.EventBus;
+import com.worldmind.core.llm.TokenBudgetGovernor;
+import com.worldmind.core.model.*;
+import com.worldmind.core.scheduler.CriticalPathAnalyzer;
+import com.worldmind.core.scheduler.TaskScheduler;
+import com.worldmind.core.state.WorldmindState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DagExecutionNodeTest {
+
+    private ParallelDispatchNode mockDispatch;
+    private EvaluateWaveNode mockEvaluate;
+    private List<String> dispatchOrder;
+
+    @BeforeEach
+    void setUp() {
+        mockDispatch = mock(ParallelDispatchNode.class);
+        mockEvaluate = mock(EvaluateWaveNode.class);
+        dispatchOrder = Collections.synchronizedList(new ArrayList<>());
+
+        when(mockDispatch.dispatch(any(WorldmindState.class))).thenAnswer(inv -> {
+            WorldmindState s = inv.getArgument(0);
+            String id = s.waveTaskIds().getFirst();
+            dispatchOrder.add(id);
+            return Map.of("waveDispatchResults",
+                    List.of(new WaveDispatchResult(id, TaskStatus.PASSED, List.of(), "ok", 10L)),
+                    "status", MissionStatus.EXECUTING.name());
+        });
+        when(mockEvaluate.apply(any(WorldmindState.class))).thenAnswer(inv -> {
+            WorldmindState s = inv.getArgument(0);
+            return Map.of("completedTaskIds", new ArrayList<>(s.waveTaskIds()));
+        });
+    }
+
+    private DagExecutionNode node(int maxParallel) {
+        return new DagExecutionNode(new TaskScheduler(), new CriticalPathAnalyzer(null),
+                mockDispatch, mockEvaluate, new EventBus(), null, maxParallel, true);
+    }
+
+    private DagExecutionNode speculativeNode(int maxParallel) {
+        return new DagExecutionNode(new TaskScheduler(), new CriticalPathAnalyzer(null),
+                mockDispatch, mockEvaluate, new EventBus(), null, maxParallel, true, true);
+    }
+
+    /** Records dispatched IDs with their speculative base and signals when B is dispatched. */
+    private List<String> recordDispatches(CountDownLatch bDispatched) {
+        var dispatches = Collections.synchronizedList(new ArrayList<String>());
+        when(mockDispatch.dispatch(any(WorldmindState.class))).thenAnswer(inv -> {
+            WorldmindState s = inv.getArgument(0);
+            String id = s.waveTaskIds().getFirst();
+            dispatches.add(id + "@" + s.speculativeBaseTaskId());
+            if (id.equals("B")) bDispatched.countDown();
+            return Map.of("waveDispatchResults",
+                    List.of(new WaveDispatchResult(id, TaskStatus.VERIFYING, List.of(), "ok", 10L)));
+        });
+        return dispatches;
+    }
+
+    private Task task(String id, List<String> deps) {
+        return new Task(id, "CODER", "Do " + id, "", "Done", deps,
+                TaskStatus.PENDING, 0, 3, FailureStrategy.RETRY, List.of(), List.of(), null);
+    }
+
+    private WorldmindState state(List<Task> tasks) {
+        return new WorldmindState(Map.of(
+                "missionId", "WMND-TEST",
+                "tasks", tasks,
+                "executionStrategy", ExecutionStrategy.PARALLEL.name()
+        ));
+    }
+
+    @Test
+    @DisplayName("Runs every task to completion, respecting dependencies")
+    @SuppressWarnings("unchecked")
+    void runsAllTasks() {
+        var tasks = List.of(task("A", List.of()), task("B", List.of("A")), task("C", List.of()));
+
+        var result = node(2).apply(state(tasks));
+
+        var completed = (List<String>) result.get("completedTaskIds");
+        assertTrue(completed.containsAll(List.of("A", "B", "C")));
+        assertTrue(dispatchOrder.indexOf("A") < dispatchOrder.indexOf("B"));
+        assertEquals(MissionStatus.EXECUTING.name(), result.get("status"));
+        assertEquals(List.of(), result.get("waveTaskIds"));
+        verify(mockDispatch).prepareMissionWorkspace(any());
+    }
+
+    @Test
+    @DisplayName("With one slot, the head of the longest chain is dispatched first")
+    void criticalPathFirst() {
+        var tasks = List.of(
+                task("SHORT", List.of()),
+                task("HEAD", List.of()),
+                task("MID", List.of("HEAD")),
+                task("TAIL", List.of("MID"))
+        );
+
+        node(1).apply(state(tasks));
+
+        assertEquals("HEAD", dispatchOrder.getFirst());
+        assertEquals(4, dispatchOrder.size());
+    }
+
+    @Test
+    @DisplayName("Consults the token budget before every dispatch round after the first")
+    void waitsForTokenBudgetBetweenRounds() {
+        var budget = mock(TokenBudgetGovernor.class);
+        when(budget.isEnabled()).thenReturn(true);
+        var node = new DagExecutionNode(new TaskScheduler(), new CriticalPathAnalyzer(null),
+                mockDispatch, mockEvaluate, new EventBus(), null, 2, true, false,
+                new DispatchCooldown(budget, "goose-model", 30, null));
+        var tasks = List.of(task("A", List.of()), task("B", List.of("A")), task("C", List.of("B")));
+
+        node.apply(state(tasks));
+
+        assertEquals(List.of("A", "B", "C"), dispatchOrder);
+        verify(budget, times(2)).requiredDelayMs("goose-model", 1);
+    }
+
+    @Test
+    @DisplayName("Mission failure stops new dispatches")
+    void failureStopsDispatch() {
+        when(mockEvaluate.apply(any(WorldmindState.class))).thenReturn(Map.of(
+                "status", MissionStatus.FAILED.name(),
+                "errors", List.of("Task A escalated")));
+        var tasks = List.of(task("A", List.of()), task("B", List.of("A")));
+
+        var result = node(2).apply(state(tasks));
+
+        assertEquals(MissionStatus.FAILED.name(), result.get("status"));
+        assertEquals(List.of("A"), dispatchOrder);
+        assertEquals(List.of("Task A escalated"), result.get("errors"));
+    }
+
+    @Test
+    @DisplayName("Speculative mode dispatches a dependent while its dependency is in the quality gate")
+    @SuppressWarnings("unchecked")
+    void speculativeDispatchOverlapsGate() {
+        var bDispatched = new CountDownLatch(1);
+        var dispatches = recordDispatches(bDispatched);
+        var overlapped = new AtomicBoolean();
+        when(mockEvaluate.apply(any(WorldmindState.class))).thenAnswer(inv -> {
+            WorldmindState s = inv.getArgument(0);
+            String id = s.waveTaskIds().getFirst();
+            if (id.equals("A")) overlapped.set(bDispatched.await(5, TimeUnit.SECONDS));
+            return Map.of("completedTaskIds", List.of(id));
+        });
+        var tasks = List.of(task("A", List.of()), task("B", List.of("A")));
+
+        var result = speculativeNode(2).apply(state(tasks));
+
+        assertTrue(overlapped.get(), "B should be dispatched before A's gate finishes");
+        assertEquals(List.of("A@", "B@A"), dispatches);
+        assertTrue(((List<String>) result.get("completedTaskIds")).containsAll(List.of("A", "B")));
+        verify(mockDispatch, never()).cancelTask(any());
+    }
+
+    @Test
+    @DisplayName("Speculative dependent is cancelled and rescheduled when its dependency is denied")
+    @SuppressWarnings("unchecked")
+    void speculativeDependentCancelledOnDenial() {
+        var bDispatched = new CountDownLatch(1);
+        var dispatches = recordDispatches(bDispatched);
+        var aEvaluations = new AtomicInteger();
+        when(mockEvaluate.apply(any(WorldmindState.class))).thenAnswer(inv -> {
+            WorldmindState s = inv.getArgument(0);
+            String id = s.waveTaskIds().getFirst();
+            if (id.equals("A") && aEvaluations.incrementAndGet() == 1) {
+                bDispatched.await(5, TimeUnit.SECONDS);
+                return Map.of("retryingTaskIds", List.of("A"));
+            }
+            return Map.of("completedTaskIds", List.of(id));
+        });
+        var tasks = List.of(task("A", List.of()), task("B", List.of("A")));
+
+        var result = speculativeNode(2).apply(state(tasks));
+
+        verify(mockDispatch).cancelTask("B");
+        assertEquals(2, aEvaluations.get());
+        assertEquals(2, dispatches.stream().filter(d -> d.startsWith("B")).count());
+        // B's discarded run is never evaluated
+        verify(mockEvaluate, times(3)).apply(any(WorldmindState.class));
+        assertTrue(((List<String>) result.get("completedTaskIds")).containsAll(List.of("A", "B")));
+    }
+}
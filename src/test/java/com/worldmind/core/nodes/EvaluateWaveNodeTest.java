@@ -1,19 +1,25 @@
 package com.worldmind.core.nodes;
 
 import com.worldmind.core.events.EventBus;
+import com.worldmind.core.events.WorldmindEvent;
 import com.worldmind.core.metrics.WorldmindMetrics;
 import com.worldmind.core.model.*;
 import com.worldmind.core.scheduler.OscillationDetector;
 import com.worldmind.core.quality_gate.QualityGateEvaluationService;
 import com.worldmind.core.state.WorldmindState;
 import com.worldmind.sandbox.AgentDispatcher;
+import com.worldmind.sandbox.cf.CloudFoundryProperties;
+import com.worldmind.sandbox.cf.GitWorkspaceManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -1118,4 +1124,167 @@ class EvaluateWaveNodeTest {
         assertNull(result.get("deploymentUrl"),
                 "No deployment URL on failure");
     }
+
+    @Test
+    @DisplayName("TESTER and REVIEWER for every task in the wave run concurrently")
+    @SuppressWarnings("unchecked")
+    void qualityGateAgentsRunConcurrently() {
+        var a = coderTask("TASK-001", 0, 3, FailureStrategy.RETRY);
+        var b = coderTask("TASK-002", 0, 3, FailureStrategy.RETRY);
+        // All four gate agents must be running at once to get past the latch
+        var allStarted = new CountDownLatch(4);
+        when(mockBridge.executeTask(any(), any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            Task gateTask = inv.getArgument(0);
+            allStarted.countDown();
+            if (!allStarted.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("gate agents ran serially");
+            }
+            return bridgeResult(gateTask.id(), gateTask.agent());
+        });
+        when(mockQualityGateService.parseTestOutput(anyString(), anyString(), anyLong()))
+                .thenAnswer(inv -> new TestResult(inv.getArgument(0), true, 10, 0, "OK", 500L));
+        when(mockQualityGateService.parseReviewOutput(anyString(), anyString()))
+                .thenAnswer(inv -> new ReviewFeedback(inv.getArgument(0), true, "Good", List.of(), List.of(), 8));
+        when(mockQualityGateService.evaluateQualityGate(any(), any(), any()))
+                .thenAnswer(inv -> new QualityGateDecision(
+                        ((TestResult) inv.getArgument(0)).passed(), null, "Evaluated"));
+
+        var state = new WorldmindState(Map.of(
+                "waveTaskIds", List.of("TASK-001", "TASK-002"),
+                "tasks", List.of(a, b),
+                "waveDispatchResults", List.of(passedResult("TASK-001"), passedResult("TASK-002"))
+        ));
+
+        var result = node.apply(state);
+
+        assertEquals(List.of("TASK-001", "TASK-002"), result.get("completedTaskIds"));
+        assertEquals(4, ((List<SandboxInfo>) result.get("sandboxes")).size());
+        assertEquals(List.of("TASK-001", "TASK-002"),
+                ((List<TestResult>) result.get("testResults")).stream().map(TestResult::taskId).toList());
+    }
+
+    @Test
+    @DisplayName("Renames-only change skips REVIEWER and is auto-approved")
+    @SuppressWarnings("unchecked")
+    void renamesOnlySkipsReviewer() {
+        var d = coderTask("TASK-001", 0, 3, FailureStrategy.RETRY);
+        when(mockBridge.executeTask(any(), any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            Task gateTask = inv.getArgument(0);
+            return bridgeResult(gateTask.id(), gateTask.agent());
+        });
+        when(mockQualityGateService.parseTestOutput(anyString(), anyString(), anyLong()))
+                .thenReturn(new TestResult("TASK-001", true, 10, 0, "OK", 500L));
+        when(mockQualityGateService.evaluateQualityGate(any(), any(), any()))
+                .thenAnswer(inv -> new QualityGateDecision(
+                        ((ReviewFeedback) inv.getArgument(1)).approved(), null, "Evaluated"));
+
+        var renamed = new WaveDispatchResult("TASK-001", TaskStatus.PASSED,
+                List.of(new FileRecord("src/util/Util.java", "renamed", 0, "src/old/Util.java")), "Success", 500L);
+        var state = new WorldmindState(Map.of(
+                "waveTaskIds", List.of("TASK-001"),
+                "tasks", List.of(d),
+                "waveDispatchResults", List.of(renamed)
+        ));
+
+        var result = node.apply(state);
+
+        assertEquals(List.of("TASK-001"), result.get("completedTaskIds"));
+        verify(mockBridge, never()).executeTask(
+                argThat(t -> t != null && t.id().endsWith("-REVIEWER")), any(), any(), any(), any(), any());
+        verify(mockQualityGateService, never()).parseReviewOutput(anyString(), anyString());
+        var feedback = (List<ReviewFeedback>) result.get("reviewFeedback");
+        assertEquals(10, feedback.get(0).score());
+    }
+
+    // --- Merge forecast ---
+
+    private EvaluateWaveNode forecastingNode(GitWorkspaceManager git) {
+        return forecastingNode(git, new EventBus());
+    }
+
+    private EvaluateWaveNode forecastingNode(GitWorkspaceManager git, EventBus eventBus) {
+        when(mockBridge.executeTask(any(), any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            Task gateTask = inv.getArgument(0);
+            return bridgeResult(gateTask.id(), gateTask.agent());
+        });
+        when(mockQualityGateService.parseTestOutput(anyString(), anyString(), anyLong()))
+                .thenAnswer(inv -> new TestResult(inv.getArgument(0), true, 10, 0, "OK", 500L));
+        when(mockQualityGateService.parseReviewOutput(anyString(), anyString()))
+                .thenAnswer(inv -> new ReviewFeedback(inv.getArgument(0), true, "Good", List.of(), List.of(), 8));
+        when(mockQualityGateService.evaluateQualityGate(any(), any(), any()))
+                .thenReturn(new QualityGateDecision(true, null, "All good"));
+        when(git.mergeWaveBranches(anyList(), any(), any())).thenAnswer(inv ->
+                new GitWorkspaceManager.MergeResult(inv.getArgument(0), List.of()));
+        return new EvaluateWaveNode(mockBridge, mockQualityGateService, eventBus,
+                mock(WorldmindMetrics.class), new OscillationDetector(), git, new CloudFoundryProperties());
+    }
+
+    private WorldmindState twoCoderWave() {
+        return new WorldmindState(Map.of(
+                "waveTaskIds", List.of("TASK-001", "TASK-002"),
+                "tasks", List.of(coderTask("TASK-001", 0, 3, FailureStrategy.RETRY),
+                        coderTask("TASK-002", 0, 3, FailureStrategy.RETRY)),
+                "waveDispatchResults", List.of(passedResult("TASK-001"), passedResult("TASK-002"))
+        ));
+    }
+
+    @Test
+    @DisplayName("Branch still conflicting after the wave merge is retried without quality gates")
+    @SuppressWarnings("unchecked")
+    void predictedConflictSkipsGatesAndRetries() {
+        var git = mock(GitWorkspaceManager.class);
+        var conflict = new GitWorkspaceManager.MergeForecast(Map.of("TASK-002", List.of("test.java")));
+        when(git.forecastWaveMerge(anyList(), any(), any())).thenReturn(conflict);
+        var forecasting = forecastingNode(git);
+
+        var result = forecasting.apply(twoCoderWave());
+
+        assertEquals(List.of("TASK-001"), result.get("completedTaskIds"));
+        assertEquals(List.of("TASK-002"), result.get("retryingTaskIds"));
+        verify(mockBridge, never()).executeTask(
+                argThat(t -> t != null && t.id().startsWith("TASK-002")), any(), any(), any(), any(), any());
+        verify(git).mergeWaveBranches(eq(List.of("TASK-001")), any(), any());
+        verify(git, times(1)).mergeWaveBranches(anyList(), any(), any());
+        var retried = ((List<Task>) result.get("tasks")).stream()
+                .filter(t -> t.id().equals("TASK-002")).findFirst().orElseThrow();
+        assertEquals(TaskStatus.PENDING, retried.status());
+    }
+
+    @Test
+    @DisplayName("Predicted conflict event carries the conflict rate of each conflicting file")
+    void predictedConflictEventCarriesFileConflictRates() {
+        var git = mock(GitWorkspaceManager.class);
+        when(git.forecastWaveMerge(anyList(), any(), any()))
+                .thenReturn(new GitWorkspaceManager.MergeForecast(Map.of("TASK-002", List.of("test.java"))));
+        var eventBus = new EventBus();
+        var predicted = new ArrayList<WorldmindEvent>();
+        eventBus.subscribeAll(e -> {
+            if (e.eventType().equals("merge.conflict_predicted")) predicted.add(e);
+        });
+
+        forecastingNode(git, eventBus).apply(twoCoderWave());
+
+        assertEquals("TASK-002", predicted.getFirst().taskId());
+        // test.java merged cleanly for TASK-001 and conflicted for TASK-002
+        assertEquals(Map.of("test.java", 0.5), predicted.getFirst().payload().get("conflictRates"));
+    }
+
+    @Test
+    @DisplayName("Deferred branch that merges cleanly after the wave lands is gated and merged")
+    @SuppressWarnings("unchecked")
+    void deferredBranchIsGatedWhenForecastClears() {
+        var git = mock(GitWorkspaceManager.class);
+        when(git.forecastWaveMerge(anyList(), any(), any()))
+                .thenReturn(new GitWorkspaceManager.MergeForecast(Map.of("TASK-002", List.of("test.java"))))
+                .thenReturn(GitWorkspaceManager.MergeForecast.none());
+        var forecasting = forecastingNode(git);
+
+        var result = forecasting.apply(twoCoderWave());
+
+        assertEquals(List.of("TASK-001", "TASK-002"), result.get("completedTaskIds"));
+        assertNull(result.get("retryingTaskIds"));
+        var order = inOrder(git);
+        order.verify(git).mergeWaveBranches(eq(List.of("TASK-001")), any(), any());
+        order.verify(git).mergeWaveBranches(eq(List.of("TASK-002")), any(), any());
+    }
 }
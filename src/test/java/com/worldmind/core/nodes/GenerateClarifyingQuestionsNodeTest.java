@@ -36,7 +36,7 @@ class GenerateClarifyingQuestionsNodeTest {
                         List.of("Option A", "Option B"), true, null)),
                 "Building an app"
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -65,7 +65,7 @@ class GenerateClarifyingQuestionsNodeTest {
                         List.of("Option A"), true, null)),
                 "Building an app"
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -88,7 +88,7 @@ class GenerateClarifyingQuestionsNodeTest {
     void autoDetectsPostgresqlFromRequest() {
         var mockLlm = mock(LlmService.class);
         var llmQuestions = new ClarifyingQuestions(List.of(), "Building a todo app");
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -117,7 +117,7 @@ class GenerateClarifyingQuestionsNodeTest {
     void autoDetectsRedisFromRequest() {
         var mockLlm = mock(LlmService.class);
         var llmQuestions = new ClarifyingQuestions(List.of(), "Building a web service");
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -142,7 +142,7 @@ class GenerateClarifyingQuestionsNodeTest {
     void autoDetectsMultipleServices() {
         var mockLlm = mock(LlmService.class);
         var llmQuestions = new ClarifyingQuestions(List.of(), "Building a complex app");
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -168,7 +168,7 @@ class GenerateClarifyingQuestionsNodeTest {
     void autoDetectsServicesFromPrd() {
         var mockLlm = mock(LlmService.class);
         var llmQuestions = new ClarifyingQuestions(List.of(), "Building from PRD");
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -198,7 +198,7 @@ class GenerateClarifyingQuestionsNodeTest {
     void fallsBackToGenericQuestionWhenNoServicesDetected() {
         var mockLlm = mock(LlmService.class);
         var llmQuestions = new ClarifyingQuestions(List.of(), "Building a simple app");
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -224,7 +224,7 @@ class GenerateClarifyingQuestionsNodeTest {
     void detectedQuestionIncludesFormatInstructions() {
         var mockLlm = mock(LlmService.class);
         var llmQuestions = new ClarifyingQuestions(List.of(), "Building an app");
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -287,7 +287,7 @@ class GenerateClarifyingQuestionsNodeTest {
     void genericQuestionIncludesFormatInstructions() {
         var mockLlm = mock(LlmService.class);
         var llmQuestions = new ClarifyingQuestions(List.of(), "Simple app");
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -317,7 +317,7 @@ class GenerateClarifyingQuestionsNodeTest {
                 ),
                 "Building with database"
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -342,7 +342,7 @@ class GenerateClarifyingQuestionsNodeTest {
     void handlesNullQuestionsFromLlm() {
         var mockLlm = mock(LlmService.class);
         var llmQuestions = new ClarifyingQuestions(null, "Building an app");
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(ClarifyingQuestions.class)))
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(ClarifyingQuestions.class)))
                 .thenReturn(llmQuestions);
 
         var node = new GenerateClarifyingQuestionsNode(mockLlm);
@@ -1,6 +1,9 @@
 package com.worldmind.core.nodes;
 
+import com.worldmind.core.events.EventBus;
+import com.worldmind.core.events.WorldmindEvent;
 import com.worldmind.core.llm.LlmService;
+import com.worldmind.core.llm.StreamingJsonParser;
 import com.worldmind.core.model.Classification;
 import com.worldmind.core.model.Task;
 import com.worldmind.core.model.TaskStatus;
@@ -14,8 +17,10 @@ import com.worldmind.sandbox.DeployerProperties;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -41,7 +46,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create controller", "", "Controller works", List.of(), List.of())
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -81,7 +86,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("REVIEWER", "Review changes", "", "Review passed", List.of("TASK-001"), List.of())
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -105,7 +110,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("TESTER", "Write unit tests", "context", "All pass", List.of(), List.of())
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -143,7 +148,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("REVIEWER", "Final review", "", "Approved", List.of("invalid_ref"), List.of())
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -177,7 +182,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("REVIEWER", "Review", "", "Done", List.of(), List.of())
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -189,7 +194,7 @@ class PlanMissionNodeTest {
         node.apply(state);
 
         verify(mockLlm).structuredCall(
-                anyString(),
+                any(), any(), anyString(),
                 argThat(prompt ->
                         prompt.contains("Fix login bug") &&
                         prompt.contains("bugfix") &&
@@ -239,7 +244,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("REVIEWER", "Review", "", "OK", List.of(), List.of())
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -268,7 +273,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("REVIEWER", "Review", "", "Done", List.of(), List.of())
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var spec = new ProductSpec(
                 "Auth Feature", "Add authentication",
@@ -296,7 +301,7 @@ class PlanMissionNodeTest {
         node.apply(state);
 
         verify(mockLlm).structuredCall(
-                anyString(),
+                any(), any(), anyString(),
                 argThat(prompt ->
                         prompt.contains("LoginController") &&
                         prompt.contains("Handles login requests") &&
@@ -322,7 +327,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create manifest", "", "Manifest valid", List.of(), List.of("manifest.yml"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -347,7 +352,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create tests", "", "Tests pass", List.of(), List.of("src/AppTest.java"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -371,7 +376,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create app", "", "App works", List.of(), List.of("deploy/manifest.yml"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -395,7 +400,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create app", "", "App works", List.of(), List.of("src/App.java"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -434,7 +439,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create controller", "", "Done", List.of(), List.of("Controller.java"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -469,7 +474,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -504,7 +509,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create manifest", "", "Done", List.of(), List.of("manifest.yml"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -537,7 +542,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -571,7 +576,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -609,7 +614,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -636,7 +641,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -664,7 +669,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -692,7 +697,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -723,7 +728,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -757,7 +762,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create app", "", "App works", List.of(), List.of("src/App.java"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -795,7 +800,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("CODER", "Create app", "", "App works", List.of(), List.of("src/App.java"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -820,7 +825,7 @@ class PlanMissionNodeTest {
                                 List.of("cfmanifest.yml", "not-a-cf-manifest.yml"))
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -840,7 +845,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/index.js"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -878,7 +883,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -905,7 +910,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var props = new DeployerProperties();
         props.setSkipSslValidation(true);
@@ -948,7 +953,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         // Service name with YAML comment, anchor, alias, and tag markers
@@ -987,7 +992,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         // One binding has a valid instanceName, one has an empty instanceName
@@ -1018,7 +1023,7 @@ class PlanMissionNodeTest {
         var plan = new MissionPlan("Build app", "sequential", List.of(
                 new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("src/App.java"))
         ));
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         // Service name with spaces, colons, and special chars
@@ -1053,7 +1058,7 @@ class PlanMissionNodeTest {
                         new MissionPlan.TaskPlan("REVIEWER", "Review code", "", "Review done", List.of(), List.of())
                 )
         );
-        when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
+        when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class))).thenReturn(plan);
 
         var node = new PlanMissionNode(mockLlm, new DeployerProperties());
         var state = new WorldmindState(Map.of(
@@ -1077,4 +1082,40 @@ class PlanMissionNodeTest {
         // REVIEWER: depends on preceding CODER (TASK-003 is the injected CODER)
         assertEquals(List.of("TASK-003"), tasks.get(2).dependencies());
     }
+
+    @Test
+    @DisplayName("publishes each task as it is drafted when an EventBus is present")
+    @SuppressWarnings("unchecked")
+    void publishesDraftedTasks() {
+        var mockLlm = mock(LlmService.class);
+        var plan = new MissionPlan("Add endpoint", "sequential", List.of(
+                new MissionPlan.TaskPlan("CODER", "Create controller", "", "Works", List.of(), List.of())));
+        when(mockLlm.streamingStructuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<StreamingJsonParser.JsonFragment> onFragment = invocation.getArgument(5);
+                    new StreamingJsonParser(onFragment).feed("""
+                            {"objective":"Add endpoint","tasks":[{"agent":"CODER","description":"Create controller"}]}
+                            """);
+                    return plan;
+                });
+        var eventBus = new EventBus();
+        var events = new ArrayList<WorldmindEvent>();
+        eventBus.subscribeAll(events::add);
+
+        var node = new PlanMissionNode(mockLlm, new DeployerProperties(), eventBus);
+        node.apply(new WorldmindState(Map.of(
+                "missionId", "WMND-1",
+                "request", "Add endpoint",
+                "classification", new Classification("feature", 2, List.of("api"), "sequential", "java"),
+                "projectContext", new ProjectContext(".", List.of(), "java", "maven", Map.of(), 10, "test")
+        )));
+
+        assertEquals(1, events.size());
+        var event = events.get(0);
+        assertEquals("plan.task_drafted", event.eventType());
+        assertEquals("WMND-1", event.missionId());
+        assertEquals("TASK-001", event.taskId());
+        assertEquals("Create controller", ((Map<String, Object>) event.payload().get("task")).get("description"));
+        verify(mockLlm, never()).structuredCall(any(), any(), anyString(), anyString(), any());
+    }
 }
@@ -0,0 +1,117 @@
+package com.worldmind.core.quality_gate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgentOutputScannerTest {
+
+    @Test
+    void sumsMavenModuleSummariesIgnoringPerClassLines() {
+        String output = """
+                [INFO] Tests run: 3, Failures: 0, Errors: 0, Skipped: 0, Time elapsed: 0.1 s -- in a.FooTest
+                [INFO] Tests run: 4, Failures: 1, Errors: 1, Skipped: 0, Time elapsed: 0.2 s -- in a.BarTest
+                [INFO] Results:
+                [ERROR] Tests run: 7, Failures: 1, Errors: 1, Skipped: 0
+                [INFO] Tests run: 5, Failures: 0, Errors: 0, Skipped: 0
+                """;
+
+        var counts = AgentOutputScanner.scanTests(output);
+
+        assertEquals(new AgentOutputScanner.TestCounts("maven", 12, 2), counts);
+    }
+
+    @Test
+    void parsesJestSummary() {
+        String output = """
+                PASS src/a.test.js
+                FAIL src/b.test.js
+                Test Suites: 1 failed, 1 passed, 2 total
+                Tests:       1 failed, 4 passed, 5 total
+                """;
+
+        assertEquals(new AgentOutputScanner.TestCounts("jest", 5, 1), AgentOutputScanner.scanTests(output));
+    }
+
+    @Test
+    void countsGoVerboseResults() {
+        String output = """
+                === RUN   TestAdd
+                --- PASS: TestAdd (0.00s)
+                === RUN   TestSub
+                --- FAIL: TestSub (0.00s)
+                FAIL\texample.com/calc\t0.002s
+                """;
+
+        assertEquals(new AgentOutputScanner.TestCounts("go", 2, 1), AgentOutputScanner.scanTests(output));
+    }
+
+    @Test
+    void readsLastPytestSummaryLine() {
+        String output = """
+                agent: 2 passed earlier in a draft run
+                ========= 3 failed, 5 passed, 1 error in 0.52s =========
+                Goose: the test run passed review
+                """;
+
+        assertEquals(new AgentOutputScanner.TestCounts("pytest", 9, 4), AgentOutputScanner.scanTests(output));
+    }
+
+    @Test
+    void returnsNullWithoutTestSummary() {
+        assertNull(AgentOutputScanner.scanTests("All tests passed, nothing to report"));
+    }
+
+    @Test
+    void parsesReviewInRequestedFormat() {
+        String output = """
+                reading file src/Foo.java ...
+                **Score:** 7/10
+                **Approved:** yes
+                **Summary:** Implements the endpoint correctly.
+                **Issues:**
+                - Missing null check in Foo.bar
+                * Unused import
+                **Suggestions:**
+                1. Extract a helper
+                Session ended.
+                """;
+
+        var scan = AgentOutputScanner.scanReview(output);
+
+        assertTrue(scan.confident());
+        assertEquals(7, scan.score());
+        assertEquals("Implements the endpoint correctly.", scan.summary());
+        assertEquals(List.of("Missing null check in Foo.bar", "Unused import"), scan.issues());
+        assertEquals(List.of("Extract a helper"), scan.suggestions());
+    }
+
+    @Test
+    void treatsNoneAsEmptyList() {
+        String output = """
+                Score: 9/10
+                Summary: Clean change.
+                Issues: None
+                Suggestions: N/A
+                """;
+
+        var scan = AgentOutputScanner.scanReview(output);
+
+        assertTrue(scan.confident());
+        assertEquals(List.of(), scan.issues());
+        assertEquals(List.of(), scan.suggestions());
+    }
+
+    @Test
+    void scoreWithoutRestOfFormatIsNotConfident() {
+        String output = "Provide your review as:\nScore: X/10\n...\nOverall I'd say Score: 8/10, looks fine.\nScore: 8/10\n";
+
+        var scan = AgentOutputScanner.scanReview(output);
+
+        assertEquals(8, scan.score());
+        assertFalse(scan.confident());
+        assertNull(AgentOutputScanner.scanReview("Score: X/10 was requested"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.worldmind.core.scheduler;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import com.worldmind.core.model.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CriticalPathAnalyzerTest {
+
+    private Task task(String id, String agent, List<String> deps) {
+        return new Task(id, agent, "Do " + id, "", "Done", deps,
+                TaskStatus.PENDING, 0, 3, FailureStrategy.RETRY, List.of(), List.of(), null);
+    }
+
+    @Test
+    @DisplayName("Task heading a long chain outranks an independent task")
+    void chainHeadHasHighestWeight() {
+        var analyzer = new CriticalPathAnalyzer();
+        var tasks = List.of(
+                task("A", "CODER", List.of()),
+                task("B", "CODER", List.of("A")),
+                task("C", "CODER", List.of("B")),
+                task("X", "CODER", List.of())
+        );
+
+        var weights = analyzer.remainingPathWeights(tasks, Set.of());
+
+        assertEquals(3 * CriticalPathAnalyzer.DEFAULT_CODER_MS, weights.get("A"));
+        assertEquals(CriticalPathAnalyzer.DEFAULT_CODER_MS, weights.get("X"));
+        assertTrue(weights.get("A") > weights.get("B"));
+    }
+
+    @Test
+    @DisplayName("Completed tasks are excluded from the remaining path")
+    void completedTasksExcluded() {
+        var analyzer = new CriticalPathAnalyzer();
+        var tasks = List.of(task("A", "CODER", List.of()), task("B", "CODER", List.of("A")));
+
+        var weights = analyzer.remainingPathWeights(tasks, Set.of("A"));
+
+        assertFalse(weights.containsKey("A"));
+        assertEquals(CriticalPathAnalyzer.DEFAULT_CODER_MS, weights.get("B"));
+    }
+
+    @Test
+    @DisplayName("Agent-name dependencies link every task of that agent type")
+    void agentNameDependencies() {
+        var analyzer = new CriticalPathAnalyzer();
+        var tasks = List.of(
+                task("R1", "RESEARCHER", List.of()),
+                task("C1", "CODER", List.of("RESEARCHER"))
+        );
+
+        var weights = analyzer.remainingPathWeights(tasks, Set.of());
+
+        assertEquals(CriticalPathAnalyzer.DEFAULT_OTHER_MS + CriticalPathAnalyzer.DEFAULT_CODER_MS,
+                weights.get("R1"));
+    }
+
+    @Test
+    @DisplayName("Dependency cycles do not recurse forever")
+    void cyclesTerminate() {
+        var analyzer = new CriticalPathAnalyzer();
+        var tasks = List.of(task("A", "CODER", List.of("B")), task("B", "CODER", List.of("A")));
+
+        var weights = analyzer.remainingPathWeights(tasks, Set.of());
+
+        assertEquals(2, weights.size());
+    }
+
+    @Test
+    @DisplayName("Historical task duration replaces the default estimate")
+    void usesHistoricalDuration() {
+        var metrics = new WorldmindMetrics(new SimpleMeterRegistry());
+        metrics.recordTaskExecution("CODER", 10_000);
+        metrics.recordTaskExecution("CODER", 30_000);
+        var analyzer = new CriticalPathAnalyzer(metrics);
+
+        assertEquals(20_000, analyzer.estimateDurationMs(task("A", "CODER", List.of())));
+        assertEquals(CriticalPathAnalyzer.DEFAULT_OTHER_MS,
+                analyzer.estimateDurationMs(task("T", "TESTER", List.of())));
+    }
+}
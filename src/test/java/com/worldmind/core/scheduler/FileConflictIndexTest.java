@@ -0,0 +1,84 @@
+package com.worldmind.core.scheduler;
+
+import com.worldmind.core.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileConflictIndexTest {
+
+    private Task task(String id, List<String> targetFiles) {
+        return new Task(id, "CODER", "Do " + id, "", "Done", List.of(),
+                TaskStatus.PENDING, 0, 3, FailureStrategy.RETRY, targetFiles, List.of(), null);
+    }
+
+    @Test
+    @DisplayName("Exact, ./-prefixed and suffix paths overlap")
+    void suffixMatching() {
+        var index = FileConflictIndex.build(List.of(
+                task("A", List.of("src/main/java/Foo.java")),
+                task("B", List.of("./Bar.java"))
+        ));
+
+        assertEquals(Set.of("A"), index.overlappingOwners("src/main/java/Foo.java"));
+        assertEquals(Set.of("A"), index.overlappingOwners("./src/main/java/Foo.java"));
+        assertEquals(Set.of("A"), index.overlappingOwners("java/Foo.java"));
+        assertEquals(Set.of("A"), index.overlappingOwners("/workspace/src/main/java/Foo.java"));
+        assertEquals(Set.of("B"), index.overlappingOwners("lib/Bar.java"));
+    }
+
+    @Test
+    @DisplayName("Partial segment names do not overlap")
+    void segmentAligned() {
+        var index = FileConflictIndex.build(List.of(task("A", List.of("src/Foo.java"))));
+
+        assertTrue(index.overlappingOwners("src/MyFoo.java").isEmpty());
+        assertTrue(index.overlappingOwners("rc/Foo.java").isEmpty());
+        assertTrue(index.overlappingOwners("src").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Conflict graph links tasks sharing files")
+    void conflictGraph() {
+        var index = FileConflictIndex.build(List.of(
+                task("A", List.of("src/Shared.java", "src/A.java")),
+                task("B", List.of("Shared.java")),
+                task("C", List.of("src/C.java")),
+                task("D", List.of())
+        ));
+
+        assertEquals(Set.of("B"), index.conflictsOf("A"));
+        assertEquals(Set.of("A"), index.conflictsOf("B"));
+        assertTrue(index.conflictsOf("C").isEmpty());
+        assertTrue(index.conflictsOf("D").isEmpty());
+        assertTrue(index.conflictsWithAny("B", List.of("C", "A")));
+        assertFalse(index.conflictsWithAny("C", List.of("A", "B")));
+    }
+
+    @Test
+    @DisplayName("Conflict clusters are connected components of the conflict graph")
+    void clusters() {
+        var index = FileConflictIndex.build(List.of(
+                task("A", List.of("x/1.java")),
+                task("B", List.of("1.java", "y/2.java")),
+                task("C", List.of("2.java")),
+                task("D", List.of("z/3.java")),
+                task("E", List.of("w/4.java")),
+                task("F", List.of("4.java"))
+        ));
+
+        assertEquals(List.of(List.of("A", "B", "C"), List.of("E", "F")), index.conflictClusters());
+    }
+
+    @Test
+    @DisplayName("Empty plan builds an empty index")
+    void emptyPlan() {
+        var index = FileConflictIndex.build(List.of());
+        assertTrue(index.overlappingOwners("a.java").isEmpty());
+        assertTrue(index.conflictClusters().isEmpty());
+    }
+}
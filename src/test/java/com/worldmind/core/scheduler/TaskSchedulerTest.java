@@ -335,4 +335,49 @@ class TaskSchedulerTest {
         assertEquals(1, wave2.size());
         assertEquals("DEPLOY", wave2.get(0));
     }
+
+    // ── DAG mode: computeReadyTasks ──────────────────────────────────
+
+    @Test
+    @DisplayName("computeReadyTasks orders candidates by critical-path priority")
+    void readyTasksOrderedByPriority() {
+        var tasks = List.of(task("A", List.of()), task("B", List.of()), task("C", List.of()));
+        var priorities = java.util.Map.of("A", 100L, "B", 900L, "C", 500L);
+
+        var ready = scheduler.computeReadyTasks(tasks, Set.of(), Set.of(), 2, priorities);
+
+        assertEquals(List.of("B", "C"), ready);
+    }
+
+    @Test
+    @DisplayName("computeReadyTasks skips in-flight tasks and their file conflicts")
+    void readyTasksRespectInFlight() {
+        var tasks = List.of(
+                taskWithFiles("A", List.of(), List.of("src/Shared.java")),
+                taskWithFiles("B", List.of(), List.of("./src/Shared.java")),
+                taskWithFiles("C", List.of(), List.of("src/Other.java"))
+        );
+
+        var ready = scheduler.computeReadyTasks(tasks, Set.of(), Set.of("A"), 5, java.util.Map.of());
+
+        assertEquals(List.of("C"), ready);
+    }
+
+    @Test
+    @DisplayName("computeReadyTasks starts a dependent as soon as its dependency completes")
+    void readyTasksUnblockImmediately() {
+        var tasks = List.of(task("A", List.of()), task("B", List.of()), task("D", List.of("A")));
+
+        // A done while B is still running: D becomes ready without waiting for B
+        var ready = scheduler.computeReadyTasks(tasks, Set.of("A"), Set.of("B"), 1, java.util.Map.of());
+
+        assertEquals(List.of("D"), ready);
+    }
+
+    @Test
+    @DisplayName("computeReadyTasks returns nothing when no slots are free")
+    void readyTasksNoFreeSlots() {
+        var tasks = List.of(task("A", List.of()));
+        assertTrue(scheduler.computeReadyTasks(tasks, Set.of(), Set.of(), 0, java.util.Map.of()).isEmpty());
+    }
 }
@@ -0,0 +1,100 @@
+package com.worldmind.core.scheduler;
+
+import com.worldmind.core.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WavePackerTest {
+
+    private Task task(String id, List<String> targetFiles) {
+        return new Task(id, "CODER", "Do " + id, "", "Done", List.of(),
+                TaskStatus.PENDING, 0, 3, FailureStrategy.RETRY, targetFiles, List.of(), null);
+    }
+
+    @Test
+    @DisplayName("Prefers two non-conflicting tasks over one hub that conflicts with both")
+    void beatsGreedyPlanOrder() {
+        // HUB touches both files; greedy plan order would take HUB alone
+        var tasks = List.of(
+                task("HUB", List.of("a.java", "b.java")),
+                task("A", List.of("a.java")),
+                task("B", List.of("b.java"))
+        );
+        var index = FileConflictIndex.build(tasks);
+
+        var wave = WavePacker.pack(List.of("HUB", "A", "B"), Map.of(), index, 3);
+
+        assertEquals(List.of("A", "B"), wave);
+    }
+
+    @Test
+    @DisplayName("Heavier critical-path task wins a conflict")
+    void weightDecidesConflict() {
+        var tasks = List.of(task("A", List.of("x.java")), task("B", List.of("x.java")));
+        var index = FileConflictIndex.build(tasks);
+
+        var wave = WavePacker.pack(List.of("A", "B"), Map.of("A", 10L, "B", 50L), index, 2);
+
+        assertEquals(List.of("B"), wave);
+    }
+
+    @Test
+    @DisplayName("Respects the wave size limit and returns plan order")
+    void respectsLimit() {
+        var tasks = List.of(task("A", List.of()), task("B", List.of()), task("C", List.of()));
+        var index = FileConflictIndex.build(tasks);
+
+        var wave = WavePacker.pack(List.of("A", "B", "C"), Map.of("A", 1L, "B", 3L, "C", 2L), index, 2);
+
+        assertEquals(List.of("B", "C"), wave);
+    }
+
+    @Test
+    @DisplayName("Large candidate sets terminate deterministically")
+    void largeCandidateSet() {
+        var tasks = new ArrayList<Task>();
+        var ids = new ArrayList<String>();
+        var weights = new HashMap<String, Long>();
+        for (int i = 0; i < 200; i++) {
+            String id = String.format("T%03d", i);
+            tasks.add(task(id, List.of("f" + (i % 17) + ".java", "g" + (i % 23) + ".java")));
+            ids.add(id);
+            weights.put(id, (long) (i % 7) + 1);
+        }
+        var index = FileConflictIndex.build(tasks);
+
+        var first = WavePacker.pack(ids, weights, index, 10);
+        var second = WavePacker.pack(ids, weights, index, 10);
+
+        assertEquals(first, second);
+        assertFalse(first.isEmpty());
+        for (var id : first) {
+            assertFalse(index.conflictsWithAny(id, first.stream().filter(o -> !o.equals(id)).toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("computePackedWave only packs eligible tasks")
+    void schedulerPacksEligibleOnly() {
+        var scheduler = new TaskScheduler();
+        var tasks = List.of(
+                task("HUB", List.of("a.java", "b.java")),
+                task("A", List.of("a.java")),
+                task("B", List.of("b.java")),
+                new Task("D", "CODER", "Do D", "", "Done", List.of("A"),
+                        TaskStatus.PENDING, 0, 3, FailureStrategy.RETRY, List.of("d.java"), List.of(), null)
+        );
+
+        var wave = scheduler.computePackedWave(tasks, Set.of(), ExecutionStrategy.PARALLEL, 10, Map.of());
+
+        assertEquals(List.of("A", "B"), wave);
+    }
+}
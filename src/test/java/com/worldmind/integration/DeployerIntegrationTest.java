@@ -96,7 +96,7 @@ class DeployerIntegrationTest {
         @SuppressWarnings("unchecked")
         void fullPipelineSuccess() {
             // ── Phase 1: Planning ──────────────────────────────────────
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(helloWorldPlan());
 
             var planState = new WorldmindState(Map.of(
@@ -219,7 +219,7 @@ class DeployerIntegrationTest {
         @DisplayName("DEPLOYER task has correct dependencies on all CODER tasks")
         @SuppressWarnings("unchecked")
         void deployerDependsOnAllCoders() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(helloWorldPlan());
 
             var state = new WorldmindState(Map.of(
@@ -252,7 +252,7 @@ class DeployerIntegrationTest {
         @DisplayName("Manifest generated with all required fields for simple app")
         @SuppressWarnings("unchecked")
         void manifestGeneratedCorrectly() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(helloWorldPlan());
 
             var state = new WorldmindState(Map.of(
@@ -301,7 +301,7 @@ class DeployerIntegrationTest {
         @DisplayName("Route follows {mission-id}.apps.{domain} convention")
         @SuppressWarnings("unchecked")
         void routeFollowsConvention() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(helloWorldPlan());
 
             var state = new WorldmindState(Map.of(
@@ -328,7 +328,7 @@ class DeployerIntegrationTest {
         @DisplayName("Health check verification within configured timeout")
         @SuppressWarnings("unchecked")
         void healthCheckWithinTimeout() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(helloWorldPlan());
 
             var state = new WorldmindState(Map.of(
@@ -360,7 +360,7 @@ class DeployerIntegrationTest {
         @DisplayName("DEPLOYER instructions include CF auth commands with env var references")
         @SuppressWarnings("unchecked")
         void deployCfAuthCommands() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(helloWorldPlan());
 
             var state = new WorldmindState(Map.of(
@@ -388,7 +388,7 @@ class DeployerIntegrationTest {
         @DisplayName("DEPLOYER instructions include Maven build with wrapper fallback")
         @SuppressWarnings("unchecked")
         void deployMavenBuildWithFallback() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(helloWorldPlan());
 
             var state = new WorldmindState(Map.of(
@@ -538,7 +538,7 @@ class DeployerIntegrationTest {
         @DisplayName("Full pipeline with service binding: plan → deploy → success")
         @SuppressWarnings("unchecked")
         void fullPipelineWithServiceBinding() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(todoAppPlan());
 
             // Clarifying answers include PostgreSQL service binding
@@ -603,7 +603,7 @@ class DeployerIntegrationTest {
         @DisplayName("Service binding included in manifest with structured JSON format")
         @SuppressWarnings("unchecked")
         void serviceBindingInManifestStructuredJson() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(todoAppPlan());
 
             String clarifyingAnswers = String.format(
@@ -636,7 +636,7 @@ class DeployerIntegrationTest {
         @DisplayName("Service binding included in manifest with legacy comma-separated format")
         @SuppressWarnings("unchecked")
         void serviceBindingInManifestLegacyFormat() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(todoAppPlan());
 
             String clarifyingAnswers = "{\"cf_service_bindings\": \"test-todo-db, my-redis-cache\"}";
@@ -711,7 +711,7 @@ class DeployerIntegrationTest {
         @DisplayName("DEPLOYER depends on RESEARCHER and all CODER tasks")
         @SuppressWarnings("unchecked")
         void deployerDependsOnCoderNotResearcher() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(todoAppPlan());
 
             var state = new WorldmindState(Map.of(
@@ -927,7 +927,7 @@ class DeployerIntegrationTest {
 
             var customPlanNode = new PlanMissionNode(mockLlm, customProps);
 
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(new MissionPlan("App", "sequential", List.of(
                             new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("App.java"))
                     )));
@@ -958,7 +958,7 @@ class DeployerIntegrationTest {
         @DisplayName("Existing manifest used when CODER task targets manifest.yml")
         @SuppressWarnings("unchecked")
         void existingManifestUsedWhenCoderCreatesIt() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(new MissionPlan("App", "sequential", List.of(
                             new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("App.java")),
                             new MissionPlan.TaskPlan("CODER", "Create manifest", "", "Done", List.of(), List.of("manifest.yml"))
@@ -992,7 +992,7 @@ class DeployerIntegrationTest {
         @DisplayName("Clean up: DEPLOYER task cleanup tracked in task list")
         @SuppressWarnings("unchecked")
         void deployerTaskTrackedForCleanup() {
-            when(mockLlm.structuredCall(anyString(), anyString(), eq(MissionPlan.class)))
+            when(mockLlm.structuredCall(any(), any(), anyString(), anyString(), eq(MissionPlan.class)))
                     .thenReturn(new MissionPlan("App", "sequential", List.of(
                             new MissionPlan.TaskPlan("CODER", "Create app", "", "Done", List.of(), List.of("App.java"))
                     )));
@@ -0,0 +1,89 @@
+package com.worldmind.sandbox;
+
+import com.worldmind.core.model.FileRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeSetTest {
+
+    @Test
+    void pairsDeletedAndCreatedFilesWithSameContentAsRename() {
+        var changes = new ChangeSet();
+        changes.deleted("src/Old.java", 42L, 10);
+        changes.created("src/New.java", 42L, 10);
+        changes.created("src/Other.java", 7L, 3);
+
+        assertEquals(List.of(
+                new FileRecord("src/New.java", "renamed", 0, "src/Old.java"),
+                new FileRecord("src/Other.java", "created", 3)
+        ), changes.toRecords());
+    }
+
+    @Test
+    void emptyFilesAreNotPairedAsRenames() {
+        var changes = new ChangeSet();
+        changes.deleted("a/__init__.py", ChangeSet.EMPTY_CONTENT_HASH, 0);
+        changes.created("b/__init__.py", ChangeSet.EMPTY_CONTENT_HASH, 0);
+
+        assertEquals(List.of(
+                new FileRecord("a/__init__.py", "deleted", 0),
+                new FileRecord("b/__init__.py", "created", 0)
+        ), changes.toRecords());
+    }
+
+    @Test
+    void lineDeltaCountsAddedPlusRemovedLines() {
+        assertEquals(0, ChangeSet.lineDelta(new int[]{1, 2, 3}, new int[]{1, 2, 3}));
+        assertEquals(2, ChangeSet.lineDelta(new int[]{1, 2, 3}, new int[]{1, 9, 3}));
+        assertEquals(1, ChangeSet.lineDelta(new int[]{1, 2, 3}, new int[]{1, 2, 3, 4}));
+        assertEquals(3, ChangeSet.lineDelta(new int[]{1, 2, 3}, new int[]{}));
+        assertEquals(4, ChangeSet.lineDelta(new int[]{1, 2, 3, 4, 5}, new int[]{0, 2, 3, 5, 6}));
+    }
+
+    @Test
+    void lineDeltaTreatsVeryDifferentFilesAsRewritten() {
+        int[] before = IntStream.range(0, 5000).toArray();
+        int[] after = IntStream.range(10_000, 15_000).toArray();
+
+        assertEquals(10_000, ChangeSet.lineDelta(before, after));
+    }
+
+    @Test
+    void parsesGitRawNumstatOutput() {
+        // Output of: git diff --raw --numstat -z -M
+        String output = ":100644 100644 de98044 a7bc997 M\0a.txt\0"
+                + ":000000 100644 0000000 8ba3a16 A\0created.txt\0"
+                + ":100644 000000 b680253 0000000 D\0del.txt\0"
+                + ":100644 100644 b77b4eb b77b4eb R100\0old.txt\0new.txt\0"
+                + "2\t1\ta.txt\0"
+                + "1\t0\tcreated.txt\0"
+                + "0\t1\tdel.txt\0"
+                + "0\t0\t\0old.txt\0new.txt\0";
+
+        assertEquals(List.of(
+                new FileRecord("a.txt", "modified", 3),
+                new FileRecord("created.txt", "created", 1),
+                new FileRecord("del.txt", "deleted", 1),
+                new FileRecord("new.txt", "renamed", 0, "old.txt")
+        ), ChangeSet.fromGitDiff(output));
+    }
+
+    @Test
+    void parsesEmptyGitOutput() {
+        assertTrue(ChangeSet.fromGitDiff("").isEmpty());
+        assertTrue(ChangeSet.fromGitDiff(null).isEmpty());
+    }
+
+    @Test
+    void renamesOnlyRequiresUnchangedContent() {
+        assertTrue(FileRecord.renamesOnly(List.of(new FileRecord("b", "renamed", 0, "a"))));
+        assertFalse(FileRecord.renamesOnly(List.of(new FileRecord("b", "renamed", 4, "a"))));
+        assertFalse(FileRecord.renamesOnly(List.of(
+                new FileRecord("b", "renamed", 0, "a"), new FileRecord("c", "modified", 1))));
+        assertFalse(FileRecord.renamesOnly(List.of()));
+    }
+}
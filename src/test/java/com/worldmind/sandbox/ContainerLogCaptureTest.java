@@ -0,0 +1,173 @@
+package com.worldmind.sandbox;
+
+import com.worldmind.core.events.EventBus;
+import com.worldmind.core.events.WorldmindEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContainerLogCaptureTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong clock = new AtomicLong(0);
+    private EventBus eventBus;
+    private List<WorldmindEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new EventBus();
+        events = new CopyOnWriteArrayList<>();
+        eventBus.subscribeAll(events::add);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shortOutputIsKeptWhole() {
+        var capture = new ContainerLogCapture("M1", "TASK-001", "CODER", null, null, clock::get);
+        capture.append(bytes("hello "));
+        capture.append(bytes("world"));
+
+        assertEquals("hello world", capture.output());
+    }
+
+    @Test
+    void longOutputKeepsHeadAndTailAndSpillsEverything() throws IOException {
+        Path spill = tempDir.resolve("M1/TASK-001.log.gz");
+        var capture = new ContainerLogCapture("M1", "TASK-001", "CODER", null, spill, clock::get);
+        String full = "H".repeat(ContainerLogCapture.HEAD_CHARS)
+                + "m".repeat(10_000)
+                + "T".repeat(ContainerLogCapture.TAIL_CHARS);
+        for (int i = 0; i < full.length(); i += 1000) {
+            capture.append(bytes(full.substring(i, Math.min(full.length(), i + 1000))));
+        }
+        capture.finish();
+
+        String output = capture.output();
+        assertTrue(output.startsWith("H".repeat(ContainerLogCapture.HEAD_CHARS) + "\n"));
+        assertTrue(output.endsWith("\n" + "T".repeat(ContainerLogCapture.TAIL_CHARS)));
+        assertTrue(output.contains("[truncated 10000 chars; full log: " + spill + "]"));
+        assertFalse(output.contains("mm"));
+
+        try (var in = new GZIPInputStream(Files.newInputStream(spill))) {
+            assertEquals(full, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void publishesLogEventsAtMostOncePerInterval() {
+        var capture = new ContainerLogCapture("M1", "TASK-001", "CODER", eventBus, null, clock::get);
+
+        capture.append(bytes("line 1\n"));
+        capture.append(bytes("line 2\n"));
+        assertTrue(events.isEmpty());
+
+        clock.addAndGet(ContainerLogCapture.PUBLISH_INTERVAL_MS);
+        capture.append(bytes("line 3\n"));
+        assertEquals(1, events.size());
+        var event = events.getFirst();
+        assertEquals("task.log", event.eventType());
+        assertEquals("M1", event.missionId());
+        assertEquals("TASK-001", event.taskId());
+        assertEquals("line 1\nline 2\nline 3\n", event.payload().get("text"));
+        assertEquals(0L, event.payload().get("offset"));
+
+        capture.append(bytes("line 4\n"));
+        capture.finish();
+        assertEquals(2, events.size());
+        assertEquals("line 4\n", events.get(1).payload().get("text"));
+        assertEquals(21L, events.get(1).payload().get("offset"));
+    }
+
+    @Test
+    void flushIfDuePublishesHeldBackOutputWithoutFurtherAppends() {
+        var capture = new ContainerLogCapture("M1", "TASK-001", "CODER", eventBus, null, clock::get);
+        capture.append(bytes("last line\n"));
+
+        capture.flushIfDue();
+        assertTrue(events.isEmpty(), "Output within the interval should still be held back");
+
+        clock.addAndGet(ContainerLogCapture.PUBLISH_INTERVAL_MS);
+        capture.flushIfDue();
+        assertEquals(1, events.size());
+        assertEquals("last line\n", events.getFirst().payload().get("text"));
+
+        clock.addAndGet(ContainerLogCapture.PUBLISH_INTERVAL_MS);
+        capture.flushIfDue();
+        assertEquals(1, events.size(), "Nothing new to publish");
+    }
+
+    @Test
+    void floodsPublishOnlyTheNewestChunk() {
+        var capture = new ContainerLogCapture("M1", "TASK-001", "CODER", eventBus, null, clock::get);
+        capture.append(bytes("x".repeat(10_000)));
+        capture.append(bytes("end"));
+        capture.finish();
+
+        String text = (String) events.getFirst().payload().get("text");
+        assertEquals(ContainerLogCapture.PUBLISH_MAX_CHARS, text.length());
+        assertTrue(text.endsWith("end"));
+        assertEquals(10_003L - ContainerLogCapture.PUBLISH_MAX_CHARS, events.getFirst().payload().get("offset"));
+    }
+
+    @Test
+    void multibyteCharactersSplitAcrossFramesSurvive() {
+        var capture = new ContainerLogCapture("M1", "TASK-001", "CODER", null, null, clock::get);
+        byte[] utf8 = bytes("héllo ✓ 🚀");
+        for (int i = 0; i < utf8.length; i++) {
+            capture.append(Arrays.copyOfRange(utf8, i, i + 1));
+        }
+        capture.finish();
+
+        assertEquals("héllo ✓ 🚀", capture.output());
+    }
+
+    @Test
+    void truncatedCharacterAtEndOfStreamIsReplaced() {
+        var capture = new ContainerLogCapture("M1", "TASK-001", "CODER", null, null, clock::get);
+        byte[] check = bytes("✓");
+        capture.append(bytes("ok "));
+        capture.append(Arrays.copyOf(check, 2));
+        capture.finish();
+        capture.finish();
+
+        assertEquals("ok \uFFFD", capture.output());
+    }
+
+    @Test
+    void pruneDeletesExpiredLogsAndEmptyMissionDirectories() throws IOException {
+        Path old = Files.createDirectories(tempDir.resolve("M1")).resolve("TASK-001-1.log.gz");
+        Path recent = Files.createDirectories(tempDir.resolve("M2")).resolve("TASK-002-2.log.gz");
+        Path unrelated = tempDir.resolve("M2/notes.txt");
+        Files.write(old, new byte[]{1});
+        Files.write(recent, new byte[]{1});
+        Files.write(unrelated, new byte[]{1});
+        Files.setLastModifiedTime(old, FileTime.from(Instant.now().minus(Duration.ofDays(4))));
+
+        assertEquals(1, ContainerLogCapture.pruneSpillDir(tempDir, Duration.ofHours(72)));
+
+        assertFalse(Files.exists(tempDir.resolve("M1")));
+        assertTrue(Files.exists(recent));
+        assertTrue(Files.exists(unrelated));
+        assertTrue(Files.isDirectory(tempDir));
+    }
+}
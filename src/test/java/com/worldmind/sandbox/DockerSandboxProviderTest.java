@@ -1,6 +1,7 @@
 package com.worldmind.sandbox;
 
 import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.*;
 import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.HostConfig;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -319,6 +321,63 @@ class DockerSandboxProviderTest {
         assertDoesNotThrow(() -> provider.teardownSandbox("container-123"));
     }
 
+    // ── warm pool tests ────────────────────────────────────────────────
+
+    @Test
+    void warmContainerIsClaimedAndRunsAgentViaExec() throws Exception {
+        var pool = new WarmContainerPool(dockerClient, 2, null, System::currentTimeMillis, false);
+        var warmProvider = new DockerSandboxProvider(dockerClient, "ghcr.io/dbbaskette", "sandbox", pool, false, null, null,
+                Duration.ZERO);
+        mockCreateContainerCmd("warm-1");
+        when(dockerClient.startContainerCmd(anyString())).thenReturn(mock(StartContainerCmd.class));
+        when(dockerClient.pauseContainerCmd("warm-1")).thenReturn(mock(PauseContainerCmd.class));
+        when(dockerClient.unpauseContainerCmd("warm-1")).thenReturn(mock(UnpauseContainerCmd.class));
+
+        var execCreateCmd = mock(ExecCreateCmd.class, RETURNS_SELF);
+        when(dockerClient.execCreateCmd("warm-1")).thenReturn(execCreateCmd);
+        var execCreateResponse = mock(ExecCreateCmdResponse.class);
+        when(execCreateResponse.getId()).thenReturn("exec-1");
+        when(execCreateCmd.exec()).thenReturn(execCreateResponse);
+        var execStartCmd = mock(ExecStartCmd.class);
+        when(dockerClient.execStartCmd("exec-1")).thenReturn(execStartCmd);
+        doAnswer(invocation -> {
+            var callback = (ResultCallback.Adapter<?>) invocation.getArgument(0);
+            callback.onComplete();
+            return callback;
+        }).when(execStartCmd).exec(any());
+        var inspectExecCmd = mock(InspectExecCmd.class);
+        when(dockerClient.inspectExecCmd("exec-1")).thenReturn(inspectExecCmd);
+        var inspectExecResponse = mock(InspectExecResponse.class);
+        when(inspectExecResponse.getExitCodeLong()).thenReturn(0L);
+        when(inspectExecCmd.exec()).thenReturn(inspectExecResponse);
+        var removeCmd = mock(RemoveContainerCmd.class, RETURNS_SELF);
+        when(dockerClient.removeContainerCmd("warm-1")).thenReturn(removeCmd);
+
+        var request = new AgentRequest(
+            "reviewer", "TASK-010", Path.of("/tmp/project"),
+            "Review", Map.of("GOOSE_PROVIDER", "openai"),
+            4096, 2,
+            "", "java", 0
+        );
+
+        // First task misses and records demand; refill warms a container for the key
+        warmProvider.openSandbox(request);
+        var key = new WarmContainerPool.Key("java", "ghcr.io/dbbaskette/sandbox:java",
+                "/tmp/project", System.getenv("WORKSPACE_VOLUME"), 4096, 2);
+        pool.refill(key);
+        assertEquals(1, pool.idleCount(key));
+
+        String sandboxId = warmProvider.openSandbox(request);
+
+        assertEquals("warm-1", sandboxId);
+        verify(execCreateCmd).withEnv(List.of("GOOSE_PROVIDER=openai"));
+        assertEquals(0, warmProvider.waitForCompletion(sandboxId, 300));
+
+        warmProvider.teardownSandbox(sandboxId);
+        verify(dockerClient, never()).stopContainerCmd("warm-1");
+        verify(removeCmd).exec();
+    }
+
     // ── Helper methods ──────────────────────────────────────────────────
 
     /**
@@ -345,4 +404,24 @@ class DockerSandboxProviderTest {
         when(dockerClient.inspectImageCmd(anyString())).thenReturn(inspectCmd);
         when(inspectCmd.exec()).thenReturn(mock(InspectImageResponse.class));
     }
+
+    // ── resourceStats tests ─────────────────────────────────────────────
+
+    @Test
+    void resourceStatsReportsMemoryAndCpu() throws Exception {
+        var statistics = new com.fasterxml.jackson.databind.ObjectMapper().readValue("""
+                {"memory_stats": {"usage": 1048576, "limit": 4194304},
+                 "cpu_stats": {"cpu_usage": {"total_usage": 3000}, "system_cpu_usage": 20000, "online_cpus": 2},
+                 "precpu_stats": {"cpu_usage": {"total_usage": 1000}, "system_cpu_usage": 10000}}
+                """, com.github.dockerjava.api.model.Statistics.class);
+
+        var stats = DockerSandboxProvider.statsOf(statistics);
+
+        assertEquals(Map.of("memoryBytes", 1048576L, "memoryLimitBytes", 4194304L, "cpuPercent", 40.0), stats);
+    }
+
+    @Test
+    void resourceStatsIsEmptyWithoutSample() {
+        assertTrue(DockerSandboxProvider.statsOf(null).isEmpty());
+    }
 }
@@ -0,0 +1,118 @@
+package com.worldmind.sandbox;
+
+import com.worldmind.core.model.FileRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSnapshotEngineTest {
+
+    @TempDir
+    Path project;
+
+    private final FileSnapshotEngine engine = new FileSnapshotEngine();
+
+    @Test
+    void scanSkipsInternalDirectories() throws IOException {
+        Files.writeString(project.resolve("App.java"), "class App {}");
+        Files.createDirectories(project.resolve(".git"));
+        Files.writeString(project.resolve(".git/HEAD"), "ref");
+        Files.createDirectories(project.resolve("node_modules/x"));
+        Files.writeString(project.resolve("node_modules/x/index.js"), "");
+        Files.createDirectories(project.resolve("src"));
+        Files.writeString(project.resolve("src/Main.java"), "class Main {}");
+
+        var manifest = engine.scan(project);
+
+        assertEquals(List.of("App.java", "src/Main.java"), List.copyOf(manifest.entries().keySet()));
+    }
+
+    @Test
+    void touchedFileWithSameContentIsNotReported() throws IOException {
+        Path file = project.resolve("App.java");
+        Files.writeString(file, "class App {}");
+        var before = engine.scan(project).fingerprints();
+
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+        Files.writeString(project.resolve("New.java"), "class New {}");
+        var after = engine.scan(project).fingerprints();
+
+        assertEquals(List.of(new FileRecord("New.java", "created", 0)), FileSnapshotEngine.diff(before, after));
+    }
+
+    @Test
+    void modifiedContentIsReported() throws IOException {
+        Path file = project.resolve("App.java");
+        Files.writeString(file, "class App {}");
+        var before = engine.scan(project).fingerprints();
+
+        Files.writeString(file, "class App { int x; }");
+        var after = engine.scan(project).fingerprints();
+
+        assertEquals(List.of(new FileRecord("App.java", "modified", 0)), FileSnapshotEngine.diff(before, after));
+    }
+
+    @Test
+    void mergeOnlyHashesChangedFiles() {
+        var hashed = new ArrayList<String>();
+        Function<Collection<String>, Map<String, Long>> hasher = paths -> {
+            hashed.addAll(paths);
+            var result = new HashMap<String, Long>();
+            paths.forEach(p -> result.put(p, (long) p.hashCode()));
+            return result;
+        };
+
+        engine.merge("root", 10_000, Map.of(
+                "a.txt", new FileSnapshotEngine.Stat(1, 1000),
+                "b.txt", new FileSnapshotEngine.Stat(2, 1000)), hasher);
+        hashed.clear();
+        var manifest = engine.merge("root", 10_000, Map.of(
+                "a.txt", new FileSnapshotEngine.Stat(1, 1000),
+                "b.txt", new FileSnapshotEngine.Stat(3, 2000)), hasher);
+
+        assertEquals(List.of("b.txt"), hashed);
+        assertEquals(2, manifest.size());
+    }
+
+    @Test
+    void fileModifiedInSecondOfPreviousListingIsRehashed() {
+        var hashed = new ArrayList<String>();
+        Function<Collection<String>, Map<String, Long>> hasher = paths -> {
+            hashed.addAll(paths);
+            return Map.of();
+        };
+        // Whole-second mtimes, as listed by the sidecar
+        var stats = Map.of(
+                "old.txt", new FileSnapshotEngine.Stat(1, 4000),
+                "racy.txt", new FileSnapshotEngine.Stat(1, 5000));
+
+        engine.merge("root", 5_400, stats, hasher);
+        hashed.clear();
+        engine.merge("root", 9_000, stats, hasher);
+
+        assertEquals(List.of("racy.txt"), hashed);
+    }
+
+    @Test
+    void hashMatchesSha1sumPrefix() throws IOException {
+        // sha1("hello\n") = f572d396fae9206628714fb2ce00f72e94f2258f
+        long hash = FileSnapshotEngine.hash(new ByteArrayInputStream("hello\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(FileSnapshotEngine.fromHex("f572d396fae9206628714fb2ce00f72e94f2258f"), hash);
+    }
+}
@@ -151,6 +151,23 @@ class InstructionBuilderTest {
 
         assertTrue(instruction.contains("modified: src/Config.java (20 lines)"));
         assertTrue(instruction.contains("created: src/Props.java (10 lines)"));
+        assertTrue(instruction.contains("Total: 2 files, 30 lines added or removed"));
+    }
+
+    @Test
+    void reviewerShowsRenamesAndDeletions() {
+        var task = coderTask("TASK-203", "Move helpers");
+        var fileChanges = List.of(
+            new FileRecord("src/util/Strings.java", "renamed", 0, "src/Strings.java"),
+            new FileRecord("src/util/Dates.java", "renamed", 6, "src/Dates.java"),
+            new FileRecord("src/Legacy.java", "deleted", 40)
+        );
+
+        String instruction = InstructionBuilder.buildReviewerInstruction(task, sampleContext(), fileChanges, null);
+
+        assertTrue(instruction.contains("renamed: src/Strings.java -> src/util/Strings.java (content unchanged)"));
+        assertTrue(instruction.contains("renamed: src/Dates.java -> src/util/Dates.java (6 lines)"));
+        assertTrue(instruction.contains("deleted: src/Legacy.java (40 lines)"));
     }
 
     @Test
@@ -0,0 +1,163 @@
+package com.worldmind.sandbox;
+
+import com.worldmind.core.model.FileRecord;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleFileIndexTest {
+
+    @TempDir
+    Path project;
+
+    private MerkleFileIndex.Snapshot snapshot() {
+        return MerkleFileIndex.forRoot(project).refresh();
+    }
+
+    /** Commits the project's files, so the previous versions of modified files can be read. */
+    private void commitAll() throws Exception {
+        try (var git = Git.init().setDirectory(project.toFile()).call()) {
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("base").setAuthor("test", "test@example.com")
+                    .setCommitter("test", "test@example.com").setSign(false).call();
+        }
+    }
+
+    @Test
+    void reportsCreatedModifiedAndDeletedWithLineCounts() throws IOException {
+        Files.createDirectories(project.resolve("src/main"));
+        Files.writeString(project.resolve("src/main/App.java"), "a\nb\nc\n");
+        Files.writeString(project.resolve("src/main/Old.java"), "x\ny\n");
+        var before = snapshot();
+
+        Files.writeString(project.resolve("src/main/App.java"), "a\nb\nc\nd\ne");
+        Files.delete(project.resolve("src/main/Old.java"));
+        Files.createDirectories(project.resolve("docs"));
+        Files.writeString(project.resolve("docs/README.md"), "# Title\n");
+        var after = snapshot();
+
+        assertEquals(List.of(
+                new FileRecord("docs/README.md", "created", 1),
+                new FileRecord("src/main/App.java", "modified", 2),
+                new FileRecord("src/main/Old.java", "deleted", 2)
+        ), after.diff(before));
+    }
+
+    @Test
+    void reportsLinesAddedPlusRemovedForEdits() throws Exception {
+        Path file = project.resolve("App.java");
+        Files.writeString(file, "one\ntwo\nthree\nfour\n");
+        commitAll();
+        var before = snapshot();
+
+        Files.writeString(file, "one\nTWO\nthree\nfour\nfive\n");
+
+        assertEquals(List.of(new FileRecord("App.java", "modified", 3)), snapshot().diff(before));
+    }
+
+    @Test
+    void fallsBackToLineCountDeltaWithoutPreviousContent() throws Exception {
+        Path file = project.resolve("App.java");
+        Files.writeString(file, "one\ntwo\n");
+        commitAll();
+        // Edited after the commit, so HEAD no longer holds the snapshot's content
+        Files.writeString(file, "one\ntwo\nthree\nfour\n");
+        var before = snapshot();
+
+        Files.writeString(file, "ONE\ntwo\nthree\n");
+
+        assertEquals(List.of(new FileRecord("App.java", "modified", 1)), snapshot().diff(before));
+    }
+
+    @Test
+    void reportsMovedFileAsRename() throws IOException {
+        Files.createDirectories(project.resolve("src/old"));
+        Files.writeString(project.resolve("src/old/Util.java"), "class Util {}\n");
+        var before = snapshot();
+
+        Files.createDirectories(project.resolve("src/util"));
+        Files.move(project.resolve("src/old/Util.java"), project.resolve("src/util/Util.java"));
+
+        var changes = snapshot().diff(before);
+        assertEquals(List.of(new FileRecord("src/util/Util.java", "renamed", 0, "src/old/Util.java")), changes);
+        assertTrue(FileRecord.renamesOnly(changes));
+    }
+
+    @Test
+    void unchangedContentWithNewMtimeIsNotReported() throws IOException {
+        Path file = project.resolve("App.java");
+        Files.writeString(file, "class App {}\n");
+        var before = snapshot();
+
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(120)));
+
+        assertTrue(snapshot().diff(before).isEmpty());
+    }
+
+    @Test
+    void sameSizeRewriteWithinOneClockTickIsReported() throws Exception {
+        Path file = project.resolve("App.java");
+        Files.writeString(file, "int a = 1;\n");
+        commitAll();
+        FileTime written = Files.getLastModifiedTime(file);
+        var before = snapshot();
+
+        // Same size and, on a coarse filesystem clock, the same mtime
+        Files.writeString(file, "int a = 2;\n");
+        Files.setLastModifiedTime(file, written);
+
+        assertEquals(List.of(new FileRecord("App.java", "modified", 2)), snapshot().diff(before));
+    }
+
+    @Test
+    void keepsDotfilesButSkipsInternalDirectories() throws IOException {
+        Files.writeString(project.resolve(".gitignore"), "target/\n");
+        Files.createDirectories(project.resolve(".git"));
+        Files.writeString(project.resolve(".git/HEAD"), "ref: refs/heads/main\n");
+        Files.createDirectories(project.resolve("node_modules/lib"));
+        Files.writeString(project.resolve("node_modules/lib/index.js"), "");
+
+        var snapshot = snapshot();
+
+        assertEquals(List.of(".gitignore"), snapshot.paths(Set.of()));
+        assertEquals(1, snapshot.fileCount());
+    }
+
+    @Test
+    void persistsIndexUnderWorldmindDirectory() throws IOException {
+        Files.writeString(project.resolve("App.java"), "class App {}\n");
+
+        snapshot();
+
+        assertTrue(Files.isRegularFile(project.resolve(MerkleFileIndex.INDEX_FILE)));
+        assertFalse(snapshot().paths(Set.of()).stream().anyMatch(p -> p.startsWith(".worldmind")));
+    }
+
+    @Test
+    void pathsSkipIgnoredSubtrees() throws IOException {
+        Files.createDirectories(project.resolve("target/classes"));
+        Files.writeString(project.resolve("target/classes/App.class"), "");
+        Files.createDirectories(project.resolve("src"));
+        Files.writeString(project.resolve("src/App.java"), "");
+
+        assertEquals(List.of("src", "src/App.java"), snapshot().paths(Set.of("target")));
+    }
+
+    @Test
+    void missingRootYieldsEmptySnapshot() {
+        var snapshot = MerkleFileIndex.forRoot(project.resolve("missing")).refresh();
+
+        assertEquals(0, snapshot.fileCount());
+        assertFalse(Files.exists(project.resolve("missing")));
+    }
+}
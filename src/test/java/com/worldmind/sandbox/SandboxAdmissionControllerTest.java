@@ -0,0 +1,162 @@
+package com.worldmind.sandbox;
+
+import com.worldmind.core.metrics.WorldmindMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SandboxAdmissionControllerTest {
+
+    /** Starts a thread that acquires a permit, records its label, and holds it until closed. */
+    private Thread waiter(SandboxAdmissionController controller, String mission, String agent,
+                          String label, List<String> admitted, List<AutoCloseable> permits) {
+        Thread t = Thread.ofVirtual().start(() -> {
+            try {
+                var permit = controller.acquire(mission, agent);
+                admitted.add(label);
+                permits.add(permit);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return t;
+    }
+
+    private void awaitQueueDepth(SandboxAdmissionController controller, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (controller.queueDepth() != depth) {
+            if (System.nanoTime() > deadline) fail("queue depth never reached " + depth);
+            Thread.sleep(5);
+        }
+    }
+
+    private void releaseOneAndAwait(List<AutoCloseable> permits, List<String> admitted, int expected)
+            throws Exception {
+        permits.removeFirst().close();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admitted.size() < expected) {
+            if (System.nanoTime() > deadline) fail("no admission after release");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Admits immediately while under capacity")
+    void admitsUnderCapacity() throws Exception {
+        var controller = new SandboxAdmissionController(2, Map.of(), null);
+
+        var a = controller.acquire("M1", "CODER");
+        var b = controller.acquire("M2", "CODER");
+
+        assertEquals(2, controller.inUse());
+        a.close();
+        a.close();
+        assertEquals(1, controller.inUse());
+        b.close();
+        assertEquals(0, controller.inUse());
+    }
+
+    @Test
+    @DisplayName("Missions take turns instead of first-come-first-served")
+    void fairAcrossMissions() throws Exception {
+        var controller = new SandboxAdmissionController(1, Map.of(), null);
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        List<AutoCloseable> permits = new CopyOnWriteArrayList<>();
+        permits.add(controller.acquire("M0", "CODER"));
+
+        // Mission A floods the queue before mission B arrives
+        for (int i = 1; i <= 3; i++) {
+            waiter(controller, "A", "CODER", "A" + i, admitted, permits);
+            awaitQueueDepth(controller, i);
+        }
+        waiter(controller, "B", "CODER", "B1", admitted, permits);
+        awaitQueueDepth(controller, 4);
+
+        for (int i = 1; i <= 4; i++) releaseOneAndAwait(permits, admitted, i);
+
+        assertEquals(List.of("A1", "B1", "A2", "A3"), admitted);
+    }
+
+    @Test
+    @DisplayName("Quality-gate agents are admitted ahead of new implementation work")
+    void priorityClassFirst() throws Exception {
+        var controller = new SandboxAdmissionController(1, Map.of(), null);
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        List<AutoCloseable> permits = new CopyOnWriteArrayList<>();
+        permits.add(controller.acquire("M1", "CODER"));
+
+        waiter(controller, "M1", "CODER", "coder", admitted, permits);
+        awaitQueueDepth(controller, 1);
+        waiter(controller, "M1", "TESTER", "tester", admitted, permits);
+        awaitQueueDepth(controller, 2);
+
+        releaseOneAndAwait(permits, admitted, 1);
+
+        assertEquals(List.of("tester"), admitted);
+    }
+
+    @Test
+    @DisplayName("Agent quota holds back only that agent type")
+    void agentQuota() throws Exception {
+        var controller = new SandboxAdmissionController(4, Map.of("DEPLOYER", 1), null);
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        List<AutoCloseable> permits = new CopyOnWriteArrayList<>();
+        var deployer = controller.acquire("M1", "deployer");
+
+        waiter(controller, "M2", "DEPLOYER", "deployer", admitted, permits);
+        awaitQueueDepth(controller, 1);
+        var coder = controller.acquire("M2", "CODER");
+        assertEquals(2, controller.inUse());
+
+        deployer.close();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admitted.isEmpty() && System.nanoTime() < deadline) Thread.sleep(5);
+        assertEquals(List.of("deployer"), admitted);
+        coder.close();
+    }
+
+    @Test
+    @DisplayName("Interrupted waiter leaves the queue")
+    void interruptedWaiterLeavesQueue() throws Exception {
+        var controller = new SandboxAdmissionController(1, Map.of(), null);
+        var held = controller.acquire("M1", "CODER");
+        var interrupted = new CountDownLatch(1);
+
+        Thread t = Thread.ofVirtual().start(() -> {
+            try {
+                controller.acquire("M2", "CODER");
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        awaitQueueDepth(controller, 1);
+        t.interrupt();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(0, controller.queueDepth());
+        held.close();
+        assertEquals(0, controller.inUse());
+    }
+
+    @Test
+    @DisplayName("Queue depth and in-use counts are exported as gauges")
+    void registersGauges() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        var controller = new SandboxAdmissionController(2, Map.of(), new WorldmindMetrics(registry));
+
+        var permit = controller.acquire("M1", "CODER");
+
+        assertEquals(1.0, registry.find("worldmind.sandbox.admission.in_use").gauge().value());
+        assertEquals(0.0, registry.find("worldmind.sandbox.admission.queue_depth").gauge().value());
+        assertEquals(1, registry.find("worldmind.sandbox.admission.wait").tag("agent", "CODER").timer().count());
+        permit.close();
+    }
+}
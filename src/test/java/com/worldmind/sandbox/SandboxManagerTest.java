@@ -132,4 +132,18 @@ class SandboxManagerTest {
         assertEquals("existing.py", changes.get(0).path());
         assertEquals("modified", changes.get(0).action());
     }
+
+    @Test
+    void detectFileChangesFindsDeletedFilesAndKeepsDotfiles(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("obsolete.py"), "a\nb\n");
+        var before = SandboxManager.snapshotFiles(tempDir);
+        Files.delete(tempDir.resolve("obsolete.py"));
+        Files.writeString(tempDir.resolve(".gitignore"), "target/\n");
+        var changes = SandboxManager.detectChanges(before, tempDir);
+
+        assertEquals(List.of(
+                new FileRecord(".gitignore", "created", 1),
+                new FileRecord("obsolete.py", "deleted", 2)
+        ), changes);
+    }
 }
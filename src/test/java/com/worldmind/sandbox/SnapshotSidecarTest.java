@@ -0,0 +1,32 @@
+package com.worldmind.sandbox;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotSidecarTest {
+
+    @Test
+    void parsesStatListing() {
+        var stats = SnapshotSidecar.parseStatListing("""
+                12 1700000000 /scan/src/App.java
+                0 1700000001 /scan/with space.txt
+                garbage
+                """);
+
+        assertEquals(2, stats.size());
+        assertEquals(new FileSnapshotEngine.Stat(12, 1_700_000_000_000L), stats.get("src/App.java"));
+        assertEquals(new FileSnapshotEngine.Stat(0, 1_700_000_001_000L), stats.get("with space.txt"));
+    }
+
+    @Test
+    void parsesSha1sumOutput() {
+        var hashes = SnapshotSidecar.parseHashListing("""
+                f572d396fae9206628714fb2ce00f72e94f2258f  /scan/hello.txt
+                \\f572d396fae9206628714fb2ce00f72e94f2258f  /scan/odd\\nname
+                """);
+
+        assertEquals(1, hashes.size());
+        assertEquals(FileSnapshotEngine.fromHex("f572d396fae9206628714fb2ce00f72e94f2258f"), hashes.get("hello.txt"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.worldmind.sandbox;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.*;
+import com.worldmind.core.metrics.WorldmindMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class WarmContainerPoolTest {
+
+    private static final WarmContainerPool.Key KEY = new WarmContainerPool.Key(
+            "base", "ghcr.io/dbbaskette/sandbox:base", "/tmp/project", null, 4096, 2);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final AtomicInteger created = new AtomicInteger();
+    private DockerClient dockerClient;
+    private RemoveContainerCmd removeCmd;
+
+    @BeforeEach
+    void setUp() {
+        dockerClient = mock(DockerClient.class);
+        var createCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+        when(dockerClient.createContainerCmd(anyString())).thenReturn(createCmd);
+        when(createCmd.exec()).thenAnswer(inv -> {
+            var response = mock(CreateContainerResponse.class);
+            when(response.getId()).thenReturn("warm-" + created.incrementAndGet());
+            return response;
+        });
+        when(dockerClient.startContainerCmd(anyString())).thenReturn(mock(StartContainerCmd.class));
+        when(dockerClient.pauseContainerCmd(anyString())).thenReturn(mock(PauseContainerCmd.class));
+        when(dockerClient.unpauseContainerCmd(anyString())).thenReturn(mock(UnpauseContainerCmd.class));
+        removeCmd = mock(RemoveContainerCmd.class, RETURNS_SELF);
+        when(dockerClient.removeContainerCmd(anyString())).thenReturn(removeCmd);
+    }
+
+    private WarmContainerPool pool(int max, WorldmindMetrics metrics) {
+        return new WarmContainerPool(dockerClient, max, metrics, clock::get, false);
+    }
+
+    @Test
+    void targetSizeFollowsRecentClaimsUpToMax() {
+        var pool = pool(2, null);
+        assertEquals(0, pool.targetSize(KEY));
+
+        pool.claim(KEY);
+        assertEquals(1, pool.targetSize(KEY));
+        pool.claim(KEY);
+        pool.claim(KEY);
+        assertEquals(2, pool.targetSize(KEY));
+
+        clock.addAndGet(WarmContainerPool.DEMAND_WINDOW_MS + 1);
+        assertEquals(0, pool.targetSize(KEY));
+    }
+
+    @Test
+    void refillWarmsPausedContainersAndClaimUnpauses() {
+        var pool = pool(4, null);
+        pool.claim(KEY);
+        pool.claim(KEY);
+
+        pool.refill(KEY);
+
+        assertEquals(2, pool.idleCount(KEY));
+        verify(dockerClient, times(2)).pauseContainerCmd(anyString());
+
+        String claimed = pool.claim(KEY);
+        assertEquals("warm-1", claimed);
+        verify(dockerClient).unpauseContainerCmd("warm-1");
+        assertEquals(1, pool.idleCount(KEY));
+    }
+
+    @Test
+    void maintainDrainsIdleKeys() {
+        var pool = pool(4, null);
+        pool.claim(KEY);
+        pool.refill(KEY);
+        assertEquals(1, pool.idleCount(KEY));
+
+        clock.addAndGet(WarmContainerPool.DEMAND_WINDOW_MS + 1);
+        pool.maintain();
+
+        assertEquals(0, pool.idleCount(KEY));
+        verify(dockerClient).removeContainerCmd("warm-1");
+    }
+
+    @Test
+    void claimsAreCountedAsHitsAndMisses() {
+        var registry = new SimpleMeterRegistry();
+        var pool = pool(2, new WorldmindMetrics(registry));
+
+        pool.claim(KEY);
+        pool.refill(KEY);
+        pool.claim(KEY);
+
+        assertEquals(1.0, registry.find("worldmind.sandbox.warm_pool.claims")
+                .tag("runtime", "base").tag("result", "miss").counter().count());
+        assertEquals(1.0, registry.find("worldmind.sandbox.warm_pool.claims")
+                .tag("runtime", "base").tag("result", "hit").counter().count());
+    }
+}
@@ -1,6 +1,8 @@
 package com.worldmind.sandbox;
 
+import com.worldmind.core.metrics.WorldmindMetrics;
 import com.worldmind.sandbox.cf.GitWorkspaceManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -221,4 +223,79 @@ class WorktreeExecutionContextTest {
         context.createMissionWorkspace("MISSION-002", "https://github.com/test/repo2.git");
         assertEquals(2, context.getActiveMissionCount());
     }
+
+    // --- Worktree pool ---
+
+    @Test
+    void pooledWorktreesAreHandedOutAndResetOnRelease() {
+        Path workspacePath = Path.of("/tmp/workspace");
+        Path pooled = Path.of("/tmp/worktree-workspace-1");
+        var registry = new SimpleMeterRegistry();
+        var pooling = new WorktreeExecutionContext(gitWorkspaceManager, new WorldmindMetrics(registry), 1);
+
+        when(gitWorkspaceManager.createMissionWorkspace(anyString(), anyString())).thenReturn(workspacePath);
+        when(gitWorkspaceManager.addPooledWorktree(workspacePath, 1, "main"))
+                .thenReturn(GitWorkspaceManager.WorktreeResult.success(pooled));
+        when(gitWorkspaceManager.checkoutTaskBranch(eq(pooled), anyString())).thenReturn(true);
+        when(gitWorkspaceManager.resetWorktree(pooled, "main")).thenReturn(true);
+
+        pooling.createMissionWorkspace("MISSION-001", "https://github.com/test/repo.git");
+        assertEquals(pooled, pooling.acquireWorktree("MISSION-001", "TASK-001", "main"));
+        pooling.releaseWorktree("MISSION-001", "TASK-001");
+        assertEquals(pooled, pooling.acquireWorktree("MISSION-001", "TASK-002", "main"));
+
+        verify(gitWorkspaceManager).resetWorktree(pooled, "main");
+        verify(gitWorkspaceManager, never()).addWorktree(any(), any(), any());
+        verify(gitWorkspaceManager, never()).removeWorktree(any(), any());
+        assertEquals(2.0, registry.find("worldmind.parallel.worktree_pool.claims")
+                .tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void exhaustedPoolFallsBackToDedicatedWorktree() {
+        Path workspacePath = Path.of("/tmp/workspace");
+        Path pooled = Path.of("/tmp/worktree-workspace-1");
+        Path dedicated = Path.of("/tmp/worktree-TASK-002");
+        var registry = new SimpleMeterRegistry();
+        var pooling = new WorktreeExecutionContext(gitWorkspaceManager, new WorldmindMetrics(registry), 1);
+
+        when(gitWorkspaceManager.createMissionWorkspace(anyString(), anyString())).thenReturn(workspacePath);
+        when(gitWorkspaceManager.addPooledWorktree(workspacePath, 1, "main"))
+                .thenReturn(GitWorkspaceManager.WorktreeResult.success(pooled));
+        when(gitWorkspaceManager.checkoutTaskBranch(pooled, "TASK-001")).thenReturn(true);
+        when(gitWorkspaceManager.addWorktree(workspacePath, "TASK-002", "main"))
+                .thenReturn(GitWorkspaceManager.WorktreeResult.success(dedicated));
+        when(gitWorkspaceManager.removeWorktree(workspacePath, "TASK-002")).thenReturn(true);
+
+        pooling.createMissionWorkspace("MISSION-001", "https://github.com/test/repo.git");
+        pooling.acquireWorktree("MISSION-001", "TASK-001", "main");
+        assertEquals(dedicated, pooling.acquireWorktree("MISSION-001", "TASK-002", "main"));
+        pooling.releaseWorktree("MISSION-001", "TASK-002");
+
+        verify(gitWorkspaceManager).removeWorktree(workspacePath, "TASK-002");
+        assertEquals(1.0, registry.find("worldmind.parallel.worktree_pool.claims")
+                .tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void worktreeThatCannotBeResetLeavesThePool() {
+        Path workspacePath = Path.of("/tmp/workspace");
+        Path pooled = Path.of("/tmp/worktree-workspace-1");
+        var pooling = new WorktreeExecutionContext(gitWorkspaceManager, null, 1);
+
+        when(gitWorkspaceManager.createMissionWorkspace(anyString(), anyString())).thenReturn(workspacePath);
+        when(gitWorkspaceManager.addPooledWorktree(workspacePath, 1, "main"))
+                .thenReturn(GitWorkspaceManager.WorktreeResult.success(pooled));
+        when(gitWorkspaceManager.checkoutTaskBranch(pooled, "TASK-001")).thenReturn(true);
+        when(gitWorkspaceManager.resetWorktree(pooled, "main")).thenReturn(false);
+        when(gitWorkspaceManager.addWorktree(workspacePath, "TASK-002", "main"))
+                .thenReturn(GitWorkspaceManager.WorktreeResult.success(Path.of("/tmp/worktree-TASK-002")));
+
+        pooling.createMissionWorkspace("MISSION-001", "https://github.com/test/repo.git");
+        pooling.acquireWorktree("MISSION-001", "TASK-001", "main");
+        pooling.releaseWorktree("MISSION-001", "TASK-001");
+        pooling.acquireWorktree("MISSION-001", "TASK-002", "main");
+
+        verify(gitWorkspaceManager).addWorktree(workspacePath, "TASK-002", "main");
+    }
 }
@@ -0,0 +1,163 @@
+package com.worldmind.sandbox.cf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.worldmind.core.metrics.WorldmindMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link CfApiClient} against a local HTTP server standing in for the
+ * Cloud Controller and UAA.
+ */
+class CfApiClientTest {
+
+    private static final String TASK_GUID = "0f8c9b3e-1d2a-4c5b-8e7f-123456789abc";
+
+    private HttpServer server;
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final AtomicInteger taskRequests = new AtomicInteger();
+    private final List<String> listQueries = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry registry;
+    private CfApiClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        server.createContext("/oauth/token", exchange -> {
+            tokenRequests.incrementAndGet();
+            respond(exchange, "{\"access_token\":\"token-1\",\"expires_in\":3600}");
+        });
+        server.createContext("/v3/tasks", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            if (query != null) {
+                listQueries.add(query);
+                var resources = new ArrayList<String>();
+                for (String guid : query.replaceAll(".*guids=([^&]*).*", "$1").split(",")) {
+                    resources.add("{\"guid\":\"" + guid + "\",\"state\":\"RUNNING\"}");
+                }
+                respond(exchange, "{\"resources\":[" + String.join(",", resources) + "]}");
+                return;
+            }
+            taskRequests.incrementAndGet();
+            sleep(300);
+            respond(exchange, "{\"guid\":\"" + TASK_GUID + "\",\"state\":\"SUCCEEDED\"}");
+        });
+        server.createContext("/", exchange ->
+                respond(exchange, "{\"links\":{\"uaa\":{\"href\":\"" + baseUrl + "\"}}}"));
+        server.start();
+
+        var cfProperties = new CloudFoundryProperties();
+        cfProperties.setApiUrl(baseUrl);
+        cfProperties.setCfUsername("admin");
+        cfProperties.setCfPassword("secret");
+        registry = new SimpleMeterRegistry();
+        client = new CfApiClient(cfProperties, new WorldmindMetrics(registry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneRequestAndOneToken() throws Exception {
+        int callers = 8;
+        var pool = Executors.newFixedThreadPool(callers);
+        var start = new CountDownLatch(1);
+        var results = new ArrayList<Future<String>>();
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return client.getTaskState(TASK_GUID);
+            }));
+        }
+        start.countDown();
+        for (Future<String> result : results) {
+            assertEquals("SUCCEEDED", result.get());
+        }
+        pool.shutdown();
+
+        assertEquals(1, taskRequests.get(), "Identical in-flight GETs should be coalesced");
+        assertEquals(1, tokenRequests.get(), "Only one caller should fetch the token");
+
+        client.getTaskState(TASK_GUID);
+        assertEquals(2, taskRequests.get(), "Completed GETs must not be served from the coalescer");
+    }
+
+    @Test
+    void getTaskStatesBatchesGuidsIntoListQueries() {
+        var guids = IntStream.range(0, CfApiClient.TASK_GUIDS_PER_REQUEST + 20)
+                .mapToObj(i -> "guid-" + i)
+                .toList();
+
+        Map<String, String> states = client.getTaskStates(guids);
+
+        assertEquals(guids.size(), states.size());
+        assertEquals("RUNNING", states.get("guid-0"));
+        assertEquals(2, listQueries.size(), "Should send one list query per batch: " + listQueries);
+        assertEquals(0, taskRequests.get());
+    }
+
+    @Test
+    void recordsLatencyPerEndpointTemplate() {
+        client.getTaskState(TASK_GUID);
+
+        var timer = registry.find("worldmind.cf.api.requests")
+                .tag("method", "GET")
+                .tag("endpoint", "/v3/tasks/{guid}")
+                .tag("status", "200")
+                .timer();
+        assertNotNull(timer, "Should time the task request by endpoint template");
+        assertEquals(1, timer.count());
+        assertNotNull(registry.find("worldmind.cf.api.requests").tag("endpoint", "/oauth/token").timer());
+    }
+
+    @Test
+    void endpointOfStripsGuidsAndQuery() {
+        assertEquals("/v3/tasks/{guid}/actions/cancel",
+                CfApiClient.endpointOf("/v3/tasks/" + TASK_GUID + "/actions/cancel"));
+        assertEquals("/v3/apps/{guid}/tasks",
+                CfApiClient.endpointOf("/v3/apps/" + TASK_GUID + "/tasks?names=x&per_page=1"));
+        assertEquals("/v3/tasks", CfApiClient.endpointOf("/v3/tasks?guids=a,b"));
+    }
+
+    // --- helpers ---
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,15 +2,21 @@ package com.worldmind.sandbox.cf;
 
 import com.worldmind.sandbox.InstructionStore;
 import com.worldmind.sandbox.OutputStore;
+import com.worldmind.sandbox.AgentDispatcher;
 import com.worldmind.sandbox.AgentRequest;
+import com.worldmind.sandbox.TaskCompletionNotifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,6 +31,7 @@ class CloudFoundrySandboxProviderTest {
     private CloudFoundrySandboxProvider provider;
     private StubCfApiClient stubApiClient;
     private CloudFoundryProperties cfProperties;
+    private TaskCompletionNotifier completionNotifier;
 
     @BeforeEach
     void setUp() {
@@ -48,7 +55,9 @@ class CloudFoundrySandboxProviderTest {
         stubApiClient = new StubCfApiClient(cfProperties);
         var instructionStore = new InstructionStore();
         var outputStore = new OutputStore();
-        provider = new CloudFoundrySandboxProvider(cfProperties, gitWorkspaceManager, stubApiClient, instructionStore, outputStore);
+        completionNotifier = new TaskCompletionNotifier();
+        provider = new CloudFoundrySandboxProvider(cfProperties, gitWorkspaceManager, stubApiClient, instructionStore, outputStore,
+                completionNotifier);
     }
 
     // --- openSandbox tests ---
@@ -107,6 +116,21 @@ class CloudFoundrySandboxProviderTest {
                 "Should export MCP token env var: " + call.command);
     }
 
+    @Test
+    void openSandboxStartsFromBaseTaskBranchWhenSpeculative() {
+        var request = new AgentRequest(
+                "coder", "TASK-002", Path.of("/tmp/project"),
+                "Build something", Map.of(AgentDispatcher.BASE_TASK_ENV, "TASK-001"),
+                4096, 2, "", "base", 0
+        );
+
+        provider.openSandbox(request);
+
+        var call = stubApiClient.createTaskCalls.get(0);
+        assertTrue(call.command.contains("git fetch origin worldmind/TASK-001 && git checkout -b worldmind/TASK-002 FETCH_HEAD"),
+                "Should branch from the base task's branch: " + call.command);
+    }
+
     @Test
     void openSandboxReturnsCorrectTaskNameFormat() {
         var request = makeRequest("coder", "TASK-001");
@@ -225,6 +249,92 @@ class CloudFoundrySandboxProviderTest {
                 "Should have polled at least 3 times, got " + stubApiClient.getTaskStateCalls);
     }
 
+    @Test
+    void waitForCompletionReturnsAsSoonAsAgentCallsBack() {
+        var sandboxId = provider.openSandbox(makeRequest("coder", "TASK-001"));
+        var attemptId = attemptOf(stubApiClient.createTaskCalls.get(0).command);
+        CompletableFuture.runAsync(() -> completionNotifier.complete(attemptId, 2),
+                CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+
+        long start = System.currentTimeMillis();
+        int result = provider.waitForCompletion(sandboxId, 30);
+
+        assertEquals(2, result);
+        assertTrue(System.currentTimeMillis() - start < CloudFoundrySandboxProvider.POLL_INTERVAL_SECONDS * 1000L,
+                "Callback should not wait for the next poll");
+        assertEquals(0, completionNotifier.size(), "Waiter should drop its completion entry");
+    }
+
+    @Test
+    void lateCompletionOfEarlierAttemptDoesNotCompleteRetry() {
+        var sandboxId = provider.openSandbox(makeRequest("coder", "TASK-001"));
+        var firstAttempt = attemptOf(stubApiClient.createTaskCalls.get(0).command);
+        assertEquals(-1, provider.waitForCompletion(sandboxId, 0));
+
+        // The first attempt calls back after its waiter gave up
+        assertFalse(completionNotifier.complete(firstAttempt, 0));
+        assertFalse(completionNotifier.complete(sandboxId, 0));
+
+        assertEquals(sandboxId, provider.openSandbox(makeRequest("coder", "TASK-001")));
+        var secondAttempt = attemptOf(stubApiClient.createTaskCalls.get(1).command);
+        assertNotEquals(firstAttempt, secondAttempt);
+        assertFalse(completionNotifier.complete(firstAttempt, 0));
+        assertEquals(-1, provider.waitForCompletion(sandboxId, 1),
+                "The retry should wait for its own task, not reuse the earlier exit code");
+        assertEquals(0, completionNotifier.size());
+    }
+
+    @Test
+    void resourceStatsReportsAllocatedLimitsUntilTeardown() {
+        var sandboxId = provider.openSandbox(makeRequest("coder", "TASK-001"));
+
+        assertEquals(Map.of("memoryLimitMb", 4096, "diskLimitMb", 4096), provider.resourceStats(sandboxId));
+
+        provider.teardownSandbox(sandboxId);
+        assertTrue(provider.resourceStats(sandboxId).isEmpty());
+    }
+
+    @Test
+    void teardownDropsPendingCompletion() {
+        var sandboxId = provider.openSandbox(makeRequest("coder", "TASK-001"));
+        var attemptId = attemptOf(stubApiClient.createTaskCalls.get(0).command);
+
+        provider.teardownSandbox(sandboxId);
+
+        assertEquals(0, completionNotifier.size());
+        assertFalse(completionNotifier.complete(attemptId, 0));
+    }
+
+    @Test
+    void waitForCompletionUsesBatchedPollForLaunchedTasks() {
+        var sandboxId = provider.openSandbox(makeRequest("coder", "TASK-001"));
+        stubApiClient.taskStatesByGuid = Map.of("fake-task-guid", "FAILED");
+
+        int result = provider.waitForCompletion(sandboxId, 30);
+
+        assertEquals(1, result);
+        assertEquals(0, stubApiClient.getTaskStateCalls, "Launched tasks should not be polled one by one");
+        assertEquals(List.of(List.of("fake-task-guid")), stubApiClient.getTaskStatesCalls);
+    }
+
+    @Test
+    void agentCommandReportsExitCodeAfterPushingBranch() {
+        provider.openSandbox(makeRequest("coder", "TASK-001"));
+
+        var command = stubApiClient.createTaskCalls.get(0).command;
+        int push = command.indexOf("git push -uf origin worldmind/TASK-001");
+        int callback = command.indexOf("/api/internal/output/sandbox-coder-TASK-001?attempt=");
+        assertTrue(push > 0, "Should push the task branch: " + command);
+        assertTrue(callback > push, "Should call back with the exit code after the push: " + command);
+        assertTrue(command.indexOf("&exitCode='$GOOSE_RC") > callback, "Should report the exit code: " + command);
+    }
+
+    private static String attemptOf(String command) {
+        var matcher = java.util.regex.Pattern.compile("\\?attempt=([^&']+)").matcher(command);
+        assertTrue(matcher.find(), "Should call back with an attempt id: " + command);
+        return matcher.group(1);
+    }
+
     // --- captureOutput tests ---
 
     @Test
@@ -638,6 +748,8 @@ class CloudFoundrySandboxProviderTest {
         String taskState = "RUNNING";
         List<String> taskStateSequence = null;
         int getTaskStateCalls = 0;
+        Map<String, String> taskStatesByGuid = Map.of();
+        final List<List<String>> getTaskStatesCalls = new CopyOnWriteArrayList<>();
 
         String failureReason = "";
 
@@ -665,6 +777,16 @@ class CloudFoundrySandboxProviderTest {
             return taskState;
         }
 
+        @Override
+        public Map<String, String> getTaskStates(Collection<String> taskGuids) {
+            getTaskStatesCalls.add(List.copyOf(taskGuids));
+            var states = new HashMap<String, String>();
+            for (String guid : taskGuids) {
+                states.put(guid, taskStatesByGuid.getOrDefault(guid, "RUNNING"));
+            }
+            return states;
+        }
+
         @Override
         public String getTaskFailureReason(String appName, String taskName) {
             if (throwOnGetFailureReason) {
@@ -13,7 +13,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * Unit tests for {@link GitWorkspaceManager}.
  *
  * <p>Uses a test subclass to intercept git commands, allowing us to verify
- * command construction and test diff stat parsing without a real git repo.
+ * command construction and test diff parsing without a real git repo.
  */
 class GitWorkspaceManagerTest {
 
@@ -67,78 +67,93 @@ class GitWorkspaceManagerTest {
                 manager.prepareBranch("MISSION-001", Path.of("/tmp/project")));
     }
 
-    // --- detectChanges (diff stat parsing) ---
+    // --- detectChanges (raw + numstat parsing) ---
 
     @Test
-    void detectChangesParsesDiffStatModifiedFiles() {
-        var diffOutput = " src/main/Foo.java | 15 +++---\n" +
-                         " src/main/Bar.java |  3 ++-\n" +
-                         " 2 files changed, 12 insertions(+), 6 deletions(-)";
+    void detectChangesParsesModifiedFiles() {
+        var diffOutput = ":100644 100644 aaa1111 bbb2222 M\0src/main/Foo.java\0" +
+                         ":100644 100644 ccc3333 ddd4444 M\0src/main/Bar.java\0" +
+                         "12\t3\tsrc/main/Foo.java\0" +
+                         "2\t1\tsrc/main/Bar.java\0";
 
         manager.setExitCode(0);
         manager.setGitOutput(diffOutput);
         var changes = manager.detectChanges("MISSION-001", "abc123", Path.of("/tmp/project"));
 
         assertEquals(2, changes.size());
-        assertEquals("src/main/Foo.java", changes.get(0).path());
+        assertEquals("src/main/Bar.java", changes.get(0).path());
         assertEquals("modified", changes.get(0).action());
-        assertEquals(15, changes.get(0).linesChanged());
-        assertEquals("src/main/Bar.java", changes.get(1).path());
+        assertEquals(3, changes.get(0).linesChanged());
+        assertEquals("src/main/Foo.java", changes.get(1).path());
         assertEquals("modified", changes.get(1).action());
-        assertEquals(3, changes.get(1).linesChanged());
+        assertEquals(15, changes.get(1).linesChanged());
+        assertTrue(manager.getExecutedCommands().stream().anyMatch(c -> c.contains("--numstat") && c.contains("abc123..HEAD")));
     }
 
     @Test
     void detectChangesIdentifiesCreatedFiles() {
-        var diffOutput = " src/main/NewFile.java (new) | 25 +++++++++++++\n" +
-                         " 1 file changed, 25 insertions(+)";
+        var diffOutput = ":000000 100644 0000000 aaa1111 A\0src/main/NewFile.java\0" +
+                         "25\t0\tsrc/main/NewFile.java\0";
 
         manager.setExitCode(0);
         manager.setGitOutput(diffOutput);
         var changes = manager.detectChanges("MISSION-001", "abc123", Path.of("/tmp/project"));
 
-        assertEquals(1, changes.size());
-        assertEquals("src/main/NewFile.java", changes.get(0).path());
-        assertEquals("created", changes.get(0).action());
-        assertEquals(25, changes.get(0).linesChanged());
+        assertEquals(List.of(new FileRecord("src/main/NewFile.java", "created", 25)), changes);
     }
 
     @Test
     void detectChangesIdentifiesDeletedFiles() {
-        var diffOutput = " src/old/Removed.java (gone) | 30 --------\n" +
-                         " 1 file changed, 30 deletions(-)";
+        var diffOutput = ":100644 000000 aaa1111 0000000 D\0src/old/Removed.java\0" +
+                         "0\t30\tsrc/old/Removed.java\0";
 
         manager.setExitCode(0);
         manager.setGitOutput(diffOutput);
         var changes = manager.detectChanges("MISSION-001", "abc123", Path.of("/tmp/project"));
 
-        assertEquals(1, changes.size());
-        assertEquals("src/old/Removed.java", changes.get(0).path());
-        assertEquals("deleted", changes.get(0).action());
-        assertEquals(30, changes.get(0).linesChanged());
+        assertEquals(List.of(new FileRecord("src/old/Removed.java", "deleted", 30)), changes);
     }
 
     @Test
-    void detectChangesMixedFileTypes() {
-        var diffOutput = " src/main/Foo.java           | 15 +++---\n" +
-                         " src/main/NewFile.java (new) | 25 ++++++++++\n" +
-                         " src/old/Gone.java (gone)    |  7 -------\n" +
-                         " 3 files changed, 30 insertions(+), 17 deletions(-)";
+    void detectChangesIdentifiesRenamedFiles() {
+        var diffOutput = ":100644 100644 aaa1111 aaa1111 R100\0src/Old.java\0src/New.java\0" +
+                         ":100644 100644 bbb2222 ccc3333 R087\0src/A.java\0src/B.java\0" +
+                         "0\t0\t\0src/Old.java\0src/New.java\0" +
+                         "2\t2\t\0src/A.java\0src/B.java\0";
 
         manager.setExitCode(0);
         manager.setGitOutput(diffOutput);
         var changes = manager.detectChanges("MISSION-001", "abc123", Path.of("/tmp/project"));
 
-        assertEquals(3, changes.size());
+        assertEquals(List.of(
+                new FileRecord("src/B.java", "renamed", 4, "src/A.java"),
+                new FileRecord("src/New.java", "renamed", 0, "src/Old.java")
+        ), changes);
+        assertTrue(changes.get(1).isPureRename());
+        assertFalse(changes.get(0).isPureRename());
+    }
 
-        assertEquals("modified", changes.get(0).action());
-        assertEquals("src/main/Foo.java", changes.get(0).path());
+    @Test
+    void detectChangesMixedFileTypes() {
+        var diffOutput = ":100644 100644 aaa1111 bbb2222 M\0src/main/Foo.java\0" +
+                         ":000000 100644 0000000 ccc3333 A\0src/main/NewFile.java\0" +
+                         ":100644 000000 ddd4444 0000000 D\0src/old/Gone.java\0" +
+                         ":100644 100644 eee5555 eee5555 M\0assets/logo.png\0" +
+                         "10\t5\tsrc/main/Foo.java\0" +
+                         "25\t0\tsrc/main/NewFile.java\0" +
+                         "0\t7\tsrc/old/Gone.java\0" +
+                         "-\t-\tassets/logo.png\0";
 
-        assertEquals("created", changes.get(1).action());
-        assertEquals("src/main/NewFile.java", changes.get(1).path());
+        manager.setExitCode(0);
+        manager.setGitOutput(diffOutput);
+        var changes = manager.detectChanges("MISSION-001", "abc123", Path.of("/tmp/project"));
 
-        assertEquals("deleted", changes.get(2).action());
-        assertEquals("src/old/Gone.java", changes.get(2).path());
+        assertEquals(List.of(
+                new FileRecord("assets/logo.png", "modified", 0),
+                new FileRecord("src/main/Foo.java", "modified", 15),
+                new FileRecord("src/main/NewFile.java", "created", 25),
+                new FileRecord("src/old/Gone.java", "deleted", 7)
+        ), changes);
     }
 
     @Test
@@ -349,25 +364,86 @@ class GitWorkspaceManagerTest {
                 "Should eventually merge after retry: " + commands);
     }
 
-    // --- parseDiffStat directly ---
+    // --- batched merge ---
 
     @Test
-    void parseDiffStatSkipsSummaryLine() {
-        var output = " 3 files changed, 10 insertions(+), 5 deletions(-)";
-        var results = manager.parseDiffStat(output);
+    void batchMergeFetchesOnceAndPushesAtomically() {
+        var batching = new TestableGitWorkspaceManager("https://github.com/example/project.git", true);
+        batching.setExitCode(0);
+        batching.mergeTaskBranches(List.of("TASK-002", "TASK-001"), "ghp_token", null);
+
+        var commands = batching.getExecutedCommands();
+        var fetches = commands.stream().filter(c -> c.startsWith("fetch")).toList();
+        assertEquals(1, fetches.size(), "Should fetch once: " + commands);
+        assertTrue(fetches.get(0).contains("refs/heads/worldmind/TASK-001")
+                && fetches.get(0).contains("refs/heads/worldmind/TASK-002"), "Should fetch all branches: " + fetches);
 
-        assertTrue(results.isEmpty());
+        var pushes = commands.stream().filter(c -> c.startsWith("push")).toList();
+        assertEquals(List.of("push --atomic origin main :refs/heads/worldmind/TASK-001 :refs/heads/worldmind/TASK-002"),
+                pushes, "Should land main and deletions in one push: " + commands);
+        assertTrue(commands.indexOf("merge temp-TASK-001 --no-ff -m merge task TASK-001")
+                < commands.indexOf("merge temp-TASK-002 --no-ff -m merge task TASK-002"), "Should merge in order: " + commands);
     }
 
     @Test
-    void parseDiffStatHandlesSingleFile() {
-        var output = " README.md | 2 +-";
-        var results = manager.parseDiffStat(output);
+    void batchMergeFallsBackToPerBranchFromFirstConflict() {
+        var batching = new TestableGitWorkspaceManager("https://github.com/example/project.git", true);
+        batching.setExitCodeSequence(List.of(
+                0,  // clone
+                0,  // config user.name
+                0,  // config user.email
+                0,  // checkout main
+                0,  // batched fetch
+                0,  // checkout main
+                0,  // reset --hard origin/main
+                // TASK-001 merges into the batch
+                0,  // checkout -B temp-TASK-001
+                0,  // rebase main
+                0,  // checkout main
+                0,  // merge temp-TASK-001
+                // TASK-002 conflicts
+                0,  // checkout -B temp-TASK-002
+                1,  // rebase main (conflict!)
+                0,  // rebase --abort
+                0,  // checkout main
+                0,  // push --atomic (TASK-001 only)
+                // TASK-002 per-branch
+                0,  // fetch origin main
+                0,  // checkout main
+                0,  // reset --hard origin/main
+                0,  // fetch TASK-002
+                0,  // checkout -B temp-TASK-002
+                0,  // rebase main
+                0,  // checkout main
+                0,  // merge temp-TASK-002
+                0,  // push main
+                0   // delete TASK-002
+        ));
+        var result = batching.mergeWaveBranches(List.of("TASK-001", "TASK-002"), "ghp_token", null);
 
-        assertEquals(1, results.size());
-        assertEquals("README.md", results.get(0).path());
-        assertEquals("modified", results.get(0).action());
-        assertEquals(2, results.get(0).linesChanged());
+        assertEquals(List.of("TASK-001", "TASK-002"), result.mergedIds());
+        var commands = batching.getExecutedCommands();
+        assertTrue(commands.contains("push --atomic origin main"), "Should land TASK-001 first: " + commands);
+        assertTrue(commands.contains("fetch origin refs/heads/worldmind/TASK-002:refs/remotes/origin/worldmind/TASK-002"),
+                "Should retry TASK-002 on its own: " + commands);
+        assertFalse(commands.stream().anyMatch(c -> c.contains("--delete")), "Wave merge keeps branches: " + commands);
+    }
+
+    @Test
+    void batchMergeRejectedPushMergesOneAtATime() {
+        var batching = new TestableGitWorkspaceManager("https://github.com/example/project.git", true);
+        batching.setExitCodeSequence(List.of(
+                0, 0, 0, 0,  // clone, config, config, checkout main
+                0, 0, 0,     // batched fetch, checkout main, reset
+                0, 0, 0, 0,  // TASK-001 checkout, rebase, checkout main, merge
+                1,           // push --atomic rejected (main moved)
+                0            // everything after succeeds
+        ));
+        var result = batching.mergeWaveBranches(List.of("TASK-001"), "ghp_token", null);
+
+        assertEquals(List.of("TASK-001"), result.mergedIds(), "Should not count the batch twice");
+        var commands = batching.getExecutedCommands();
+        assertTrue(commands.contains("push origin main"), "Should push per branch after rejection: " + commands);
     }
 
     // --- Worktree operations ---
@@ -448,6 +524,34 @@ class GitWorkspaceManagerTest {
                 "Should prune after failed remove: " + commands);
     }
 
+    @Test
+    void checkoutTaskBranchFallsBackToExistingBranch() {
+        manager.setExitCodeSequence(List.of(1, 0));  // -b fails, plain checkout succeeds
+
+        assertTrue(manager.checkoutTaskBranch(Path.of("/tmp/pool-1"), "TASK-001"));
+        assertEquals(List.of("checkout -b worldmind/TASK-001", "checkout worldmind/TASK-001"),
+                manager.getExecutedCommands());
+    }
+
+    @Test
+    void resetWorktreeFetchesDetachesResetsAndCleans() {
+        manager.setExitCode(0);
+
+        assertTrue(manager.resetWorktree(Path.of("/tmp/pool-1"), "main"));
+        assertEquals(List.of(
+                "fetch origin +refs/heads/main:refs/remotes/origin/main",
+                "checkout --detach",
+                "reset --hard origin/main",
+                "clean -fdx"), manager.getExecutedCommands());
+    }
+
+    @Test
+    void resetWorktreeFailsWhenResetFails() {
+        manager.setExitCodeSequence(List.of(0, 0, 1));  // fetch, detach, reset fails
+
+        assertFalse(manager.resetWorktree(Path.of("/tmp/pool-1"), "main"));
+    }
+
     @Test
     void listWorktreesParsesPorcelainOutput() {
         manager.setMockDirectoryExists(true);
@@ -554,6 +658,10 @@ class GitWorkspaceManagerTest {
             super(gitRemoteUrl);
         }
 
+        TestableGitWorkspaceManager(String gitRemoteUrl, boolean batchMerge) {
+            super(gitRemoteUrl, null, batchMerge);
+        }
+
         void setExitCode(int exitCode) {
             this.exitCode = exitCode;
             this.exitCodeSequence = null;
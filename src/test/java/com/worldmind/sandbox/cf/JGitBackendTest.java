@@ -0,0 +1,155 @@
+package com.worldmind.sandbox.cf;
+
+import com.worldmind.core.model.FileRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests that {@link JGitBackend} gives the same answers as {@link CliGitBackend} on real
+ * repositories, and falls back to it when JGit cannot handle a call.
+ */
+class JGitBackendTest {
+
+    @TempDir
+    Path tmp;
+
+    private Path repo;
+    private final List<String> cliCalls = new ArrayList<>();
+    private CliGitBackend cli;
+    private JGitBackend jgit;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assumeTrue(git(tmp, "--version").exitCode == 0, "git not available");
+        cli = new CliGitBackend(new CliGitBackend.Runner() {
+            @Override
+            public int run(Path workDir, String... args) {
+                cliCalls.add(String.join(" ", args));
+                return git(workDir, args).exitCode;
+            }
+
+            @Override
+            public String output(Path workDir, String... args) {
+                cliCalls.add(String.join(" ", args));
+                return git(workDir, args).output;
+            }
+        });
+        jgit = new JGitBackend(cli);
+
+        repo = tmp.resolve("repo");
+        Files.createDirectories(repo);
+        git(repo, "init", "--initial-branch=main");
+        commit(repo, "README.md", "hello\n");
+        commit(repo, "src/Old.java", "class Old {\n  int a;\n  int b;\n  int c;\n}\n");
+        commit(repo, "doomed.txt", "bye\n");
+    }
+
+    @Test
+    void diffMatchesCli() throws Exception {
+        String before = git(repo, "rev-parse", "HEAD").output.strip();
+        Files.writeString(repo.resolve("README.md"), "hello\nworld\n");
+        git(repo, "add", "README.md");
+        git(repo, "mv", "src/Old.java", "src/New.java");
+        git(repo, "rm", "-q", "doomed.txt");
+        commit(repo, "added.txt", "one\ntwo\n");
+
+        List<FileRecord> expected = cli.diff(repo, before, "HEAD");
+        cliCalls.clear();
+
+        assertEquals(expected, jgit.diff(repo, before, "HEAD"));
+        assertEquals(List.of(
+                new FileRecord("README.md", "modified", 1),
+                new FileRecord("added.txt", "created", 2),
+                new FileRecord("doomed.txt", "deleted", 1),
+                new FileRecord("src/New.java", "renamed", 0, "src/Old.java")), expected);
+        assertTrue(cliCalls.isEmpty(), "JGit should not fall back: " + cliCalls);
+    }
+
+    @Test
+    void mergeBaseMatchesCli() throws Exception {
+        String fork = git(repo, "rev-parse", "HEAD").output.strip();
+        git(repo, "checkout", "-q", "-b", "feature");
+        commit(repo, "feature.txt", "f\n");
+        git(repo, "checkout", "-q", "main");
+        commit(repo, "main.txt", "m\n");
+
+        assertEquals(fork, jgit.mergeBase(repo, "main", "feature"));
+        assertEquals(cli.mergeBase(repo, "main", "feature"), jgit.mergeBase(repo, "main", "feature"));
+    }
+
+    @Test
+    void deleteBranchRemovesLocalBranch() throws Exception {
+        git(repo, "branch", "temp-TASK-001");
+
+        assertTrue(jgit.deleteBranch(repo, "temp-TASK-001"));
+        assertNotEquals(0, git(repo, "rev-parse", "--verify", "--quiet", "temp-TASK-001").exitCode);
+    }
+
+    @Test
+    void fetchIntoBareRepositoryUpdatesAndPrunesRemoteRefs() throws Exception {
+        git(repo, "branch", "worldmind/TASK-001");
+        Path mirror = tmp.resolve("mirror.git");
+        Files.createDirectories(mirror);
+        git(mirror, "init", "--bare", "--quiet");
+        git(mirror, "remote", "add", "origin", repo.toString());
+
+        assertTrue(jgit.fetch(mirror, "origin", List.of(), true));
+        assertEquals(git(repo, "rev-parse", "main").output, git(mirror, "rev-parse", "origin/main").output);
+        assertEquals(0, git(mirror, "rev-parse", "--verify", "--quiet", "origin/worldmind/TASK-001").exitCode);
+
+        git(repo, "branch", "-D", "worldmind/TASK-001");
+        commit(repo, "later.txt", "later\n");
+        assertTrue(jgit.fetch(mirror, "origin", List.of(), true));
+        assertEquals(git(repo, "rev-parse", "main").output, git(mirror, "rev-parse", "origin/main").output);
+        assertNotEquals(0, git(mirror, "rev-parse", "--verify", "--quiet", "origin/worldmind/TASK-001").exitCode,
+                "Deleted branch should be pruned");
+    }
+
+    @Test
+    void fallsBackToCliWhenJGitCannotOpenRepository() {
+        Path notARepo = tmp.resolve("plain");
+
+        assertEquals(List.of(), jgit.diff(notARepo, "main", "HEAD"));
+        assertFalse(jgit.deleteBranch(notARepo, "main"));
+        assertEquals(List.of("diff --raw --numstat -z -M main..HEAD", "branch -D main"), cliCalls);
+    }
+
+    // --- helpers ---
+
+    private void commit(Path dir, String file, String content) throws IOException {
+        Path path = dir.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+        git(dir, "add", file);
+        git(dir, "-c", "user.name=Test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "add " + file);
+    }
+
+    private record GitResult(int exitCode, String output) {}
+
+    private static GitResult git(Path dir, String... args) {
+        var command = new ArrayList<String>();
+        command.add("git");
+        command.addAll(List.of(args));
+        try {
+            var process = new ProcessBuilder(command).directory(dir.toFile()).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            return new GitResult(process.waitFor(), output);
+        } catch (IOException e) {
+            return new GitResult(-1, "");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new GitResult(-1, "");
+        }
+    }
+}
@@ -27,24 +27,8 @@ export class SseConnection {
       console.log(`SSE connected to mission ${this.missionId}`)
     }
 
-    // Register all event type listeners
-    const eventTypes = [
-      'mission.created',
-      'mission.completed',
-      'task.started',
-      'task.fulfilled',
-      'task.progress',
-      'task.failed',
-      'sandbox.opened',
-      'quality_gate.denied',
-      'quality_gate.granted',
-      'wave.scheduled',
-      'wave.completed',
-      'wave.merged',
-      'task.phase',
-      'deployer.success',
-      'deployer.failed',
-    ]
+    // Register a listener for every event type the caller handles
+    const eventTypes = Object.keys(this.handlers)
 
     eventTypes.forEach(eventType => {
       this.eventSource?.addEventListener(eventType, (e: MessageEvent) => {
@@ -69,6 +69,7 @@ export interface FileRecord {
   action: string
   path: string
   linesChanged: number
+  previousPath?: string | null
 }
 
 export interface Classification {
@@ -91,6 +92,22 @@ export interface MissionMetrics {
   aggregateDurationMs: number
 }
 
+// A planned task as the model has written it, before the plan is finalized
+export interface DraftedTask {
+  id: string
+  agent?: string
+  description?: string
+  targetFiles?: string[]
+  dependencies?: string[]
+}
+
+// Spec sections and plan tasks streamed while the mission is specifying and planning.
+// Keyed by section name and task index, so a redrafted entry replaces the earlier one.
+export interface MissionDrafts {
+  sections: Record<string, unknown>
+  tasks: Record<number, DraftedTask>
+}
+
 export interface WorldmindEvent {
   eventType: string
   missionId: string
@@ -2,6 +2,18 @@ import { useEffect, useRef } from 'react'
 import { WorldmindEvent } from '../api/types'
 import { EVENT_COLORS } from '../utils/constants'
 
+// Batched events carry a list of per-task entries; show each as "TASK-001 (120s)"
+function formatPayloadValue(value: unknown): string {
+  if (Array.isArray(value)) {
+    return value
+      .map(item => item && typeof item === 'object' && 'taskId' in item
+        ? `${item.taskId}${'elapsedSeconds' in item ? ` (${item.elapsedSeconds}s)` : ''}`
+        : String(item))
+      .join(', ')
+  }
+  return String(value)
+}
+
 interface EventLogProps {
   events: WorldmindEvent[]
   connectionStatus: 'connected' | 'disconnected' | 'reconnecting'
@@ -52,7 +64,7 @@ export function EventLog({ events, connectionStatus }: EventLogProps) {
               )}
               {event.payload && Object.keys(event.payload).length > 0 && (
                 <span className="text-wm_text-muted truncate">
-                  {Object.entries(event.payload).map(([k, v]) => `${k}=${v}`).join(' ')}
+                  {Object.entries(event.payload).map(([k, v]) => `${k}=${formatPayloadValue(v)}`).join(' ')}
                 </span>
               )}
             </div>
@@ -2,7 +2,7 @@ import { useState, useEffect, useMemo } from 'react'
 import { useMission } from '../hooks/useMission'
 import { useSse } from '../hooks/useSse'
 import { apiClient } from '../api/client'
-import { MissionResponse, WorldmindEvent } from '../api/types'
+import { MissionDrafts, MissionResponse, WorldmindEvent } from '../api/types'
 import { StatusBadge } from './StatusBadge'
 import { TaskTimeline } from './TaskTimeline'
 import { TaskCard } from './TaskCard'
@@ -38,7 +38,11 @@ function ExecutingActivityBanner({ mission, events }: { mission: MissionResponse
   const failed = tasks.filter(t => t.status === 'FAILED').length
   const pending = tasks.length - running - completed - failed
 
-  const lastProgress = [...events].reverse().find(e => e.eventType === 'task.progress')
+  // Heartbeats arrive batched per mission; show the longest-running task's elapsed time
+  const lastProgress = [...events].reverse().find(e => e.eventType === 'tasks.progress')
+  const heartbeatSeconds = lastProgress
+    ? Math.max(...(lastProgress.payload?.tasks ?? []).map((t: { elapsedSeconds?: number }) => t.elapsedSeconds ?? 0), 0)
+    : null
   const lastEventTime = events.length > 0
     ? new Date(events[events.length - 1].timestamp).toLocaleTimeString('en-US', { hour12: false, hour: '2-digit', minute: '2-digit', second: '2-digit' })
     : null
@@ -83,8 +87,8 @@ function ExecutingActivityBanner({ mission, events }: { mission: MissionResponse
       {(mission.wave_count > 0 || lastEventTime) && (
         <div className="flex items-center gap-4 mt-3 pt-2 border-t border-blue-500/10 text-[10px] font-mono text-wm_text-muted">
           {mission.wave_count > 0 && <span>wave {mission.wave_count}</span>}
-          {lastProgress && (
-            <span>heartbeat {lastProgress.payload?.elapsedSeconds}s</span>
+          {heartbeatSeconds !== null && (
+            <span>heartbeat {heartbeatSeconds}s</span>
           )}
           {lastEventTime && <span>last event {lastEventTime}</span>}
         </div>
@@ -93,6 +97,42 @@ function ExecutingActivityBanner({ mission, events }: { mission: MissionResponse
   )
 }
 
+function draftText(content: unknown): string {
+  if (typeof content === 'string') return content
+  if (Array.isArray(content) && content.every(item => typeof item === 'string')) return content.join('\n')
+  return JSON.stringify(content, null, 2)
+}
+
+function DraftPreview({ drafts }: { drafts: MissionDrafts }) {
+  const sections = Object.entries(drafts.sections)
+  const tasks = Object.entries(drafts.tasks)
+    .sort(([a], [b]) => Number(a) - Number(b))
+    .map(([, task]) => task)
+  if (sections.length === 0 && tasks.length === 0) return null
+
+  return (
+    <div className="mt-4 space-y-3">
+      {sections.map(([section, content]) => (
+        <div key={section}>
+          <div className="text-[10px] font-mono uppercase tracking-wider text-wm_text-dim">{section}</div>
+          <div className="mt-1 text-xs text-wm_text-muted whitespace-pre-wrap">{draftText(content)}</div>
+        </div>
+      ))}
+      {tasks.length > 0 && (
+        <ul className="space-y-1">
+          {tasks.map(task => (
+            <li key={task.id} className="text-xs font-mono text-wm_text-muted">
+              <span className="text-wm_text-secondary">{task.id}</span>
+              {task.agent && <span className="text-cyan-400/80"> [{task.agent}]</span>}
+              {task.description && <span> {task.description}</span>}
+            </li>
+          ))}
+        </ul>
+      )}
+    </div>
+  )
+}
+
 function ErrorPanel({ errors, status }: { errors: string[]; status: string }) {
   const isOldCompleted = status === 'COMPLETED'
   const [expanded, setExpanded] = useState(!isOldCompleted)
@@ -130,7 +170,7 @@ function ErrorPanel({ errors, status }: { errors: string[]; status: string }) {
 
 export function MissionDetail({ missionId }: MissionDetailProps) {
   const { mission, loading, error, refresh } = useMission(missionId)
-  const { events, connectionStatus } = useSse(missionId, refresh)
+  const { events, taskLogs, drafts, connectionStatus } = useSse(missionId, refresh)
   const [retrying, setRetrying] = useState(false)
 
   const handleRetryTask = async (taskId: string) => {
@@ -257,6 +297,7 @@ export function MissionDetail({ missionId }: MissionDetailProps) {
               </div>
             </div>
           </div>
+          <DraftPreview drafts={drafts} />
         </div>
       )}
 
@@ -283,6 +324,7 @@ export function MissionDetail({ missionId }: MissionDetailProps) {
                 key={task.id}
                 task={task}
                 events={events.filter(e => e.taskId === task.id)}
+                log={taskLogs[task.id]}
                 onRetry={isTerminal ? handleRetryTask : undefined}
                 index={idx}
                 total={codeTasks.length}
@@ -309,6 +351,7 @@ export function MissionDetail({ missionId }: MissionDetailProps) {
                 key={task.id}
                 task={task}
                 events={events.filter(e => e.taskId === task.id)}
+                log={taskLogs[task.id]}
                 onRetry={isTerminal ? handleRetryTask : undefined}
               />
             ))}
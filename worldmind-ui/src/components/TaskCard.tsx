@@ -385,6 +385,29 @@ function FailureReason({ events }: { events: WorldmindEvent[] }) {
   )
 }
 
+/* ── Live agent output ─────────────────────────────────────────────── */
+
+function LiveOutput({ log }: { log?: string }) {
+  const [showOutput, setShowOutput] = useState(false)
+  if (!log) return null
+
+  return (
+    <div className="mt-2">
+      <button
+        onClick={() => setShowOutput(!showOutput)}
+        className="text-[10px] font-mono text-blue-400/70 hover:text-blue-400 transition-colors"
+      >
+        {showOutput ? '\u25BE' : '\u25B8'} live output
+      </button>
+      {showOutput && (
+        <pre className="mt-1.5 text-[10px] font-mono text-wm_text-secondary bg-wm-bg rounded p-2 max-h-60 overflow-auto whitespace-pre-wrap break-words">
+          {log}
+        </pre>
+      )}
+    </div>
+  )
+}
+
 /* ── Quality score badge ───────────────────────────────────────────── */
 
 function QualityScore({ score, summary }: { score: number | null; summary: string | null }) {
@@ -406,12 +429,13 @@ function QualityScore({ score, summary }: { score: number | null; summary: strin
 interface TaskCardProps {
   task: TaskResponse
   events: WorldmindEvent[]
+  log?: string
   onRetry?: (id: string) => void
   index?: number
   total?: number
 }
 
-export function TaskCard({ task, events, onRetry, index, total }: TaskCardProps) {
+export function TaskCard({ task, events, log, onRetry, index, total }: TaskCardProps) {
   const [expanded, setExpanded] = useState(false)
   const accent = AGENT_ACCENT[task.agent] || '#6B7280'
   const liveElapsed = useLiveElapsed(events, task.status)
@@ -463,6 +487,7 @@ export function TaskCard({ task, events, onRetry, index, total }: TaskCardProps)
         <PhasePipeline task={task} events={events} />
         <DeployerPipeline task={task} events={events} />
         <FailureReason events={events} />
+        <LiveOutput log={log} />
         {task.agent === 'DEPLOYER' && <DeploymentUrl events={events} task={task} />}
 
         <div className="flex items-center gap-3 text-[10px] text-wm_text-muted flex-wrap">
@@ -499,9 +524,11 @@ export function TaskCard({ task, events, onRetry, index, total }: TaskCardProps)
                 {task.files_affected.map((file, idx) => (
                   <div key={idx} className="text-[10px] font-mono text-wm_text-muted bg-wm-bg rounded px-2 py-0.5 flex items-center gap-2">
                     <span className="text-agent-tester">{file.action}</span>
-                    <span className="text-wm_text-muted truncate">{file.path}</span>
+                    <span className="text-wm_text-muted truncate">
+                      {file.previousPath ? `${file.previousPath} \u2192 ${file.path}` : file.path}
+                    </span>
                     {file.linesChanged > 0 && (
-                      <span className="text-wm_text-muted shrink-0">+{file.linesChanged}</span>
+                      <span className="text-wm_text-muted shrink-0">&plusmn;{file.linesChanged}</span>
                     )}
                   </div>
                 ))}
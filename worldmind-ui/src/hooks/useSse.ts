@@ -1,6 +1,6 @@
 import { useState, useEffect, useCallback } from 'react'
 import { SseConnection } from '../api/sse'
-import { WorldmindEvent } from '../api/types'
+import { MissionDrafts, WorldmindEvent } from '../api/types'
 
 // Only refresh mission state on events that represent a real state change.
 // Progress and phase events are high-frequency and don't change mission structure,
@@ -19,8 +19,16 @@ const REFRESH_TRIGGERING_EVENTS = new Set([
   'deployer.failed',
 ])
 
+// Live agent output arrives as task.log chunks (up to one per task per second). It is kept
+// per task and capped, rather than appended to the event log.
+const MAX_TASK_LOG_CHARS = 16_000
+
+const NO_DRAFTS: MissionDrafts = { sections: {}, tasks: {} }
+
 export function useSse(missionId: string | null, onRefresh?: () => void) {
   const [events, setEvents] = useState<WorldmindEvent[]>([])
+  const [taskLogs, setTaskLogs] = useState<Record<string, string>>({})
+  const [drafts, setDrafts] = useState<MissionDrafts>(NO_DRAFTS)
   const [connectionStatus, setConnectionStatus] = useState<'connected' | 'disconnected' | 'reconnecting'>('disconnected')
   const [sseConnection] = useState(() => new SseConnection())
 
@@ -33,7 +41,34 @@ export function useSse(missionId: string | null, onRefresh?: () => void) {
     }
   }, [onRefresh])
 
+  const addTaskLog = useCallback((event: WorldmindEvent) => {
+    const taskId = event.taskId
+    const text = event.payload?.text as string | undefined
+    if (!taskId || !text) return
+    setTaskLogs(prev => {
+      const log = (prev[taskId] ?? '') + text
+      return { ...prev, [taskId]: log.length > MAX_TASK_LOG_CHARS ? log.slice(-MAX_TASK_LOG_CHARS) : log }
+    })
+  }, [])
+
+  // A retried or escalated LLM call may draft the same section or task again; the later
+  // draft replaces the earlier one.
+  const addDraftedSection = useCallback((event: WorldmindEvent) => {
+    const section = event.payload?.section as string | undefined
+    if (!section) return
+    setDrafts(prev => ({ ...prev, sections: { ...prev.sections, [section]: event.payload.content } }))
+  }, [])
+
+  const addDraftedTask = useCallback((event: WorldmindEvent) => {
+    const index = event.payload?.index as number | undefined
+    if (index === undefined || !event.taskId) return
+    const task = { ...(event.payload.task ?? {}), id: event.taskId }
+    setDrafts(prev => ({ ...prev, tasks: { ...prev.tasks, [index]: task } }))
+  }, [])
+
   useEffect(() => {
+    setTaskLogs({})
+    setDrafts(NO_DRAFTS)
     if (!missionId) {
       setEvents([])
       setConnectionStatus('disconnected')
@@ -48,6 +83,10 @@ export function useSse(missionId: string | null, onRefresh?: () => void) {
       'task.fulfilled': addEvent,
       'task.failed': addEvent,
       'task.progress': addEvent,
+      'tasks.progress': addEvent,
+      'task.log': addTaskLog,
+      'spec.section_drafted': addDraftedSection,
+      'plan.task_drafted': addDraftedTask,
       'task.phase': addEvent,
       'sandbox.opened': addEvent,
       'quality_gate.denied': addEvent,
@@ -70,7 +109,7 @@ export function useSse(missionId: string | null, onRefresh?: () => void) {
       clearInterval(statusInterval)
       sseConnection.disconnect()
     }
-  }, [missionId, sseConnection, addEvent])
+  }, [missionId, sseConnection, addEvent, addTaskLog, addDraftedSection, addDraftedTask])
 
-  return { events, connectionStatus }
+  return { events, taskLogs, drafts, connectionStatus }
 }
@@ -44,6 +44,7 @@ export const EVENT_COLORS = {
   'task.fulfilled': 'text-emerald-400',
   'task.failed': 'text-red-400',
   'task.progress': 'text-wm_text-secondary',
+  'tasks.progress': 'text-wm_text-secondary',
   'task.phase': 'text-indigo-400',
   'sandbox.opened': 'text-cyan-400',
   'quality_gate.denied': 'text-amber-400',